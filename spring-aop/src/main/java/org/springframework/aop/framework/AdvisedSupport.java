@@ -74,6 +74,9 @@ public class AdvisedSupport extends ProxyConfig implements Advised {
 	/** Cache with Method as key and advisor chain List as value. */
 	private transient Map<MethodCacheKey, List<Object>> methodCache;
 
+	/** Cache with Method as key and precompiled interceptor chain as value. */
+	private transient Map<MethodCacheKey, CompiledInterceptorChain> compiledChainCache;
+
 	/**
 	 * Interfaces to be implemented by the proxy. Held in List to keep the order
 	 * of registration, to create JDK proxy with specified order of interfaces.
@@ -98,6 +101,7 @@ public class AdvisedSupport extends ProxyConfig implements Advised {
 	 */
 	public AdvisedSupport() {
 		this.methodCache = new ConcurrentHashMap<>(32);
+		this.compiledChainCache = new ConcurrentHashMap<>(32);
 	}
 
 	/**
@@ -484,11 +488,32 @@ public class AdvisedSupport extends ProxyConfig implements Advised {
 		return cached;
 	}
 
+	/**
+	 * Determine the precompiled interceptor chain for the given method,
+	 * based on this configuration.
+	 * @param method the proxied method
+	 * @param targetClass the target class
+	 * @return the compiled chain for the method
+	 * @since 5.2
+	 * @see #setPrecompileInterceptorChains
+	 */
+	CompiledInterceptorChain getCompiledInterceptorChain(Method method, @Nullable Class<?> targetClass) {
+		MethodCacheKey cacheKey = new MethodCacheKey(method);
+		CompiledInterceptorChain cached = this.compiledChainCache.get(cacheKey);
+		if (cached == null) {
+			cached = CompiledInterceptorChain.compile(
+					method, targetClass, getInterceptorsAndDynamicInterceptionAdvice(method, targetClass));
+			this.compiledChainCache.put(cacheKey, cached);
+		}
+		return cached;
+	}
+
 	/**
 	 * Invoked when advice has changed.
 	 */
 	protected void adviceChanged() {
 		this.methodCache.clear();
+		this.compiledChainCache.clear();
 	}
 
 	/**
@@ -549,6 +574,7 @@ public class AdvisedSupport extends ProxyConfig implements Advised {
 
 		// Initialize transient fields.
 		this.methodCache = new ConcurrentHashMap<>(32);
+		this.compiledChainCache = new ConcurrentHashMap<>(32);
 	}
 
 
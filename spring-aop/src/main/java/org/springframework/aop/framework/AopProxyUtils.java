@@ -248,4 +248,13 @@ public abstract class AopProxyUtils {
 		return arguments;
 	}
 
+	/**
+	 * Clear the shared cache of invoker classes generated for the target
+	 * classes of AOP proxies, releasing references to those classes.
+	 * @since 5.2
+	 */
+	public static void clearCache() {
+		CompiledInterceptorChain.clearCache();
+	}
+
 }
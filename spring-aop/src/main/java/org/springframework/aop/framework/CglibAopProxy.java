@@ -24,6 +24,7 @@ import org.springframework.aop.*;
 import org.springframework.aop.support.AopUtils;
 import org.springframework.cglib.core.ClassGenerator;
 import org.springframework.cglib.core.CodeGenerationException;
+import org.springframework.cglib.core.PersistentGeneratorStrategy;
 import org.springframework.cglib.core.SpringNamingPolicy;
 import org.springframework.cglib.proxy.*;
 import org.springframework.cglib.transform.impl.UndeclaredThrowableStrategy;
@@ -166,15 +167,18 @@ class CglibAopProxy implements AopProxy, Serializable {
 			// Configure CGLIB Enhancer...
             // 配置 CGLIB Enhancer 对象。关于每个属性的用途，胖友可以看看 CGLIB 相应的文章。例如：https://www.jianshu.com/p/c42b3feecb09
 			Enhancer enhancer = createEnhancer();
+			boolean reloadable = false;
 			if (classLoader != null) {
 				enhancer.setClassLoader(classLoader);
 				if (classLoader instanceof SmartClassLoader &&
 						((SmartClassLoader) classLoader).isClassReloadable(proxySuperClass)) {
 					enhancer.setUseCache(false);
+					reloadable = true;
 				}
 			}
+			Class<?>[] proxyInterfaces = AopProxyUtils.completeProxiedInterfaces(this.advised);
 			enhancer.setSuperclass(proxySuperClass); // 设置被代理类
-			enhancer.setInterfaces(AopProxyUtils.completeProxiedInterfaces(this.advised)); // 设置接口
+			enhancer.setInterfaces(proxyInterfaces); // 设置接口
 			enhancer.setNamingPolicy(SpringNamingPolicy.INSTANCE); // 设置命名策略。ps：感兴趣可以点击去看下。
 			enhancer.setStrategy(new ClassLoaderAwareUndeclaredThrowableStrategy(classLoader));
 
@@ -189,6 +193,15 @@ class CglibAopProxy implements AopProxy, Serializable {
 					this.advised.getConfigurationOnlyCopy(), this.fixedInterceptorMap, this.fixedInterceptorOffset));
 			enhancer.setCallbackTypes(types);
 
+			// Reuse persisted proxy classes, unless the target class may get reloaded
+			String cacheLocation = PersistentGeneratorStrategy.getCacheLocation();
+			if (cacheLocation != null && !reloadable) {
+				PersistentGeneratorStrategy strategy = new PersistentGeneratorStrategy(
+						new ClassLoaderAwareUndeclaredThrowableStrategy(classLoader), cacheLocation);
+				enhancer.setStrategy(strategy);
+				enhancer.setNamingPolicy(strategy.getNamingPolicy());
+			}
+
 			// Generate the proxy class and create a proxy instance.
             // 生成代理类
             // 生成代理对象
@@ -690,9 +703,20 @@ class CglibAopProxy implements AopProxy, Serializable {
 				// Get as late as possible to minimize the time we "own" the target, in case it comes from a pool...
 				target = targetSource.getTarget();
 				Class<?> targetClass = (target != null ? target.getClass() : null);
+				Object retVal;
+				if (this.advised.precompileInterceptorChains) {
+					// Proceed through the precompiled interception chain for this method.
+					CompiledInterceptorChain compiledChain = this.advised.getCompiledInterceptorChain(method, targetClass);
+					if (compiledChain.isEmpty() && Modifier.isPublic(method.getModifiers())) {
+						retVal = methodProxy.invoke(target, compiledChain.adaptArguments(args));
+					}
+					else {
+						retVal = new CompiledMethodInvocation(proxy, target, args, targetClass, compiledChain).proceed();
+					}
+					return processReturnType(proxy, target, method, retVal);
+				}
                 // 获得当前方法拦截的拦截器链
                 List<Object> chain = this.advised.getInterceptorsAndDynamicInterceptionAdvice(method, targetClass);
-				Object retVal;
 				// Check whether we only have one InvokerInterceptor: that is,
 				// no real advice, but just reflective invocation of the target.
 				if (chain.isEmpty() && Modifier.isPublic(method.getModifiers())) {
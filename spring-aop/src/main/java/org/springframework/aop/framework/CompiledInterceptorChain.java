@@ -0,0 +1,249 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aop.framework;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.List;
+import java.util.Map;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.aop.MethodMatcher;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.cglib.reflect.FastClass;
+import org.springframework.core.BridgeMethodResolver;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ConcurrentReferenceHashMap;
+
+/**
+ * Interceptor chain for a specific proxied method, precompiled from the
+ * advisor chain once so that invocations need no further preparation.
+ *
+ * <p>Interceptors are held in an array, with dynamic method matchers resolved
+ * upfront instead of being detected per interceptor on every call. The target
+ * method is invoked through a class generated with CGLIB's {@link FastClass}
+ * per target class rather than through reflection, falling back to reflection
+ * for non-public methods, for a different target class than the chain was
+ * compiled for, and for classes that no invoker class can be generated for.
+ *
+ * @since 5.2
+ * @see ProxyConfig#setPrecompileInterceptorChains
+ * @see AdvisedSupport#getCompiledInterceptorChain
+ * @see CompiledMethodInvocation
+ */
+final class CompiledInterceptorChain {
+
+	private static final Log logger = LogFactory.getLog(CompiledInterceptorChain.class);
+
+	/**
+	 * Marker for target classes that no invoker class can be generated for.
+	 */
+	private static final Object NO_FAST_CLASS = new Object();
+
+	private static final Map<Class<?>, Object> fastClassCache = new ConcurrentReferenceHashMap<>(64);
+
+
+	private final Method method;
+
+	private final boolean varArgs;
+
+	private final MethodInterceptor[] interceptors;
+
+	/**
+	 * Dynamic method matchers per interceptor, or {@code null} if
+	 * all interceptors apply statically.
+	 */
+	@Nullable
+	private final MethodMatcher[] dynamicMethodMatchers;
+
+	@Nullable
+	private final Class<?> targetClass;
+
+	@Nullable
+	private final FastClass fastClass;
+
+	private final int fastClassIndex;
+
+
+	private CompiledInterceptorChain(Method method, MethodInterceptor[] interceptors,
+			@Nullable MethodMatcher[] dynamicMethodMatchers, @Nullable Class<?> targetClass,
+			@Nullable FastClass fastClass, int fastClassIndex) {
+
+		this.method = method;
+		this.varArgs = method.isVarArgs();
+		this.interceptors = interceptors;
+		this.dynamicMethodMatchers = dynamicMethodMatchers;
+		this.targetClass = targetClass;
+		this.fastClass = fastClass;
+		this.fastClassIndex = fastClassIndex;
+	}
+
+
+	/**
+	 * Return the proxied method, with bridge methods resolved.
+	 */
+	public Method getMethod() {
+		return this.method;
+	}
+
+	/**
+	 * Return whether the method is not advised at all.
+	 */
+	public boolean isEmpty() {
+		return (this.interceptors.length == 0);
+	}
+
+	/**
+	 * Return the number of interceptors in this chain.
+	 */
+	public int size() {
+		return this.interceptors.length;
+	}
+
+	/**
+	 * Return the interceptor at the given position in this chain.
+	 */
+	public MethodInterceptor getInterceptor(int index) {
+		return this.interceptors[index];
+	}
+
+	/**
+	 * Return the dynamic method matcher of the interceptor at the given position,
+	 * or {@code null} if the interceptor applies statically.
+	 */
+	@Nullable
+	public MethodMatcher getDynamicMethodMatcher(int index) {
+		return (this.dynamicMethodMatchers != null ? this.dynamicMethodMatchers[index] : null);
+	}
+
+	/**
+	 * Adapt the given arguments to the proxied method, if necessary.
+	 * @see AopProxyUtils#adaptArgumentsIfNecessary
+	 */
+	public Object[] adaptArguments(@Nullable Object[] arguments) {
+		if (arguments == null) {
+			return new Object[0];
+		}
+		return (this.varArgs ? AopProxyUtils.adaptArgumentsIfNecessary(this.method, arguments) : arguments);
+	}
+
+	/**
+	 * Invoke the target method on the given target, directly through the
+	 * generated invoker class if possible, or through reflection otherwise.
+	 * @param target the target object
+	 * @param arguments the arguments for the method
+	 * @return the invocation result, if any
+	 * @throws Throwable if thrown by the target method
+	 */
+	@Nullable
+	public Object invokeJoinpoint(@Nullable Object target, Object[] arguments) throws Throwable {
+		FastClass fastClass = this.fastClass;
+		if (fastClass != null && target != null && target.getClass() == this.targetClass) {
+			try {
+				return fastClass.invoke(this.fastClassIndex, target, arguments);
+			}
+			catch (InvocationTargetException ex) {
+				throw ex.getTargetException();
+			}
+		}
+		return AopUtils.invokeJoinpointUsingReflection(target, this.method, arguments);
+	}
+
+
+	/**
+	 * Compile the given advisor chain for the given method.
+	 * @param method the proxied method
+	 * @param targetClass the target class
+	 * @param chain the MethodInterceptors and InterceptorAndDynamicMethodMatchers
+	 * as determined by the AdvisorChainFactory
+	 * @return the compiled interceptor chain
+	 */
+	static CompiledInterceptorChain compile(Method method, @Nullable Class<?> targetClass, List<Object> chain) {
+		MethodInterceptor[] interceptors = new MethodInterceptor[chain.size()];
+		MethodMatcher[] dynamicMethodMatchers = null;
+		for (int i = 0; i < interceptors.length; i++) {
+			Object interceptorOrInterceptionAdvice = chain.get(i);
+			if (interceptorOrInterceptionAdvice instanceof InterceptorAndDynamicMethodMatcher) {
+				InterceptorAndDynamicMethodMatcher dm = (InterceptorAndDynamicMethodMatcher) interceptorOrInterceptionAdvice;
+				if (dynamicMethodMatchers == null) {
+					dynamicMethodMatchers = new MethodMatcher[interceptors.length];
+				}
+				dynamicMethodMatchers[i] = dm.methodMatcher;
+				interceptors[i] = dm.interceptor;
+			}
+			else {
+				interceptors[i] = (MethodInterceptor) interceptorOrInterceptionAdvice;
+			}
+		}
+
+		Method bridgedMethod = BridgeMethodResolver.findBridgedMethod(method);
+		FastClass fastClass = null;
+		int fastClassIndex = -1;
+		if (targetClass != null && System.getSecurityManager() == null) {
+			Method targetMethod = AopUtils.getMostSpecificMethod(bridgedMethod, targetClass);
+			if (Modifier.isPublic(targetMethod.getModifiers()) && targetMethod.getDeclaringClass() != Object.class) {
+				fastClass = getFastClass(targetClass);
+				if (fastClass != null) {
+					fastClassIndex = fastClass.getIndex(targetMethod.getName(), targetMethod.getParameterTypes());
+					if (fastClassIndex < 0) {
+						fastClass = null;
+					}
+				}
+			}
+		}
+		return new CompiledInterceptorChain(
+				bridgedMethod, interceptors, dynamicMethodMatchers, targetClass, fastClass, fastClassIndex);
+	}
+
+	@Nullable
+	private static FastClass getFastClass(Class<?> targetClass) {
+		Object fastClass = fastClassCache.get(targetClass);
+		if (fastClass == null) {
+			fastClass = NO_FAST_CLASS;
+			if (Modifier.isPublic(targetClass.getModifiers()) && targetClass.getClassLoader() != null) {
+				try {
+					FastClass.Generator generator = new FastClass.Generator();
+					generator.setType(targetClass);
+					generator.setContextClass(targetClass);
+					generator.setClassLoader(targetClass.getClassLoader());
+					fastClass = generator.create();
+				}
+				catch (Throwable ex) {
+					if (logger.isDebugEnabled()) {
+						logger.debug("Failed to generate invoker class for " + targetClass.getName() +
+								" - falling back to reflection", ex);
+					}
+				}
+			}
+			fastClassCache.put(targetClass, fastClass);
+		}
+		return (fastClass != NO_FAST_CLASS ? (FastClass) fastClass : null);
+	}
+
+	/**
+	 * Clear the cache of generated invoker classes.
+	 * @see AopProxyUtils#clearCache()
+	 */
+	static void clearCache() {
+		fastClassCache.clear();
+	}
+
+}
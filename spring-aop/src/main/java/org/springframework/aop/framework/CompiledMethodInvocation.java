@@ -0,0 +1,92 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aop.framework;
+
+import java.util.Collections;
+
+import org.springframework.aop.MethodMatcher;
+import org.springframework.lang.Nullable;
+
+/**
+ * {@link ReflectiveMethodInvocation} variant that proceeds through a
+ * {@link CompiledInterceptorChain}: interceptors are taken from an array,
+ * dynamic method matchers are only evaluated where present, and the
+ * joinpoint is invoked through the chain's generated invoker class.
+ *
+ * @since 5.2
+ * @see ProxyConfig#setPrecompileInterceptorChains
+ */
+class CompiledMethodInvocation extends ReflectiveMethodInvocation {
+
+	private final CompiledInterceptorChain chain;
+
+	private final Class<?> matcherTargetClass;
+
+	/**
+	 * Index from 0 of the current interceptor we're invoking.
+	 * -1 until we invoke: then the current interceptor.
+	 */
+	private int currentInterceptorIndex = -1;
+
+
+	/**
+	 * Construct a new CompiledMethodInvocation with the given arguments.
+	 * @param proxy the proxy object that the invocation was made on
+	 * @param target the target object to invoke
+	 * @param arguments the arguments to invoke the method with
+	 * @param targetClass the target class, for MethodMatcher invocations
+	 * @param chain the compiled interceptor chain for the invoked method
+	 */
+	public CompiledMethodInvocation(Object proxy, @Nullable Object target, @Nullable Object[] arguments,
+			@Nullable Class<?> targetClass, CompiledInterceptorChain chain) {
+
+		super(proxy, target, chain.getMethod(), arguments, targetClass, Collections.emptyList());
+		this.chain = chain;
+		this.matcherTargetClass = (targetClass != null ? targetClass : chain.getMethod().getDeclaringClass());
+	}
+
+
+	@Override
+	@Nullable
+	public Object proceed() throws Throwable {
+		CompiledInterceptorChain chain = this.chain;
+		int index;
+		MethodMatcher dynamicMethodMatcher;
+		do {
+			// We start with an index of -1 and increment early.
+			if (this.currentInterceptorIndex == chain.size() - 1) {
+				return invokeJoinpoint();
+			}
+			index = ++this.currentInterceptorIndex;
+			dynamicMethodMatcher = chain.getDynamicMethodMatcher(index);
+			// Skip interceptors whose dynamic method matcher does not match.
+		}
+		while (dynamicMethodMatcher != null &&
+				!dynamicMethodMatcher.matches(this.method, this.matcherTargetClass, this.arguments));
+		return chain.getInterceptor(index).invoke(this);
+	}
+
+	/**
+	 * Invoke the joinpoint through the compiled chain's invoker.
+	 */
+	@Override
+	@Nullable
+	protected Object invokeJoinpoint() throws Throwable {
+		return this.chain.invokeJoinpoint(this.target, this.arguments);
+	}
+
+}
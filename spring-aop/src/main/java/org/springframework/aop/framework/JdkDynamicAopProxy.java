@@ -219,27 +219,39 @@ final class JdkDynamicAopProxy implements AopProxy, InvocationHandler /* 重要
 			target = targetSource.getTarget();
 			Class<?> targetClass = (target != null ? target.getClass() : null);
 
-			// Get the interception chain for this method.
-            // 获得当前方法拦截的拦截器链
-			List<Object> chain = this.advised.getInterceptorsAndDynamicInterceptionAdvice(method, targetClass);
-
-			// Check whether we have any advice. If we don't, we can fallback on direct
-			// reflective invocation of the target, and avoid creating a MethodInvocation.
-			if (chain.isEmpty()) {
-			    // 调用链为空，直接调用切点的方法
-				// We can skip creating a MethodInvocation: just invoke the target directly
-				// Note that the final invoker must be an InvokerInterceptor so we know it does
-				// nothing but a reflective operation on the target, and no hot swapping or fancy proxying.
-				Object[] argsToUse = AopProxyUtils.adaptArgumentsIfNecessary(method, args);
-				retVal = AopUtils.invokeJoinpointUsingReflection(target, method, argsToUse);
-			} else {
-			    // 创建 ReflectiveMethodInvocation 对象
-                // 将拦截器链封装到该对象，以便使其 proceed 方法执行时，进行拦截处理
-				// We need to create a method invocation...
-				invocation = new ReflectiveMethodInvocation(proxy, target, method, args, targetClass, chain);
-				// Proceed to the joinpoint through the interceptor chain.
-                // 执行拦截器和方法
-				retVal = invocation.proceed();
+			if (this.advised.precompileInterceptorChains) {
+				// Proceed through the precompiled interception chain for this method.
+				CompiledInterceptorChain compiledChain = this.advised.getCompiledInterceptorChain(method, targetClass);
+				if (compiledChain.isEmpty()) {
+					retVal = compiledChain.invokeJoinpoint(target, compiledChain.adaptArguments(args));
+				}
+				else {
+					retVal = new CompiledMethodInvocation(proxy, target, args, targetClass, compiledChain).proceed();
+				}
+			}
+			else {
+				// Get the interception chain for this method.
+	            // 获得当前方法拦截的拦截器链
+				List<Object> chain = this.advised.getInterceptorsAndDynamicInterceptionAdvice(method, targetClass);
+
+				// Check whether we have any advice. If we don't, we can fallback on direct
+				// reflective invocation of the target, and avoid creating a MethodInvocation.
+				if (chain.isEmpty()) {
+				    // 调用链为空，直接调用切点的方法
+					// We can skip creating a MethodInvocation: just invoke the target directly
+					// Note that the final invoker must be an InvokerInterceptor so we know it does
+					// nothing but a reflective operation on the target, and no hot swapping or fancy proxying.
+					Object[] argsToUse = AopProxyUtils.adaptArgumentsIfNecessary(method, args);
+					retVal = AopUtils.invokeJoinpointUsingReflection(target, method, argsToUse);
+				} else {
+				    // 创建 ReflectiveMethodInvocation 对象
+	                // 将拦截器链封装到该对象，以便使其 proceed 方法执行时，进行拦截处理
+					// We need to create a method invocation...
+					invocation = new ReflectiveMethodInvocation(proxy, target, method, args, targetClass, chain);
+					// Proceed to the joinpoint through the interceptor chain.
+	                // 执行拦截器和方法
+					retVal = invocation.proceed();
+				}
 			}
 
 			// Massage return value if necessary.
@@ -42,6 +42,8 @@ public class ProxyConfig implements Serializable {
 
 	boolean exposeProxy = false;
 
+	boolean precompileInterceptorChains = false;
+
 	private boolean frozen = false;
 
 
@@ -129,6 +131,30 @@ public class ProxyConfig implements Serializable {
 		return this.exposeProxy;
 	}
 
+	/**
+	 * Set whether proxies should precompile the interceptor chain for each
+	 * proxied method on first invocation. Default is "false".
+	 * <p>A precompiled chain holds its interceptors in an array with dynamic
+	 * method matchers resolved upfront, and invokes the target method through
+	 * a class generated per target class instead of through reflection.
+	 * This reduces the per-call overhead of deeply advised methods, at the
+	 * expense of generating an invoker class per target class. Advice changes
+	 * still take effect, discarding the precompiled chains.
+	 * @since 5.2
+	 */
+	public void setPrecompileInterceptorChains(boolean precompileInterceptorChains) {
+		this.precompileInterceptorChains = precompileInterceptorChains;
+	}
+
+	/**
+	 * Return whether proxies precompile the interceptor chain for each
+	 * proxied method.
+	 * @since 5.2
+	 */
+	public boolean isPrecompileInterceptorChains() {
+		return this.precompileInterceptorChains;
+	}
+
 	/**
 	 * Set whether this config should be frozen.
 	 * <p>When a config is frozen, no advice changes can be made. This is
@@ -156,6 +182,7 @@ public class ProxyConfig implements Serializable {
 		this.proxyTargetClass = other.proxyTargetClass;
 		this.optimize = other.optimize;
 		this.exposeProxy = other.exposeProxy;
+		this.precompileInterceptorChains = other.precompileInterceptorChains;
 		this.frozen = other.frozen;
 		this.opaque = other.opaque;
 	}
@@ -167,6 +194,7 @@ public class ProxyConfig implements Serializable {
 		sb.append("optimize=").append(this.optimize).append("; ");
 		sb.append("opaque=").append(this.opaque).append("; ");
 		sb.append("exposeProxy=").append(this.exposeProxy).append("; ");
+		sb.append("precompileInterceptorChains=").append(this.precompileInterceptorChains).append("; ");
 		sb.append("frozen=").append(this.frozen);
 		return sb.toString();
 	}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aop.framework;
+
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import org.springframework.cglib.core.PersistentGeneratorStrategy;
+import org.springframework.core.SmartClassLoader;
+import org.springframework.core.SpringProperties;
+import org.springframework.tests.aop.interceptor.NopInterceptor;
+import org.springframework.tests.sample.beans.TestBean;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for CGLIB proxies with a
+ * {@link PersistentGeneratorStrategy#CACHE_LOCATION_PROPERTY_NAME persistent class cache}.
+ *
+ * @since 5.2
+ */
+public class PersistentCglibProxyTests {
+
+	@Rule
+	public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private File location;
+
+
+	@Before
+	public void setCacheLocation() throws Exception {
+		this.location = this.temporaryFolder.newFolder();
+		SpringProperties.setProperty(PersistentGeneratorStrategy.CACHE_LOCATION_PROPERTY_NAME,
+				this.location.getAbsolutePath());
+	}
+
+	@After
+	public void clearCacheLocation() {
+		SpringProperties.setProperty(PersistentGeneratorStrategy.CACHE_LOCATION_PROPERTY_NAME, null);
+	}
+
+
+	@Test
+	public void proxyClassPersistedAndReused() {
+		NopInterceptor interceptor = new NopInterceptor();
+		TestBean first = createProxy(new TestBean("tb", 42), interceptor,
+				new URLClassLoader(new URL[0], getClass().getClassLoader()));
+		File file = new File(this.location, first.getClass().getName() + ".cglib");
+		assertTrue(file.isFile());
+		long lastModified = file.lastModified();
+
+		TestBean second = createProxy(new TestBean("tb", 42), interceptor,
+				new URLClassLoader(new URL[0], getClass().getClassLoader()));
+		assertNotSame(first.getClass(), second.getClass());
+		assertEquals(first.getClass().getName(), second.getClass().getName());
+		assertEquals(lastModified, file.lastModified());
+
+		assertEquals(42, second.getAge());
+		assertEquals(1, interceptor.getCount());
+	}
+
+	@Test
+	public void proxyClassPerConstructionInterceptionSetting() {
+		ClassLoader classLoader = new URLClassLoader(new URL[0], getClass().getClassLoader());
+		AdvisedSupport config = new AdvisedSupport();
+		config.setTarget(new TestBean("tb", 42));
+		config.setProxyTargetClass(true);
+		config.addAdvice(new NopInterceptor());
+		// ObjenesisCglibAopProxy keeps intercepting during construction, CglibAopProxy does not
+		Object intercepting = new ObjenesisCglibAopProxy(config).getProxy(classLoader);
+		Object nonIntercepting = new CglibAopProxy(config).getProxy(classLoader);
+		assertNotEquals(intercepting.getClass().getName(), nonIntercepting.getClass().getName());
+		assertEquals(2, this.location.list().length);
+	}
+
+	@Test
+	public void proxyClassForReloadableClassNotPersisted() {
+		createProxy(new TestBean("tb", 42), new NopInterceptor(),
+				new ReloadingClassLoader(getClass().getClassLoader()));
+		assertEquals(0, this.location.list().length);
+	}
+
+
+	private TestBean createProxy(TestBean target, NopInterceptor interceptor, ClassLoader classLoader) {
+		ProxyFactory pf = new ProxyFactory(target);
+		pf.setProxyTargetClass(true);
+		pf.addAdvice(interceptor);
+		return (TestBean) pf.getProxy(classLoader);
+	}
+
+
+	private static class ReloadingClassLoader extends URLClassLoader implements SmartClassLoader {
+
+		public ReloadingClassLoader(ClassLoader parent) {
+			super(new URL[0], parent);
+		}
+
+		@Override
+		public boolean isClassReloadable(Class<?> clazz) {
+			return true;
+		}
+	}
+
+}
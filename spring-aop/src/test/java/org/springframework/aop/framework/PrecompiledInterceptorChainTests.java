@@ -0,0 +1,220 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aop.framework;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.junit.Test;
+
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.DynamicMethodMatcherPointcut;
+import org.springframework.tests.aop.interceptor.NopInterceptor;
+import org.springframework.tests.sample.beans.ITestBean;
+import org.springframework.tests.sample.beans.TestBean;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for proxies with {@link ProxyConfig#setPrecompileInterceptorChains
+ * precompiled interceptor chains}.
+ *
+ * @since 5.2
+ */
+public class PrecompiledInterceptorChainTests {
+
+	@Test
+	public void interceptorsInvokedInOrderWithJdkProxy() {
+		List<String> invocations = new ArrayList<>();
+		ITestBean proxy = (ITestBean) createProxyFactory(new TestBean("tb", 42), false,
+				recordingInterceptor("first", invocations), recordingInterceptor("second", invocations)).getProxy();
+
+		assertEquals(42, proxy.getAge());
+		assertEquals("[first, second]", invocations.toString());
+	}
+
+	@Test
+	public void interceptorsInvokedInOrderWithCglibProxy() {
+		List<String> invocations = new ArrayList<>();
+		TestBean proxy = (TestBean) createProxyFactory(new TestBean("tb", 42), true,
+				recordingInterceptor("first", invocations), recordingInterceptor("second", invocations)).getProxy();
+
+		assertEquals(42, proxy.getAge());
+		assertEquals("[first, second]", invocations.toString());
+	}
+
+	@Test
+	public void unadvisedMethodInvokedDirectly() {
+		ProxyFactory pf = createProxyFactory(new TestBean("tb", 42), false);
+		ITestBean proxy = (ITestBean) pf.getProxy();
+		proxy.setAge(43);
+		assertEquals(43, proxy.getAge());
+	}
+
+	@Test
+	public void dynamicMethodMatcherEvaluatedPerInvocation() {
+		NopInterceptor nop = new NopInterceptor();
+		DynamicMethodMatcherPointcut pointcut = new DynamicMethodMatcherPointcut() {
+			@Override
+			public boolean matches(Method method, Class<?> targetClass, Object... args) {
+				return (args.length == 1 && Integer.valueOf(1).equals(args[0]));
+			}
+		};
+		ProxyFactory pf = createProxyFactory(new TestBean(), false);
+		pf.addAdvisor(new DefaultPointcutAdvisor(pointcut, nop));
+		ITestBean proxy = (ITestBean) pf.getProxy();
+
+		proxy.setAge(1);
+		proxy.setAge(2);
+		proxy.setAge(1);
+		assertEquals(2, nop.getCount());
+		assertEquals(1, proxy.getAge());
+	}
+
+	@Test
+	public void argumentsChangedByInterceptor() {
+		MethodInterceptor doubling = invocation -> {
+			Object[] args = invocation.getArguments();
+			if (args.length == 1 && args[0] instanceof Integer) {
+				args[0] = (Integer) args[0] * 2;
+			}
+			return invocation.proceed();
+		};
+		ITestBean proxy = (ITestBean) createProxyFactory(new TestBean(), false, doubling).getProxy();
+		proxy.setAge(21);
+		assertEquals(42, proxy.getAge());
+	}
+
+	@Test
+	public void targetExceptionPropagated() {
+		ITestBean proxy = (ITestBean) createProxyFactory(new TestBean(), false, new NopInterceptor()).getProxy();
+		try {
+			proxy.exceptional(new IllegalStateException("expected"));
+			fail("Should have thrown IllegalStateException");
+		}
+		catch (Throwable ex) {
+			assertTrue(ex instanceof IllegalStateException);
+			assertEquals("expected", ex.getMessage());
+		}
+	}
+
+	@Test
+	public void adviceChangeTakesEffect() {
+		ProxyFactory pf = createProxyFactory(new TestBean("tb", 42), false);
+		ITestBean proxy = (ITestBean) pf.getProxy();
+		assertEquals(42, proxy.getAge());
+
+		NopInterceptor nop = new NopInterceptor();
+		pf.addAdvice(nop);
+		assertEquals(42, proxy.getAge());
+		assertEquals(1, nop.getCount());
+
+		pf.removeAdvice(nop);
+		assertEquals(42, proxy.getAge());
+		assertEquals(1, nop.getCount());
+	}
+
+	@Test
+	public void nonPublicTargetClassInvokedThroughReflection() {
+		NopInterceptor nop = new NopInterceptor();
+		Greeter proxy = (Greeter) createProxyFactory(new PrivateGreeter(), false, nop).getProxy();
+		assertEquals("Hello, Juergen", proxy.greet("Juergen"));
+		assertEquals(1, nop.getCount());
+	}
+
+	@Test
+	public void varArgsAdapted() {
+		NopInterceptor nop = new NopInterceptor();
+		VarArgsJoiner proxy = (VarArgsJoiner) createProxyFactory(new PublicVarArgsJoiner(), false, nop).getProxy();
+		assertEquals("a,b", proxy.join("a", "b"));
+		assertEquals("", proxy.join());
+		assertEquals(2, nop.getCount());
+	}
+
+	@Test
+	public void compiledChainResolvesInterceptorsOnce() {
+		ProxyFactory pf = createProxyFactory(new TestBean(), false, new NopInterceptor(), new NopInterceptor());
+		Method method = ITestBean.class.getMethods()[0];
+		CompiledInterceptorChain chain = pf.getCompiledInterceptorChain(method, TestBean.class);
+		assertSame(chain, pf.getCompiledInterceptorChain(method, TestBean.class));
+		assertEquals(2, chain.size());
+		assertNull(chain.getDynamicMethodMatcher(0));
+	}
+
+	@Test
+	public void proxyInvocableAfterCacheCleared() {
+		ITestBean proxy = (ITestBean) createProxyFactory(new TestBean("tb", 42), false, new NopInterceptor()).getProxy();
+		assertEquals(42, proxy.getAge());
+		AopProxyUtils.clearCache();
+		assertEquals(42, proxy.getAge());
+		ITestBean other = (ITestBean) createProxyFactory(new TestBean("tb", 43), false, new NopInterceptor()).getProxy();
+		assertEquals(43, other.getAge());
+	}
+
+
+	private static ProxyFactory createProxyFactory(Object target, boolean proxyTargetClass,
+			MethodInterceptor... interceptors) {
+
+		ProxyFactory pf = new ProxyFactory(target);
+		pf.setProxyTargetClass(proxyTargetClass);
+		pf.setPrecompileInterceptorChains(true);
+		for (MethodInterceptor interceptor : interceptors) {
+			pf.addAdvice(interceptor);
+		}
+		return pf;
+	}
+
+	private static MethodInterceptor recordingInterceptor(String name, List<String> invocations) {
+		return invocation -> {
+			invocations.add(name);
+			return invocation.proceed();
+		};
+	}
+
+
+	public interface Greeter {
+
+		String greet(String name);
+	}
+
+
+	private static class PrivateGreeter implements Greeter {
+
+		@Override
+		public String greet(String name) {
+			return "Hello, " + name;
+		}
+	}
+
+
+	public interface VarArgsJoiner {
+
+		String join(String... values);
+	}
+
+
+	public static class PublicVarArgsJoiner implements VarArgsJoiner {
+
+		@Override
+		public String join(String... values) {
+			return String.join(",", values);
+		}
+	}
+
+}
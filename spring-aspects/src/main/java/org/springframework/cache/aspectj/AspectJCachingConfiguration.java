@@ -43,6 +43,9 @@ public class AspectJCachingConfiguration extends AbstractCachingConfiguration {
 	public AnnotationCacheAspect cacheAspect() {
 		AnnotationCacheAspect cacheAspect = AnnotationCacheAspect.aspectOf();
 		cacheAspect.configure(this.errorHandler, this.keyGenerator, this.cacheResolver, this.cacheManager);
+		if (this.enableCaching != null) {
+			cacheAspect.setCoalesceCacheMisses(this.enableCaching.getBoolean("coalesceCacheMisses"));
+		}
 		return cacheAspect;
 	}
 
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+
+/**
+ * Benchmarks for bean retrieval and type matching in {@link DefaultListableBeanFactory}.
+ * <p>Typically run with {@code "./gradlew :spring-beans:jmh"}.
+ *
+ * @since 5.2
+ */
+@BenchmarkMode(Mode.Throughput)
+public class DefaultListableBeanFactoryBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkState {
+
+		@Param({"100", "1000"})
+		public int beanCount;
+
+		public DefaultListableBeanFactory beanFactory;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.beanFactory = new DefaultListableBeanFactory();
+			for (int i = 0; i < this.beanCount; i++) {
+				this.beanFactory.registerBeanDefinition("filler" + i, new RootBeanDefinition(FillerBean.class));
+			}
+			this.beanFactory.registerBeanDefinition("singleton", new RootBeanDefinition(TargetBean.class));
+			RootBeanDefinition prototype = new RootBeanDefinition(PrototypeBean.class);
+			prototype.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+			this.beanFactory.registerBeanDefinition("prototype", prototype);
+			this.beanFactory.freezeConfiguration();
+			this.beanFactory.preInstantiateSingletons();
+		}
+	}
+
+	@Benchmark
+	public Object getSingletonByName(BenchmarkState state) {
+		return state.beanFactory.getBean("singleton");
+	}
+
+	@Benchmark
+	public Object getSingletonByType(BenchmarkState state) {
+		return state.beanFactory.getBean(TargetBean.class);
+	}
+
+	@Benchmark
+	public Object getPrototypeByName(BenchmarkState state) {
+		return state.beanFactory.getBean("prototype");
+	}
+
+	@Benchmark
+	public void getBeanNamesForType(BenchmarkState state, Blackhole bh) {
+		bh.consume(state.beanFactory.getBeanNamesForType(TargetBean.class));
+		bh.consume(state.beanFactory.getBeanNamesForType(Runnable.class));
+	}
+
+	/**
+	 * Type matching without eager init bypasses the frozen-configuration cache.
+	 */
+	@Benchmark
+	public String[] getBeanNamesForTypeUncached(BenchmarkState state) {
+		return state.beanFactory.getBeanNamesForType(TargetBean.class, true, false);
+	}
+
+
+	public static class FillerBean {
+	}
+
+
+	public static class TargetBean {
+	}
+
+
+	public static class PrototypeBean {
+	}
+
+}
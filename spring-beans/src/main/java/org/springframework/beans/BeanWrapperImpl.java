@@ -129,7 +129,7 @@ public class BeanWrapperImpl extends AbstractNestablePropertyAccessor implements
 	 * @param nestedPath the nested path of the object
 	 * @param parent the containing BeanWrapper (must not be {@code null})
 	 */
-	private BeanWrapperImpl(Object object, String nestedPath, BeanWrapperImpl parent) {
+	BeanWrapperImpl(Object object, String nestedPath, BeanWrapperImpl parent) {
 		super(object, nestedPath, parent);
 		setSecurityContext(parent.acc);
 	}
@@ -169,7 +169,7 @@ public class BeanWrapperImpl extends AbstractNestablePropertyAccessor implements
 	 * Obtain a lazily initializted CachedIntrospectionResults instance
 	 * for the wrapped object.
 	 */
-	private CachedIntrospectionResults getCachedIntrospectionResults() {
+	CachedIntrospectionResults getCachedIntrospectionResults() {
 		if (this.cachedIntrospectionResults == null) {
 			this.cachedIntrospectionResults = CachedIntrospectionResults.forClass(getWrappedClass());
 		}
@@ -261,9 +261,9 @@ public class BeanWrapperImpl extends AbstractNestablePropertyAccessor implements
 	}
 
 
-	private class BeanPropertyHandler extends PropertyHandler {
+	class BeanPropertyHandler extends PropertyHandler {
 
-		private final PropertyDescriptor pd;
+		final PropertyDescriptor pd;
 
 		public BeanPropertyHandler(PropertyDescriptor pd) {
 			super(pd.getPropertyType(), pd.getReadMethod() != null, pd.getWriteMethod() != null);
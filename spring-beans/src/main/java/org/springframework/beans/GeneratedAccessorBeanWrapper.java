@@ -0,0 +1,288 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.cglib.reflect.FastClass;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * {@link BeanWrapperImpl} variant that invokes property read and write methods
+ * through accessor classes generated per bean class, instead of through
+ * {@link Method#invoke} reflection.
+ *
+ * <p>Accessor classes are generated with CGLIB's {@link FastClass} on first
+ * access to a property of a given bean class and shared across all instances
+ * of this wrapper. Property resolution, nested paths, type conversion via
+ * {@link org.springframework.core.convert.ConversionService} or property
+ * editors, and error reporting are inherited from {@code BeanWrapperImpl}
+ * unchanged; only the actual method invocation differs.
+ *
+ * <p>Falls back to reflective invocation for methods that a generated accessor
+ * cannot reach (e.g. non-public methods), for classes that no accessor can be
+ * generated for, and when running under a {@link SecurityManager}.
+ *
+ * @since 5.2
+ * @see PropertyAccessorFactory#forGeneratedBeanPropertyAccess
+ * @see org.springframework.validation.DataBinder#initGeneratedBeanPropertyAccess()
+ */
+public class GeneratedAccessorBeanWrapper extends BeanWrapperImpl {
+
+	private static final Log logger = LogFactory.getLog(GeneratedAccessorBeanWrapper.class);
+
+	private static final Object[] NO_ARGS = new Object[0];
+
+	/**
+	 * Marker for bean classes that no accessor class can be generated for.
+	 */
+	private static final Object NO_ACCESSOR = new Object();
+
+	private static final Map<Class<?>, Object> accessorCache = new ConcurrentReferenceHashMap<>(64);
+
+
+	/**
+	 * Create a new GeneratedAccessorBeanWrapper with no wrapped object.
+	 * @see #setWrappedInstance
+	 */
+	public GeneratedAccessorBeanWrapper() {
+		super();
+	}
+
+	/**
+	 * Create a new GeneratedAccessorBeanWrapper for the given object.
+	 * @param object object wrapped by this BeanWrapper
+	 */
+	public GeneratedAccessorBeanWrapper(Object object) {
+		super(object);
+	}
+
+	/**
+	 * Create a new GeneratedAccessorBeanWrapper, wrapping a new instance of the specified class.
+	 * @param clazz class to instantiate and wrap
+	 */
+	public GeneratedAccessorBeanWrapper(Class<?> clazz) {
+		super(clazz);
+	}
+
+	/**
+	 * Create a new GeneratedAccessorBeanWrapper for the given object,
+	 * registering a nested path that the object is in.
+	 * @param object object wrapped by this BeanWrapper
+	 * @param nestedPath the nested path of the object
+	 * @param parent the containing BeanWrapper (must not be {@code null})
+	 */
+	GeneratedAccessorBeanWrapper(Object object, String nestedPath, GeneratedAccessorBeanWrapper parent) {
+		super(object, nestedPath, parent);
+	}
+
+
+	@Override
+	@Nullable
+	protected BeanPropertyHandler getLocalPropertyHandler(String propertyName) {
+		BeanPropertyHandler handler = super.getLocalPropertyHandler(propertyName);
+		if (handler == null || System.getSecurityManager() != null) {
+			return handler;
+		}
+		ClassAccessor accessor = getClassAccessor(getWrappedClass());
+		if (accessor == null) {
+			return handler;
+		}
+		return new GeneratedPropertyHandler(handler.pd, accessor, accessor.getPropertyInvoker(handler.pd));
+	}
+
+	@Override
+	protected GeneratedAccessorBeanWrapper newNestedPropertyAccessor(Object object, String nestedPath) {
+		return new GeneratedAccessorBeanWrapper(object, nestedPath, this);
+	}
+
+
+	@Nullable
+	private static ClassAccessor getClassAccessor(Class<?> beanClass) {
+		Object accessor = accessorCache.get(beanClass);
+		if (accessor == null) {
+			accessor = NO_ACCESSOR;
+			if (beanClass.getClassLoader() != null) {
+				try {
+					FastClass.Generator generator = new FastClass.Generator();
+					generator.setType(beanClass);
+					generator.setContextClass(beanClass);
+					generator.setClassLoader(beanClass.getClassLoader());
+					accessor = new ClassAccessor(generator.create());
+				}
+				catch (Throwable ex) {
+					if (logger.isDebugEnabled()) {
+						logger.debug("Failed to generate property accessor class for " +
+								beanClass.getName() + " - falling back to reflection", ex);
+					}
+				}
+			}
+			accessorCache.put(beanClass, accessor);
+		}
+		return (accessor != NO_ACCESSOR ? (ClassAccessor) accessor : null);
+	}
+
+	/**
+	 * Return a writer for the given property of the given bean class, invoking
+	 * the write method through the generated accessor class for the bean class
+	 * where possible, and through reflection otherwise.
+	 * <p>Allows for populating properties with values that do not require
+	 * conversion without creating a wrapper for each bean instance.
+	 * @param beanClass the bean class to write the property on
+	 * @param pd the property to write
+	 * @return the writer for the given property
+	 */
+	public static PropertyWriter getPropertyWriter(Class<?> beanClass, PropertyDescriptor pd) {
+		Method writeMethod = pd.getWriteMethod();
+		Assert.notNull(writeMethod, () -> "Property '" + pd.getName() + "' has no write method");
+		ClassAccessor accessor = (System.getSecurityManager() == null ? getClassAccessor(beanClass) : null);
+		if (accessor != null) {
+			int writeIndex = accessor.getPropertyInvoker(pd).writeIndex;
+			if (writeIndex >= 0) {
+				return (target, value) -> accessor.invoke(writeIndex, target, new Object[] {value});
+			}
+		}
+		if (pd instanceof GenericTypeAwarePropertyDescriptor) {
+			writeMethod = ((GenericTypeAwarePropertyDescriptor) pd).getWriteMethodForActualAccess();
+		}
+		Method methodToInvoke = writeMethod;
+		ReflectionUtils.makeAccessible(methodToInvoke);
+		return (target, value) -> methodToInvoke.invoke(target, value);
+	}
+
+	/**
+	 * Clear the cache of generated accessor classes.
+	 */
+	public static void clearCache() {
+		accessorCache.clear();
+	}
+
+
+	/**
+	 * Writer for a specific bean property.
+	 * @see #getPropertyWriter
+	 */
+	@FunctionalInterface
+	public interface PropertyWriter {
+
+		/**
+		 * Set the property on the given bean instance to the given value,
+		 * as is, without any conversion.
+		 * @param target the bean instance
+		 * @param value the new value
+		 * @throws java.lang.reflect.InvocationTargetException if the write method threw an exception
+		 * @throws Exception in case of any other invocation failure
+		 */
+		void setValue(Object target, @Nullable Object value) throws Exception;
+	}
+
+
+	/**
+	 * Generated accessor for a specific bean class, with the resolved
+	 * method indexes per property.
+	 */
+	private static class ClassAccessor {
+
+		private final FastClass fastClass;
+
+		private final Map<String, PropertyInvoker> propertyInvokers = new ConcurrentHashMap<>();
+
+		public ClassAccessor(FastClass fastClass) {
+			this.fastClass = fastClass;
+		}
+
+		public PropertyInvoker getPropertyInvoker(PropertyDescriptor pd) {
+			PropertyInvoker invoker = this.propertyInvokers.get(pd.getName());
+			if (invoker == null) {
+				Method writeMethod = pd.getWriteMethod();
+				if (writeMethod != null && pd instanceof GenericTypeAwarePropertyDescriptor) {
+					writeMethod = ((GenericTypeAwarePropertyDescriptor) pd).getWriteMethodForActualAccess();
+				}
+				invoker = new PropertyInvoker(getIndex(pd.getReadMethod()), getIndex(writeMethod));
+				this.propertyInvokers.put(pd.getName(), invoker);
+			}
+			return invoker;
+		}
+
+		private int getIndex(@Nullable Method method) {
+			return (method != null ? this.fastClass.getIndex(method.getName(), method.getParameterTypes()) : -1);
+		}
+
+		public Object invoke(int index, Object target, Object[] args) throws Exception {
+			return this.fastClass.invoke(index, target, args);
+		}
+	}
+
+
+	/**
+	 * Method indexes for reading and writing a specific property,
+	 * or -1 if the method is not accessible through the generated class.
+	 */
+	private static class PropertyInvoker {
+
+		final int readIndex;
+
+		final int writeIndex;
+
+		public PropertyInvoker(int readIndex, int writeIndex) {
+			this.readIndex = readIndex;
+			this.writeIndex = writeIndex;
+		}
+	}
+
+
+	class GeneratedPropertyHandler extends BeanPropertyHandler {
+
+		private final ClassAccessor accessor;
+
+		private final PropertyInvoker invoker;
+
+		public GeneratedPropertyHandler(PropertyDescriptor pd, ClassAccessor accessor, PropertyInvoker invoker) {
+			super(pd);
+			this.accessor = accessor;
+			this.invoker = invoker;
+		}
+
+		@Override
+		public Object getValue() throws Exception {
+			if (this.invoker.readIndex < 0) {
+				return super.getValue();
+			}
+			return this.accessor.invoke(this.invoker.readIndex, getWrappedInstance(), NO_ARGS);
+		}
+
+		@Override
+		public void setValue(@Nullable Object value) throws Exception {
+			if (this.invoker.writeIndex < 0) {
+				super.setValue(value);
+			}
+			else {
+				this.accessor.invoke(this.invoker.writeIndex, getWrappedInstance(), new Object[] {value});
+			}
+		}
+	}
+
+}
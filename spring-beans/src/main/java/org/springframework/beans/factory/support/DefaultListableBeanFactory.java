@@ -18,6 +18,7 @@ package org.springframework.beans.factory.support;
 
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.BeansException;
+import org.springframework.beans.PropertyValue;
 import org.springframework.beans.TypeConverter;
 import org.springframework.beans.factory.*;
 import org.springframework.beans.factory.config.*;
@@ -37,6 +38,9 @@ import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Stream;
 
 /**
@@ -107,6 +111,10 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 	@Nullable
 	private Comparator<Object> dependencyComparator;
 
+	/** Optional Executor for pre-instantiating independent singletons concurrently. */
+	@Nullable
+	private Executor bootstrapExecutor;
+
 	/** Resolver to use for checking if a bean definition is an autowire candidate. */
 	private AutowireCandidateResolver autowireCandidateResolver = new SimpleAutowireCandidateResolver();
 
@@ -238,6 +246,47 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		return this.dependencyComparator;
 	}
 
+	/**
+	 * Set an {@link Executor} for pre-instantiating non-lazy singletons concurrently.
+	 * <p>Default is none, creating all singletons one after another on the thread
+	 * calling {@link #preInstantiateSingletons()}. If specified, singletons are
+	 * scheduled on the given Executor once all of their declared dependencies
+	 * (depends-on, factory bean, bean references in constructor arguments and
+	 * properties, as well as dependencies registered so far) have been created,
+	 * so that independent parts of the dependency graph get instantiated in
+	 * parallel. Singletons involved in declared dependency cycles, or failing
+	 * with an unresolvable circular reference between threads, are created
+	 * on the calling thread afterwards. {@link SmartInitializingSingleton}
+	 * callbacks are still invoked on the calling thread, in registration order.
+	 * <p>Dependencies that only become known while a bean is being created,
+	 * such as {@code @Autowired} fields, methods and constructors or other
+	 * injection points resolved by post-processors, are not part of the
+	 * schedule: such a bean may start before its dependencies, in which case
+	 * it waits for them to be created by another thread (or creates them on its
+	 * own thread). Circular references among such dependencies across threads
+	 * are detected and retried on the calling thread as well. Declare
+	 * dependencies explicitly (e.g. through depends-on) where the order
+	 * of concurrent creation matters.
+	 * <p>The Executor should be bounded, typically a thread pool with a fixed
+	 * number of threads; tasks rejected by it run on the submitting thread.
+	 * Note that beans need to be safe to create on threads other than the one
+	 * refreshing the factory, e.g. with respect to thread-bound context.
+	 * @since 5.2
+	 * @see #preInstantiateSingletons()
+	 */
+	public void setBootstrapExecutor(@Nullable Executor bootstrapExecutor) {
+		this.bootstrapExecutor = bootstrapExecutor;
+	}
+
+	/**
+	 * Return the Executor for pre-instantiating singletons concurrently, if any.
+	 * @since 5.2
+	 */
+	@Nullable
+	public Executor getBootstrapExecutor() {
+		return this.bootstrapExecutor;
+	}
+
 	/**
 	 * Set a custom autowire candidate resolver for this BeanFactory to use
 	 * when deciding whether a bean definition should be considered as a
@@ -275,6 +324,7 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 			this.allowBeanDefinitionOverriding = otherListableFactory.allowBeanDefinitionOverriding;
 			this.allowEagerClassLoading = otherListableFactory.allowEagerClassLoading;
 			this.dependencyComparator = otherListableFactory.dependencyComparator;
+			this.bootstrapExecutor = otherListableFactory.bootstrapExecutor;
 			// A clone of the AutowireCandidateResolver since it is potentially BeanFactoryAware...
 			setAutowireCandidateResolver(BeanUtils.instantiateClass(getAutowireCandidateResolver().getClass()));
 			// Make resolvable dependencies (e.g. ResourceLoader) available here as well...
@@ -781,38 +831,20 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
         // 获得所有 Bean 名字的集合，this.beanDefinitionNames就是之前注册bd的时候添加的bdName集合
 		List<String> beanNames = new ArrayList<>(this.beanDefinitionNames);
 
-		// Trigger initialization of all non-lazy singleton beans...
+		// Create independent singletons in parallel first, if an Executor has been specified...
+		Executor executor = getBootstrapExecutor();
+		if (executor != null) {
+			preInstantiateSingletonsConcurrently(beanNames, executor);
+		}
+
+		// Trigger initialization of all (remaining) non-lazy singleton beans...
         // 遍历 Bean 名字的集合，触发 Bean 加载
 		for (String beanName : beanNames) {
 		    // 获得 RootBeanDefinition 对象
 			RootBeanDefinition bd = getMergedLocalBeanDefinition(beanName);
 			// 单例 && 非延迟加载
 			if (!bd.isAbstract() && bd.isSingleton() && !bd.isLazyInit()) {
-			    // 如果是 FactoryBean
-				if (isFactoryBean(beanName)) {
-				    // 获得 FactoryBean 自身这个 Bean
-					Object bean = getBean(FACTORY_BEAN_PREFIX + beanName);
-					if (bean instanceof FactoryBean) {
-						final FactoryBean<?> factory = (FactoryBean<?>) bean;
-						// 判断是否要提前初始化
-						boolean isEagerInit;
-						if (System.getSecurityManager() != null && factory instanceof SmartFactoryBean) {
-							isEagerInit = AccessController.doPrivileged((PrivilegedAction<Boolean>)
-											((SmartFactoryBean<?>) factory)::isEagerInit,
-									getAccessControlContext());
-						} else {
-							isEagerInit = (factory instanceof SmartFactoryBean &&
-									((SmartFactoryBean<?>) factory).isEagerInit());
-						}
-						// 如果要，加载 FactoryBean 要创建的 Bean 对象
-						if (isEagerInit) {
-							getBean(beanName);
-						}
-					}
-				} else {
-                    // 如果非 FactoryBean ，直接加载 Bean 对象
-                    getBean(beanName);
-				}
+				preInstantiateSingleton(beanName);
 			}
 		}
 
@@ -836,6 +868,119 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 	}
 
 
+	/**
+	 * Instantiate the given non-lazy singleton, including the object exposed
+	 * by a {@link SmartFactoryBean} that asks for eager initialization.
+	 * @param beanName the name of the bean
+	 */
+	private void preInstantiateSingleton(String beanName) {
+	    // 如果是 FactoryBean
+		if (isFactoryBean(beanName)) {
+		    // 获得 FactoryBean 自身这个 Bean
+			Object bean = getBean(FACTORY_BEAN_PREFIX + beanName);
+			if (bean instanceof FactoryBean) {
+				final FactoryBean<?> factory = (FactoryBean<?>) bean;
+				// 判断是否要提前初始化
+				boolean isEagerInit;
+				if (System.getSecurityManager() != null && factory instanceof SmartFactoryBean) {
+					isEagerInit = AccessController.doPrivileged((PrivilegedAction<Boolean>)
+									((SmartFactoryBean<?>) factory)::isEagerInit,
+							getAccessControlContext());
+				} else {
+					isEagerInit = (factory instanceof SmartFactoryBean &&
+							((SmartFactoryBean<?>) factory).isEagerInit());
+				}
+				// 如果要，加载 FactoryBean 要创建的 Bean 对象
+				if (isEagerInit) {
+					getBean(beanName);
+				}
+			}
+		} else {
+            // 如果非 FactoryBean ，直接加载 Bean 对象
+            getBean(beanName);
+		}
+	}
+
+	/**
+	 * Instantiate the given non-lazy singletons on the given Executor, following
+	 * their declared dependencies. Singletons that could not be created that way
+	 * are left to the regular sequential pre-instantiation step.
+	 * @param beanNames the names of all bean definitions, in registration order
+	 * @param executor the Executor to create independent singletons on
+	 * @see #setBootstrapExecutor
+	 */
+	private void preInstantiateSingletonsConcurrently(List<String> beanNames, Executor executor) {
+		Map<String, Set<String>> dependencies = new LinkedHashMap<>(beanNames.size());
+		for (String beanName : beanNames) {
+			RootBeanDefinition bd = getMergedLocalBeanDefinition(beanName);
+			if (!bd.isAbstract() && bd.isSingleton() && !bd.isLazyInit()) {
+				dependencies.put(beanName, getDeclaredDependencies(beanName, bd));
+			}
+		}
+		for (Map.Entry<String, Set<String>> entry : dependencies.entrySet()) {
+			// Only dependencies on other pre-instantiated singletons affect scheduling
+			entry.getValue().remove(entry.getKey());
+			entry.getValue().retainAll(dependencies.keySet());
+		}
+
+		SingletonBootstrap bootstrap = new SingletonBootstrap(dependencies, executor);
+		setConcurrentSingletonCreation(true);
+		try {
+			bootstrap.run();
+		}
+		finally {
+			setConcurrentSingletonCreation(false);
+		}
+	}
+
+	/**
+	 * Determine the dependencies of the given bean that are known before its
+	 * creation: depends-on declarations, its factory bean, bean references in
+	 * constructor arguments and property values, and dependencies registered so far.
+	 * @param beanName the name of the bean
+	 * @param bd the merged bean definition of the bean
+	 * @return the canonical names of the beans that the given bean depends on
+	 */
+	private Set<String> getDeclaredDependencies(String beanName, RootBeanDefinition bd) {
+		Set<String> dependencies = new LinkedHashSet<>();
+		String[] dependsOn = bd.getDependsOn();
+		if (dependsOn != null) {
+			for (String dependsOnBean : dependsOn) {
+				dependencies.add(transformedBeanName(dependsOnBean));
+			}
+		}
+		String factoryBeanName = bd.getFactoryBeanName();
+		if (factoryBeanName != null) {
+			dependencies.add(transformedBeanName(factoryBeanName));
+		}
+		if (bd.hasConstructorArgumentValues()) {
+			ConstructorArgumentValues argumentValues = bd.getConstructorArgumentValues();
+			for (ConstructorArgumentValues.ValueHolder valueHolder : argumentValues.getIndexedArgumentValues().values()) {
+				addReferencedBeanName(valueHolder.getValue(), dependencies);
+			}
+			for (ConstructorArgumentValues.ValueHolder valueHolder : argumentValues.getGenericArgumentValues()) {
+				addReferencedBeanName(valueHolder.getValue(), dependencies);
+			}
+		}
+		if (bd.hasPropertyValues()) {
+			for (PropertyValue pv : bd.getPropertyValues().getPropertyValues()) {
+				addReferencedBeanName(pv.getValue(), dependencies);
+			}
+		}
+		Collections.addAll(dependencies, getDependenciesForBean(beanName));
+		return dependencies;
+	}
+
+	private void addReferencedBeanName(@Nullable Object value, Set<String> beanNames) {
+		if (value instanceof RuntimeBeanReference) {
+			RuntimeBeanReference reference = (RuntimeBeanReference) value;
+			if (!reference.isToParent()) {
+				beanNames.add(transformedBeanName(reference.getBeanName()));
+			}
+		}
+	}
+
+
 	//---------------------------------------------------------------------
 	// Implementation of BeanDefinitionRegistry interface
 	//---------------------------------------------------------------------
@@ -1994,4 +2139,135 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		}
 	}
 
+
+	/**
+	 * Schedules the creation of non-lazy singletons on a bootstrap Executor,
+	 * submitting each singleton once all of its declared dependencies are done.
+	 * Singletons that never become ready, i.e. that are part of (or depend on)
+	 * a declared dependency cycle, are not scheduled at all. Once aborted, due
+	 * to a failure or to an interrupt of the calling thread, no further
+	 * singletons are submitted and tasks that have not started yet are skipped.
+	 * @see #setBootstrapExecutor
+	 */
+	private class SingletonBootstrap {
+
+		private final Map<String, Set<String>> dependencies;
+
+		private final Map<String, List<String>> dependents = new HashMap<>();
+
+		private final Map<String, AtomicInteger> pendingDependencies = new HashMap<>();
+
+		private final Executor executor;
+
+		private final Map<String, Throwable> failures = new ConcurrentHashMap<>();
+
+		/** Number of submitted tasks that have not completed yet, guarded by this. */
+		private int tasksInProgress;
+
+		private volatile boolean aborted;
+
+		public SingletonBootstrap(Map<String, Set<String>> dependencies, Executor executor) {
+			this.dependencies = dependencies;
+			this.executor = executor;
+			for (Map.Entry<String, Set<String>> entry : dependencies.entrySet()) {
+				this.pendingDependencies.put(entry.getKey(), new AtomicInteger(entry.getValue().size()));
+				for (String dependency : entry.getValue()) {
+					this.dependents.computeIfAbsent(dependency, key -> new ArrayList<>()).add(entry.getKey());
+				}
+			}
+		}
+
+		public void run() {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Pre-instantiating up to " + this.dependencies.size() +
+						" singletons concurrently in " + DefaultListableBeanFactory.this);
+			}
+			for (Map.Entry<String, Set<String>> entry : this.dependencies.entrySet()) {
+				if (entry.getValue().isEmpty() && !this.aborted) {
+					submit(entry.getKey());
+				}
+			}
+			// Tasks in progress submit their ready dependents before completing,
+			// so no tasks left in progress means that the graph is done (or aborted).
+			boolean interrupted = false;
+			synchronized (this) {
+				while (this.tasksInProgress > 0) {
+					try {
+						wait();
+					}
+					catch (InterruptedException ex) {
+						// Skip remaining tasks but let the ones in progress complete
+						// before leaving concurrent singleton creation mode...
+						this.aborted = true;
+						interrupted = true;
+					}
+				}
+			}
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+				throw new BeanCreationException("Interrupted during concurrent pre-instantiation of singletons");
+			}
+			for (String beanName : this.dependencies.keySet()) {
+				Throwable failure = this.failures.get(beanName);
+				if (failure != null && !isRetryable(failure)) {
+					ReflectionUtils.rethrowRuntimeException(failure);
+				}
+			}
+		}
+
+		private void submit(String beanName) {
+			synchronized (this) {
+				this.tasksInProgress++;
+			}
+			Runnable task = () -> instantiate(beanName);
+			try {
+				this.executor.execute(task);
+			}
+			catch (RejectedExecutionException ex) {
+				task.run();
+			}
+		}
+
+		private void instantiate(String beanName) {
+			try {
+				if (!this.aborted) {
+					preInstantiateSingleton(beanName);
+				}
+			}
+			catch (Throwable ex) {
+				this.failures.put(beanName, ex);
+				if (isRetryable(ex)) {
+					if (logger.isDebugEnabled()) {
+						logger.debug("Deferring creation of singleton '" + beanName +
+								"' to sequential pre-instantiation: " + ex);
+					}
+				}
+				else {
+					this.aborted = true;
+				}
+			}
+			finally {
+				for (String dependent : this.dependents.getOrDefault(beanName, Collections.emptyList())) {
+					if (this.pendingDependencies.get(dependent).decrementAndGet() == 0 && !this.aborted) {
+						submit(dependent);
+					}
+				}
+				synchronized (this) {
+					this.tasksInProgress--;
+					notifyAll();
+				}
+			}
+		}
+
+		/**
+		 * Circular references between concurrently created singletons are
+		 * retried on the calling thread, where regular early reference
+		 * resolution applies.
+		 */
+		private boolean isRetryable(Throwable ex) {
+			return (ex instanceof BeansException &&
+					((BeansException) ex).contains(BeanCurrentlyInCreationException.class));
+		}
+	}
+
 }
@@ -25,6 +25,7 @@ import org.springframework.util.StringUtils;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
 
 /**
  * Generic registry for shared bean instances, implementing the
@@ -89,14 +90,14 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
      *
      * 这个 Map 也是【循环依赖】的关键所在。
      */
-	private final Map<String, Object> earlySingletonObjects = new HashMap<>(16);
+	private final Map<String, Object> earlySingletonObjects = new ConcurrentHashMap<>(16);
 
 	/**
      * Set of registered singletons, containing the bean names in registration order.
      *
      * 已注册的单例 Bean 名称的集合
      */
-	private final Set<String> registeredSingletons = new LinkedHashSet<>(256);
+	private final Set<String> registeredSingletons = Collections.synchronizedSet(new LinkedHashSet<>(256));
 
 	/**
      * Names of beans that are currently in creation.
@@ -106,6 +107,18 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	private final Set<String> singletonsCurrentlyInCreation =
 			Collections.newSetFromMap(new ConcurrentHashMap<>(16));
 
+	/**
+	 * Singletons created outside of the singleton mutex: bean name to creation.
+	 * Only used in concurrent singleton creation mode.
+	 */
+	private final Map<String, SingletonCreation> singletonCreations = new ConcurrentHashMap<>(16);
+
+	/** Threads waiting for a singleton created by another thread: thread to bean name. */
+	private final Map<Thread, String> singletonCreationWaits = new HashMap<>(16);
+
+	/** Flag that indicates whether singletons may currently be created by several threads. */
+	private volatile boolean concurrentSingletonCreation = false;
+
 	/** Names of beans currently excluded from in creation checks. */
 	private final Set<String> inCreationCheckExclusions =
 			Collections.newSetFromMap(new ConcurrentHashMap<>(16));
@@ -125,6 +138,8 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 
 	/**
      * Map between dependent bean names: bean name to Set of dependent bean names.
+     * The Sets are modified within full synchronization on this Map but can be
+     * checked for an existing entry without it.
      *
      * 保存的是依赖 beanName 之间的映射关系：beanName - > 依赖 beanName 的集合
      */
@@ -205,22 +220,30 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
         // 从单例缓冲中加载 bean
 	    Object singletonObject = this.singletonObjects.get(beanName);
         // 缓存中的 bean 为空，且当前 bean 正在创建
-		if (singletonObject == null && isSingletonCurrentlyInCreation(beanName)) {
-            // 加锁
-            synchronized (this.singletonObjects) {
-                // 从 earlySingletonObjects 获取
-                singletonObject = this.earlySingletonObjects.get(beanName);
-                // earlySingletonObjects 中没有，且允许提前创建
-                if (singletonObject == null && allowEarlyReference) {
-                    // 从 singletonFactories 中获取对应的 ObjectFactory
-					ObjectFactory<?> singletonFactory = this.singletonFactories.get(beanName);
-					if (singletonFactory != null) {
-					    // 获得 bean
-						singletonObject = singletonFactory.getObject();
-						// 添加 bean 到 earlySingletonObjects 中
-						this.earlySingletonObjects.put(beanName, singletonObject);
-						// 从 singletonFactories 中移除对应的 ObjectFactory
-						this.singletonFactories.remove(beanName);
+		if (singletonObject == null && isSingletonCurrentlyInCreation(beanName) &&
+				(!this.concurrentSingletonCreation || isSingletonCreationThread(beanName))) {
+            // 从 earlySingletonObjects 获取，无需加锁
+            singletonObject = this.earlySingletonObjects.get(beanName);
+            // earlySingletonObjects 中没有，且允许提前创建
+            if (singletonObject == null && allowEarlyReference) {
+                // 加锁
+                synchronized (this.singletonObjects) {
+					// Consistent creation of early reference within full singleton lock
+					singletonObject = this.singletonObjects.get(beanName);
+					if (singletonObject == null) {
+						singletonObject = this.earlySingletonObjects.get(beanName);
+						if (singletonObject == null) {
+							// 从 singletonFactories 中获取对应的 ObjectFactory
+							ObjectFactory<?> singletonFactory = this.singletonFactories.get(beanName);
+							if (singletonFactory != null) {
+								// 获得 bean
+								singletonObject = singletonFactory.getObject();
+								// 添加 bean 到 earlySingletonObjects 中
+								this.earlySingletonObjects.put(beanName, singletonObject);
+								// 从 singletonFactories 中移除对应的 ObjectFactory
+								this.singletonFactories.remove(beanName);
+							}
+						}
 					}
 				}
 			}
@@ -238,6 +261,14 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	 */
 	public Object getSingleton(String beanName, ObjectFactory<?> singletonFactory) {
 		Assert.notNull(beanName, "Bean name must not be null");
+		// Fast path for fully initialized singletons, without locking
+		Object existingObject = this.singletonObjects.get(beanName);
+		if (existingObject != null) {
+			return existingObject;
+		}
+		if (this.concurrentSingletonCreation) {
+			return getSingletonConcurrently(beanName, singletonFactory);
+		}
         // 全局加锁
         synchronized (this.singletonObjects) {
             // 从缓存中检查一遍
@@ -245,56 +276,160 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 			Object singletonObject = this.singletonObjects.get(beanName);
             //  为空，开始加载过程
 			if (singletonObject == null) {
-				if (this.singletonsCurrentlyInDestruction) {
-					throw new BeanCreationNotAllowedException(beanName,
-							"Singleton bean creation not allowed while singletons of this factory are in destruction " +
-							"(Do not request a bean from a BeanFactory in a destroy method implementation!)");
-				}
-				if (logger.isDebugEnabled()) {
-					logger.debug("Creating shared instance of singleton bean '" + beanName + "'");
+				singletonObject = createSingleton(beanName, singletonFactory, (this.suppressedExceptions == null));
+			}
+			return singletonObject;
+		}
+	}
+
+	/**
+	 * Variant of {@link #getSingleton(String, ObjectFactory)} for concurrent
+	 * singleton creation: the singleton mutex is only held for claiming the bean,
+	 * with the actual creation happening outside of it. Threads asking for a
+	 * singleton that is being created by another thread wait for its completion
+	 * on a per-bean latch; a circular wait between such threads, or a wait while
+	 * holding the singleton mutex, is rejected with a
+	 * {@link BeanCurrentlyInCreationException}.
+	 * @param beanName the name of the bean
+	 * @param singletonFactory the ObjectFactory to lazily create the singleton with
+	 * @return the registered singleton object
+	 * @see #setConcurrentSingletonCreation
+	 */
+	private Object getSingletonConcurrently(String beanName, ObjectFactory<?> singletonFactory) {
+		Thread currentThread = Thread.currentThread();
+		boolean holdsMutex = Thread.holdsLock(this.singletonObjects);
+		SingletonCreation ownCreation = null;
+		while (ownCreation == null) {
+			SingletonCreation creation;
+			synchronized (this.singletonObjects) {
+				Object singletonObject = this.singletonObjects.get(beanName);
+				if (singletonObject != null) {
+					return singletonObject;
 				}
-                // 加载前置处理
-				beforeSingletonCreation(beanName);
-				boolean newSingleton = false;
-				boolean recordSuppressedExceptions = (this.suppressedExceptions == null);
-				if (recordSuppressedExceptions) {
-					this.suppressedExceptions = new LinkedHashSet<>();
+				creation = this.singletonCreations.get(beanName);
+				if (creation == null) {
+					ownCreation = new SingletonCreation(currentThread);
+					this.singletonCreations.put(beanName, ownCreation);
+					break;
 				}
-				try {
-                    // 初始化 bean
-                    // 这个过程其实是调用 createBean() 方法
-					singletonObject = singletonFactory.getObject();
-					newSingleton = true;
-				} catch (IllegalStateException ex) {
-					// Has the singleton object implicitly appeared in the meantime ->
-					// if yes, proceed with it since the exception indicates that state.
-					singletonObject = this.singletonObjects.get(beanName);
-					if (singletonObject == null) {
-						throw ex;
-					}
-				} catch (BeanCreationException ex) {
-					if (recordSuppressedExceptions) {
-						for (Exception suppressedException : this.suppressedExceptions) {
-							ex.addRelatedCause(suppressedException);
-						}
-					}
-					throw ex;
-				} finally {
-					if (recordSuppressedExceptions) {
-						this.suppressedExceptions = null;
+				if (creation.thread != currentThread) {
+					checkForCircularCreationWait(beanName, creation.thread);
+					if (holdsMutex) {
+						// The creating thread needs the singleton mutex to complete its singleton...
+						throw new BeanCurrentlyInCreationException(beanName,
+								"Requested bean is currently in creation in thread '" + creation.thread.getName() +
+								"' and cannot be awaited while holding the singleton mutex");
 					}
-                    // 后置处理
-					afterSingletonCreation(beanName);
+					this.singletonCreationWaits.put(currentThread, beanName);
 				}
-                // 加入缓存中
-				if (newSingleton) {
-					addSingleton(beanName, singletonObject);
+			}
+			if (creation.thread == currentThread) {
+				// Circular reference within the same thread: regular in-creation checks apply.
+				return createSingleton(beanName, singletonFactory, false);
+			}
+			try {
+				creation.latch.await();
+			}
+			catch (InterruptedException ex) {
+				currentThread.interrupt();
+				throw new BeanCreationException(beanName,
+						"Interrupted while waiting for singleton creation in thread '" + creation.thread.getName() + "'");
+			}
+			finally {
+				synchronized (this.singletonObjects) {
+					this.singletonCreationWaits.remove(currentThread);
 				}
 			}
-			return singletonObject;
+		}
+		try {
+			return createSingleton(beanName, singletonFactory, false);
+		}
+		finally {
+			this.singletonCreations.remove(beanName);
+			ownCreation.latch.countDown();
+		}
+	}
+
+	/**
+	 * Check whether waiting for the given creation thread would close a cycle
+	 * of threads waiting for each other's singletons.
+	 * <p>To be called within the singleton mutex.
+	 */
+	private void checkForCircularCreationWait(String beanName, Thread creationThread) {
+		Thread thread = creationThread;
+		while (thread != null) {
+			if (thread == Thread.currentThread()) {
+				throw new BeanCurrentlyInCreationException(beanName,
+						"Requested bean is currently in creation in thread '" + creationThread.getName() +
+						"' which in turn waits for a bean created by the current thread: " +
+						"Is there an unresolvable circular reference between concurrently created singletons?");
+			}
+			String awaitedBeanName = this.singletonCreationWaits.get(thread);
+			SingletonCreation awaitedCreation =
+					(awaitedBeanName != null ? this.singletonCreations.get(awaitedBeanName) : null);
+			thread = (awaitedCreation != null ? awaitedCreation.thread : null);
 		}
 	}
 
+	/**
+	 * Create and register the specified singleton through the given factory.
+	 * @param beanName the name of the bean
+	 * @param singletonFactory the ObjectFactory to create the singleton with
+	 * @param recordSuppressedExceptions whether to collect suppressed exceptions
+	 * for the creation of this singleton
+	 * @return the registered singleton object
+	 */
+	private Object createSingleton(String beanName, ObjectFactory<?> singletonFactory,
+			boolean recordSuppressedExceptions) {
+
+		if (this.singletonsCurrentlyInDestruction) {
+			throw new BeanCreationNotAllowedException(beanName,
+					"Singleton bean creation not allowed while singletons of this factory are in destruction " +
+					"(Do not request a bean from a BeanFactory in a destroy method implementation!)");
+		}
+		if (logger.isDebugEnabled()) {
+			logger.debug("Creating shared instance of singleton bean '" + beanName + "'");
+		}
+        // 加载前置处理
+		beforeSingletonCreation(beanName);
+		Object singletonObject;
+		boolean newSingleton = false;
+		if (recordSuppressedExceptions) {
+			this.suppressedExceptions = new LinkedHashSet<>();
+		}
+		try {
+            // 初始化 bean
+            // 这个过程其实是调用 createBean() 方法
+			singletonObject = singletonFactory.getObject();
+			newSingleton = true;
+		} catch (IllegalStateException ex) {
+			// Has the singleton object implicitly appeared in the meantime ->
+			// if yes, proceed with it since the exception indicates that state.
+			singletonObject = this.singletonObjects.get(beanName);
+			if (singletonObject == null) {
+				throw ex;
+			}
+		} catch (BeanCreationException ex) {
+			if (recordSuppressedExceptions) {
+				for (Exception suppressedException : this.suppressedExceptions) {
+					ex.addRelatedCause(suppressedException);
+				}
+			}
+			throw ex;
+		} finally {
+			if (recordSuppressedExceptions) {
+				this.suppressedExceptions = null;
+			}
+            // 后置处理
+			afterSingletonCreation(beanName);
+		}
+        // 加入缓存中
+		if (newSingleton) {
+			addSingleton(beanName, singletonObject);
+		}
+		return singletonObject;
+	}
+
 	/**
 	 * Register an Exception that happened to get suppressed during the creation of a
 	 * singleton bean instance, e.g. a temporary circular reference resolution problem.
@@ -330,16 +465,14 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 
 	@Override
 	public String[] getSingletonNames() {
-		synchronized (this.singletonObjects) {
+		synchronized (this.registeredSingletons) {
 			return StringUtils.toStringArray(this.registeredSingletons);
 		}
 	}
 
 	@Override
 	public int getSingletonCount() {
-		synchronized (this.singletonObjects) {
-			return this.registeredSingletons.size();
-		}
+		return this.registeredSingletons.size();
 	}
 
 
@@ -371,6 +504,35 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 		return this.singletonsCurrentlyInCreation.contains(beanName);
 	}
 
+	/**
+	 * Return whether the specified singleton bean is currently being created
+	 * by the current thread in concurrent singleton creation mode.
+	 * @param beanName the name of the bean
+	 * @since 5.2
+	 * @see #setConcurrentSingletonCreation
+	 */
+	protected boolean isSingletonCreationThread(String beanName) {
+		SingletonCreation creation = this.singletonCreations.get(beanName);
+		return (creation != null && creation.thread == Thread.currentThread());
+	}
+
+	/**
+	 * Switch concurrent singleton creation on or off.
+	 * <p>While switched on, singleton creation happens outside of the
+	 * {@link #getSingletonMutex() singleton mutex}, allowing several threads
+	 * to create different singletons at the same time. Early references to a
+	 * singleton in creation are only exposed to the thread creating it; other
+	 * threads asking for it wait until its creation has completed.
+	 * <p>Only to be switched on for a bounded bootstrap phase, e.g. during
+	 * {@link DefaultListableBeanFactory#preInstantiateSingletons()}.
+	 * @param concurrentSingletonCreation whether singletons may be created
+	 * by several threads concurrently
+	 * @since 5.2
+	 */
+	protected void setConcurrentSingletonCreation(boolean concurrentSingletonCreation) {
+		this.concurrentSingletonCreation = concurrentSingletonCreation;
+	}
+
 	/**
 	 * Callback before singleton creation.
 	 * <p>The default implementation register the singleton as currently in creation.
@@ -446,10 +608,16 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	    // 获取 beanName
 		String canonicalName = canonicalName(beanName);
 
+		// Quick check for an existing registration, e.g. on repeated prototype creation
+		Set<String> existingDependentBeans = this.dependentBeanMap.get(canonicalName);
+		if (existingDependentBeans != null && existingDependentBeans.contains(dependentBeanName)) {
+			return;
+		}
+
 		// 添加 <canonicalName, <dependentBeanName>> 到 dependentBeanMap 中
 		synchronized (this.dependentBeanMap) {
-			Set<String> dependentBeans =
-					this.dependentBeanMap.computeIfAbsent(canonicalName, k -> new LinkedHashSet<>(8));
+			Set<String> dependentBeans = this.dependentBeanMap.computeIfAbsent(canonicalName,
+					k -> Collections.synchronizedSet(new LinkedHashSet<>(8)));
 			if (!dependentBeans.add(dependentBeanName)) {
 				return;
 			}
@@ -674,4 +842,20 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 		return this.singletonObjects;
 	}
 
+
+	/**
+	 * A singleton being created outside of the singleton mutex, claimed by
+	 * the creating thread and awaited by other threads through its latch.
+	 */
+	private static class SingletonCreation {
+
+		final Thread thread;
+
+		final CountDownLatch latch = new CountDownLatch(1);
+
+		SingletonCreation(Thread thread) {
+			this.thread = thread;
+		}
+	}
+
 }
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans;
+
+import org.junit.Test;
+
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.tests.sample.beans.TestBean;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link GeneratedAccessorBeanWrapper} tests, running all {@link BeanWrapperImpl}
+ * tests against generated property accessors.
+ *
+ * @since 5.2
+ */
+public class GeneratedAccessorBeanWrapperTests extends BeanWrapperTests {
+
+	@Override
+	protected BeanWrapperImpl createAccessor(Object target) {
+		return new GeneratedAccessorBeanWrapper(target);
+	}
+
+
+	@Test
+	public void generatedPropertyHandler() {
+		GeneratedAccessorBeanWrapper accessor = new GeneratedAccessorBeanWrapper(new TestBean());
+		assertTrue(accessor.getLocalPropertyHandler("name") instanceof GeneratedAccessorBeanWrapper.GeneratedPropertyHandler);
+		assertNull(accessor.getLocalPropertyHandler("bogus"));
+	}
+
+	@Test
+	public void nestedPathWithConversionService() {
+		TestBean target = new TestBean();
+		target.setSpouse(new TestBean());
+		GeneratedAccessorBeanWrapper accessor = new GeneratedAccessorBeanWrapper(target);
+		accessor.setConversionService(new DefaultConversionService());
+		accessor.setPropertyValue("spouse.age", "42");
+		accessor.setPropertyValue("spouse.name", "kerry");
+		assertEquals(42, target.getSpouse().getAge());
+		assertEquals(42, accessor.getPropertyValue("spouse.age"));
+		assertEquals("kerry", accessor.getPropertyValue("spouse.name"));
+		assertTrue(accessor.getPropertyAccessorForPropertyPath("spouse.age") instanceof GeneratedAccessorBeanWrapper);
+	}
+
+	@Test
+	public void fallBackToReflectionForNonPublicClass() {
+		NonPublicBean target = new NonPublicBean();
+		GeneratedAccessorBeanWrapper accessor = new GeneratedAccessorBeanWrapper(target);
+		accessor.setPropertyValue("value", "test");
+		assertEquals("test", target.getValue());
+		assertEquals("test", accessor.getPropertyValue("value"));
+	}
+
+
+	private static class NonPublicBean {
+
+		private String value;
+
+		public String getValue() {
+			return this.value;
+		}
+
+		public void setValue(String value) {
+			this.value = value;
+		}
+	}
+
+}
@@ -37,6 +37,10 @@ import java.util.Optional;
 import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import javax.annotation.Priority;
 import javax.security.auth.Subject;
@@ -57,6 +61,8 @@ import org.springframework.beans.PropertyEditorRegistry;
 import org.springframework.beans.PropertyValue;
 import org.springframework.beans.TypeConverter;
 import org.springframework.beans.TypeMismatchException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.AutowiredAnnotationBeanPostProcessor;
 import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.beans.factory.config.BeanExpressionContext;
@@ -2371,6 +2377,132 @@ public class DefaultListableBeanFactoryTests {
 		assertTrue(factory.initialized);
 	}
 
+	@Test
+	public void testPreInstantiateSingletonsWithBootstrapExecutor() {
+		DefaultListableBeanFactory lbf = new DefaultListableBeanFactory();
+		for (int i = 0; i < 100; i++) {
+			RootBeanDefinition bd = new RootBeanDefinition(TestBean.class);
+			if (i > 0) {
+				bd.getPropertyValues().add("spouse", new RuntimeBeanReference("bean" + (i / 2)));
+			}
+			lbf.registerBeanDefinition("bean" + i, bd);
+		}
+		lbf.registerBeanDefinition("test", new RootBeanDefinition(EagerInitFactory.class));
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			lbf.setBootstrapExecutor(executor);
+			lbf.preInstantiateSingletons();
+		}
+		finally {
+			executor.shutdownNow();
+		}
+		assertEquals(101, lbf.getSingletonCount());
+		for (int i = 1; i < 100; i++) {
+			TestBean bean = (TestBean) lbf.getBean("bean" + i);
+			assertSame(lbf.getBean("bean" + (i / 2)), bean.getSpouse());
+		}
+		EagerInitFactory factory = (EagerInitFactory) lbf.getBean("&test");
+		assertTrue(factory.initialized);
+	}
+
+	@Test
+	public void testPreInstantiateSingletonsWithBootstrapExecutorAndCircularReference() {
+		DefaultListableBeanFactory lbf = new DefaultListableBeanFactory();
+		for (int i = 0; i < 200; i++) {
+			RootBeanDefinition bd = new RootBeanDefinition(TestBean.class);
+			bd.getPropertyValues().add("spouse", new RuntimeBeanReference("bean" + (i < 99 ? i + 1 : 0)));
+			lbf.registerBeanDefinition("bean" + i, bd);
+		}
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			lbf.setBootstrapExecutor(executor);
+			lbf.preInstantiateSingletons();
+		}
+		finally {
+			executor.shutdownNow();
+		}
+		for (int i = 0; i < 200; i++) {
+			TestBean bean = (TestBean) lbf.getBean("bean" + i);
+			assertSame(lbf.getBean("bean" + (i < 99 ? i + 1 : 0)), bean.getSpouse());
+		}
+	}
+
+	@Test(expected = BeanCreationException.class)
+	public void testPreInstantiateSingletonsWithBootstrapExecutorAndFailingBean() {
+		DefaultListableBeanFactory lbf = new DefaultListableBeanFactory();
+		lbf.registerBeanDefinition("spouse", new RootBeanDefinition(TestBean.class));
+		RootBeanDefinition bd = new RootBeanDefinition(TestBean.class);
+		bd.getPropertyValues().add("spouse", new RuntimeBeanReference("spouse"));
+		bd.getPropertyValues().add("age", "notANumber");
+		lbf.registerBeanDefinition("test", bd);
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			lbf.setBootstrapExecutor(executor);
+			lbf.preInstantiateSingletons();
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testPreInstantiateSingletonsWithBootstrapExecutorAndAutowiredCircularReference() {
+		DefaultListableBeanFactory lbf = new DefaultListableBeanFactory();
+		AutowiredAnnotationBeanPostProcessor bpp = new AutowiredAnnotationBeanPostProcessor();
+		bpp.setBeanFactory(lbf);
+		lbf.addBeanPostProcessor(bpp);
+		// Both beans get created at the same time on different threads, with
+		// their @Autowired dependencies on each other unknown upfront...
+		CountDownLatch latch = new CountDownLatch(2);
+		RootBeanDefinition bd1 = new RootBeanDefinition(AutowiredPeer1.class);
+		bd1.getConstructorArgumentValues().addGenericArgumentValue(latch);
+		lbf.registerBeanDefinition("peer1", bd1);
+		RootBeanDefinition bd2 = new RootBeanDefinition(AutowiredPeer2.class);
+		bd2.getConstructorArgumentValues().addGenericArgumentValue(latch);
+		lbf.registerBeanDefinition("peer2", bd2);
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			lbf.setBootstrapExecutor(executor);
+			lbf.preInstantiateSingletons();
+		}
+		finally {
+			executor.shutdownNow();
+		}
+		AutowiredPeer1 peer1 = lbf.getBean(AutowiredPeer1.class);
+		AutowiredPeer2 peer2 = lbf.getBean(AutowiredPeer2.class);
+		assertSame(peer2, peer1.peer);
+		assertSame(peer1, peer2.peer);
+	}
+
+	@Test
+	public void testPreInstantiateSingletonsWithBootstrapExecutorInterrupted() {
+		DefaultListableBeanFactory lbf = new DefaultListableBeanFactory();
+		// Interrupts the calling thread once in creation, then takes a while to complete
+		RootBeanDefinition slow = new RootBeanDefinition(InterruptingBean.class);
+		slow.getConstructorArgumentValues().addGenericArgumentValue(Thread.currentThread());
+		lbf.registerBeanDefinition("slow", slow);
+		for (int i = 0; i < 10; i++) {
+			RootBeanDefinition bd = new RootBeanDefinition(TestBean.class);
+			bd.setDependsOn(i > 0 ? "bean" + (i - 1) : "slow");
+			lbf.registerBeanDefinition("bean" + i, bd);
+		}
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			lbf.setBootstrapExecutor(executor);
+			lbf.preInstantiateSingletons();
+			fail("Should have thrown BeanCreationException");
+		}
+		catch (BeanCreationException ex) {
+			assertTrue(Thread.interrupted());
+			// The singleton in progress got completed, its dependents were skipped
+			assertTrue(lbf.containsSingleton("slow"));
+			assertFalse(lbf.containsSingleton("bean0"));
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
 	@Test
 	public void testPrototypeFactoryBeanNotEagerlyCalledInCaseOfBeanClassName() {
 		DefaultListableBeanFactory lbf = new DefaultListableBeanFactory();
@@ -3247,6 +3379,39 @@ public class DefaultListableBeanFactoryTests {
 	}
 
 
+	public static class AutowiredPeer1 {
+
+		@Autowired
+		public AutowiredPeer2 peer;
+
+		public AutowiredPeer1(CountDownLatch latch) throws InterruptedException {
+			latch.countDown();
+			latch.await(1, TimeUnit.SECONDS);
+		}
+	}
+
+
+	public static class AutowiredPeer2 {
+
+		@Autowired
+		public AutowiredPeer1 peer;
+
+		public AutowiredPeer2(CountDownLatch latch) throws InterruptedException {
+			latch.countDown();
+			latch.await(1, TimeUnit.SECONDS);
+		}
+	}
+
+
+	public static class InterruptingBean {
+
+		public InterruptingBean(Thread thread) throws InterruptedException {
+			thread.interrupt();
+			Thread.sleep(200);
+		}
+	}
+
+
 	public static class EagerInitFactory implements SmartFactoryBean<Object> {
 
 		public boolean initialized = false;
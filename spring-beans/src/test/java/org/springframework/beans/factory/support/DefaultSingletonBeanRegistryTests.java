@@ -101,4 +101,32 @@ public class DefaultSingletonBeanRegistryTests {
 		assertTrue(beanRegistry.isDependent("c", "c"));
 	}
 
+	@Test
+	public void testRepeatedDependentRegistration() {
+		DefaultSingletonBeanRegistry beanRegistry = new DefaultSingletonBeanRegistry();
+
+		beanRegistry.registerDependentBean("a", "b");
+		beanRegistry.registerDependentBean("a", "b");
+		beanRegistry.registerDependentBean("a", "c");
+		assertArrayEquals(new String[] {"b", "c"}, beanRegistry.getDependentBeans("a"));
+		assertArrayEquals(new String[] {"a"}, beanRegistry.getDependenciesForBean("b"));
+	}
+
+	@Test
+	public void testEarlySingletonReference() {
+		DefaultSingletonBeanRegistry beanRegistry = new DefaultSingletonBeanRegistry();
+		TestBean tb = new TestBean();
+
+		beanRegistry.beforeSingletonCreation("tb");
+		beanRegistry.addSingletonFactory("tb", () -> tb);
+		assertNull(beanRegistry.getSingleton("tb", false));
+		assertSame(tb, beanRegistry.getSingleton("tb", true));
+		assertSame(tb, beanRegistry.getSingleton("tb", false));
+
+		beanRegistry.afterSingletonCreation("tb");
+		beanRegistry.addSingleton("tb", tb);
+		assertSame(tb, beanRegistry.getSingleton("tb", () -> new TestBean()));
+		assertEquals(1, beanRegistry.getSingletonCount());
+	}
+
 }
@@ -16,6 +16,9 @@
 
 package org.springframework.cache;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.Callable;
 
 import org.springframework.lang.Nullable;
@@ -98,6 +101,30 @@ public interface Cache {
 	@Nullable
 	<T> T get(Object key, Callable<T> valueLoader);
 
+	/**
+	 * Return the values to which this cache maps the specified keys.
+	 * <p>The returned map contains an entry for each key that has a mapping in
+	 * this cache, with the cached value (which may be {@code null} itself)
+	 * contained within a {@link ValueWrapper}. Keys without a mapping are omitted.
+	 * <p>The default implementation calls {@link #get(Object)} for each key.
+	 * Implementations backed by a store with native multi-get support should
+	 * override it accordingly.
+	 * @param keys the keys whose associated values are to be returned
+	 * @return a map from each key found in this cache to its value wrapper
+	 * @since 5.2
+	 * @see #get(Object)
+	 */
+	default Map<Object, ValueWrapper> getAll(Collection<?> keys) {
+		Map<Object, ValueWrapper> result = new LinkedHashMap<>(keys.size());
+		for (Object key : keys) {
+			ValueWrapper wrapper = get(key);
+			if (wrapper != null) {
+				result.put(key, wrapper);
+			}
+		}
+		return result;
+	}
+
 	/**
 	 * Associate the specified value with the specified key in this cache.
 	 * <p>If the cache previously contained a mapping for this key, the old
@@ -107,6 +134,19 @@ public interface Cache {
 	 */
 	void put(Object key, @Nullable Object value);
 
+	/**
+	 * Associate each of the specified values with its key in this cache.
+	 * <p>The default implementation calls {@link #put(Object, Object)} for
+	 * each entry. Implementations backed by a store with native multi-put
+	 * support should override it accordingly.
+	 * @param entries the key-value pairs to associate
+	 * @since 5.2
+	 * @see #put(Object, Object)
+	 */
+	default void putAll(Map<?, ?> entries) {
+		entries.forEach(this::put);
+	}
+
 	/**
 	 * Atomically associate the specified value with the specified key in this cache
 	 * if it is not set already.
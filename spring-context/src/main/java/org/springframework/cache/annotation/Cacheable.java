@@ -179,4 +179,26 @@ public @interface Cacheable {
 	 */
 	boolean sync() default false;
 
+	/**
+	 * Cache the elements of a collection-valued key individually.
+	 * <p>The key (by default, the single method argument) must be a
+	 * {@link java.util.Collection}, and the method must return a
+	 * {@link java.util.Map} keyed by the elements of that collection. Each
+	 * element is looked up in the cache separately, the method is only invoked
+	 * for the elements that were not found, and the returned entries are cached
+	 * individually. The result is the merged map, in the order of the key
+	 * collection. The batch mode leads to a couple of limitations:
+	 * <ol>
+	 * <li>{@link #unless()} and {@link #sync()} are not supported</li>
+	 * <li>No other cache-related operation can be combined</li>
+	 * <li>The key must be a method argument itself rather than derived from
+	 * one, since the method gets invoked with a collection of the missing
+	 * elements in place of that argument</li>
+	 * </ol>
+	 * @since 5.2
+	 * @see org.springframework.cache.Cache#getAll
+	 * @see org.springframework.cache.Cache#putAll
+	 */
+	boolean batch() default false;
+
 }
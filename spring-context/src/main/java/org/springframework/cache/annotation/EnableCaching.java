@@ -204,4 +204,13 @@ public @interface EnableCaching {
 	 */
 	int order() default Ordered.LOWEST_PRECEDENCE;
 
+	/**
+	 * Indicate whether concurrent cache misses for the same key should be
+	 * coalesced into a single invocation of the {@code @Cacheable} method.
+	 * <p>The default is {@code false}.
+	 * @since 5.2
+	 * @see org.springframework.cache.interceptor.CacheAspectSupport#setCoalesceCacheMisses
+	 */
+	boolean coalesceCacheMisses() default false;
+
 }
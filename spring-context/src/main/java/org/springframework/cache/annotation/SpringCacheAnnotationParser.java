@@ -122,6 +122,7 @@ public class SpringCacheAnnotationParser implements CacheAnnotationParser, Seria
 		builder.setCacheManager(cacheable.cacheManager());
 		builder.setCacheResolver(cacheable.cacheResolver());
 		builder.setSync(cacheable.sync());
+		builder.setBatch(cacheable.batch());
 
 		defaultConfig.applyDefault(builder);
 		CacheableOperation op = builder.build();
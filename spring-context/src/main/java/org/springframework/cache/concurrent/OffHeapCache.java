@@ -0,0 +1,553 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.concurrent;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+import org.springframework.core.serializer.support.SerializationDelegate;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+
+/**
+ * {@link org.springframework.cache.Cache} implementation that keeps its values
+ * outside of the Java heap, in direct {@link ByteBuffer} segments.
+ *
+ * <p>Values are serialized through a {@link SerializationDelegate} on the way
+ * in and deserialized on the way out, as with a store-by-value
+ * {@link ConcurrentMapCache}; only the keys and a small index entry per value
+ * remain on the heap. The cache is bounded by a maximum number of bytes and,
+ * optionally, a maximum number of entries. Once a bound is reached, the least
+ * recently used entries are evicted. Entries may also expire after a fixed
+ * time-to-live.
+ *
+ * <p>The cache is split into a number of independently locked segments, selected
+ * by key hash. The bounds are enforced per segment, so the effective limits are
+ * approximate when keys are unevenly distributed. Segment buffers start small
+ * and grow on demand up to their share of the maximum size.
+ *
+ * <p>{@link #get(Object, Callable)} runs the value loader at most once per key
+ * at a time, outside of any segment lock: concurrent callers for the same key
+ * wait for the outcome of the ongoing load, while other keys in the same
+ * segment remain accessible.
+ *
+ * <p>Hit, miss and eviction counts are exposed for monitoring purposes.
+ *
+ * @since 5.2
+ * @see OffHeapCacheManager
+ */
+public class OffHeapCache extends AbstractValueAdaptingCache {
+
+	/**
+	 * The default number of segments.
+	 */
+	public static final int DEFAULT_CONCURRENCY_LEVEL = 16;
+
+	private static final int INITIAL_SEGMENT_CAPACITY = 64 * 1024;
+
+
+	private final String name;
+
+	private final Segment[] segments;
+
+	private final long timeToLiveNanos;
+
+	private final SerializationDelegate serialization;
+
+	private final ConcurrentMap<Object, Load> loads = new ConcurrentHashMap<>(16);
+
+	private final LongAdder hitCount = new LongAdder();
+
+	private final LongAdder missCount = new LongAdder();
+
+	private final LongAdder evictionCount = new LongAdder();
+
+
+	/**
+	 * Create a new OffHeapCache with the specified name and size bound,
+	 * accepting {@code null} values and applying no time-to-live.
+	 * @param name the name of the cache
+	 * @param maxBytes the maximum number of bytes of serialized values to keep
+	 */
+	public OffHeapCache(String name, long maxBytes) {
+		this(name, maxBytes, 0, null, true);
+	}
+
+	/**
+	 * Create a new OffHeapCache with the specified name and bounds.
+	 * @param name the name of the cache
+	 * @param maxBytes the maximum number of bytes of serialized values to keep
+	 * @param maxEntries the maximum number of entries to keep, or {@code 0}
+	 * for no entry count bound
+	 * @param timeToLive the time after which entries expire, or {@code null}
+	 * for entries that never expire
+	 * @param allowNullValues whether to allow {@code null} values
+	 * (adapting them to an internal null holder value)
+	 */
+	public OffHeapCache(String name, long maxBytes, long maxEntries,
+			@Nullable Duration timeToLive, boolean allowNullValues) {
+
+		this(name, maxBytes, maxEntries, timeToLive, allowNullValues, DEFAULT_CONCURRENCY_LEVEL,
+				new SerializationDelegate(ClassUtils.getDefaultClassLoader()));
+	}
+
+	/**
+	 * Create a new OffHeapCache with the specified name, bounds and
+	 * {@link SerializationDelegate}.
+	 * @param name the name of the cache
+	 * @param maxBytes the maximum number of bytes of serialized values to keep
+	 * @param maxEntries the maximum number of entries to keep, or {@code 0}
+	 * for no entry count bound
+	 * @param timeToLive the time after which entries expire, or {@code null}
+	 * for entries that never expire
+	 * @param allowNullValues whether to allow {@code null} values
+	 * (adapting them to an internal null holder value)
+	 * @param concurrencyLevel the number of independently locked segments
+	 * @param serialization the {@link SerializationDelegate} to use
+	 * to serialize and deserialize cache values
+	 */
+	public OffHeapCache(String name, long maxBytes, long maxEntries, @Nullable Duration timeToLive,
+			boolean allowNullValues, int concurrencyLevel, SerializationDelegate serialization) {
+
+		super(allowNullValues);
+		Assert.notNull(name, "Name must not be null");
+		Assert.isTrue(maxBytes > 0, "Maximum bytes must be positive");
+		Assert.isTrue(maxEntries >= 0, "Maximum entries must not be negative");
+		Assert.isTrue(concurrencyLevel > 0, "Concurrency level must be positive");
+		Assert.isTrue(timeToLive == null || !timeToLive.isNegative(), "Time-to-live must not be negative");
+		Assert.notNull(serialization, "SerializationDelegate must not be null");
+		long segmentBytes = (maxBytes + concurrencyLevel - 1) / concurrencyLevel;
+		Assert.isTrue(segmentBytes <= Integer.MAX_VALUE,
+				"Maximum bytes per segment exceeds 2GB: increase the concurrency level");
+		long segmentEntries = (maxEntries > 0 ? (maxEntries + concurrencyLevel - 1) / concurrencyLevel : 0);
+		this.name = name;
+		this.segments = new Segment[concurrencyLevel];
+		for (int i = 0; i < concurrencyLevel; i++) {
+			this.segments[i] = new Segment((int) segmentBytes, segmentEntries);
+		}
+		this.timeToLiveNanos = (timeToLive != null && !timeToLive.isZero() ? timeToLive.toNanos() : 0);
+		this.serialization = serialization;
+	}
+
+
+	@Override
+	public final String getName() {
+		return this.name;
+	}
+
+	/**
+	 * This implementation returns the cache itself, since its store
+	 * is not exposed as a standalone data structure.
+	 */
+	@Override
+	public final Object getNativeCache() {
+		return this;
+	}
+
+	@Override
+	@Nullable
+	protected Object lookup(Object key) {
+		byte[] data = segmentFor(key).read(key);
+		if (data != null) {
+			this.hitCount.increment();
+		}
+		else {
+			this.missCount.increment();
+		}
+		return data;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	@Nullable
+	public <T> T get(Object key, Callable<T> valueLoader) {
+		Segment segment = segmentFor(key);
+		byte[] data = segment.read(key);
+		if (data == null) {
+			Load load = new Load();
+			Load existingLoad = this.loads.putIfAbsent(key, load);
+			if (existingLoad != null) {
+				// Another caller is loading the value for this key: wait for its outcome...
+				data = existingLoad.await(key, valueLoader);
+			}
+			else {
+				try {
+					data = segment.read(key);
+					if (data == null) {
+						this.missCount.increment();
+						Object value;
+						try {
+							value = valueLoader.call();
+						}
+						catch (Throwable ex) {
+							load.completeExceptionally(ex);
+							throw new ValueRetrievalException(key, valueLoader, ex);
+						}
+						data = toStoreValue(value);
+						segment.write(key, data, expirationFor(System.nanoTime()));
+						load.complete(data);
+						return (T) value;
+					}
+					load.complete(data);
+				}
+				catch (RuntimeException | Error ex) {
+					load.completeExceptionally(ex);
+					throw ex;
+				}
+				finally {
+					this.loads.remove(key, load);
+				}
+			}
+		}
+		this.hitCount.increment();
+		return (T) fromStoreValue(data);
+	}
+
+	@Override
+	public void put(Object key, @Nullable Object value) {
+		byte[] data = toStoreValue(value);
+		segmentFor(key).write(key, data, expirationFor(System.nanoTime()));
+	}
+
+	@Override
+	@Nullable
+	public ValueWrapper putIfAbsent(Object key, @Nullable Object value) {
+		byte[] data = toStoreValue(value);
+		Segment segment = segmentFor(key);
+		synchronized (segment) {
+			byte[] existing = segment.read(key);
+			if (existing == null) {
+				segment.write(key, data, expirationFor(System.nanoTime()));
+			}
+			return toValueWrapper(existing);
+		}
+	}
+
+	@Override
+	public void evict(Object key) {
+		segmentFor(key).remove(key);
+	}
+
+	@Override
+	public void clear() {
+		for (Segment segment : this.segments) {
+			segment.clear();
+		}
+	}
+
+	@Override
+	protected byte[] toStoreValue(@Nullable Object userValue) {
+		Object storeValue = super.toStoreValue(userValue);
+		try {
+			ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+			this.serialization.serialize(storeValue, out);
+			return out.toByteArray();
+		}
+		catch (Throwable ex) {
+			throw new IllegalArgumentException("Failed to serialize cache value '" + userValue +
+					"'. Does it implement Serializable?", ex);
+		}
+	}
+
+	@Override
+	@Nullable
+	protected Object fromStoreValue(@Nullable Object storeValue) {
+		if (storeValue == null) {
+			return null;
+		}
+		try {
+			return super.fromStoreValue(this.serialization.deserialize(
+					new ByteArrayInputStream((byte[]) storeValue)));
+		}
+		catch (Throwable ex) {
+			throw new IllegalArgumentException("Failed to deserialize cache value for cache '" + getName() + "'", ex);
+		}
+	}
+
+
+	/**
+	 * Return the number of entries currently held in this cache,
+	 * including expired entries that have not been purged yet.
+	 */
+	public long getSize() {
+		long size = 0;
+		for (Segment segment : this.segments) {
+			size += segment.size();
+		}
+		return size;
+	}
+
+	/**
+	 * Return the number of bytes of serialized values currently held in this cache.
+	 */
+	public long getUsedBytes() {
+		long usedBytes = 0;
+		for (Segment segment : this.segments) {
+			usedBytes += segment.usedBytes();
+		}
+		return usedBytes;
+	}
+
+	/**
+	 * Return the number of lookups that found a cached value.
+	 */
+	public long getHitCount() {
+		return this.hitCount.sum();
+	}
+
+	/**
+	 * Return the number of lookups that did not find a cached value.
+	 */
+	public long getMissCount() {
+		return this.missCount.sum();
+	}
+
+	/**
+	 * Return the number of entries removed because a size bound was
+	 * reached or because they expired.
+	 */
+	public long getEvictionCount() {
+		return this.evictionCount.sum();
+	}
+
+
+	private Segment segmentFor(Object key) {
+		int hash = key.hashCode();
+		hash ^= (hash >>> 16);
+		return this.segments[(hash & Integer.MAX_VALUE) % this.segments.length];
+	}
+
+	private long expirationFor(long now) {
+		return (this.timeToLiveNanos > 0 ? now + this.timeToLiveNanos : 0);
+	}
+
+
+	/**
+	 * An ongoing value load for a specific key, completed with the serialized
+	 * value or with the exception that prevented it from being loaded.
+	 */
+	private static final class Load extends CompletableFuture<byte[]> {
+
+		private final Thread thread = Thread.currentThread();
+
+		byte[] await(Object key, Callable<?> valueLoader) {
+			Assert.state(this.thread != Thread.currentThread(),
+					() -> "Recursive value load for key '" + key + "'");
+			try {
+				return get();
+			}
+			catch (ExecutionException ex) {
+				throw new ValueRetrievalException(key, valueLoader, ex.getCause());
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				throw new ValueRetrievalException(key, valueLoader, ex);
+			}
+		}
+	}
+
+
+	/**
+	 * Index entry for a serialized value within a segment buffer.
+	 */
+	private static final class Entry {
+
+		int offset;
+
+		final int length;
+
+		final long expiration;
+
+		Entry(int offset, int length, long expiration) {
+			this.offset = offset;
+			this.length = length;
+			this.expiration = expiration;
+		}
+
+		boolean isExpired(long now) {
+			return (this.expiration != 0 && now - this.expiration >= 0);
+		}
+	}
+
+
+	/**
+	 * A bounded region of the cache, with its own direct buffer and an
+	 * access-ordered index. Values are appended to the buffer; space freed
+	 * by removed entries is reclaimed by compacting the buffer once the
+	 * append position reaches its end.
+	 */
+	private final class Segment {
+
+		private final int maxBytes;
+
+		private final long maxEntries;
+
+		private final LinkedHashMap<Object, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+		@Nullable
+		private ByteBuffer buffer;
+
+		private int position;
+
+		private int usedBytes;
+
+		Segment(int maxBytes, long maxEntries) {
+			this.maxBytes = maxBytes;
+			this.maxEntries = maxEntries;
+		}
+
+		@Nullable
+		synchronized byte[] read(Object key) {
+			Entry entry = this.entries.get(key);
+			if (entry == null) {
+				return null;
+			}
+			if (entry.isExpired(System.nanoTime())) {
+				this.entries.remove(key);
+				this.usedBytes -= entry.length;
+				evictionCount.increment();
+				return null;
+			}
+			Assert.state(this.buffer != null, "No buffer");
+			byte[] data = new byte[entry.length];
+			this.buffer.position(entry.offset);
+			this.buffer.get(data);
+			return data;
+		}
+
+		synchronized void write(Object key, byte[] data, long expiration) {
+			remove(key);
+			if (data.length > this.maxBytes) {
+				// Cannot ever fit into this segment: leave the key unmapped.
+				return;
+			}
+			makeRoom(data.length);
+			Assert.state(this.buffer != null, "No buffer");
+			this.buffer.position(this.position);
+			this.buffer.put(data);
+			this.entries.put(key, new Entry(this.position, data.length, expiration));
+			this.position += data.length;
+			this.usedBytes += data.length;
+		}
+
+		synchronized void remove(Object key) {
+			Entry entry = this.entries.remove(key);
+			if (entry != null) {
+				this.usedBytes -= entry.length;
+			}
+		}
+
+		synchronized void clear() {
+			this.entries.clear();
+			this.buffer = null;
+			this.position = 0;
+			this.usedBytes = 0;
+		}
+
+		synchronized int size() {
+			return this.entries.size();
+		}
+
+		synchronized int usedBytes() {
+			return this.usedBytes;
+		}
+
+		private void makeRoom(int length) {
+			if (exceedsBounds(length)) {
+				purgeExpired();
+			}
+			Iterator<Entry> it = this.entries.values().iterator();
+			while (exceedsBounds(length) && it.hasNext()) {
+				Entry eldest = it.next();
+				it.remove();
+				this.usedBytes -= eldest.length;
+				evictionCount.increment();
+			}
+			int capacity = (this.buffer != null ? this.buffer.capacity() : 0);
+			if (this.position + length > capacity) {
+				int required = this.usedBytes + length;
+				int newCapacity = Math.max(capacity, Math.min(INITIAL_SEGMENT_CAPACITY, this.maxBytes));
+				while (newCapacity < required) {
+					newCapacity = (int) Math.min((long) newCapacity * 2, this.maxBytes);
+				}
+				compact(newCapacity);
+			}
+		}
+
+		private boolean exceedsBounds(int length) {
+			return (this.usedBytes + length > this.maxBytes ||
+					(this.maxEntries > 0 && this.entries.size() >= this.maxEntries));
+		}
+
+		private void purgeExpired() {
+			long now = System.nanoTime();
+			Iterator<Entry> it = this.entries.values().iterator();
+			while (it.hasNext()) {
+				Entry entry = it.next();
+				if (entry.isExpired(now)) {
+					it.remove();
+					this.usedBytes -= entry.length;
+					evictionCount.increment();
+				}
+			}
+		}
+
+		/**
+		 * Move all live values to the start of a buffer with the given capacity,
+		 * reusing the current buffer if it is large enough.
+		 */
+		private void compact(int capacity) {
+			ByteBuffer source = this.buffer;
+			ByteBuffer target = (source != null && source.capacity() == capacity ?
+					source : ByteBuffer.allocateDirect(capacity));
+			int newPosition = 0;
+			if (source != null) {
+				List<Entry> live = new ArrayList<>(this.entries.values());
+				live.sort((e1, e2) -> Integer.compare(e1.offset, e2.offset));
+				byte[] chunk = new byte[0];
+				for (Entry entry : live) {
+					if (chunk.length < entry.length) {
+						chunk = new byte[entry.length];
+					}
+					source.position(entry.offset);
+					source.get(chunk, 0, entry.length);
+					target.position(newPosition);
+					target.put(chunk, 0, entry.length);
+					entry.offset = newPosition;
+					newPosition += entry.length;
+				}
+			}
+			this.buffer = target;
+			this.position = newPosition;
+		}
+	}
+
+}
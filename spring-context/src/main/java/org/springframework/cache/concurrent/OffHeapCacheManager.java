@@ -0,0 +1,253 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.concurrent;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.beans.factory.BeanClassLoaderAware;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.serializer.support.SerializationDelegate;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ObjectUtils;
+
+/**
+ * {@link CacheManager} implementation that lazily builds {@link OffHeapCache}
+ * instances for each {@link #getCache} request. Also supports a 'static' mode where
+ * the set of cache names is pre-defined through {@link #setCacheNames}, with no
+ * dynamic creation of further cache regions at runtime.
+ *
+ * <p>All caches share the same configuration: the size bounds and time-to-live
+ * apply to each cache individually.
+ *
+ * @since 5.2
+ * @see OffHeapCache
+ */
+public class OffHeapCacheManager implements CacheManager, BeanClassLoaderAware {
+
+	/**
+	 * The default maximum number of bytes per cache: 64 MB.
+	 */
+	public static final long DEFAULT_MAX_BYTES = 64 * 1024 * 1024;
+
+
+	private final ConcurrentMap<String, Cache> cacheMap = new ConcurrentHashMap<>(16);
+
+	private boolean dynamic = true;
+
+	private long maxBytes = DEFAULT_MAX_BYTES;
+
+	private long maxEntries = 0;
+
+	@Nullable
+	private Duration timeToLive;
+
+	private int concurrencyLevel = OffHeapCache.DEFAULT_CONCURRENCY_LEVEL;
+
+	private boolean allowNullValues = true;
+
+	private SerializationDelegate serialization = new SerializationDelegate(ClassUtils.getDefaultClassLoader());
+
+
+	/**
+	 * Construct a dynamic OffHeapCacheManager,
+	 * lazily creating cache instances as they are being requested.
+	 */
+	public OffHeapCacheManager() {
+	}
+
+	/**
+	 * Construct a static OffHeapCacheManager,
+	 * managing caches for the specified cache names only.
+	 */
+	public OffHeapCacheManager(String... cacheNames) {
+		setCacheNames(Arrays.asList(cacheNames));
+	}
+
+
+	/**
+	 * Specify the set of cache names for this CacheManager's 'static' mode.
+	 * <p>The number of caches and their names will be fixed after a call to this method,
+	 * with no creation of further cache regions at runtime.
+	 * <p>Calling this with a {@code null} collection argument resets the
+	 * mode to 'dynamic', allowing for further creation of caches again.
+	 */
+	public void setCacheNames(@Nullable Collection<String> cacheNames) {
+		if (cacheNames != null) {
+			for (String name : cacheNames) {
+				this.cacheMap.put(name, createOffHeapCache(name));
+			}
+			this.dynamic = false;
+		}
+		else {
+			this.dynamic = true;
+		}
+	}
+
+	/**
+	 * Specify the maximum number of bytes of serialized values per cache.
+	 * <p>Default is {@link #DEFAULT_MAX_BYTES}.
+	 * <p>Note: A change of this setting will reset all existing caches,
+	 * if any, to reconfigure them with the new bound.
+	 */
+	public void setMaxBytes(long maxBytes) {
+		Assert.isTrue(maxBytes > 0, "Maximum bytes must be positive");
+		if (maxBytes != this.maxBytes) {
+			this.maxBytes = maxBytes;
+			recreateCaches();
+		}
+	}
+
+	/**
+	 * Return the maximum number of bytes of serialized values per cache.
+	 */
+	public long getMaxBytes() {
+		return this.maxBytes;
+	}
+
+	/**
+	 * Specify the maximum number of entries per cache.
+	 * <p>Default is "0", bounding caches by their number of bytes only.
+	 * <p>Note: A change of this setting will reset all existing caches,
+	 * if any, to reconfigure them with the new bound.
+	 */
+	public void setMaxEntries(long maxEntries) {
+		Assert.isTrue(maxEntries >= 0, "Maximum entries must not be negative");
+		if (maxEntries != this.maxEntries) {
+			this.maxEntries = maxEntries;
+			recreateCaches();
+		}
+	}
+
+	/**
+	 * Return the maximum number of entries per cache, or {@code 0} if unbounded.
+	 */
+	public long getMaxEntries() {
+		return this.maxEntries;
+	}
+
+	/**
+	 * Specify the time after which cache entries expire.
+	 * <p>Default is none, keeping entries until they are evicted.
+	 * <p>Note: A change of this setting will reset all existing caches,
+	 * if any, to reconfigure them with the new time-to-live.
+	 */
+	public void setTimeToLive(@Nullable Duration timeToLive) {
+		if (!ObjectUtils.nullSafeEquals(timeToLive, this.timeToLive)) {
+			this.timeToLive = timeToLive;
+			recreateCaches();
+		}
+	}
+
+	/**
+	 * Return the time after which cache entries expire, if any.
+	 */
+	@Nullable
+	public Duration getTimeToLive() {
+		return this.timeToLive;
+	}
+
+	/**
+	 * Specify the number of independently locked segments per cache.
+	 * <p>Default is {@link OffHeapCache#DEFAULT_CONCURRENCY_LEVEL}.
+	 * <p>Note: A change of this setting will reset all existing caches,
+	 * if any, to reconfigure them with the new concurrency level.
+	 */
+	public void setConcurrencyLevel(int concurrencyLevel) {
+		Assert.isTrue(concurrencyLevel > 0, "Concurrency level must be positive");
+		if (concurrencyLevel != this.concurrencyLevel) {
+			this.concurrencyLevel = concurrencyLevel;
+			recreateCaches();
+		}
+	}
+
+	/**
+	 * Specify whether to accept and convert {@code null} values for all caches
+	 * in this cache manager.
+	 * <p>Default is "true".
+	 * <p>Note: A change of the null-value setting will reset all existing caches,
+	 * if any, to reconfigure them with the new null-value requirement.
+	 */
+	public void setAllowNullValues(boolean allowNullValues) {
+		if (allowNullValues != this.allowNullValues) {
+			this.allowNullValues = allowNullValues;
+			recreateCaches();
+		}
+	}
+
+	/**
+	 * Return whether this cache manager accepts and converts {@code null} values
+	 * for all of its caches.
+	 */
+	public boolean isAllowNullValues() {
+		return this.allowNullValues;
+	}
+
+	@Override
+	public void setBeanClassLoader(ClassLoader classLoader) {
+		this.serialization = new SerializationDelegate(classLoader);
+		// Need to recreate all Cache instances with the new ClassLoader...
+		recreateCaches();
+	}
+
+
+	@Override
+	public Collection<String> getCacheNames() {
+		return Collections.unmodifiableSet(this.cacheMap.keySet());
+	}
+
+	@Override
+	@Nullable
+	public Cache getCache(String name) {
+		Cache cache = this.cacheMap.get(name);
+		if (cache == null && this.dynamic) {
+			synchronized (this.cacheMap) {
+				cache = this.cacheMap.get(name);
+				if (cache == null) {
+					cache = createOffHeapCache(name);
+					this.cacheMap.put(name, cache);
+				}
+			}
+		}
+		return cache;
+	}
+
+	private void recreateCaches() {
+		for (Map.Entry<String, Cache> entry : this.cacheMap.entrySet()) {
+			entry.setValue(createOffHeapCache(entry.getKey()));
+		}
+	}
+
+	/**
+	 * Create a new OffHeapCache instance for the specified cache name.
+	 * @param name the name of the cache
+	 * @return the OffHeapCache (or a decorator thereof)
+	 */
+	protected Cache createOffHeapCache(String name) {
+		return new OffHeapCache(name, this.maxBytes, this.maxEntries, this.timeToLive,
+				this.allowNullValues, this.concurrencyLevel, this.serialization);
+	}
+
+}
@@ -21,15 +21,24 @@ import java.lang.reflect.Proxy;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
 import java.util.function.Supplier;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import org.springframework.aop.framework.AopProxyUtils;
 import org.springframework.aop.support.AopUtils;
@@ -44,6 +53,9 @@ import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.context.expression.AnnotatedElementKey;
 import org.springframework.core.BridgeMethodResolver;
+import org.springframework.core.CollectionFactory;
+import org.springframework.core.ReactiveAdapter;
+import org.springframework.core.ReactiveAdapterRegistry;
 import org.springframework.expression.EvaluationContext;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
@@ -83,6 +95,10 @@ import org.springframework.util.function.SupplierUtils;
 public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		implements BeanFactoryAware, InitializingBean, SmartInitializingSingleton {
 
+	private static final boolean reactorPresent = ClassUtils.isPresent(
+			"reactor.core.publisher.Mono", CacheAspectSupport.class.getClassLoader());
+
+
 	protected final Log logger = LogFactory.getLog(getClass());
 
 	private final Map<CacheOperationCacheKey, CacheOperationMetadata> metadataCache = new ConcurrentHashMap<>(1024);
@@ -100,6 +116,9 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 	@Nullable
 	private BeanFactory beanFactory;
 
+	@Nullable
+	private CacheMissCoalescer cacheMissCoalescer;
+
 	private boolean initialized = false;
 
 
@@ -194,6 +213,36 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		this.cacheResolver = SingletonSupplier.of(new SimpleCacheResolver(cacheManager));
 	}
 
+	/**
+	 * Set whether concurrent cache misses for the same key should be coalesced
+	 * into a single invocation of the underlying method.
+	 * <p>Applies to methods that only declare {@code @Cacheable} operations
+	 * (without {@code sync} flag): the first caller on a miss invokes the method
+	 * and populates the cache, while concurrent callers for the same keys wait
+	 * for that result instead of invoking the method themselves. In contrast to
+	 * {@code @Cacheable(sync=true)}, this works with multiple caches and with
+	 * {@code unless} conditions.
+	 * <p>{@link CompletableFuture} return values are cached as returned by the
+	 * method, just like without coalescing: concurrent callers share the future
+	 * returned by a single invocation. If Reactor is present, reactive return
+	 * types are supported as well: their resolved value is cached, and callers
+	 * share the pending result without blocking. Note that on a miss, a reactive
+	 * result gets subscribed to immediately so that it can be shared.
+	 * <p>Default is "false".
+	 * @since 5.2
+	 */
+	public void setCoalesceCacheMisses(boolean coalesceCacheMisses) {
+		this.cacheMissCoalescer = (coalesceCacheMisses ? new CacheMissCoalescer() : null);
+	}
+
+	/**
+	 * Return whether concurrent cache misses for the same key are coalesced.
+	 * @since 5.2
+	 */
+	public boolean isCoalesceCacheMisses() {
+		return (this.cacheMissCoalescer != null);
+	}
+
 	/**
 	 * Set the containing {@link BeanFactory} for {@link CacheManager} and other
 	 * service lookups.
@@ -392,6 +441,22 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 			}
 		}
 
+		// Special handling of batch invocation
+		if (contexts.isBatch()) {
+			CacheOperationContext context = contexts.get(CacheableOperation.class).iterator().next();
+			if (isConditionPassing(context, CacheOperationExpressionEvaluator.NO_RESULT)) {
+				return wrapCacheValue(method, executeBatch(invoker, method, context));
+			}
+			else {
+				// No caching required, only call the underlying method
+				return invokeOperation(invoker);
+			}
+		}
+
+		// Coalesce concurrent misses, if enabled and applicable
+		if (this.cacheMissCoalescer != null && contexts.isCacheableOnly()) {
+			return this.cacheMissCoalescer.execute(invoker, method, contexts.get(CacheableOperation.class));
+		}
 
 		// Process any early evictions
 		processCacheEvicts(contexts.get(CacheEvictOperation.class), true,
@@ -435,6 +500,81 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		return returnValue;
 	}
 
+	/**
+	 * Look up each element of a collection-valued key individually, invoke the
+	 * method for the missing elements only and merge the results.
+	 */
+	private Map<Object, Object> executeBatch(
+			CacheOperationInvoker invoker, Method method, CacheOperationContext context) {
+
+		Object key = generateKey(context, CacheOperationExpressionEvaluator.NO_RESULT);
+		if (!(key instanceof Collection)) {
+			throw new IllegalStateException("@Cacheable(batch=true) requires a Collection key but got [" +
+					key + "] for operation " + context.metadata.operation);
+		}
+		Collection<?> keys = (Collection<?>) key;
+
+		Map<Object, Cache.ValueWrapper> cacheHits = new HashMap<>(keys.size());
+		List<Object> missingKeys = new ArrayList<>(keys);
+		for (Cache cache : context.getCaches()) {
+			if (missingKeys.isEmpty()) {
+				break;
+			}
+			Map<Object, Cache.ValueWrapper> found = doGetAll(cache, missingKeys);
+			cacheHits.putAll(found);
+			missingKeys.removeIf(found::containsKey);
+		}
+		if (logger.isTraceEnabled()) {
+			logger.trace("Batch cache lookup for " + keys.size() + " key(s) in cache(s) " +
+					context.getCacheNames() + " found " + cacheHits.size() + " entries");
+		}
+
+		Map<?, ?> loaded = Collections.emptyMap();
+		if (!missingKeys.isEmpty()) {
+			Object[] args = context.args;
+			int index = -1;
+			for (int i = 0; i < args.length; i++) {
+				if (args[i] == key) {
+					index = i;
+					break;
+				}
+			}
+			if (index == -1) {
+				throw new IllegalStateException("@Cacheable(batch=true) requires the key to be a method " +
+						"argument itself for operation " + context.metadata.operation);
+			}
+			Collection<Object> missingArg =
+					CollectionFactory.createCollection(method.getParameterTypes()[index], missingKeys.size());
+			missingArg.addAll(missingKeys);
+			args[index] = missingArg;
+			Object result;
+			try {
+				result = unwrapReturnValue(invokeOperation(invoker));
+			}
+			finally {
+				args[index] = key;
+			}
+			if (result != null) {
+				loaded = (Map<?, ?>) result;
+				for (Cache cache : context.getCaches()) {
+					doPutAll(cache, loaded);
+				}
+			}
+		}
+
+		Map<Object, Object> merged = new LinkedHashMap<>(keys.size());
+		for (Object element : keys) {
+			Cache.ValueWrapper cacheHit = cacheHits.get(element);
+			if (cacheHit != null) {
+				merged.put(element, cacheHit.get());
+			}
+			else if (loaded.containsKey(element)) {
+				merged.put(element, loaded.get(element));
+			}
+		}
+		return merged;
+	}
+
 	@Nullable
 	private Object wrapCacheValue(Method method, @Nullable Object cacheValue) {
 		if (method.getReturnType() == Optional.class &&
@@ -590,6 +730,8 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 
 		private final boolean sync;
 
+		private final boolean batch;
+
 		public CacheOperationContexts(Collection<? extends CacheOperation> operations, Method method,
 				Object[] args, Object target, Class<?> targetClass) {
 
@@ -598,6 +740,7 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 				this.contexts.add(op.getClass(), getOperationContext(op, method, args, target, targetClass));
 			}
 			this.sync = determineSyncFlag(method);
+			this.batch = determineBatchFlag(method);
 		}
 
 		public Collection<CacheOperationContext> get(Class<? extends CacheOperation> operationClass) {
@@ -609,6 +752,14 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 			return this.sync;
 		}
 
+		public boolean isBatch() {
+			return this.batch;
+		}
+
+		public boolean isCacheableOnly() {
+			return (this.contexts.size() == 1 && this.contexts.containsKey(CacheableOperation.class));
+		}
+
 		private boolean determineSyncFlag(Method method) {
 			List<CacheOperationContext> cacheOperationContexts = this.contexts.get(CacheableOperation.class);
 			if (cacheOperationContexts == null) {  // no @Cacheable operation at all
@@ -644,6 +795,45 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 			}
 			return false;
 		}
+
+		private boolean determineBatchFlag(Method method) {
+			List<CacheOperationContext> cacheOperationContexts = this.contexts.get(CacheableOperation.class);
+			if (cacheOperationContexts == null) {  // no @Cacheable operation at all
+				return false;
+			}
+			boolean batchEnabled = false;
+			for (CacheOperationContext cacheOperationContext : cacheOperationContexts) {
+				if (((CacheableOperation) cacheOperationContext.getOperation()).isBatch()) {
+					batchEnabled = true;
+					break;
+				}
+			}
+			if (batchEnabled) {
+				if (this.contexts.size() > 1 || cacheOperationContexts.size() > 1) {
+					throw new IllegalStateException(
+							"@Cacheable(batch=true) cannot be combined with other cache operations on '" + method + "'");
+				}
+				CacheableOperation operation = (CacheableOperation) cacheOperationContexts.get(0).getOperation();
+				if (operation.isSync()) {
+					throw new IllegalStateException(
+							"@Cacheable(batch=true) cannot be combined with sync attribute on '" + operation + "'");
+				}
+				if (StringUtils.hasText(operation.getUnless())) {
+					throw new IllegalStateException(
+							"@Cacheable(batch=true) does not support unless attribute on '" + operation + "'");
+				}
+				Class<?> returnType = method.getReturnType();
+				if (returnType == Optional.class) {
+					returnType = Map.class;
+				}
+				if (!Map.class.isAssignableFrom(returnType) || !returnType.isAssignableFrom(LinkedHashMap.class)) {
+					throw new IllegalStateException(
+							"@Cacheable(batch=true) requires a Map return type on '" + method + "'");
+				}
+				return true;
+			}
+			return false;
+		}
 	}
 
 
@@ -803,6 +993,201 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 	}
 
 
+	/**
+	 * Coalesces concurrent misses for the same cache keys into a single
+	 * invocation, sharing its result with all waiting callers.
+	 */
+	private class CacheMissCoalescer {
+
+		private final ConcurrentMap<List<Object>, Flight> flights = new ConcurrentHashMap<>(64);
+
+		@Nullable
+		private final ReactiveCacheMissCoalescer reactiveCoalescer =
+				(reactorPresent ? new ReactiveCacheMissCoalescer() : null);
+
+		@Nullable
+		public Object execute(CacheOperationInvoker invoker, Method method, Collection<CacheOperationContext> contexts) {
+			Class<?> returnType = method.getReturnType();
+			// Futures are cached as returned, like without coalescing, even if Reactor adapts them
+			if (this.reactiveCoalescer != null && !CompletionStage.class.isAssignableFrom(returnType)) {
+				ReactiveAdapter adapter = this.reactiveCoalescer.getAdapter(returnType);
+				if (adapter != null) {
+					return this.reactiveCoalescer.execute(invoker, method, contexts, adapter);
+				}
+			}
+
+			Cache.ValueWrapper cacheHit = findCachedItem(contexts);
+			if (cacheHit != null) {
+				return wrapCacheValue(method, cacheHit.get());
+			}
+			List<CachePutRequest> cachePutRequests = new LinkedList<>();
+			collectPutRequests(contexts, CacheOperationExpressionEvaluator.NO_RESULT, cachePutRequests);
+			if (cachePutRequests.isEmpty()) {
+				return invokeOperation(invoker);
+			}
+
+			List<Object> flightKey = getFlightKey(method, cachePutRequests);
+			Flight flight = new Flight();
+			Flight existing = this.flights.putIfAbsent(flightKey, flight);
+			if (existing != null) {
+				if (existing.leader == Thread.currentThread()) {
+					// Reentrant invocation for the same keys: waiting would never end
+					return invokeOperation(invoker);
+				}
+				return awaitResult(existing);
+			}
+			try {
+				Object returnValue = invokeOperation(invoker);
+				Object cacheValue = unwrapReturnValue(returnValue);
+				for (CachePutRequest cachePutRequest : cachePutRequests) {
+					cachePutRequest.apply(cacheValue);
+				}
+				flight.complete(returnValue);
+				return returnValue;
+			}
+			catch (Throwable ex) {
+				flight.completeExceptionally(ex instanceof CacheOperationInvoker.ThrowableWrapper ?
+						((CacheOperationInvoker.ThrowableWrapper) ex).getOriginal() : ex);
+				throw ex;
+			}
+			finally {
+				this.flights.remove(flightKey, flight);
+			}
+		}
+
+		/**
+		 * Look up the cached value for the given contexts, or otherwise join
+		 * the pending load for the same keys, or start it through the given loader.
+		 * @return a future for the cache value
+		 */
+		public CompletableFuture<Object> loadAsync(Method method, Collection<CacheOperationContext> contexts,
+				Supplier<CompletionStage<?>> loader) {
+
+			Cache.ValueWrapper cacheHit = findCachedItem(contexts);
+			if (cacheHit != null) {
+				return CompletableFuture.completedFuture(cacheHit.get());
+			}
+			List<CachePutRequest> cachePutRequests = new LinkedList<>();
+			collectPutRequests(contexts, CacheOperationExpressionEvaluator.NO_RESULT, cachePutRequests);
+			if (cachePutRequests.isEmpty()) {
+				CompletionStage<?> result = loader.get();
+				return (result != null ? result.thenApply(value -> (Object) value).toCompletableFuture() :
+						CompletableFuture.completedFuture(null));
+			}
+
+			List<Object> flightKey = getFlightKey(method, cachePutRequests);
+			Flight flight = new Flight();
+			Flight existing = this.flights.putIfAbsent(flightKey, flight);
+			if (existing != null) {
+				return existing;
+			}
+			CompletionStage<?> result;
+			try {
+				result = loader.get();
+			}
+			catch (Throwable ex) {
+				this.flights.remove(flightKey, flight);
+				flight.completeExceptionally(ex instanceof CacheOperationInvoker.ThrowableWrapper ?
+						((CacheOperationInvoker.ThrowableWrapper) ex).getOriginal() : ex);
+				throw ex;
+			}
+			if (result == null) {
+				result = CompletableFuture.completedFuture(null);
+			}
+			result.whenComplete((value, ex) -> {
+				Throwable failure = ex;
+				if (failure == null) {
+					try {
+						for (CachePutRequest cachePutRequest : cachePutRequests) {
+							cachePutRequest.apply(value);
+						}
+					}
+					catch (Throwable putEx) {
+						failure = putEx;
+					}
+				}
+				this.flights.remove(flightKey, flight);
+				if (failure != null) {
+					flight.completeExceptionally(failure);
+				}
+				else {
+					flight.complete(value);
+				}
+			});
+			return flight;
+		}
+
+		private List<Object> getFlightKey(Method method, List<CachePutRequest> cachePutRequests) {
+			List<Object> flightKey = new ArrayList<>(cachePutRequests.size() * 2 + 1);
+			flightKey.add(method);
+			for (CachePutRequest cachePutRequest : cachePutRequests) {
+				flightKey.add(cachePutRequest.context.getCacheNames());
+				flightKey.add(cachePutRequest.key);
+			}
+			return flightKey;
+		}
+
+		@Nullable
+		private Object awaitResult(Flight flight) {
+			try {
+				return flight.get();
+			}
+			catch (ExecutionException ex) {
+				// The flight holds the original exception: wrap it for each caller,
+				// as the invoker does, rather than sharing the leader's wrapper
+				throw new CacheOperationInvoker.ThrowableWrapper(ex.getCause());
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				throw new CacheOperationInvoker.ThrowableWrapper(ex);
+			}
+		}
+	}
+
+
+	/**
+	 * A pending load, remembering the thread that started it.
+	 */
+	@SuppressWarnings("serial")
+	private static class Flight extends CompletableFuture<Object> {
+
+		final Thread leader = Thread.currentThread();
+	}
+
+
+	/**
+	 * Reactor-based delegate for coalescing misses of methods with a reactive
+	 * return type, caching the emitted value (or list of values, for multi-value
+	 * types).
+	 */
+	private class ReactiveCacheMissCoalescer {
+
+		private final ReactiveAdapterRegistry registry = ReactiveAdapterRegistry.getSharedInstance();
+
+		@Nullable
+		public ReactiveAdapter getAdapter(Class<?> returnType) {
+			ReactiveAdapter adapter = this.registry.getAdapter(returnType);
+			return (adapter != null && !adapter.isNoValue() ? adapter : null);
+		}
+
+		public Object execute(CacheOperationInvoker invoker, Method method,
+				Collection<CacheOperationContext> contexts, ReactiveAdapter adapter) {
+
+			Assert.state(cacheMissCoalescer != null, "No CacheMissCoalescer");
+			CompletableFuture<Object> future = cacheMissCoalescer.loadAsync(method, contexts, () -> {
+				Publisher<?> publisher = adapter.toPublisher(invokeOperation(invoker));
+				return (adapter.isMultiValue() ? Flux.from(publisher).collectList().toFuture() :
+						Mono.from(publisher).toFuture());
+			});
+			Mono<Object> result = Mono.fromFuture(future.thenApply(value -> value));
+			if (adapter.isMultiValue()) {
+				return adapter.fromPublisher(result.flatMapMany(value -> Flux.fromIterable((Iterable<?>) value)));
+			}
+			return adapter.fromPublisher(result);
+		}
+	}
+
+
 	private class CachePutRequest {
 
 		private final CacheOperationContext context;
@@ -0,0 +1,758 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.annotation;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.MutablePropertyValues;
+import org.springframework.beans.PropertyValue;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinitionHolder;
+import org.springframework.beans.factory.config.ConstructorArgumentValues;
+import org.springframework.beans.factory.config.RuntimeBeanNameReference;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.beans.factory.config.SingletonBeanRegistry;
+import org.springframework.beans.factory.config.TypedStringValue;
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
+import org.springframework.beans.factory.support.AutowireCandidateQualifier;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.GenericBeanDefinition;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.AttributeAccessor;
+import org.springframework.core.env.EnvironmentCapable;
+import org.springframework.core.io.Resource;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.StandardAnnotationMetadata;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.NumberUtils;
+import org.springframework.util.ObjectUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * Snapshot of the bean definitions of an application context after
+ * configuration class processing, i.e. after classpath scanning, parsing of
+ * {@link Configuration @Configuration} classes and evaluation of their
+ * conditions, intended to be captured at build time and loaded at runtime.
+ *
+ * <p>A context populated from a snapshot skips the corresponding work on
+ * refresh: configuration classes are restored with their processed state, so
+ * that {@link ConfigurationClassPostProcessor} only enhances them instead of
+ * parsing them again. The importing class metadata for
+ * {@link ImportAware} configuration classes is restored from the snapshot as well.
+ *
+ * <pre class="code">
+ * // build time
+ * AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+ * context.register(AppConfig.class);
+ * BeanDefinitionSnapshot.capture(context).store(outputStream);
+ *
+ * // runtime
+ * GenericApplicationContext context = new GenericApplicationContext();
+ * BeanDefinitionSnapshot.load(snapshotResource).registerBeanDefinitions(context);
+ * context.refresh();
+ * </pre>
+ *
+ * <p>Alternatively, {@link #main} writes a snapshot for the given component
+ * classes to a file, e.g. as part of a build.
+ *
+ * <p>Note that conditions are evaluated against the environment at capture
+ * time. A snapshot records the active profiles it has been captured with and
+ * refuses to be loaded into a context with different active profiles.
+ * Bean definitions need to be expressible in the snapshot format: instance
+ * suppliers, method overrides and values other than bean references, strings,
+ * primitives, classes and enums are rejected on capture.
+ *
+ * @since 5.2
+ * @see ConfigurationClassPostProcessor
+ * @see org.springframework.context.index.CandidateComponentsIndex
+ */
+public final class BeanDefinitionSnapshot {
+
+	/**
+	 * The default location for a snapshot captured at build time.
+	 */
+	public static final String DEFAULT_SNAPSHOT_LOCATION = "META-INF/spring.snapshot";
+
+	private static final String VERSION = "1";
+
+	private static final String KIND_ROOT = "root";
+
+	private static final String KIND_GENERIC = "generic";
+
+	private static final String KIND_BEAN_METHOD = "beanMethod";
+
+	private static final Log logger = LogFactory.getLog(BeanDefinitionSnapshot.class);
+
+
+	private final Map<String, String> entries;
+
+
+	private BeanDefinitionSnapshot(Map<String, String> entries) {
+		this.entries = entries;
+	}
+
+
+	/**
+	 * Return the names of the beans contained in this snapshot, in registration order.
+	 */
+	public String[] getBeanNames() {
+		int count = Integer.parseInt(this.entries.getOrDefault("beans", "0"));
+		String[] beanNames = new String[count];
+		for (int i = 0; i < count; i++) {
+			beanNames[i] = this.entries.get(key(i, "name"));
+		}
+		return beanNames;
+	}
+
+	/**
+	 * Register the bean definitions contained in this snapshot with the given
+	 * registry, typically a {@link GenericApplicationContext} before its refresh.
+	 * <p>Bean definitions already present in the registry, e.g. the annotation
+	 * config processors registered by {@link AnnotationConfigApplicationContext},
+	 * are left as they are.
+	 * @param registry the registry to register the bean definitions with
+	 * @throws IllegalStateException if the snapshot has been captured with
+	 * different active profiles than the registry's environment declares
+	 */
+	public void registerBeanDefinitions(BeanDefinitionRegistry registry) {
+		checkActiveProfiles(registry);
+		ClassLoader classLoader = ClassUtils.getDefaultClassLoader();
+		if (registry instanceof ConfigurableApplicationContext) {
+			classLoader = ((ConfigurableApplicationContext) registry).getBeanFactory().getBeanClassLoader();
+		}
+
+		String[] beanNames = getBeanNames();
+		Map<String, AbstractBeanDefinition> beanDefinitions = new HashMap<>(beanNames.length);
+		for (int i = 0; i < beanNames.length; i++) {
+			beanDefinitions.put(beanNames[i], readBeanDefinition(i, classLoader));
+		}
+		Map<String, String> importingClasses = new HashMap<>();
+		for (int i = 0; i < beanNames.length; i++) {
+			AbstractBeanDefinition bd = beanDefinitions.get(beanNames[i]);
+			String decoratedBeanName = this.entries.get(key(i, "decoratedDefinition"));
+			if (decoratedBeanName != null && bd instanceof RootBeanDefinition) {
+				AbstractBeanDefinition decorated = beanDefinitions.get(decoratedBeanName);
+				Assert.state(decorated != null, () -> "Decorated bean definition '" + decoratedBeanName + "' not in snapshot");
+				((RootBeanDefinition) bd).setDecoratedDefinition(new BeanDefinitionHolder(decorated, decoratedBeanName,
+						StringUtils.commaDelimitedListToStringArray(this.entries.get(key(i, "decoratedDefinition.aliases")))));
+			}
+			String importedBy = this.entries.get(key(i, "importedBy"));
+			if (importedBy != null && bd.getBeanClassName() != null) {
+				importingClasses.put(bd.getBeanClassName(), importedBy);
+			}
+			if (registry.containsBeanDefinition(beanNames[i])) {
+				if (logger.isDebugEnabled()) {
+					logger.debug("Skipping bean definition '" + beanNames[i] + "' from snapshot: already registered");
+				}
+				continue;
+			}
+			registry.registerBeanDefinition(beanNames[i], bd);
+			for (String alias : StringUtils.commaDelimitedListToStringArray(this.entries.get(key(i, "aliases")))) {
+				registry.registerAlias(beanNames[i], alias);
+			}
+		}
+
+		SingletonBeanRegistry singletonRegistry = getSingletonRegistry(registry);
+		if (singletonRegistry != null &&
+				!singletonRegistry.containsSingleton(ConfigurationClassPostProcessor.IMPORT_REGISTRY_BEAN_NAME)) {
+			singletonRegistry.registerSingleton(ConfigurationClassPostProcessor.IMPORT_REGISTRY_BEAN_NAME,
+					new SnapshotImportRegistry(importingClasses, classLoader));
+		}
+	}
+
+	/**
+	 * Write this snapshot to the given stream, in a properties format.
+	 * The output only depends on the captured bean definitions.
+	 * @param out the stream to write to (left open)
+	 * @throws IOException in case of I/O errors
+	 */
+	public void store(OutputStream out) throws IOException {
+		Writer writer = new OutputStreamWriter(out, StandardCharsets.ISO_8859_1);
+		writer.write("# Bean definition snapshot, see " + getClass().getName() + "\n");
+		for (Map.Entry<String, String> entry : this.entries.entrySet()) {
+			writer.write(escape(entry.getKey(), true));
+			writer.write('=');
+			writer.write(escape(entry.getValue(), false));
+			writer.write('\n');
+		}
+		writer.flush();
+	}
+
+
+	/**
+	 * Load a snapshot previously written through {@link #store}.
+	 * @param resource the resource to load the snapshot from
+	 * @return the snapshot
+	 * @throws IOException in case of I/O errors
+	 * @see #DEFAULT_SNAPSHOT_LOCATION
+	 */
+	public static BeanDefinitionSnapshot load(Resource resource) throws IOException {
+		Properties properties = new Properties();
+		try (InputStream is = resource.getInputStream()) {
+			properties.load(is);
+		}
+		String version = properties.getProperty("version");
+		if (!VERSION.equals(version)) {
+			throw new IllegalStateException("Unsupported bean definition snapshot version '" + version +
+					"' in " + resource);
+		}
+		Map<String, String> entries = new LinkedHashMap<>(properties.size());
+		for (String key : properties.stringPropertyNames()) {
+			entries.put(key, properties.getProperty(key));
+		}
+		return new BeanDefinitionSnapshot(entries);
+	}
+
+	/**
+	 * Process the configuration classes registered with the given context and
+	 * capture the resulting bean definitions.
+	 * <p>The context must not have been refreshed: configuration classes are
+	 * captured before enhancement, and no beans get instantiated. The given
+	 * context is left with the processed bean definitions.
+	 * @param context the context to capture, with its component classes registered
+	 * @return the snapshot of the context's bean definitions
+	 * @throws IllegalStateException if the context has been refreshed already,
+	 * or if one of its bean definitions cannot be expressed in a snapshot
+	 */
+	public static BeanDefinitionSnapshot capture(GenericApplicationContext context) {
+		Assert.state(!context.isActive(), "Application context must not have been refreshed");
+		DefaultListableBeanFactory beanFactory = context.getDefaultListableBeanFactory();
+
+		ConfigurationClassPostProcessor postProcessor = new ConfigurationClassPostProcessor();
+		postProcessor.setEnvironment(context.getEnvironment());
+		postProcessor.setResourceLoader(context);
+		ClassLoader classLoader = context.getClassLoader();
+		if (classLoader != null) {
+			postProcessor.setBeanClassLoader(classLoader);
+		}
+		postProcessor.postProcessBeanDefinitionRegistry(beanFactory);
+
+		ImportRegistry importRegistry = null;
+		if (beanFactory.containsSingleton(ConfigurationClassPostProcessor.IMPORT_REGISTRY_BEAN_NAME)) {
+			importRegistry = (ImportRegistry) beanFactory.getSingleton(ConfigurationClassPostProcessor.IMPORT_REGISTRY_BEAN_NAME);
+		}
+
+		Map<String, String> entries = new LinkedHashMap<>();
+		entries.put("version", VERSION);
+		entries.put("profiles", StringUtils.arrayToCommaDelimitedString(context.getEnvironment().getActiveProfiles()));
+		String[] beanNames = beanFactory.getBeanDefinitionNames();
+		entries.put("beans", String.valueOf(beanNames.length));
+		for (int i = 0; i < beanNames.length; i++) {
+			BeanDefinition bd = beanFactory.getBeanDefinition(beanNames[i]);
+			Assert.state(bd instanceof AbstractBeanDefinition,
+					() -> "Unsupported bean definition type for '" + bd + "'");
+			writeBeanDefinition(i, beanNames[i], (AbstractBeanDefinition) bd, entries);
+			String[] aliases = beanFactory.getAliases(beanNames[i]);
+			if (aliases.length > 0) {
+				entries.put(key(i, "aliases"), StringUtils.arrayToCommaDelimitedString(aliases));
+			}
+			if (importRegistry != null && bd.getBeanClassName() != null &&
+					ConfigurationClassUtils.isFullConfigurationClass(bd)) {
+				AnnotationMetadata importingClass = importRegistry.getImportingClassFor(bd.getBeanClassName());
+				if (importingClass != null) {
+					entries.put(key(i, "importedBy"), importingClass.getClassName());
+				}
+			}
+		}
+		return new BeanDefinitionSnapshot(entries);
+	}
+
+	/**
+	 * Capture a snapshot for the given component classes and write it to a file.
+	 * <p>Usage: {@code BeanDefinitionSnapshot <snapshot-file> <component-class>...}
+	 * @param args the target file, followed by the fully-qualified names of
+	 * the component classes to register
+	 * @throws Exception if the snapshot could not be captured or written
+	 * @see #DEFAULT_SNAPSHOT_LOCATION
+	 */
+	public static void main(String[] args) throws Exception {
+		if (args.length < 2) {
+			throw new IllegalArgumentException(
+					"Usage: " + BeanDefinitionSnapshot.class.getName() + " <snapshot-file> <component-class>...");
+		}
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		for (int i = 1; i < args.length; i++) {
+			context.register(ClassUtils.forName(args[i], context.getClassLoader()));
+		}
+		BeanDefinitionSnapshot snapshot = capture(context);
+		try (OutputStream out = new FileOutputStream(args[0])) {
+			snapshot.store(out);
+		}
+	}
+
+
+	private static void writeBeanDefinition(int index, String beanName, AbstractBeanDefinition bd,
+			Map<String, String> entries) {
+
+		Assert.state(bd.getInstanceSupplier() == null,
+				() -> "Cannot capture bean definition '" + beanName + "' with an instance supplier");
+		Assert.state(bd.getMethodOverrides().isEmpty(),
+				() -> "Cannot capture bean definition '" + beanName + "' with method overrides");
+
+		String kind = KIND_GENERIC;
+		if (bd instanceof AnnotatedBeanDefinition &&
+				((AnnotatedBeanDefinition) bd).getFactoryMethodMetadata() != null) {
+			kind = KIND_BEAN_METHOD;
+		}
+		else if (bd instanceof RootBeanDefinition) {
+			kind = KIND_ROOT;
+		}
+		entries.put(key(index, "name"), beanName);
+		entries.put(key(index, "kind"), kind);
+		putIfSet(entries, key(index, "parent"), bd.getParentName());
+		putIfSet(entries, key(index, "class"), bd.getBeanClassName());
+		putIfSet(entries, key(index, "scope"), bd.getScope());
+		putIfTrue(entries, key(index, "abstract"), bd.isAbstract());
+		putIfTrue(entries, key(index, "lazyInit"), bd.isLazyInit());
+		if (bd.getAutowireMode() != AbstractBeanDefinition.AUTOWIRE_NO) {
+			entries.put(key(index, "autowireMode"), String.valueOf(bd.getAutowireMode()));
+		}
+		if (bd.getDependencyCheck() != AbstractBeanDefinition.DEPENDENCY_CHECK_NONE) {
+			entries.put(key(index, "dependencyCheck"), String.valueOf(bd.getDependencyCheck()));
+		}
+		if (!ObjectUtils.isEmpty(bd.getDependsOn())) {
+			entries.put(key(index, "dependsOn"), StringUtils.arrayToCommaDelimitedString(bd.getDependsOn()));
+		}
+		putIfTrue(entries, key(index, "notAutowireCandidate"), !bd.isAutowireCandidate());
+		putIfTrue(entries, key(index, "primary"), bd.isPrimary());
+		putIfTrue(entries, key(index, "noNonPublicAccess"), !bd.isNonPublicAccessAllowed());
+		putIfTrue(entries, key(index, "strictConstructorResolution"), !bd.isLenientConstructorResolution());
+		putIfSet(entries, key(index, "factoryBeanName"), bd.getFactoryBeanName());
+		putIfSet(entries, key(index, "factoryMethodName"), bd.getFactoryMethodName());
+		// Instance @Bean methods are registered as unique factory methods
+		putIfTrue(entries, key(index, "uniqueFactoryMethod"),
+				KIND_BEAN_METHOD.equals(kind) && bd.getFactoryBeanName() != null);
+		putIfSet(entries, key(index, "initMethodName"), bd.getInitMethodName());
+		putIfTrue(entries, key(index, "enforceInitMethod"), bd.isEnforceInitMethod());
+		putIfSet(entries, key(index, "destroyMethodName"), bd.getDestroyMethodName());
+		putIfTrue(entries, key(index, "enforceDestroyMethod"), bd.isEnforceDestroyMethod());
+		putIfTrue(entries, key(index, "synthetic"), bd.isSynthetic());
+		if (bd.getRole() != BeanDefinition.ROLE_APPLICATION) {
+			entries.put(key(index, "role"), String.valueOf(bd.getRole()));
+		}
+		putIfSet(entries, key(index, "description"), bd.getDescription());
+		putIfSet(entries, key(index, "resourceDescription"), bd.getResourceDescription());
+
+		int qualifierIndex = 0;
+		for (AutowireCandidateQualifier qualifier : bd.getQualifiers()) {
+			String prefix = key(index, "qualifier." + qualifierIndex++);
+			entries.put(prefix + ".type", qualifier.getTypeName());
+			writeAttributes(prefix, qualifier, entries);
+		}
+		ConstructorArgumentValues argumentValues = bd.getConstructorArgumentValues();
+		int argumentIndex = 0;
+		for (Map.Entry<Integer, ConstructorArgumentValues.ValueHolder> entry :
+				argumentValues.getIndexedArgumentValues().entrySet()) {
+			String prefix = key(index, "argument." + argumentIndex++);
+			entries.put(prefix + ".index", String.valueOf(entry.getKey()));
+			writeArgument(prefix, entry.getValue(), entries);
+		}
+		for (ConstructorArgumentValues.ValueHolder valueHolder : argumentValues.getGenericArgumentValues()) {
+			writeArgument(key(index, "argument." + argumentIndex++), valueHolder, entries);
+		}
+		int propertyIndex = 0;
+		for (PropertyValue pv : bd.getPropertyValues().getPropertyValues()) {
+			String prefix = key(index, "property." + propertyIndex++);
+			entries.put(prefix + ".name", pv.getName());
+			writeValue(prefix, pv.getValue(), entries);
+		}
+		writeAttributes(key(index, ""), bd, entries);
+
+		if (bd instanceof RootBeanDefinition) {
+			BeanDefinitionHolder decorated = ((RootBeanDefinition) bd).getDecoratedDefinition();
+			if (decorated != null) {
+				entries.put(key(index, "decoratedDefinition"), decorated.getBeanName());
+				if (!ObjectUtils.isEmpty(decorated.getAliases())) {
+					entries.put(key(index, "decoratedDefinition.aliases"),
+							StringUtils.arrayToCommaDelimitedString(decorated.getAliases()));
+				}
+			}
+		}
+	}
+
+	private static void writeArgument(String prefix, ConstructorArgumentValues.ValueHolder valueHolder,
+			Map<String, String> entries) {
+
+		putIfSet(entries, prefix + ".type", valueHolder.getType());
+		putIfSet(entries, prefix + ".name", valueHolder.getName());
+		writeValue(prefix, valueHolder.getValue(), entries);
+	}
+
+	private static void writeAttributes(String prefix, AttributeAccessor accessor, Map<String, String> entries) {
+		String[] attributeNames = accessor.attributeNames();
+		Arrays.sort(attributeNames);
+		for (int i = 0; i < attributeNames.length; i++) {
+			String attributePrefix = prefix + (prefix.endsWith(".") ? "" : ".") + "attribute." + i;
+			entries.put(attributePrefix + ".name", attributeNames[i]);
+			writeValue(attributePrefix, accessor.getAttribute(attributeNames[i]), entries);
+		}
+	}
+
+	private static void writeValue(String prefix, @Nullable Object value, Map<String, String> entries) {
+		String kind;
+		String text = null;
+		if (value == null) {
+			kind = "null";
+		}
+		else if (value instanceof String) {
+			kind = "string";
+			text = (String) value;
+		}
+		else if (value instanceof TypedStringValue) {
+			TypedStringValue typedValue = (TypedStringValue) value;
+			kind = "typedString";
+			text = typedValue.getValue();
+			putIfSet(entries, prefix + ".valueType", typedValue.getTargetTypeName());
+		}
+		else if (value instanceof RuntimeBeanReference) {
+			RuntimeBeanReference reference = (RuntimeBeanReference) value;
+			kind = (reference.isToParent() ? "parentRef" : "ref");
+			text = reference.getBeanName();
+		}
+		else if (value instanceof RuntimeBeanNameReference) {
+			kind = "refName";
+			text = ((RuntimeBeanNameReference) value).getBeanName();
+		}
+		else if (value instanceof Class) {
+			kind = "class";
+			text = ((Class<?>) value).getName();
+		}
+		else if (value instanceof Enum) {
+			kind = "enum";
+			text = ((Enum<?>) value).name();
+			entries.put(prefix + ".valueType", ((Enum<?>) value).getDeclaringClass().getName());
+		}
+		else if (value instanceof Boolean || value instanceof Number || value instanceof Character) {
+			Assert.state(ClassUtils.isPrimitiveWrapper(value.getClass()),
+					() -> "Cannot capture value of type " + value.getClass().getName());
+			kind = "primitive";
+			text = value.toString();
+			entries.put(prefix + ".valueType", value.getClass().getName());
+		}
+		else {
+			throw new IllegalStateException("Cannot capture value of type " + value.getClass().getName() +
+					" in bean definition snapshot");
+		}
+		entries.put(prefix + ".kind", kind);
+		if (text != null) {
+			entries.put(prefix + ".value", text);
+		}
+	}
+
+
+	private AbstractBeanDefinition readBeanDefinition(int index, @Nullable ClassLoader classLoader) {
+		String kind = this.entries.get(key(index, "kind"));
+		AbstractBeanDefinition bd;
+		if (KIND_BEAN_METHOD.equals(kind)) {
+			bd = new BeanMethodDefinition();
+		}
+		else if (KIND_ROOT.equals(kind)) {
+			bd = new RootBeanDefinition();
+		}
+		else {
+			bd = new GenericBeanDefinition();
+			bd.setParentName(this.entries.get(key(index, "parent")));
+		}
+		bd.setBeanClassName(this.entries.get(key(index, "class")));
+		bd.setScope(this.entries.get(key(index, "scope")));
+		bd.setAbstract(isTrue(key(index, "abstract")));
+		bd.setLazyInit(isTrue(key(index, "lazyInit")));
+		bd.setAutowireMode(Integer.parseInt(this.entries.getOrDefault(key(index, "autowireMode"), "0")));
+		bd.setDependencyCheck(Integer.parseInt(this.entries.getOrDefault(key(index, "dependencyCheck"), "0")));
+		String dependsOn = this.entries.get(key(index, "dependsOn"));
+		if (dependsOn != null) {
+			bd.setDependsOn(StringUtils.commaDelimitedListToStringArray(dependsOn));
+		}
+		bd.setAutowireCandidate(!isTrue(key(index, "notAutowireCandidate")));
+		bd.setPrimary(isTrue(key(index, "primary")));
+		bd.setNonPublicAccessAllowed(!isTrue(key(index, "noNonPublicAccess")));
+		bd.setLenientConstructorResolution(!isTrue(key(index, "strictConstructorResolution")));
+		bd.setFactoryBeanName(this.entries.get(key(index, "factoryBeanName")));
+		String factoryMethodName = this.entries.get(key(index, "factoryMethodName"));
+		if (factoryMethodName != null && isTrue(key(index, "uniqueFactoryMethod")) && bd instanceof RootBeanDefinition) {
+			((RootBeanDefinition) bd).setUniqueFactoryMethodName(factoryMethodName);
+		}
+		else {
+			bd.setFactoryMethodName(factoryMethodName);
+		}
+		bd.setInitMethodName(this.entries.get(key(index, "initMethodName")));
+		bd.setEnforceInitMethod(isTrue(key(index, "enforceInitMethod")));
+		bd.setDestroyMethodName(this.entries.get(key(index, "destroyMethodName")));
+		bd.setEnforceDestroyMethod(isTrue(key(index, "enforceDestroyMethod")));
+		bd.setSynthetic(isTrue(key(index, "synthetic")));
+		bd.setRole(Integer.parseInt(this.entries.getOrDefault(key(index, "role"), "0")));
+		bd.setDescription(this.entries.get(key(index, "description")));
+		bd.setResourceDescription(this.entries.get(key(index, "resourceDescription")));
+
+		for (int i = 0; this.entries.containsKey(key(index, "qualifier." + i + ".type")); i++) {
+			String prefix = key(index, "qualifier." + i);
+			AutowireCandidateQualifier qualifier = new AutowireCandidateQualifier(this.entries.get(prefix + ".type"));
+			readAttributes(prefix + ".", qualifier, classLoader);
+			bd.addQualifier(qualifier);
+		}
+		ConstructorArgumentValues argumentValues = bd.getConstructorArgumentValues();
+		for (int i = 0; this.entries.containsKey(key(index, "argument." + i + ".kind")); i++) {
+			String prefix = key(index, "argument." + i);
+			Object value = readValue(prefix, classLoader);
+			String type = this.entries.get(prefix + ".type");
+			String name = this.entries.get(prefix + ".name");
+			String argumentIndex = this.entries.get(prefix + ".index");
+			if (argumentIndex != null) {
+				argumentValues.addIndexedArgumentValue(Integer.parseInt(argumentIndex),
+						new ConstructorArgumentValues.ValueHolder(value, type, name));
+			}
+			else {
+				argumentValues.addGenericArgumentValue(new ConstructorArgumentValues.ValueHolder(value, type, name));
+			}
+		}
+		MutablePropertyValues propertyValues = bd.getPropertyValues();
+		for (int i = 0; this.entries.containsKey(key(index, "property." + i + ".name")); i++) {
+			String prefix = key(index, "property." + i);
+			propertyValues.add(this.entries.get(prefix + ".name"), readValue(prefix, classLoader));
+		}
+		readAttributes(key(index, ""), bd, classLoader);
+		return bd;
+	}
+
+	private void readAttributes(String prefix, AttributeAccessor accessor, @Nullable ClassLoader classLoader) {
+		for (int i = 0; this.entries.containsKey(prefix + "attribute." + i + ".name"); i++) {
+			String attributePrefix = prefix + "attribute." + i;
+			accessor.setAttribute(this.entries.get(attributePrefix + ".name"), readValue(attributePrefix, classLoader));
+		}
+	}
+
+	@Nullable
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private Object readValue(String prefix, @Nullable ClassLoader classLoader) {
+		String kind = this.entries.get(prefix + ".kind");
+		String text = this.entries.get(prefix + ".value");
+		String valueType = this.entries.get(prefix + ".valueType");
+		switch (kind) {
+			case "null":
+				return null;
+			case "string":
+				return text;
+			case "typedString":
+				TypedStringValue typedValue = new TypedStringValue(text);
+				typedValue.setTargetTypeName(valueType);
+				return typedValue;
+			case "ref":
+				return new RuntimeBeanReference(text);
+			case "parentRef":
+				return new RuntimeBeanReference(text, true);
+			case "refName":
+				return new RuntimeBeanNameReference(text);
+			case "class":
+				return ClassUtils.resolveClassName(text, classLoader);
+			case "enum":
+				return Enum.valueOf((Class<Enum>) ClassUtils.resolveClassName(valueType, classLoader), text);
+			case "primitive":
+				Class<?> wrapperType = ClassUtils.resolveClassName(valueType, classLoader);
+				if (Boolean.class == wrapperType) {
+					return Boolean.valueOf(text);
+				}
+				if (Character.class == wrapperType) {
+					return text.charAt(0);
+				}
+				return NumberUtils.parseNumber(text, (Class<Number>) wrapperType);
+			default:
+				throw new IllegalStateException("Unknown value kind '" + kind + "' in bean definition snapshot");
+		}
+	}
+
+	private boolean isTrue(String key) {
+		return Boolean.parseBoolean(this.entries.get(key));
+	}
+
+	private void checkActiveProfiles(BeanDefinitionRegistry registry) {
+		if (registry instanceof EnvironmentCapable) {
+			String[] activeProfiles = ((EnvironmentCapable) registry).getEnvironment().getActiveProfiles();
+			String[] snapshotProfiles = StringUtils.commaDelimitedListToStringArray(this.entries.get("profiles"));
+			if (!new HashSet<>(Arrays.asList(activeProfiles)).equals(new HashSet<>(Arrays.asList(snapshotProfiles)))) {
+				throw new IllegalStateException("Bean definition snapshot captured with active profiles " +
+						Arrays.toString(snapshotProfiles) + " cannot be used with active profiles " +
+						Arrays.toString(activeProfiles));
+			}
+		}
+	}
+
+	@Nullable
+	private static SingletonBeanRegistry getSingletonRegistry(BeanDefinitionRegistry registry) {
+		if (registry instanceof SingletonBeanRegistry) {
+			return (SingletonBeanRegistry) registry;
+		}
+		if (registry instanceof ConfigurableApplicationContext) {
+			return ((ConfigurableApplicationContext) registry).getBeanFactory();
+		}
+		return null;
+	}
+
+	private static String key(int index, String name) {
+		return "bean." + index + (name.isEmpty() ? "." : "." + name);
+	}
+
+	private static void putIfSet(Map<String, String> entries, String key, @Nullable String value) {
+		if (StringUtils.hasLength(value)) {
+			entries.put(key, value);
+		}
+	}
+
+	private static void putIfTrue(Map<String, String> entries, String key, boolean value) {
+		if (value) {
+			entries.put(key, "true");
+		}
+	}
+
+	/**
+	 * Escape the given key or value according to {@link Properties#load(java.io.Reader)}.
+	 */
+	private static String escape(String text, boolean isKey) {
+		StringBuilder sb = new StringBuilder(text.length());
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			switch (c) {
+				case '\\':
+					sb.append("\\\\");
+					break;
+				case '\t':
+					sb.append("\\t");
+					break;
+				case '\n':
+					sb.append("\\n");
+					break;
+				case '\r':
+					sb.append("\\r");
+					break;
+				case '\f':
+					sb.append("\\f");
+					break;
+				case '=':
+				case ':':
+				case '#':
+				case '!':
+					sb.append('\\').append(c);
+					break;
+				case ' ':
+					sb.append(i == 0 || isKey ? "\\ " : " ");
+					break;
+				default:
+					if (c < 0x0020 || c > 0x007e) {
+						sb.append(String.format("\\u%04x", (int) c));
+					}
+					else {
+						sb.append(c);
+					}
+			}
+		}
+		return sb.toString();
+	}
+
+
+	/**
+	 * Bean definition restored for a {@link Bean @Bean} method, only considering
+	 * {@code @Bean}-annotated methods as factory method candidates, analogous
+	 * to the bean definitions created during configuration class processing.
+	 */
+	@SuppressWarnings("serial")
+	private static class BeanMethodDefinition extends RootBeanDefinition {
+
+		public BeanMethodDefinition() {
+			setLenientConstructorResolution(false);
+		}
+
+		private BeanMethodDefinition(BeanMethodDefinition original) {
+			super(original);
+		}
+
+		@Override
+		public boolean isFactoryMethod(Method candidate) {
+			return (super.isFactoryMethod(candidate) && BeanAnnotationHelper.isBeanAnnotated(candidate));
+		}
+
+		@Override
+		public BeanMethodDefinition cloneBeanDefinition() {
+			return new BeanMethodDefinition(this);
+		}
+	}
+
+
+	/**
+	 * {@link ImportRegistry} restored from a snapshot, introspecting importing
+	 * classes on demand.
+	 */
+	private static class SnapshotImportRegistry implements ImportRegistry {
+
+		private final Map<String, String> importingClasses;
+
+		@Nullable
+		private final ClassLoader classLoader;
+
+		public SnapshotImportRegistry(Map<String, String> importingClasses, @Nullable ClassLoader classLoader) {
+			this.importingClasses = Collections.synchronizedMap(importingClasses);
+			this.classLoader = classLoader;
+		}
+
+		@Override
+		@Nullable
+		public AnnotationMetadata getImportingClassFor(String importedClass) {
+			String importingClass = this.importingClasses.get(importedClass);
+			if (importingClass == null) {
+				return null;
+			}
+			return new StandardAnnotationMetadata(ClassUtils.resolveClassName(importingClass, this.classLoader), true);
+		}
+
+		@Override
+		public void removeImportingClass(String importingClass) {
+			List<String> importedClasses = new ArrayList<>();
+			synchronized (this.importingClasses) {
+				this.importingClasses.forEach((imported, importing) -> {
+					if (importing.equals(importingClass)) {
+						importedClasses.add(imported);
+					}
+				});
+				importedClasses.forEach(this.importingClasses::remove);
+			}
+		}
+	}
+
+}
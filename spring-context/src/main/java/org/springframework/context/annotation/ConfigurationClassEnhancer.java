@@ -37,6 +37,7 @@ import org.springframework.beans.factory.support.SimpleInstantiationStrategy;
 import org.springframework.cglib.core.ClassGenerator;
 import org.springframework.cglib.core.Constants;
 import org.springframework.cglib.core.DefaultGeneratorStrategy;
+import org.springframework.cglib.core.PersistentGeneratorStrategy;
 import org.springframework.cglib.core.SpringNamingPolicy;
 import org.springframework.cglib.proxy.Callback;
 import org.springframework.cglib.proxy.CallbackFilter;
@@ -47,6 +48,7 @@ import org.springframework.cglib.proxy.MethodProxy;
 import org.springframework.cglib.proxy.NoOp;
 import org.springframework.cglib.transform.ClassEmitterTransformer;
 import org.springframework.cglib.transform.TransformingClassGenerator;
+import org.springframework.core.SmartClassLoader;
 import org.springframework.lang.Nullable;
 import org.springframework.objenesis.ObjenesisException;
 import org.springframework.objenesis.SpringObjenesis;
@@ -126,6 +128,16 @@ class ConfigurationClassEnhancer {
 		enhancer.setStrategy(new BeanFactoryAwareGeneratorStrategy(classLoader));
 		enhancer.setCallbackFilter(CALLBACK_FILTER);
 		enhancer.setCallbackTypes(CALLBACK_FILTER.getCallbackTypes());
+
+		// Reuse persisted enhanced classes, unless the configuration class may get reloaded
+		String cacheLocation = PersistentGeneratorStrategy.getCacheLocation();
+		if (cacheLocation != null && !(classLoader instanceof SmartClassLoader &&
+				((SmartClassLoader) classLoader).isClassReloadable(configSuperClass))) {
+			PersistentGeneratorStrategy strategy = new PersistentGeneratorStrategy(
+					new BeanFactoryAwareGeneratorStrategy(classLoader), cacheLocation);
+			enhancer.setStrategy(strategy);
+			enhancer.setNamingPolicy(strategy.getNamingPolicy());
+		}
 		return enhancer;
 	}
 
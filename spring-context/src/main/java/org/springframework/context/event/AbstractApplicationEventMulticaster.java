@@ -18,6 +18,8 @@ package org.springframework.context.event;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -48,6 +50,12 @@ import org.springframework.util.ObjectUtils;
  * ApplicationListener objects can be overridden through the "collectionClass"
  * bean property.
  *
+ * <p>Listener registrations are kept in immutable snapshots that get replaced
+ * on every change, so retrieving listeners never blocks. Retrieved listeners
+ * are cached per event type and source type, with pre-sorted listener lists
+ * for listener instances; a change to the registered listeners only evicts
+ * the cache entries that it affects.
+ *
  * <p>Implementing ApplicationEventMulticaster's actual {@link #multicastEvent} method
  * is left to subclasses. {@link SimpleApplicationEventMulticaster} simply multicasts
  * all events to all registered listeners, invoking them in the calling thread.
@@ -62,7 +70,8 @@ import org.springframework.util.ObjectUtils;
 public abstract class AbstractApplicationEventMulticaster
 		implements ApplicationEventMulticaster, BeanClassLoaderAware, BeanFactoryAware {
 
-	private final ListenerRetriever defaultRetriever = new ListenerRetriever(false);
+	private volatile ListenerRetriever defaultRetriever =
+			new ListenerRetriever(Collections.emptySet(), Collections.emptySet(), false);
 
 	final Map<ListenerCacheKey, ListenerRetriever> retrieverCache = new ConcurrentHashMap<>(64);
 
@@ -72,7 +81,8 @@ public abstract class AbstractApplicationEventMulticaster
 	@Nullable
 	private BeanFactory beanFactory;
 
-	private Object retrievalMutex = this.defaultRetriever;
+	/** Monitor for replacing the listener registrations, never held while invoking other code. */
+	private final Object registrationMonitor = new Object();
 
 
 	@Override
@@ -88,7 +98,6 @@ public abstract class AbstractApplicationEventMulticaster
 			if (this.beanClassLoader == null) {
 				this.beanClassLoader = cbf.getBeanClassLoader();
 			}
-			this.retrievalMutex = cbf.getSingletonMutex();
 		}
 	}
 
@@ -103,49 +112,70 @@ public abstract class AbstractApplicationEventMulticaster
 
 	@Override
 	public void addApplicationListener(ApplicationListener<?> listener) {
-		synchronized (this.retrievalMutex) {
-			// Explicitly remove target for a proxy, if registered already,
-			// in order to avoid double invocations of the same listener.
-			Object singletonTarget = AopProxyUtils.getSingletonTarget(listener);
+		// Explicitly remove target for a proxy, if registered already,
+		// in order to avoid double invocations of the same listener.
+		Object singletonTarget = AopProxyUtils.getSingletonTarget(listener);
+		synchronized (this.registrationMonitor) {
+			ListenerRetriever current = this.defaultRetriever;
+			Set<ApplicationListener<?>> listeners = new LinkedHashSet<>(current.applicationListeners);
 			if (singletonTarget instanceof ApplicationListener) {
-				this.defaultRetriever.applicationListeners.remove(singletonTarget);
+				listeners.remove(singletonTarget);
+			}
+			listeners.add(listener);
+			this.defaultRetriever = new ListenerRetriever(listeners, current.applicationListenerBeans, false);
+		}
+		for (Iterator<Map.Entry<ListenerCacheKey, ListenerRetriever>> it =
+				this.retrieverCache.entrySet().iterator(); it.hasNext();) {
+			Map.Entry<ListenerCacheKey, ListenerRetriever> entry = it.next();
+			ListenerCacheKey cacheKey = entry.getKey();
+			if (entry.getValue().applicationListeners.contains(singletonTarget) ||
+					supportsEvent(listener, cacheKey.eventType, cacheKey.sourceType)) {
+				it.remove();
 			}
-			this.defaultRetriever.applicationListeners.add(listener);
-			this.retrieverCache.clear();
 		}
 	}
 
 	@Override
 	public void addApplicationListenerBean(String listenerBeanName) {
-		synchronized (this.retrievalMutex) {
-			this.defaultRetriever.applicationListenerBeans.add(listenerBeanName);
-			this.retrieverCache.clear();
+		synchronized (this.registrationMonitor) {
+			ListenerRetriever current = this.defaultRetriever;
+			Set<String> listenerBeans = new LinkedHashSet<>(current.applicationListenerBeans);
+			listenerBeans.add(listenerBeanName);
+			this.defaultRetriever = new ListenerRetriever(current.applicationListeners, listenerBeans, false);
 		}
+		// Bean type not to be determined here: evict all
+		this.retrieverCache.clear();
 	}
 
 	@Override
 	public void removeApplicationListener(ApplicationListener<?> listener) {
-		synchronized (this.retrievalMutex) {
-			this.defaultRetriever.applicationListeners.remove(listener);
-			this.retrieverCache.clear();
+		synchronized (this.registrationMonitor) {
+			ListenerRetriever current = this.defaultRetriever;
+			Set<ApplicationListener<?>> listeners = new LinkedHashSet<>(current.applicationListeners);
+			listeners.remove(listener);
+			this.defaultRetriever = new ListenerRetriever(listeners, current.applicationListenerBeans, false);
 		}
+		this.retrieverCache.values().removeIf(retriever -> retriever.applicationListeners.contains(listener));
 	}
 
 	@Override
 	public void removeApplicationListenerBean(String listenerBeanName) {
-		synchronized (this.retrievalMutex) {
-			this.defaultRetriever.applicationListenerBeans.remove(listenerBeanName);
-			this.retrieverCache.clear();
+		synchronized (this.registrationMonitor) {
+			ListenerRetriever current = this.defaultRetriever;
+			Set<String> listenerBeans = new LinkedHashSet<>(current.applicationListenerBeans);
+			listenerBeans.remove(listenerBeanName);
+			this.defaultRetriever = new ListenerRetriever(current.applicationListeners, listenerBeans, false);
 		}
+		this.retrieverCache.values().removeIf(retriever ->
+				retriever.applicationListenerBeans.contains(listenerBeanName));
 	}
 
 	@Override
 	public void removeAllListeners() {
-		synchronized (this.retrievalMutex) {
-			this.defaultRetriever.applicationListeners.clear();
-			this.defaultRetriever.applicationListenerBeans.clear();
-			this.retrieverCache.clear();
+		synchronized (this.registrationMonitor) {
+			this.defaultRetriever = new ListenerRetriever(Collections.emptySet(), Collections.emptySet(), false);
 		}
+		this.retrieverCache.clear();
 	}
 
 
@@ -155,9 +185,7 @@ public abstract class AbstractApplicationEventMulticaster
 	 * @see org.springframework.context.ApplicationListener
 	 */
 	protected Collection<ApplicationListener<?>> getApplicationListeners() {
-		synchronized (this.retrievalMutex) {
-			return this.defaultRetriever.getApplicationListeners();
-		}
+		return this.defaultRetriever.getApplicationListeners();
 	}
 
 	/**
@@ -185,21 +213,12 @@ public abstract class AbstractApplicationEventMulticaster
 		if (this.beanClassLoader == null ||
 				(ClassUtils.isCacheSafe(event.getClass(), this.beanClassLoader) &&
 						(sourceType == null || ClassUtils.isCacheSafe(sourceType, this.beanClassLoader)))) {
-			// Fully synchronized building and caching of a ListenerRetriever
-			synchronized (this.retrievalMutex) {
-				retriever = this.retrieverCache.get(cacheKey);
-				if (retriever != null) {
-					return retriever.getApplicationListeners();
-				}
-				retriever = new ListenerRetriever(true);
-				Collection<ApplicationListener<?>> listeners =
-						retrieveApplicationListeners(eventType, sourceType, retriever);
-				this.retrieverCache.put(cacheKey, retriever);
-				return listeners;
-			}
+			// Building and caching of a ListenerRetriever, without synchronization:
+			// concurrent retrievals for the same key build equivalent retrievers
+			return retrieveApplicationListeners(eventType, sourceType, cacheKey);
 		}
 		else {
-			// No ListenerRetriever caching -> no synchronization necessary
+			// No ListenerRetriever caching
 			return retrieveApplicationListeners(eventType, sourceType, null);
 		}
 	}
@@ -208,39 +227,33 @@ public abstract class AbstractApplicationEventMulticaster
 	 * Actually retrieve the application listeners for the given event and source type.
 	 * @param eventType the event type
 	 * @param sourceType the event source type
-	 * @param retriever the ListenerRetriever, if supposed to populate one (for caching purposes)
+	 * @param cacheKey the key to cache a ListenerRetriever for the retrieved
+	 * listeners under, if any
 	 * @return the pre-filtered list of application listeners for the given event and source type
 	 */
-	private Collection<ApplicationListener<?>> retrieveApplicationListeners(
-			ResolvableType eventType, @Nullable Class<?> sourceType, @Nullable ListenerRetriever retriever) {
+	private Collection<ApplicationListener<?>> retrieveApplicationListeners(ResolvableType eventType,
+			@Nullable Class<?> sourceType, @Nullable ListenerCacheKey cacheKey) {
 
+		ListenerRetriever registrations = this.defaultRetriever;
 		List<ApplicationListener<?>> allListeners = new ArrayList<>();
-		Set<ApplicationListener<?>> listeners;
-		Set<String> listenerBeans;
-		synchronized (this.retrievalMutex) {
-			listeners = new LinkedHashSet<>(this.defaultRetriever.applicationListeners);
-			listenerBeans = new LinkedHashSet<>(this.defaultRetriever.applicationListenerBeans);
-		}
-		for (ApplicationListener<?> listener : listeners) {
+		Set<ApplicationListener<?>> filteredListeners = new LinkedHashSet<>();
+		Set<String> filteredListenerBeans = new LinkedHashSet<>();
+		for (ApplicationListener<?> listener : registrations.applicationListeners) {
 			if (supportsEvent(listener, eventType, sourceType)) {
-				if (retriever != null) {
-					retriever.applicationListeners.add(listener);
-				}
+				filteredListeners.add(listener);
 				allListeners.add(listener);
 			}
 		}
-		if (!listenerBeans.isEmpty()) {
+		if (!registrations.applicationListenerBeans.isEmpty()) {
 			BeanFactory beanFactory = getBeanFactory();
-			for (String listenerBeanName : listenerBeans) {
+			for (String listenerBeanName : registrations.applicationListenerBeans) {
 				try {
 					Class<?> listenerType = beanFactory.getType(listenerBeanName);
 					if (listenerType == null || supportsEvent(listenerType, eventType)) {
 						ApplicationListener<?> listener =
 								beanFactory.getBean(listenerBeanName, ApplicationListener.class);
 						if (!allListeners.contains(listener) && supportsEvent(listener, eventType, sourceType)) {
-							if (retriever != null) {
-								retriever.applicationListenerBeans.add(listenerBeanName);
-							}
+							filteredListenerBeans.add(listenerBeanName);
 							allListeners.add(listener);
 						}
 					}
@@ -252,6 +265,16 @@ public abstract class AbstractApplicationEventMulticaster
 			}
 		}
 		AnnotationAwareOrderComparator.sort(allListeners);
+
+		if (cacheKey != null) {
+			ListenerRetriever retriever = new ListenerRetriever(filteredListeners, filteredListenerBeans, true);
+			this.retrieverCache.put(cacheKey, retriever);
+			if (this.defaultRetriever != registrations) {
+				// Registrations changed in the meantime: the change may have been
+				// applied to the cache before our retriever got added to it.
+				this.retrieverCache.remove(cacheKey, retriever);
+			}
+		}
 		return allListeners;
 	}
 
@@ -353,6 +376,8 @@ public abstract class AbstractApplicationEventMulticaster
 	 * Helper class that encapsulates a specific set of target listeners,
 	 * allowing for efficient retrieval of pre-filtered listeners.
 	 * <p>An instance of this helper gets cached per event type and source type.
+	 * Instances are immutable; for listener instances only, the sorted list
+	 * of listeners is computed upfront.
 	 */
 	private class ListenerRetriever {
 
@@ -362,30 +387,44 @@ public abstract class AbstractApplicationEventMulticaster
 
 		private final boolean preFiltered;
 
-		public ListenerRetriever(boolean preFiltered) {
-			this.applicationListeners = new LinkedHashSet<>();
-			this.applicationListenerBeans = new LinkedHashSet<>();
+		@Nullable
+		private final List<ApplicationListener<?>> sortedListeners;
+
+		public ListenerRetriever(Set<ApplicationListener<?>> applicationListeners,
+				Set<String> applicationListenerBeans, boolean preFiltered) {
+
+			this.applicationListeners = applicationListeners;
+			this.applicationListenerBeans = applicationListenerBeans;
 			this.preFiltered = preFiltered;
+			if (applicationListenerBeans.isEmpty()) {
+				List<ApplicationListener<?>> sortedListeners = new ArrayList<>(applicationListeners);
+				AnnotationAwareOrderComparator.sort(sortedListeners);
+				this.sortedListeners = Collections.unmodifiableList(sortedListeners);
+			}
+			else {
+				this.sortedListeners = null;
+			}
 		}
 
 		public Collection<ApplicationListener<?>> getApplicationListeners() {
+			if (this.sortedListeners != null) {
+				return this.sortedListeners;
+			}
 			List<ApplicationListener<?>> allListeners = new ArrayList<>(
 					this.applicationListeners.size() + this.applicationListenerBeans.size());
 			allListeners.addAll(this.applicationListeners);
-			if (!this.applicationListenerBeans.isEmpty()) {
-				BeanFactory beanFactory = getBeanFactory();
-				for (String listenerBeanName : this.applicationListenerBeans) {
-					try {
-						ApplicationListener<?> listener = beanFactory.getBean(listenerBeanName, ApplicationListener.class);
-						if (this.preFiltered || !allListeners.contains(listener)) {
-							allListeners.add(listener);
-						}
-					}
-					catch (NoSuchBeanDefinitionException ex) {
-						// Singleton listener instance (without backing bean definition) disappeared -
-						// probably in the middle of the destruction phase
+			BeanFactory beanFactory = getBeanFactory();
+			for (String listenerBeanName : this.applicationListenerBeans) {
+				try {
+					ApplicationListener<?> listener = beanFactory.getBean(listenerBeanName, ApplicationListener.class);
+					if (this.preFiltered || !allListeners.contains(listener)) {
+						allListeners.add(listener);
 					}
 				}
+				catch (NoSuchBeanDefinitionException ex) {
+					// Singleton listener instance (without backing bean definition) disappeared -
+					// probably in the middle of the destruction phase
+				}
 			}
 			AnnotationAwareOrderComparator.sort(allListeners);
 			return allListeners;
@@ -16,28 +16,57 @@
 
 package org.springframework.context.expression;
 
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.springframework.core.DefaultParameterNameDiscoverer;
 import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.SpringProperties;
 import org.springframework.expression.Expression;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.standard.SpelExpression;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
+import org.springframework.util.ConcurrentReferenceHashMap;
 import org.springframework.util.ObjectUtils;
 
 /**
  * Shared utility class used to evaluate and cache SpEL expressions that
  * are defined on {@link java.lang.reflect.AnnotatedElement}.
  *
+ * <p>As of 5.2, the default parser compiles expressions once they have been
+ * evaluated a number of times, reverting to interpretation for an expression
+ * whose compiled form fails, unless a compiler mode has been set explicitly
+ * through the {@code spring.expression.compiler.mode} property. Parameter
+ * names are discovered once per method and shared across all evaluators.
+ * {@link #getExpressionStatistics()} exposes which expressions are compiled.
+ *
  * @author Stephane Nicoll
  * @since 4.2
  * @see AnnotatedElementKey
  */
 public abstract class CachedExpressionEvaluator {
 
+	private static final String COMPILER_MODE_PROPERTY_NAME = "spring.expression.compiler.mode";
+
+	private static final ParameterNameDiscoverer sharedParameterNameDiscoverer =
+			new CachingParameterNameDiscoverer(new DefaultParameterNameDiscoverer());
+
+
 	private final SpelExpressionParser parser;
 
-	private final ParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
+	private final ParameterNameDiscoverer parameterNameDiscoverer = sharedParameterNameDiscoverer;
+
+	private final Set<Map<ExpressionKey, Expression>> expressionCaches =
+			Collections.newSetFromMap(new IdentityHashMap<>(4));
 
 
 	/**
@@ -49,10 +78,19 @@ public abstract class CachedExpressionEvaluator {
 	}
 
 	/**
-	 * Create a new instance with a default {@link SpelExpressionParser}.
+	 * Create a new instance with a default {@link SpelExpressionParser},
+	 * compiling expressions in {@link SpelCompilerMode#MIXED} mode unless
+	 * a compiler mode has been set through the
+	 * {@code spring.expression.compiler.mode} property.
+	 * <p>Note that in {@code MIXED} mode, an expression whose compiled form
+	 * fails at runtime is evaluated again in interpreted form. Any side effects
+	 * of the expression, such as those of invoked methods, may therefore occur
+	 * twice for that evaluation. Set the compiler mode to {@code OFF} for
+	 * expressions that must not be executed more than once per evaluation.
 	 */
 	protected CachedExpressionEvaluator() {
-		this(new SpelExpressionParser());
+		this(new SpelExpressionParser(new SpelParserConfiguration(
+				SpringProperties.getProperty(COMPILER_MODE_PROPERTY_NAME) == null ? SpelCompilerMode.MIXED : null, null)));
 	}
 
 
@@ -65,6 +103,8 @@ public abstract class CachedExpressionEvaluator {
 
 	/**
 	 * Return a shared parameter name discoverer which caches data internally.
+	 * <p>As of 5.2, the parameter names of each method are discovered once and
+	 * shared across all evaluators.
 	 * @since 4.3
 	 */
 	protected ParameterNameDiscoverer getParameterNameDiscoverer() {
@@ -87,15 +127,153 @@ public abstract class CachedExpressionEvaluator {
 		if (expr == null) {
 			expr = getParser().parseExpression(expression);
 			cache.put(expressionKey, expr);
+			synchronized (this.expressionCaches) {
+				this.expressionCaches.add(cache);
+			}
 		}
 		return expr;
 	}
 
+	/**
+	 * Return compilation statistics for the SpEL expressions currently held
+	 * in the caches of this evaluator, e.g. for monitoring which expressions
+	 * remain interpreted.
+	 * @since 5.2
+	 */
+	public List<ExpressionStatistics> getExpressionStatistics() {
+		List<Map<ExpressionKey, Expression>> caches;
+		synchronized (this.expressionCaches) {
+			caches = new ArrayList<>(this.expressionCaches);
+		}
+		List<ExpressionStatistics> statistics = new ArrayList<>();
+		for (Map<ExpressionKey, Expression> cache : caches) {
+			cache.forEach((key, expression) -> {
+				if (expression instanceof SpelExpression) {
+					statistics.add(new ExpressionStatistics(key, (SpelExpression) expression));
+				}
+			});
+		}
+		return statistics;
+	}
+
 	private ExpressionKey createKey(AnnotatedElementKey elementKey, String expression) {
 		return new ExpressionKey(elementKey, expression);
 	}
 
 
+	/**
+	 * {@link ParameterNameDiscoverer} decorator that caches the discovered
+	 * parameter names per method and constructor.
+	 */
+	private static class CachingParameterNameDiscoverer implements ParameterNameDiscoverer {
+
+		private static final String[] NO_PARAMETER_NAMES = new String[0];
+
+		private final ParameterNameDiscoverer delegate;
+
+		private final Map<Object, String[]> parameterNamesCache = new ConcurrentReferenceHashMap<>(256);
+
+		public CachingParameterNameDiscoverer(ParameterNameDiscoverer delegate) {
+			this.delegate = delegate;
+		}
+
+		@Override
+		@Nullable
+		public String[] getParameterNames(Method method) {
+			String[] parameterNames = this.parameterNamesCache.get(method);
+			if (parameterNames == null) {
+				parameterNames = this.delegate.getParameterNames(method);
+				this.parameterNamesCache.put(method, (parameterNames != null ? parameterNames : NO_PARAMETER_NAMES));
+			}
+			return (parameterNames != NO_PARAMETER_NAMES ? parameterNames : null);
+		}
+
+		@Override
+		@Nullable
+		public String[] getParameterNames(Constructor<?> ctor) {
+			String[] parameterNames = this.parameterNamesCache.get(ctor);
+			if (parameterNames == null) {
+				parameterNames = this.delegate.getParameterNames(ctor);
+				this.parameterNamesCache.put(ctor, (parameterNames != null ? parameterNames : NO_PARAMETER_NAMES));
+			}
+			return (parameterNames != NO_PARAMETER_NAMES ? parameterNames : null);
+		}
+	}
+
+
+	/**
+	 * Compilation statistics for a specific cached SpEL expression.
+	 * @since 5.2
+	 * @see #getExpressionStatistics()
+	 */
+	public static final class ExpressionStatistics {
+
+		private final AnnotatedElementKey element;
+
+		private final String expression;
+
+		private final boolean compiled;
+
+		private final int interpretedCount;
+
+		private final int failedCompilationAttempts;
+
+		private ExpressionStatistics(ExpressionKey key, SpelExpression expression) {
+			this.element = key.element;
+			this.expression = key.expression;
+			this.compiled = expression.isCompiled();
+			this.interpretedCount = expression.getInterpretedCount();
+			this.failedCompilationAttempts = expression.getFailedCompilationAttempts();
+		}
+
+		/**
+		 * Return the element on which the expression is defined.
+		 */
+		public AnnotatedElementKey getElement() {
+			return this.element;
+		}
+
+		/**
+		 * Return the expression string.
+		 */
+		public String getExpression() {
+			return this.expression;
+		}
+
+		/**
+		 * Return whether the expression is evaluated in compiled form.
+		 * @see SpelExpression#isCompiled()
+		 */
+		public boolean isCompiled() {
+			return this.compiled;
+		}
+
+		/**
+		 * Return how many times the expression has been interpreted, cumulative
+		 * across compilation: only reverting to interpreted form resets it.
+		 * @see SpelExpression#getInterpretedCount()
+		 */
+		public int getInterpretedCount() {
+			return this.interpretedCount;
+		}
+
+		/**
+		 * Return how many times compilation of the expression has failed.
+		 * @see SpelExpression#getFailedCompilationAttempts()
+		 */
+		public int getFailedCompilationAttempts() {
+			return this.failedCompilationAttempts;
+		}
+
+		@Override
+		public String toString() {
+			return this.element + " with expression \"" + this.expression + "\": " +
+					(this.compiled ? "compiled" : "interpreted " + this.interpretedCount + " times") +
+					", " + this.failedCompilationAttempts + " failed compilation attempts";
+		}
+	}
+
+
 	/**
 	 * An expression key.
 	 */
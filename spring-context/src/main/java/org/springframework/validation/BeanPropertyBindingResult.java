@@ -50,6 +50,8 @@ public class BeanPropertyBindingResult extends AbstractPropertyBindingResult imp
 
 	private final int autoGrowCollectionLimit;
 
+	private final boolean generatedPropertyAccess;
+
 	@Nullable
 	private transient BeanWrapper beanWrapper;
 
@@ -73,10 +75,28 @@ public class BeanPropertyBindingResult extends AbstractPropertyBindingResult imp
 	public BeanPropertyBindingResult(@Nullable Object target, String objectName,
 			boolean autoGrowNestedPaths, int autoGrowCollectionLimit) {
 
+		this(target, objectName, autoGrowNestedPaths, autoGrowCollectionLimit, false);
+	}
+
+	/**
+	 * Creates a new instance of the {@link BeanPropertyBindingResult} class.
+	 * @param target the target bean to bind onto
+	 * @param objectName the name of the target object
+	 * @param autoGrowNestedPaths whether to "auto-grow" a nested path that contains a null value
+	 * @param autoGrowCollectionLimit the limit for array and collection auto-growing
+	 * @param generatedPropertyAccess whether to access properties through generated
+	 * accessor classes rather than through reflection
+	 * @since 5.2
+	 * @see org.springframework.beans.GeneratedAccessorBeanWrapper
+	 */
+	public BeanPropertyBindingResult(@Nullable Object target, String objectName,
+			boolean autoGrowNestedPaths, int autoGrowCollectionLimit, boolean generatedPropertyAccess) {
+
 		super(objectName);
 		this.target = target;
 		this.autoGrowNestedPaths = autoGrowNestedPaths;
 		this.autoGrowCollectionLimit = autoGrowCollectionLimit;
+		this.generatedPropertyAccess = generatedPropertyAccess;
 	}
 
 
@@ -110,7 +130,9 @@ public class BeanPropertyBindingResult extends AbstractPropertyBindingResult imp
 		if (this.target == null) {
 			throw new IllegalStateException("Cannot access properties on null bean instance '" + getObjectName() + "'");
 		}
-		return PropertyAccessorFactory.forBeanPropertyAccess(this.target);
+		return (this.generatedPropertyAccess ?
+				PropertyAccessorFactory.forGeneratedBeanPropertyAccess(this.target) :
+				PropertyAccessorFactory.forBeanPropertyAccess(this.target));
 	}
 
 }
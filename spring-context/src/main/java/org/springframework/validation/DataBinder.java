@@ -270,6 +270,40 @@ public class DataBinder implements PropertyEditorRegistry, TypeConverter {
 		return result;
 	}
 
+	/**
+	 * Initialize JavaBean property access through generated accessor classes
+	 * for this DataBinder, as alternative to the default reflective bean
+	 * property access.
+	 * @since 5.2
+	 * @see #initBeanPropertyAccess()
+	 * @see #createGeneratedBeanPropertyBindingResult()
+	 * @see org.springframework.beans.GeneratedAccessorBeanWrapper
+	 */
+	public void initGeneratedBeanPropertyAccess() {
+		Assert.state(this.bindingResult == null,
+				"DataBinder is already initialized - call initGeneratedBeanPropertyAccess before other configuration methods");
+		this.bindingResult = createGeneratedBeanPropertyBindingResult();
+	}
+
+	/**
+	 * Create the {@link AbstractPropertyBindingResult} instance using JavaBean
+	 * property access through generated accessor classes.
+	 * @since 5.2
+	 */
+	protected AbstractPropertyBindingResult createGeneratedBeanPropertyBindingResult() {
+		BeanPropertyBindingResult result = new BeanPropertyBindingResult(getTarget(),
+				getObjectName(), isAutoGrowNestedPaths(), getAutoGrowCollectionLimit(), true);
+
+		if (this.conversionService != null) {
+			result.initConversion(this.conversionService);
+		}
+		if (this.messageCodesResolver != null) {
+			result.setMessageCodesResolver(this.messageCodesResolver);
+		}
+
+		return result;
+	}
+
 	/**
 	 * Initialize direct field access for this DataBinder,
 	 * as alternative to the default bean property access.
@@ -16,7 +16,10 @@
 
 package org.springframework.cache;
 
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -78,6 +81,26 @@ public abstract class AbstractCacheTests<T extends Cache> {
 		assertNull(cache.get(key, Object.class));
 	}
 
+	@Test
+	public void testCachePutAllGetAll() throws Exception {
+		T cache = getCache();
+
+		String key1 = createRandomKey();
+		String key2 = createRandomKey();
+		String key3 = createRandomKey();
+		Map<String, Object> entries = new HashMap<>();
+		entries.put(key1, "george");
+		entries.put(key2, null);
+
+		assertTrue(cache.getAll(Arrays.asList(key1, key2, key3)).isEmpty());
+		cache.putAll(entries);
+		Map<Object, Cache.ValueWrapper> result = cache.getAll(Arrays.asList(key1, key2, key3));
+		assertEquals(2, result.size());
+		assertEquals("george", result.get(key1).get());
+		assertNull(result.get(key2).get());
+		assertFalse(result.containsKey(key3));
+	}
+
 	@Test
 	public void testCachePutIfAbsent() throws Exception {
 		T cache = getCache();
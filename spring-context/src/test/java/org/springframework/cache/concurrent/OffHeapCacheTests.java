@@ -0,0 +1,256 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.concurrent;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.cache.AbstractValueAdaptingCacheTests;
+import org.springframework.cache.Cache;
+import org.springframework.core.serializer.support.SerializationDelegate;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link OffHeapCache} and {@link OffHeapCacheManager}.
+ *
+ * @since 5.2
+ */
+public class OffHeapCacheTests extends AbstractValueAdaptingCacheTests<OffHeapCache> {
+
+	private OffHeapCache cache;
+
+	private OffHeapCache cacheNoNull;
+
+
+	@Before
+	public void setUp() {
+		this.cache = new OffHeapCache(CACHE_NAME, 1024 * 1024);
+		this.cacheNoNull = new OffHeapCache(CACHE_NAME_NO_NULL, 1024 * 1024, 0, null, false);
+	}
+
+	@Override
+	protected OffHeapCache getCache() {
+		return getCache(true);
+	}
+
+	@Override
+	protected OffHeapCache getCache(boolean allowNull) {
+		return (allowNull ? this.cache : this.cacheNoNull);
+	}
+
+	@Override
+	protected Object getNativeCache() {
+		return this.cache;
+	}
+
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void storeByValue() {
+		Object key = createRandomKey();
+		List<String> content = new ArrayList<>(Arrays.asList("one", "two", "three"));
+		this.cache.put(key, content);
+		content.remove(0);
+		List<String> entry = (List<String>) this.cache.get(key).get();
+		assertEquals(3, entry.size());
+		assertEquals("one", entry.get(0));
+	}
+
+	@Test
+	public void nonSerializableContent() {
+		this.thrown.expect(IllegalArgumentException.class);
+		this.thrown.expectMessage("Failed to serialize");
+		this.cache.put(createRandomKey(), new Object());
+	}
+
+	@Test
+	public void evictLeastRecentlyUsedWhenMaxBytesReached() {
+		OffHeapCache cache = createSingleSegmentCache(4 * 1024, 0, null);
+		byte[] value = new byte[1000];
+		cache.put("a", value);
+		cache.put("b", value);
+		cache.put("c", value);
+		assertNotNull(cache.get("a"));
+		cache.put("d", value);
+		assertNotNull(cache.get("a"));
+		assertNull(cache.get("b"));
+		assertNotNull(cache.get("c"));
+		assertNotNull(cache.get("d"));
+		assertEquals(1, cache.getEvictionCount());
+		assertEquals(3, cache.getSize());
+		assertTrue(cache.getUsedBytes() <= 4 * 1024);
+	}
+
+	@Test
+	public void evictWhenMaxEntriesReached() {
+		OffHeapCache cache = createSingleSegmentCache(1024 * 1024, 2, null);
+		cache.put("a", "a");
+		cache.put("b", "b");
+		cache.put("c", "c");
+		assertNull(cache.get("a"));
+		assertEquals("b", cache.get("b", String.class));
+		assertEquals("c", cache.get("c", String.class));
+		assertEquals(2, cache.getSize());
+	}
+
+	@Test
+	public void valuesSurviveCompactionAndGrowth() {
+		OffHeapCache cache = createSingleSegmentCache(256 * 1024, 0, null);
+		for (int i = 0; i < 1000; i++) {
+			cache.put(i % 50, "value" + i + new String(new char[i]));
+		}
+		for (int i = 950; i < 1000; i++) {
+			assertEquals("value" + i + new String(new char[i]), cache.get(i % 50, String.class));
+		}
+		assertEquals(50, cache.getSize());
+	}
+
+	@Test
+	public void valueTooLargeForSegment() {
+		OffHeapCache cache = createSingleSegmentCache(1024, 0, null);
+		cache.put("key", "small");
+		cache.put("key", new byte[2048]);
+		assertNull(cache.get("key"));
+		assertEquals(0, cache.getUsedBytes());
+	}
+
+	@Test
+	public void expireAfterTimeToLive() throws InterruptedException {
+		OffHeapCache cache = createSingleSegmentCache(1024 * 1024, 0, Duration.ofMillis(10));
+		cache.put("key", "value");
+		assertEquals("value", cache.get("key", String.class));
+		Thread.sleep(50);
+		assertNull(cache.get("key"));
+		assertEquals(0, cache.getSize());
+		assertEquals(1, cache.getEvictionCount());
+	}
+
+	@Test
+	public void hitAndMissCounts() {
+		this.cache.put("key", "value");
+		this.cache.get("key");
+		this.cache.get("other");
+		this.cache.get("loaded", () -> "loaded");
+		this.cache.get("loaded", () -> "loaded");
+		assertEquals(2, this.cache.getHitCount());
+		assertEquals(2, this.cache.getMissCount());
+	}
+
+	@Test
+	public void valueLoaderDoesNotBlockSegment() throws Exception {
+		OffHeapCache cache = createSingleSegmentCache(1024 * 1024, 0, null);
+		CountDownLatch loading = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		CompletableFuture<String> slowLoad = CompletableFuture.supplyAsync(() -> cache.get("slow", () -> {
+			loading.countDown();
+			assertTrue(release.await(5, TimeUnit.SECONDS));
+			return "slow";
+		}));
+		assertTrue(loading.await(5, TimeUnit.SECONDS));
+		CompletableFuture<String> fastLoad = CompletableFuture.supplyAsync(() -> cache.get("fast", () -> "fast"));
+		assertEquals("fast", fastLoad.get(5, TimeUnit.SECONDS));
+		release.countDown();
+		assertEquals("slow", slowLoad.get(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void valueLoaderInvokedOncePerKey() throws Exception {
+		OffHeapCache cache = createSingleSegmentCache(1024 * 1024, 0, null);
+		AtomicInteger invocations = new AtomicInteger();
+		CountDownLatch loading = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		CompletableFuture<String> load = CompletableFuture.supplyAsync(() -> cache.get("key", () -> {
+			invocations.incrementAndGet();
+			loading.countDown();
+			assertTrue(release.await(5, TimeUnit.SECONDS));
+			return "value";
+		}));
+		assertTrue(loading.await(5, TimeUnit.SECONDS));
+		CompletableFuture<String> waiting = CompletableFuture.supplyAsync(() -> cache.get("key", () -> {
+			invocations.incrementAndGet();
+			return "other";
+		}));
+		Thread.sleep(50);
+		release.countDown();
+		assertEquals("value", load.get(5, TimeUnit.SECONDS));
+		assertEquals("value", waiting.get(5, TimeUnit.SECONDS));
+		assertEquals(1, invocations.get());
+	}
+
+	@Test
+	public void valueLoaderFailurePropagatedToWaitingCaller() throws Exception {
+		OffHeapCache cache = createSingleSegmentCache(1024 * 1024, 0, null);
+		IllegalStateException failure = new IllegalStateException("Expected");
+		CountDownLatch loading = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		CompletableFuture<String> load = CompletableFuture.supplyAsync(() -> cache.get("key", () -> {
+			loading.countDown();
+			assertTrue(release.await(5, TimeUnit.SECONDS));
+			throw failure;
+		}));
+		assertTrue(loading.await(5, TimeUnit.SECONDS));
+		CompletableFuture<String> waiting = CompletableFuture.supplyAsync(() -> cache.get("key", () -> "other"));
+		Thread.sleep(50);
+		release.countDown();
+		for (CompletableFuture<String> future : Arrays.asList(load, waiting)) {
+			try {
+				future.get(5, TimeUnit.SECONDS);
+				fail("Should have thrown ValueRetrievalException");
+			}
+			catch (ExecutionException ex) {
+				assertTrue(ex.getCause() instanceof Cache.ValueRetrievalException);
+				assertSame(failure, ex.getCause().getCause());
+			}
+		}
+		assertEquals("other", cache.get("key", () -> "other"));
+	}
+
+	@Test
+	public void cacheManager() {
+		OffHeapCacheManager cacheManager = new OffHeapCacheManager("c1");
+		cacheManager.setMaxBytes(1024 * 1024);
+		cacheManager.setTimeToLive(Duration.ofMinutes(1));
+		Cache cache = cacheManager.getCache("c1");
+		assertTrue(cache instanceof OffHeapCache);
+		assertNull(cacheManager.getCache("c2"));
+		cache.put("key", "value");
+		assertEquals("value", cache.get("key").get());
+
+		cacheManager.setAllowNullValues(false);
+		Cache cache2 = cacheManager.getCache("c1");
+		assertNotSame(cache, cache2);
+		assertFalse(((OffHeapCache) cache2).isAllowNullValues());
+	}
+
+
+	private static OffHeapCache createSingleSegmentCache(long maxBytes, long maxEntries, Duration timeToLive) {
+		return new OffHeapCache(CACHE_NAME, maxBytes, maxEntries, timeToLive, true, 1,
+				new SerializationDelegate(OffHeapCacheTests.class.getClassLoader()));
+	}
+
+}
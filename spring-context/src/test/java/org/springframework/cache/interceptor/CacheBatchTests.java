@@ -0,0 +1,169 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.interceptor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.aop.framework.Advised;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheConfig;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@code @Cacheable(batch=true)} operations.
+ *
+ * @since 5.2
+ */
+public class CacheBatchTests {
+
+	private AnnotationConfigApplicationContext context;
+
+	private Cache cache;
+
+	private BatchService service;
+
+	private BatchService target;
+
+
+	@Before
+	public void setup() throws Exception {
+		this.context = new AnnotationConfigApplicationContext(Config.class);
+		this.cache = this.context.getBean(CacheManager.class).getCache("test");
+		this.service = this.context.getBean(BatchService.class);
+		this.target = (BatchService) ((Advised) this.service).getTargetSource().getTarget();
+	}
+
+	@After
+	public void close() {
+		this.context.close();
+	}
+
+
+	@Test
+	public void onlyMissingKeysAreLoaded() {
+		this.cache.put(2L, "cached2");
+
+		Map<Long, String> result = this.service.findAll(Arrays.asList(1L, 2L, 3L));
+		assertEquals(Arrays.asList(1L, 2L, 3L), new ArrayList<>(result.keySet()));
+		assertEquals("value1", result.get(1L));
+		assertEquals("cached2", result.get(2L));
+		assertEquals("value3", result.get(3L));
+		assertEquals(Collections.singletonList(Arrays.asList(1L, 3L)), this.target.invocations);
+		assertEquals("value1", this.cache.get(1L).get());
+		assertEquals("value3", this.cache.get(3L).get());
+	}
+
+	@Test
+	public void allKeysCached() {
+		this.service.findAll(Arrays.asList(1L, 2L));
+		Map<Long, String> result = this.service.findAll(Arrays.asList(2L, 1L));
+		assertEquals(Arrays.asList(2L, 1L), new ArrayList<>(result.keySet()));
+		assertEquals(1, this.target.invocations.size());
+	}
+
+	@Test
+	public void keysMissingFromResultAreNotCached() {
+		Map<Long, String> result = this.service.findAll(Arrays.asList(1L, 99L));
+		assertEquals(Collections.singletonMap(1L, "value1"), result);
+		assertNull(this.cache.get(99L));
+
+		this.service.findAll(Arrays.asList(1L, 99L));
+		assertEquals(Arrays.asList(Arrays.asList(1L, 99L), Collections.singletonList(99L)),
+				this.target.invocations);
+	}
+
+	@Test
+	public void setParameterWithKeyExpression() {
+		Map<Long, String> result = this.service.findSome("ignored", Collections.singleton(5L));
+		assertEquals(Collections.singletonMap(5L, "value5"), result);
+		assertEquals("value5", this.cache.get(5L).get());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void invalidReturnType() {
+		this.service.invalid(Collections.singletonList(1L));
+	}
+
+
+	@Configuration
+	@EnableCaching
+	static class Config {
+
+		@Bean
+		public CacheManager cacheManager() {
+			return new ConcurrentMapCacheManager("test");
+		}
+
+		@Bean
+		public BatchService service() {
+			return new BatchService();
+		}
+	}
+
+
+	@CacheConfig(cacheNames = "test")
+	static class BatchService {
+
+		final List<Collection<Long>> invocations = new ArrayList<>();
+
+		@Cacheable(batch = true)
+		public Map<Long, String> findAll(List<Long> ids) {
+			this.invocations.add(new ArrayList<>(ids));
+			Map<Long, String> result = new LinkedHashMap<>();
+			for (Long id : ids) {
+				if (id != 99L) {
+					result.put(id, "value" + id);
+				}
+			}
+			return result;
+		}
+
+		@Cacheable(batch = true, key = "#p1")
+		public Map<Long, String> findSome(String prefix, Set<Long> ids) {
+			Map<Long, String> result = new LinkedHashMap<>();
+			for (Long id : ids) {
+				result.put(id, "value" + id);
+			}
+			return result;
+		}
+
+		@Cacheable(batch = true)
+		public List<String> invalid(List<Long> ids) {
+			return Collections.emptyList();
+		}
+	}
+
+}
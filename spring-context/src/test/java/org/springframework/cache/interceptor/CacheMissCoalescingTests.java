@@ -0,0 +1,265 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.interceptor;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+
+import org.springframework.aop.framework.Advised;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheConfig;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for coalescing of concurrent cache misses.
+ *
+ * @since 5.2
+ */
+public class CacheMissCoalescingTests {
+
+	private AnnotationConfigApplicationContext context;
+
+	private CacheManager cacheManager;
+
+	private CoalescingService service;
+
+	private CoalescingService target;
+
+
+	@Before
+	public void setup() throws Exception {
+		this.context = new AnnotationConfigApplicationContext(Config.class);
+		this.cacheManager = this.context.getBean(CacheManager.class);
+		this.service = this.context.getBean(CoalescingService.class);
+		this.target = (CoalescingService) ((Advised) this.service).getTargetSource().getTarget();
+	}
+
+	@After
+	public void close() {
+		this.context.close();
+	}
+
+
+	@Test
+	public void blockingMissesAreCoalesced() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			Future<String> first = executor.submit(() -> this.service.blocking("key"));
+			assertTrue(this.target.started.await(5, TimeUnit.SECONDS));
+			Future<String> second = executor.submit(() -> this.service.blocking("key"));
+			Thread.sleep(100);
+			this.target.release.countDown();
+			assertEquals("key1", first.get(5, TimeUnit.SECONDS));
+			assertEquals("key1", second.get(5, TimeUnit.SECONDS));
+			assertEquals("key1", this.service.blocking("key"));
+			assertEquals(1, this.target.counter.get());
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void blockingFailureIsShared() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			this.target.failure = new IllegalStateException("Expected failure");
+			Future<String> first = executor.submit(() -> this.service.blocking("key"));
+			assertTrue(this.target.started.await(5, TimeUnit.SECONDS));
+			Future<String> second = executor.submit(() -> this.service.blocking("key"));
+			Thread.sleep(100);
+			this.target.release.countDown();
+			assertFailure(first, this.target.failure);
+			assertFailure(second, this.target.failure);
+			assertEquals(1, this.target.counter.get());
+			assertNull(this.cacheManager.getCache("test").get("key"));
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void blockingCheckedFailureIsShared() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			this.target.failure = new IOException("Expected failure");
+			Future<String> first = executor.submit(() -> this.service.blocking("key"));
+			assertTrue(this.target.started.await(5, TimeUnit.SECONDS));
+			Future<String> second = executor.submit(() -> this.service.blocking("key"));
+			Thread.sleep(100);
+			this.target.release.countDown();
+			assertFailure(first, this.target.failure);
+			assertFailure(second, this.target.failure);
+			assertEquals(1, this.target.counter.get());
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void completableFutureMissesAreCoalesced() throws Exception {
+		CompletableFuture<String> first = this.service.future("key");
+		CompletableFuture<String> second = this.service.future("key");
+		assertFalse(first.isDone());
+		assertEquals(1, this.target.counter.get());
+
+		assertSame(first, second);
+		assertSame(first, this.cacheManager.getCache("test").get("key").get());
+
+		this.target.pendingFuture.complete("value");
+		assertEquals("value", first.get(5, TimeUnit.SECONDS));
+		assertEquals("value", this.service.future("key").get());
+		assertEquals(1, this.target.counter.get());
+	}
+
+	@Test
+	public void monoMissesAreCoalesced() {
+		Mono<String> first = this.service.mono("key");
+		Mono<String> second = this.service.mono("key");
+		assertEquals(1, this.target.counter.get());
+
+		this.target.pendingMono.onNext("value");
+		assertEquals("value", first.block());
+		assertEquals("value", second.block());
+		assertEquals("value", this.cacheManager.getCache("test").get("key").get());
+		assertEquals("value", this.service.mono("key").block());
+		assertEquals(1, this.target.counter.get());
+	}
+
+	@Test
+	public void fluxValuesAreCachedAsList() {
+		assertEquals(Arrays.asList("key", "key"), this.service.flux("key").collectList().block());
+		assertEquals(Arrays.asList("key", "key"), this.cacheManager.getCache("test").get("key").get());
+		assertEquals(Arrays.asList("key", "key"), this.service.flux("key").collectList().block());
+		assertEquals(1, this.target.counter.get());
+	}
+
+	@Test
+	public void multipleCachesWithUnless() {
+		assertNull(this.service.multiple("none"));
+		assertNull(this.cacheManager.getCache("test").get("none"));
+		assertEquals("key", this.service.multiple("key"));
+		assertEquals("key", this.cacheManager.getCache("test").get("key").get());
+		assertEquals("key", this.cacheManager.getCache("other").get("key").get());
+		assertEquals("key", this.service.multiple("key"));
+		assertEquals(2, this.target.counter.get());
+	}
+
+
+	private static void assertFailure(Future<String> future, Exception expected) throws Exception {
+		try {
+			future.get(5, TimeUnit.SECONDS);
+			fail("Should have thrown ExecutionException");
+		}
+		catch (ExecutionException ex) {
+			assertSame(expected, ex.getCause());
+		}
+	}
+
+
+	@Configuration
+	@EnableCaching(coalesceCacheMisses = true)
+	static class Config {
+
+		@Bean
+		public CacheManager cacheManager() {
+			return new ConcurrentMapCacheManager("test", "other");
+		}
+
+		@Bean
+		public CoalescingService service() {
+			return new CoalescingService();
+		}
+	}
+
+
+	@CacheConfig(cacheNames = "test")
+	static class CoalescingService {
+
+		final AtomicInteger counter = new AtomicInteger();
+
+		final CountDownLatch started = new CountDownLatch(1);
+
+		final CountDownLatch release = new CountDownLatch(1);
+
+		final CompletableFuture<String> pendingFuture = new CompletableFuture<>();
+
+		final MonoProcessor<String> pendingMono = MonoProcessor.create();
+
+		volatile Exception failure;
+
+		@Cacheable
+		public String blocking(String key) throws Exception {
+			int count = this.counter.incrementAndGet();
+			this.started.countDown();
+			this.release.await();
+			if (this.failure != null) {
+				throw this.failure;
+			}
+			return key + count;
+		}
+
+		@Cacheable
+		public CompletableFuture<String> future(String key) {
+			this.counter.incrementAndGet();
+			return this.pendingFuture;
+		}
+
+		@Cacheable
+		public Mono<String> mono(String key) {
+			this.counter.incrementAndGet();
+			return this.pendingMono;
+		}
+
+		@Cacheable
+		public Flux<String> flux(String key) {
+			this.counter.incrementAndGet();
+			return Flux.just(key, key);
+		}
+
+		@Cacheable(cacheNames = {"test", "other"}, unless = "#result == null")
+		public String multiple(String key) {
+			this.counter.incrementAndGet();
+			return ("none".equals(key) ? null : key);
+		}
+	}
+
+}
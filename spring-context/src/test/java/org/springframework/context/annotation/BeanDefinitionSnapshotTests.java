@@ -0,0 +1,179 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.annotation;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.tests.sample.beans.ITestBean;
+import org.springframework.tests.sample.beans.TestBean;
+import org.springframework.util.ClassUtils;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link BeanDefinitionSnapshot}.
+ *
+ * @since 5.2
+ */
+public class BeanDefinitionSnapshotTests {
+
+	@Before
+	public void resetConditionCount() {
+		CountingCondition.count.set(0);
+	}
+
+
+	@Test
+	public void captureAndRegister() throws IOException {
+		AnnotationConfigApplicationContext original = new AnnotationConfigApplicationContext();
+		original.register(SnapshotConfig.class);
+		BeanDefinitionSnapshot snapshot = storeAndLoad(BeanDefinitionSnapshot.capture(original));
+		assertTrue(Arrays.asList(snapshot.getBeanNames()).containsAll(
+				Arrays.asList("testBean", "spouse", "scopedBean", "importedConfigBean")));
+		int conditionCount = CountingCondition.count.get();
+		assertTrue(conditionCount > 0);
+
+		GenericApplicationContext context = new GenericApplicationContext();
+		snapshot.registerBeanDefinitions(context);
+		context.refresh();
+
+		assertEquals(conditionCount, CountingCondition.count.get());
+		assertTrue(ClassUtils.isCglibProxy(context.getBean(SnapshotConfig.class)));
+		TestBean testBean = context.getBean("testBean", TestBean.class);
+		assertSame(context.getBean("spouse"), testBean.getSpouse());
+		assertSame(testBean, context.getBean("myTestBean"));
+		assertTrue(AopUtils.isAopProxy(context.getBean("scopedBean")));
+		assertEquals("scoped", context.getBean("scopedBean", ITestBean.class).getName());
+
+		ImportedConfig importedConfig = context.getBean(ImportedConfig.class);
+		assertNotNull(importedConfig.importMetadata);
+		assertEquals(SnapshotConfig.class.getName(), importedConfig.importMetadata.getClassName());
+		assertEquals("importedConfigBean", context.getBean("importedConfigBean"));
+		context.close();
+	}
+
+	@Test
+	public void registerWithAnnotationConfigApplicationContext() throws IOException {
+		AnnotationConfigApplicationContext original = new AnnotationConfigApplicationContext();
+		original.register(SnapshotConfig.class);
+		BeanDefinitionSnapshot snapshot = storeAndLoad(BeanDefinitionSnapshot.capture(original));
+
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		snapshot.registerBeanDefinitions(context);
+		context.refresh();
+		assertSame(context.getBean("spouse"), context.getBean("testBean", TestBean.class).getSpouse());
+		context.close();
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void registerWithDifferentActiveProfiles() throws IOException {
+		AnnotationConfigApplicationContext original = new AnnotationConfigApplicationContext();
+		original.register(SnapshotConfig.class);
+		BeanDefinitionSnapshot snapshot = storeAndLoad(BeanDefinitionSnapshot.capture(original));
+
+		GenericApplicationContext context = new GenericApplicationContext();
+		context.getEnvironment().setActiveProfiles("other");
+		snapshot.registerBeanDefinitions(context);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void captureWithInstanceSupplier() {
+		AnnotationConfigApplicationContext original = new AnnotationConfigApplicationContext();
+		original.registerBean("testBean", TestBean.class, () -> new TestBean());
+		BeanDefinitionSnapshot.capture(original);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void captureRefreshedContext() {
+		AnnotationConfigApplicationContext original = new AnnotationConfigApplicationContext(SnapshotConfig.class);
+		BeanDefinitionSnapshot.capture(original);
+	}
+
+
+	private static BeanDefinitionSnapshot storeAndLoad(BeanDefinitionSnapshot snapshot) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		snapshot.store(out);
+		return BeanDefinitionSnapshot.load(new ByteArrayResource(out.toByteArray()));
+	}
+
+
+	@Configuration
+	@Import(ImportedConfig.class)
+	@Conditional(CountingCondition.class)
+	static class SnapshotConfig {
+
+		@Bean({"testBean", "myTestBean"})
+		public TestBean testBean(@Qualifier("spouse") ITestBean spouse) {
+			TestBean testBean = new TestBean("test");
+			testBean.setSpouse(spouse);
+			return testBean;
+		}
+
+		@Bean
+		public static TestBean spouse() {
+			return new TestBean("spouse");
+		}
+
+		@Bean
+		@Scope(scopeName = "prototype", proxyMode = ScopedProxyMode.INTERFACES)
+		public ITestBean scopedBean() {
+			return new TestBean("scoped");
+		}
+	}
+
+
+	@Configuration
+	static class ImportedConfig implements ImportAware {
+
+		AnnotationMetadata importMetadata;
+
+		@Override
+		public void setImportMetadata(AnnotationMetadata importMetadata) {
+			this.importMetadata = importMetadata;
+		}
+
+		@Bean
+		public String importedConfigBean() {
+			return "importedConfigBean";
+		}
+	}
+
+
+	static class CountingCondition implements Condition {
+
+		static final AtomicInteger count = new AtomicInteger();
+
+		@Override
+		public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+			count.incrementAndGet();
+			return true;
+		}
+	}
+
+}
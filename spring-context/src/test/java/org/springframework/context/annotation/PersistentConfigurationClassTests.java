@@ -0,0 +1,150 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.annotation;
+
+import java.io.File;
+import java.lang.reflect.Field;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import org.springframework.cglib.core.PersistentGeneratorStrategy;
+import org.springframework.core.OverridingClassLoader;
+import org.springframework.core.SpringProperties;
+import org.springframework.tests.sample.beans.TestBean;
+import org.springframework.util.ReflectionUtils;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for enhanced configuration classes with a
+ * {@link PersistentGeneratorStrategy#CACHE_LOCATION_PROPERTY_NAME persistent class cache}.
+ *
+ * @since 5.2
+ */
+public class PersistentConfigurationClassTests {
+
+	@Rule
+	public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private File location;
+
+
+	@Before
+	public void setCacheLocation() throws Exception {
+		this.location = this.temporaryFolder.newFolder();
+		SpringProperties.setProperty(PersistentGeneratorStrategy.CACHE_LOCATION_PROPERTY_NAME,
+				this.location.getAbsolutePath());
+	}
+
+	@After
+	public void clearCacheLocation() {
+		SpringProperties.setProperty(PersistentGeneratorStrategy.CACHE_LOCATION_PROPERTY_NAME, null);
+	}
+
+
+	@Test
+	public void enhancedClassPersistedAndReused() throws Exception {
+		Class<?> first = enhance(new ConfigClassLoader());
+		File file = new File(this.location, first.getName() + ".cglib");
+		assertTrue(file.isFile());
+		// Backdate the entry, so that any rewrite shows up in its timestamp
+		assertTrue(file.setLastModified(1000));
+
+		Class<?> second = enhance(new ConfigClassLoader());
+		assertNotSame(first, second);
+		assertEquals(first.getName(), second.getName());
+		assertEquals(1000, file.lastModified());
+	}
+
+	@Test
+	public void reusedEnhancedClassInterceptsBeanMethods() throws Exception {
+		AnnotationConfigApplicationContext first = createContext(new ConfigClassLoader());
+		Class<?> firstClass = first.getBean(Config.class.getName()).getClass();
+		File file = new File(this.location, firstClass.getName() + ".cglib");
+		assertTrue(file.isFile());
+		assertTrue(file.setLastModified(1000));
+		first.close();
+
+		AnnotationConfigApplicationContext second = createContext(new ConfigClassLoader());
+		Object config = second.getBean(Config.class.getName());
+		assertEquals(1000, file.lastModified());
+		assertNotSame(firstClass, config.getClass());
+		assertEquals(firstClass.getName(), config.getClass().getName());
+
+		Field field = ReflectionUtils.findField(config.getClass(), "$$beanFactory");
+		assertNotNull(field);
+		assertSame(second.getBeanFactory(), ReflectionUtils.getField(field, config));
+
+		TestBean testBean = second.getBean("testBean", TestBean.class);
+		assertSame(testBean, ReflectionUtils.invokeMethod(
+				ReflectionUtils.findMethod(config.getClass(), "testBean"), config));
+		assertSame(testBean, second.getBean("spouse", TestBean.class).getSpouse());
+		second.close();
+	}
+
+
+	private Class<?> enhance(ClassLoader classLoader) throws ClassNotFoundException {
+		return new ConfigurationClassEnhancer().enhance(classLoader.loadClass(Config.class.getName()), classLoader);
+	}
+
+	private AnnotationConfigApplicationContext createContext(ClassLoader classLoader) throws ClassNotFoundException {
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		context.setClassLoader(classLoader);
+		context.registerBean(Config.class.getName(), classLoader.loadClass(Config.class.getName()));
+		context.refresh();
+		return context;
+	}
+
+
+	/**
+	 * Loads its own copy of the {@link Config} class, standing in for a new JVM
+	 * since CGLIB caches enhanced classes per ClassLoader of the enhanced class.
+	 */
+	private static class ConfigClassLoader extends OverridingClassLoader {
+
+		public ConfigClassLoader() {
+			super(PersistentConfigurationClassTests.class.getClassLoader());
+		}
+
+		@Override
+		protected boolean isEligibleForOverriding(String className) {
+			return className.equals(Config.class.getName());
+		}
+	}
+
+
+	@Configuration
+	public static class Config {
+
+		@Bean
+		public TestBean testBean() {
+			return new TestBean("test");
+		}
+
+		@Bean
+		public TestBean spouse() {
+			TestBean spouse = new TestBean("spouse");
+			spouse.setSpouse(testBean());
+			return spouse;
+		}
+	}
+
+}
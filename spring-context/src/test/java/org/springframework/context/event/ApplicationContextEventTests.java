@@ -206,6 +206,32 @@ public class ApplicationContextEventTests extends AbstractApplicationEventListen
 		assertEquals(2, listener1.seenEvents.size());
 	}
 
+	@Test
+	public void listenerRegistrationEvictsAffectedRetrieversOnly() {
+		MyOrderedListener3 listener1 = new MyOrderedListener3();
+		MyOrderedListener4 listener2 = new MyOrderedListener4(listener1);
+
+		SimpleApplicationEventMulticaster smc = new SimpleApplicationEventMulticaster();
+		smc.addApplicationListener(listener1);
+		smc.multicastEvent(new MyEvent(this));
+		smc.multicastEvent(new MyOtherEvent(this));
+		assertEquals(2, smc.retrieverCache.size());
+
+		smc.addApplicationListener(listener2);
+		assertEquals(1, smc.retrieverCache.size());
+		smc.multicastEvent(new MyEvent(this));
+		assertEquals(2, smc.retrieverCache.size());
+
+		smc.removeApplicationListener(listener2);
+		assertEquals(1, smc.retrieverCache.size());
+		smc.multicastEvent(new MyOtherEvent(this));
+		assertEquals(4, listener1.seenEvents.size());
+
+		smc.removeAllListeners();
+		assertTrue(smc.retrieverCache.isEmpty());
+		assertTrue(smc.getApplicationListeners().isEmpty());
+	}
+
 	@Test
 	@SuppressWarnings("unchecked")
 	public void proxiedListeners() {
@@ -295,8 +321,9 @@ public class ApplicationContextEventTests extends AbstractApplicationEventListen
 		assertTrue(listener1.seenEvents.contains(event3));
 		assertTrue(listener1.seenEvents.contains(event4));
 
+		// Adding lazy listener2 keeps the cached retriever for ContextRefreshedEvent
 		AbstractApplicationEventMulticaster multicaster = context.getBean(AbstractApplicationEventMulticaster.class);
-		assertEquals(2, multicaster.retrieverCache.size());
+		assertEquals(3, multicaster.retrieverCache.size());
 
 		context.close();
 	}
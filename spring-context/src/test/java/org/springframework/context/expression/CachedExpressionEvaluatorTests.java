@@ -17,13 +17,17 @@
 package org.springframework.context.expression;
 
 import java.lang.reflect.Method;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 import org.junit.Test;
 
+import org.springframework.expression.EvaluationContext;
 import org.springframework.expression.Expression;
+import org.springframework.expression.spel.standard.SpelExpression;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
 import org.springframework.util.ReflectionUtils;
 
 import static org.junit.Assert.*;
@@ -64,6 +68,39 @@ public class CachedExpressionEvaluatorTests {
 		assertEquals("Cached expression should be based on type", 2, expressionEvaluator.testCache.size());
 	}
 
+	@Test
+	public void compileFrequentlyEvaluatedExpression() {
+		CachedExpressionEvaluator evaluator = new CachedExpressionEvaluator() {};
+		Method method = ReflectionUtils.findMethod(getClass(), "toString");
+		Map<CachedExpressionEvaluator.ExpressionKey, Expression> cache = new ConcurrentHashMap<>();
+		EvaluationContext context = new StandardEvaluationContext("abc");
+
+		Expression expression = evaluator.getExpression(cache, new AnnotatedElementKey(method, getClass()), "length() > 2");
+		assertEquals(true, expression.getValue(context));
+		assertFalse(((SpelExpression) expression).isCompiled());
+		for (int i = 0; i < 200; i++) {
+			assertEquals(true, expression.getValue(context));
+		}
+		assertTrue(((SpelExpression) expression).isCompiled());
+		assertEquals(false, expression.getValue(new StandardEvaluationContext("a")));
+
+		List<CachedExpressionEvaluator.ExpressionStatistics> statistics = evaluator.getExpressionStatistics();
+		assertEquals(1, statistics.size());
+		assertEquals("length() > 2", statistics.get(0).getExpression());
+		assertEquals(new AnnotatedElementKey(method, getClass()), statistics.get(0).getElement());
+		assertTrue(statistics.get(0).isCompiled());
+		assertEquals(0, statistics.get(0).getFailedCompilationAttempts());
+	}
+
+	@Test
+	public void shareParameterNames() {
+		Method method = ReflectionUtils.findMethod(getClass(), "hasParsedExpression", String.class);
+		CachedExpressionEvaluator evaluator = new CachedExpressionEvaluator() {};
+		String[] parameterNames = evaluator.getParameterNameDiscoverer().getParameterNames(method);
+		assertArrayEquals(new String[] {"expression"}, parameterNames);
+		assertSame(parameterNames, expressionEvaluator.getParameterNameDiscoverer().getParameterNames(method));
+	}
+
 	private void hasParsedExpression(String expression) {
 		verify(expressionEvaluator.getParser(), times(1)).parseExpression(expression);
 	}
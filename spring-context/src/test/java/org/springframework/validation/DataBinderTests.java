@@ -41,6 +41,7 @@ import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
 import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.GeneratedAccessorBeanWrapper;
 import org.springframework.beans.InvalidPropertyException;
 import org.springframework.beans.MethodInvocationException;
 import org.springframework.beans.MutablePropertyValues;
@@ -117,6 +118,29 @@ public class DataBinderTests {
 		assertTrue(!other.equals(binder.getBindingResult()));
 	}
 
+	@Test
+	public void testBindingWithGeneratedPropertyAccess() throws BindException {
+		TestBean rod = new TestBean();
+		rod.setSpouse(new TestBean());
+		DataBinder binder = new DataBinder(rod, "person");
+		binder.initGeneratedBeanPropertyAccess();
+		binder.setConversionService(new DefaultFormattingConversionService());
+		MutablePropertyValues pvs = new MutablePropertyValues();
+		pvs.add("name", "Rod");
+		pvs.add("age", "32");
+		pvs.add("spouse.age", "x");
+
+		binder.bind(pvs);
+
+		assertEquals("Rod", rod.getName());
+		assertEquals(32, rod.getAge());
+		BindingResult result = binder.getBindingResult();
+		assertTrue(((BeanPropertyBindingResult) result).getPropertyAccessor() instanceof GeneratedAccessorBeanWrapper);
+		assertEquals(1, result.getErrorCount());
+		assertEquals("typeMismatch", result.getFieldError("spouse.age").getCode());
+		assertEquals("x", result.getFieldValue("spouse.age"));
+	}
+
 	@Test
 	public void testBindingWithDefaultConversionNoErrors() throws BindException {
 		TestBean rod = new TestBean();
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.lang.reflect.Method;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks for merged annotation lookups in {@link AnnotatedElementUtils},
+ * including {@code @AliasFor} resolution and annotation synthesis.
+ * <p>Typically run with {@code "./gradlew :spring-core:jmh"}.
+ *
+ * @since 5.2
+ */
+@BenchmarkMode(Mode.Throughput)
+public class AnnotatedElementUtilsBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkState {
+
+		public Method annotatedMethod;
+
+		public Method plainMethod;
+
+		@Setup(Level.Trial)
+		public void setup() throws NoSuchMethodException {
+			this.annotatedMethod = AnnotatedService.class.getMethod("handle");
+			this.plainMethod = AnnotatedService.class.getMethod("toString");
+		}
+	}
+
+	@Benchmark
+	public Object findMergedAnnotationOnClass() {
+		return AnnotatedElementUtils.findMergedAnnotation(AnnotatedService.class, Mapping.class);
+	}
+
+	@Benchmark
+	public Object findMergedAnnotationOnMethod(BenchmarkState state) {
+		return AnnotatedElementUtils.findMergedAnnotation(state.annotatedMethod, Mapping.class);
+	}
+
+	@Benchmark
+	public Object getMergedAnnotationAttributes(BenchmarkState state) {
+		return AnnotatedElementUtils.getMergedAnnotationAttributes(state.annotatedMethod, Mapping.class);
+	}
+
+	@Benchmark
+	public void readSynthesizedAttributes(BenchmarkState state, Blackhole bh) {
+		Mapping mapping = AnnotatedElementUtils.findMergedAnnotation(state.annotatedMethod, Mapping.class);
+		bh.consume(mapping.path());
+		bh.consume(mapping.value());
+		bh.consume(mapping.method());
+	}
+
+	@Benchmark
+	public boolean hasAnnotationMiss(BenchmarkState state) {
+		return AnnotatedElementUtils.hasAnnotation(state.plainMethod, Mapping.class);
+	}
+
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@Target({ElementType.TYPE, ElementType.METHOD, ElementType.ANNOTATION_TYPE})
+	public @interface Mapping {
+
+		@AliasFor("path")
+		String[] value() default {};
+
+		@AliasFor("value")
+		String[] path() default {};
+
+		String method() default "";
+	}
+
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@Target({ElementType.TYPE, ElementType.METHOD})
+	@Mapping(method = "GET")
+	public @interface GetMapping {
+
+		@AliasFor(annotation = Mapping.class)
+		String[] value() default {};
+	}
+
+
+	@Mapping("/service")
+	public static class AnnotatedService {
+
+		@GetMapping("/handle")
+		public void handle() {
+		}
+	}
+
+}
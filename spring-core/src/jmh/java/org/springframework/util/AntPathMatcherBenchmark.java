@@ -0,0 +1,82 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks for {@link AntPathMatcher#match(String, String)} against a set of
+ * typical request mapping patterns.
+ * <p>Typically run with {@code "./gradlew :spring-core:jmh"}.
+ *
+ * @since 5.2
+ */
+@BenchmarkMode(Mode.Throughput)
+public class AntPathMatcherBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkState {
+
+		public final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+		public final List<String> patterns = new ArrayList<>();
+
+		public final List<String> paths = new ArrayList<>();
+
+		@Setup(Level.Trial)
+		public void setup() {
+			for (String resource : new String[] {"orders", "customers", "products", "invoices", "shipments"}) {
+				this.patterns.add("/api/" + resource);
+				this.patterns.add("/api/" + resource + "/{id}");
+				this.patterns.add("/api/" + resource + "/{id}/items/{itemId}");
+				this.patterns.add("/api/" + resource + "/search/*.json");
+				this.paths.add("/api/" + resource);
+				this.paths.add("/api/" + resource + "/42");
+				this.paths.add("/api/" + resource + "/42/items/7");
+				this.paths.add("/api/" + resource + "/search/latest.json");
+			}
+			this.patterns.add("/static/**");
+			this.paths.add("/static/css/main.css");
+			this.paths.add("/unknown/path");
+		}
+	}
+
+	@Benchmark
+	public void matchAll(BenchmarkState state, Blackhole bh) {
+		for (String path : state.paths) {
+			for (String pattern : state.patterns) {
+				bh.consume(state.pathMatcher.match(pattern, path));
+			}
+		}
+	}
+
+	@Benchmark
+	public void extractUriTemplateVariables(BenchmarkState state, Blackhole bh) {
+		bh.consume(state.pathMatcher.extractUriTemplateVariables("/api/{resource}/{id}/items/{itemId}", "/api/orders/42/items/7"));
+	}
+
+}
@@ -0,0 +1,418 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cglib.core;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.asm.Type;
+import org.springframework.cglib.proxy.CallbackFilter;
+import org.springframework.cglib.proxy.Enhancer;
+import org.springframework.core.SpringProperties;
+import org.springframework.core.SpringVersion;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ResourceUtils;
+
+/**
+ * {@link GeneratorStrategy} that persists the bytecode of generated classes
+ * to a cache location and reuses it on subsequent JVM starts, skipping the
+ * bytecode generation of the delegate strategy.
+ *
+ * <p>Each cached class is stored along with a key that describes everything
+ * the generated bytecode depends on, computed from the {@link Enhancer} that
+ * requests the class through {@link #generateKey}. A cached entry is only used
+ * if its key matches the current key; otherwise the class is generated by the
+ * delegate strategy as usual, replacing the outdated entry. If no build version
+ * can be determined for the key, classes are generated without persisting them.
+ *
+ * <p>The cache location is either a file system directory, which is read and
+ * written, or a {@code "classpath:"} location, which is only read: e.g. for
+ * shipping the contents of a directory populated at build time in a jar.
+ *
+ * <p>Generated class names are derived from the key via the
+ * {@link #getNamingPolicy() naming policy} of this strategy, so that the same
+ * class gets the same name across JVM starts.
+ *
+ * <p><b>The cache location needs to be as trusted as the application's class
+ * path.</b> Cached classes get defined without further verification, and the
+ * key of an entry can be computed by anyone with access to the application's
+ * classes: write access to the cache location thus allows for injecting code.
+ *
+ * @since 5.2
+ * @see #CACHE_LOCATION_PROPERTY_NAME
+ */
+public class PersistentGeneratorStrategy implements GeneratorStrategy {
+
+	/**
+	 * System property that specifies the location to persist generated CGLIB
+	 * classes to, either a directory or a {@code "classpath:"} location.
+	 * <p>Not set by default, generating all classes at runtime.
+	 * @see #getCacheLocation()
+	 */
+	public static final String CACHE_LOCATION_PROPERTY_NAME = "spring.cglib.cache.location";
+
+	private static final String FILE_SUFFIX = ".cglib";
+
+	private static final int MAGIC = 0x53434743;
+
+	private static final Log logger = LogFactory.getLog(PersistentGeneratorStrategy.class);
+
+
+	private final GeneratorStrategy delegate;
+
+	private final String location;
+
+	@Nullable
+	private volatile EnhancerKey lastKey;
+
+
+	/**
+	 * Create a new {@code PersistentGeneratorStrategy}.
+	 * @param delegate the strategy to generate classes with on a cache miss
+	 * @param location the cache location, either a directory or a
+	 * {@code "classpath:"} location
+	 */
+	public PersistentGeneratorStrategy(GeneratorStrategy delegate, String location) {
+		Assert.notNull(delegate, "Delegate GeneratorStrategy must not be null");
+		Assert.hasText(location, "Cache location must not be empty");
+		this.delegate = delegate;
+		this.location = location;
+	}
+
+
+	/**
+	 * Return a naming policy that derives generated class names from the key
+	 * of the class to generate, rather than from the identity hash codes of
+	 * the CGLIB configuration, keeping them stable across JVM starts.
+	 */
+	public NamingPolicy getNamingPolicy() {
+		return new KeyNamingPolicy();
+	}
+
+	@Override
+	public byte[] generate(ClassGenerator cg) throws Exception {
+		// Only the Enhancer subclass is covered by the key; CGLIB also passes
+		// this strategy on to the FastClass generators of its MethodProxies
+		if (!(cg instanceof Enhancer)) {
+			return this.delegate.generate(cg);
+		}
+		Enhancer enhancer = (Enhancer) cg;
+		String key = getKey(enhancer);
+		if (key == null) {
+			return this.delegate.generate(cg);
+		}
+		String className = enhancer.getClassName();
+		byte[] cached = readClass(className, key, enhancer.getClassLoader());
+		if (cached != null) {
+			return cached;
+		}
+		byte[] generated = this.delegate.generate(cg);
+		if (!this.location.startsWith(ResourceUtils.CLASSPATH_URL_PREFIX)) {
+			writeClass(className, key, generated);
+		}
+		return generated;
+	}
+
+	/**
+	 * Return the key for the class that the given Enhancer generates,
+	 * reusing the key computed for the same Enhancer when naming the class.
+	 */
+	@Nullable
+	private String getKey(Enhancer enhancer) {
+		EnhancerKey lastKey = this.lastKey;
+		if (lastKey != null && lastKey.enhancer == enhancer) {
+			return lastKey.key;
+		}
+		String key = generateKey(enhancer);
+		if (key == null && logger.isDebugEnabled()) {
+			logger.debug("Not persisting CGLIB class for " + enhancer.getSuperclass() +
+					": no build version available to compute its key");
+		}
+		this.lastKey = new EnhancerKey(enhancer, key);
+		return key;
+	}
+
+	@Nullable
+	private byte[] readClass(String className, String key, @Nullable ClassLoader classLoader) {
+		String fileName = className + FILE_SUFFIX;
+		try {
+			InputStream is;
+			if (this.location.startsWith(ResourceUtils.CLASSPATH_URL_PREFIX)) {
+				String path = this.location.substring(ResourceUtils.CLASSPATH_URL_PREFIX.length());
+				path = (path.endsWith("/") ? path : path + "/") + fileName;
+				is = (classLoader != null ? classLoader.getResourceAsStream(path) :
+						ClassLoader.getSystemResourceAsStream(path));
+			}
+			else {
+				Path file = Paths.get(this.location, fileName);
+				is = (Files.isRegularFile(file) ? Files.newInputStream(file) : null);
+			}
+			if (is == null) {
+				return null;
+			}
+			try (DataInputStream dis = new DataInputStream(is)) {
+				if (dis.readInt() != MAGIC || !key.equals(dis.readUTF()) || !className.equals(dis.readUTF())) {
+					if (logger.isDebugEnabled()) {
+						logger.debug("Ignoring outdated cached CGLIB class " + className + " in " + this.location);
+					}
+					return null;
+				}
+				byte[] bytes = new byte[dis.readInt()];
+				dis.readFully(bytes);
+				if (logger.isTraceEnabled()) {
+					logger.trace("Using cached CGLIB class " + className + " from " + this.location);
+				}
+				return bytes;
+			}
+		}
+		catch (IOException | RuntimeException ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Failed to read cached CGLIB class " + className + " from " + this.location +
+						" - falling back to class generation", ex);
+			}
+			return null;
+		}
+	}
+
+	private void writeClass(String className, String key, byte[] bytes) {
+		Path tempFile = null;
+		try {
+			ByteArrayOutputStream bos = new ByteArrayOutputStream(bytes.length + 256);
+			DataOutputStream dos = new DataOutputStream(bos);
+			dos.writeInt(MAGIC);
+			dos.writeUTF(key);
+			dos.writeUTF(className);
+			dos.writeInt(bytes.length);
+			dos.write(bytes);
+			dos.flush();
+
+			Path directory = Files.createDirectories(Paths.get(this.location));
+			// Write to a temporary file first, so that concurrently starting
+			// JVMs never read a partially written entry
+			tempFile = Files.createTempFile(directory, className, ".tmp");
+			Files.write(tempFile, bos.toByteArray());
+			Files.move(tempFile, directory.resolve(className + FILE_SUFFIX),
+					StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			tempFile = null;
+		}
+		catch (IOException | RuntimeException ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Failed to write CGLIB class " + className + " to " + this.location, ex);
+			}
+		}
+		finally {
+			if (tempFile != null) {
+				try {
+					Files.deleteIfExists(tempFile);
+				}
+				catch (IOException ex) {
+					// ignore
+				}
+			}
+		}
+	}
+
+
+	/**
+	 * Return the cache location configured through the
+	 * {@link #CACHE_LOCATION_PROPERTY_NAME} property, if any.
+	 */
+	@Nullable
+	public static String getCacheLocation() {
+		String location = SpringProperties.getProperty(CACHE_LOCATION_PROPERTY_NAME);
+		return (location != null && !location.isEmpty() ? location : null);
+	}
+
+	/**
+	 * Generate a key for the class that the given {@link Enhancer} generates.
+	 * <p>The key covers the build version, the type of the delegate generator
+	 * strategy, the names of the superclass, interfaces and callback types, the
+	 * {@code useFactory}, {@code interceptDuringConstruction} and
+	 * {@code serialVersionUID} settings as well as the signature (including
+	 * declared exceptions) of each constructor and each method to be intercepted,
+	 * along with the callback index that the callback filter selects for it.
+	 * <p>The build version is the Spring version or, if not available (e.g. when
+	 * running from exploded class directories), the location and timestamp of
+	 * the CGLIB and delegate strategy classes.
+	 * @param enhancer the Enhancer to generate the class with, with its callback
+	 * types already determined
+	 * @return a hex-encoded SHA-256 hash, or {@code null} if no build version
+	 * could be determined
+	 */
+	@Nullable
+	public String generateKey(Enhancer enhancer) {
+		String buildVersion = getBuildVersion(Enhancer.class, this.delegate.getClass());
+		if (buildVersion == null) {
+			return null;
+		}
+		Class<?> superclass = (enhancer.getSuperclass() != null ? enhancer.getSuperclass() : Object.class);
+		Class<?>[] interfaces = enhancer.getInterfaces();
+		CallbackFilter filter = enhancer.getCallbackFilter();
+		Type[] callbackTypes = enhancer.getCallbackTypes();
+		Assert.state(callbackTypes != null, "Callback types not determined yet");
+
+		List<String> entries = new ArrayList<>();
+		for (Constructor<?> constructor : superclass.getDeclaredConstructors()) {
+			entries.add("<init>" + Type.getConstructorDescriptor(constructor) + ":" + constructor.getModifiers() +
+					exceptionTypes(constructor.getExceptionTypes()));
+		}
+		List<Method> methods = new ArrayList<>();
+		Enhancer.getMethods(superclass, interfaces, methods);
+		for (Method method : methods) {
+			entries.add(method.getDeclaringClass().getName() + "." + method.getName() +
+					Type.getMethodDescriptor(method) + ":" + method.getModifiers() +
+					exceptionTypes(method.getExceptionTypes()) + "->" +
+					(filter != null ? filter.accept(method) : 0));
+		}
+		// Reflection does not return methods in a stable order
+		Collections.sort(entries);
+
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		}
+		catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException("SHA-256 not supported", ex);
+		}
+		update(digest, buildVersion);
+		update(digest, this.delegate.getClass().getName());
+		update(digest, superclass.getName());
+		if (interfaces != null) {
+			for (Class<?> ifc : interfaces) {
+				update(digest, ifc.getName());
+			}
+		}
+		for (Type callbackType : callbackTypes) {
+			update(digest, callbackType.getDescriptor());
+		}
+		update(digest, "useFactory=" + enhancer.getUseFactory());
+		update(digest, "interceptDuringConstruction=" + enhancer.getInterceptDuringConstruction());
+		update(digest, "serialVersionUID=" + enhancer.getSerialVersionUID());
+		for (String entry : entries) {
+			update(digest, entry);
+		}
+
+		StringBuilder sb = new StringBuilder(64);
+		for (byte b : digest.digest()) {
+			sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Determine the Spring version or, as a fallback, an identifier for the
+	 * build of the given classes, based on their code source and timestamp.
+	 */
+	@Nullable
+	private static String getBuildVersion(Class<?>... classes) {
+		String version = SpringVersion.getVersion();
+		if (version != null) {
+			return version;
+		}
+		StringBuilder sb = new StringBuilder();
+		for (Class<?> clazz : classes) {
+			URL url = clazz.getResource(ClassUtils.getClassFileName(clazz));
+			if (url == null) {
+				return null;
+			}
+			try {
+				URL fileUrl = (ResourceUtils.isJarURL(url) ? ResourceUtils.extractArchiveURL(url) : url);
+				long lastModified = ResourceUtils.getFile(fileUrl).lastModified();
+				if (lastModified == 0) {
+					return null;
+				}
+				sb.append(url).append('@').append(lastModified).append(';');
+			}
+			catch (IOException ex) {
+				return null;
+			}
+		}
+		return sb.toString();
+	}
+
+	private static String exceptionTypes(Class<?>[] exceptionTypes) {
+		StringBuilder sb = new StringBuilder();
+		for (Class<?> exceptionType : exceptionTypes) {
+			sb.append(" throws ").append(exceptionType.getName());
+		}
+		return sb.toString();
+	}
+
+	private static void update(MessageDigest digest, String value) {
+		digest.update(value.getBytes(StandardCharsets.UTF_8));
+		digest.update((byte) 0);
+	}
+
+
+	/**
+	 * The key computed for a specific Enhancer, if any.
+	 */
+	private static class EnhancerKey {
+
+		final Enhancer enhancer;
+
+		@Nullable
+		final String key;
+
+		EnhancerKey(Enhancer enhancer, @Nullable String key) {
+			this.enhancer = enhancer;
+			this.key = key;
+		}
+	}
+
+
+	/**
+	 * {@link SpringNamingPolicy} variant that uses the leading bits of the key
+	 * instead of the hash code of the CGLIB configuration in the names of
+	 * {@link Enhancer} subclasses.
+	 */
+	private class KeyNamingPolicy extends SpringNamingPolicy {
+
+		@Override
+		public String getClassName(String prefix, String source, Object key, Predicate names) {
+			AbstractClassGenerator generator = AbstractClassGenerator.getCurrent();
+			String enhancerKey = (generator instanceof Enhancer ? getKey((Enhancer) generator) : null);
+			if (enhancerKey == null) {
+				return super.getClassName(prefix, source, key, names);
+			}
+			int hash = (int) Long.parseLong(enhancerKey.substring(0, 8), 16);
+			return super.getClassName(prefix, source, hash, names);
+		}
+	}
+
+}
@@ -424,6 +424,57 @@ public class Enhancer extends AbstractClassGenerator {
 		serialVersionUID = sUID;
 	}
 
+	// SPRING PATCH BEGIN
+	/**
+	 * Return the class which the generated class will extend, if any.
+	 */
+	public Class getSuperclass() {
+		return superclass;
+	}
+
+	/**
+	 * Return the interfaces to implement, if any.
+	 */
+	public Class[] getInterfaces() {
+		return interfaces;
+	}
+
+	/**
+	 * Return the callback filter, if any.
+	 */
+	public CallbackFilter getCallbackFilter() {
+		return filter;
+	}
+
+	/**
+	 * Return the callback types, if already determined.
+	 */
+	public Type[] getCallbackTypes() {
+		return callbackTypes;
+	}
+
+	/**
+	 * Return whether the generated class will implement the {@link Factory} interface.
+	 */
+	public boolean getUseFactory() {
+		return useFactory;
+	}
+
+	/**
+	 * Return whether methods called from within the proxy's constructor will be intercepted.
+	 */
+	public boolean getInterceptDuringConstruction() {
+		return interceptDuringConstruction;
+	}
+
+	/**
+	 * Return the serialVersionUID to insert into the generated class, if any.
+	 */
+	public Long getSerialVersionUID() {
+		return serialVersionUID;
+	}
+	// SPRING PATCH END
+
 	private void preValidate() {
 		if (callbackTypes == null) {
 			callbackTypes = CallbackInfo.determineTypes(callbacks, false);
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.annotation;
+
+import java.lang.annotation.Annotation;
+
+/**
+ * Base class for synthesized annotations that are backed by a class
+ * generated at runtime instead of a JDK dynamic proxy.
+ *
+ * <p>Generated subclasses implement the annotation type and expose each
+ * attribute through a field initialized at construction time. This base class
+ * holds the attribute values in the order of the annotation's attribute methods
+ * and implements {@link #equals}, {@link #hashCode} and {@link #toString}
+ * according to the contract of {@link Annotation}, consistent with
+ * proxy-based synthesized annotations.
+ *
+ * <p>This class is not intended for direct use in application code.
+ *
+ * @since 5.2
+ * @see AnnotationUtils#GENERATED_SYNTHESIS_PROPERTY_NAME
+ */
+public abstract class AbstractSynthesizedAnnotation implements Annotation, SynthesizedAnnotation {
+
+	private final Class<? extends Annotation> annotationType;
+
+	private final Object[] values;
+
+
+	/**
+	 * Create a new synthesized annotation.
+	 * @param annotationType the type of the synthesized annotation
+	 * @param values the attribute values, in the order of the attribute methods
+	 * of the annotation type
+	 */
+	protected AbstractSynthesizedAnnotation(Class<? extends Annotation> annotationType, Object[] values) {
+		this.annotationType = annotationType;
+		this.values = values;
+	}
+
+
+	@Override
+	public Class<? extends Annotation> annotationType() {
+		return this.annotationType;
+	}
+
+	/**
+	 * See {@link Annotation#equals(Object)} for a definition of the required algorithm.
+	 */
+	@Override
+	public boolean equals(Object other) {
+		return (this == other ||
+				SynthesizedAnnotationSupport.annotationEquals(this.annotationType, this.values, other));
+	}
+
+	/**
+	 * See {@link Annotation#hashCode()} for a definition of the required algorithm.
+	 */
+	@Override
+	public int hashCode() {
+		return SynthesizedAnnotationSupport.annotationHashCode(this.annotationType, this.values);
+	}
+
+	/**
+	 * See {@link Annotation#toString()} for guidelines on the recommended format.
+	 */
+	@Override
+	public String toString() {
+		return SynthesizedAnnotationSupport.annotationToString(this.annotationType, this.values);
+	}
+
+}
@@ -19,12 +19,16 @@ package org.springframework.core.annotation;
 import org.springframework.core.BridgeMethodResolver;
 import org.springframework.lang.Nullable;
 import org.springframework.util.CollectionUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
+import org.springframework.util.StringUtils;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Member;
 import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
 import java.util.*;
 
 /**
@@ -99,6 +103,17 @@ public abstract class AnnotatedElementUtils {
 
 	private static final Processor<Boolean> alwaysTrueAnnotationProcessor = new AlwaysTrueBooleanAnnotationProcessor();
 
+	/**
+	 * Marker for a merged annotation lookup that did not find anything.
+	 */
+	private static final Object NOT_FOUND = new Object();
+
+	private static final Map<MergedAnnotationCacheKey, Object> mergedAnnotationCache =
+			new ConcurrentReferenceHashMap<>(256);
+
+	private static final Map<AttributeOverridesCacheKey, List<AttributeOverride>> attributeOverridesCache =
+			new ConcurrentReferenceHashMap<>(256);
+
 
 	/**
 	 * Build an adapted {@link AnnotatedElement} for the given annotations,
@@ -378,6 +393,11 @@ public abstract class AnnotatedElementUtils {
 	 */
 	@Nullable
 	public static <A extends Annotation> A getMergedAnnotation(AnnotatedElement element, Class<A> annotationType) {
+		return getCachedMergedAnnotation(element, annotationType, false);
+	}
+
+	@Nullable
+	private static <A extends Annotation> A doGetMergedAnnotation(AnnotatedElement element, Class<A> annotationType) {
 		// Shortcut: directly present on the element, with no merging needed?
 		A annotation = element.getDeclaredAnnotation(annotationType);
 		if (annotation != null) {
@@ -690,6 +710,11 @@ public abstract class AnnotatedElementUtils {
 	 */
 	@Nullable
 	public static <A extends Annotation> A findMergedAnnotation(AnnotatedElement element, Class<A> annotationType) {
+		return getCachedMergedAnnotation(element, annotationType, true);
+	}
+
+	@Nullable
+	private static <A extends Annotation> A doFindMergedAnnotation(AnnotatedElement element, Class<A> annotationType) {
 		// Shortcut: directly present on the element, with no merging needed?
 		A annotation = element.getDeclaredAnnotation(annotationType);
 		if (annotation != null) {
@@ -826,6 +851,118 @@ public abstract class AnnotatedElementUtils {
 		return postProcessAndSynthesizeAggregatedResults(element, processor.getAggregatedResults());
 	}
 
+	/**
+	 * Look up the merged, synthesized annotation of the given type in the
+	 * cache, performing the search and caching its outcome on a cache miss.
+	 * <p>Merged annotations are immutable, so the same instance can be returned
+	 * to every caller for the same element and annotation type. Only classes,
+	 * members and parameters are cached: other elements, such as the adapters
+	 * returned by {@link #forAnnotations}, are typically created per lookup.
+	 * @param element the annotated element
+	 * @param annotationType the annotation type to find
+	 * @param find whether to use <em>find</em> rather than <em>get</em> semantics
+	 * @return the merged, synthesized {@code Annotation}, or {@code null} if not found
+	 * @since 5.2
+	 */
+	@SuppressWarnings("unchecked")
+	@Nullable
+	private static <A extends Annotation> A getCachedMergedAnnotation(
+			AnnotatedElement element, Class<A> annotationType, boolean find) {
+
+		if (!(element instanceof Class || element instanceof Member || element instanceof Parameter)) {
+			return (find ? doFindMergedAnnotation(element, annotationType) :
+					doGetMergedAnnotation(element, annotationType));
+		}
+		MergedAnnotationCacheKey cacheKey = new MergedAnnotationCacheKey(element, annotationType, find);
+		Object result = mergedAnnotationCache.get(cacheKey);
+		if (result == null) {
+			result = (find ? doFindMergedAnnotation(element, annotationType) :
+					doGetMergedAnnotation(element, annotationType));
+			if (result == null) {
+				result = NOT_FOUND;
+			}
+			mergedAnnotationCache.put(cacheKey, result);
+		}
+		return (result != NOT_FOUND ? (A) result : null);
+	}
+
+	/**
+	 * Return the attribute overrides that the given annotation type declares
+	 * for the given target annotation type, computed once per pair of types.
+	 * <p>Each override maps an attribute of the source annotation to the
+	 * attributes of the target annotation that it replaces, either explicitly
+	 * through {@link AliasFor @AliasFor} (including transitive aliases in the
+	 * target annotation) or implicitly by naming convention.
+	 * @param annotationType the annotation type declaring the overrides
+	 * @param targetAnnotationType the annotation type whose attributes get overridden
+	 * @since 5.2
+	 */
+	private static List<AttributeOverride> getAttributeOverrides(
+			Class<? extends Annotation> annotationType, Class<? extends Annotation> targetAnnotationType) {
+
+		AttributeOverridesCacheKey cacheKey = new AttributeOverridesCacheKey(annotationType, targetAnnotationType);
+		List<AttributeOverride> overrides = attributeOverridesCache.get(cacheKey);
+		if (overrides != null) {
+			return overrides;
+		}
+
+		overrides = new ArrayList<>();
+		Set<String> targetAttributeNames = new HashSet<>();
+		for (Method targetAttributeMethod : AnnotationUtils.getAttributeMethods(targetAnnotationType)) {
+			targetAttributeNames.add(targetAttributeMethod.getName());
+		}
+
+		// Track which attribute values have already been replaced
+		Set<String> valuesAlreadyReplaced = new HashSet<>();
+
+		for (Method attributeMethod : AnnotationUtils.getAttributeMethods(annotationType)) {
+			String attributeName = attributeMethod.getName();
+			String attributeOverrideName = AnnotationUtils.getAttributeOverrideName(attributeMethod, targetAnnotationType);
+
+			// Explicit annotation attribute override declared via @AliasFor
+			if (attributeOverrideName != null) {
+				if (valuesAlreadyReplaced.contains(attributeOverrideName)) {
+					continue;
+				}
+
+				List<String> overriddenNames = new ArrayList<>();
+				overriddenNames.add(attributeOverrideName);
+				valuesAlreadyReplaced.add(attributeOverrideName);
+
+				// Ensure all aliased attributes in the target annotation are overridden. (SPR-14069)
+				List<String> aliases = AnnotationUtils.getAttributeAliasMap(targetAnnotationType).get(attributeOverrideName);
+				if (aliases != null) {
+					for (String alias : aliases) {
+						if (!valuesAlreadyReplaced.contains(alias)) {
+							overriddenNames.add(alias);
+							valuesAlreadyReplaced.add(alias);
+						}
+					}
+				}
+
+				overrides.add(new AttributeOverride(attributeName, StringUtils.toStringArray(overriddenNames)));
+			}
+			// Implicit annotation attribute override based on convention
+			else if (!AnnotationUtils.VALUE.equals(attributeName) && targetAttributeNames.contains(attributeName)) {
+				overrides.add(new AttributeOverride(attributeName, new String[] {attributeName}));
+			}
+		}
+
+		overrides = (overrides.isEmpty() ? Collections.emptyList() : Collections.unmodifiableList(overrides));
+		attributeOverridesCache.put(cacheKey, overrides);
+		return overrides;
+	}
+
+	/**
+	 * Clear the internal merged annotation caches.
+	 * @since 5.2
+	 * @see AnnotationUtils#clearCache()
+	 */
+	static void clearCache() {
+		mergedAnnotationCache.clear();
+		attributeOverridesCache.clear();
+	}
+
 	/**
 	 * Search for annotations of the specified {@code annotationName} or
 	 * {@code annotationType} on the specified {@code element}, following
@@ -1572,66 +1709,117 @@ public abstract class AnnotatedElementUtils {
 			annotation = AnnotationUtils.synthesizeAnnotation(annotation, element);
 			Class<? extends Annotation> targetAnnotationType = attributes.annotationType();
 
-			// Track which attribute values have already been replaced so that we can short
-			// circuit the search algorithms.
-			Set<String> valuesAlreadyReplaced = new HashSet<>();
+			for (AttributeOverride override : getAttributeOverrides(annotation.annotationType(), targetAnnotationType)) {
+				Object adaptedValue = getAdaptedValue(element, annotation, override.sourceAttributeName);
+				for (String targetAttributeName : override.targetAttributeNames) {
+					attributes.put(targetAttributeName, adaptedValue);
+				}
+			}
+		}
 
-			for (Method attributeMethod : AnnotationUtils.getAttributeMethods(annotation.annotationType())) {
-				String attributeName = attributeMethod.getName();
-				String attributeOverrideName = AnnotationUtils.getAttributeOverrideName(attributeMethod, targetAnnotationType);
+		@Nullable
+		private Object getAdaptedValue(
+				@Nullable AnnotatedElement element, Annotation annotation, String sourceAttributeName) {
 
-				// Explicit annotation attribute override declared via @AliasFor
-				if (attributeOverrideName != null) {
-					if (valuesAlreadyReplaced.contains(attributeOverrideName)) {
-						continue;
-					}
+			Object value = AnnotationUtils.getValue(annotation, sourceAttributeName);
+			return AnnotationUtils.adaptValue(element, value, this.classValuesAsString, this.nestedAnnotationsAsMap);
+		}
+	}
 
-					List<String> targetAttributeNames = new ArrayList<>();
-					targetAttributeNames.add(attributeOverrideName);
-					valuesAlreadyReplaced.add(attributeOverrideName);
-
-					// Ensure all aliased attributes in the target annotation are overridden. (SPR-14069)
-					List<String> aliases = AnnotationUtils.getAttributeAliasMap(targetAnnotationType).get(attributeOverrideName);
-					if (aliases != null) {
-						for (String alias : aliases) {
-							if (!valuesAlreadyReplaced.contains(alias)) {
-								targetAttributeNames.add(alias);
-								valuesAlreadyReplaced.add(alias);
-							}
-						}
-					}
 
-					overrideAttributes(element, annotation, attributes, attributeName, targetAttributeNames);
-				}
-				// Implicit annotation attribute override based on convention
-				else if (!AnnotationUtils.VALUE.equals(attributeName) && attributes.containsKey(attributeName)) {
-					overrideAttribute(element, annotation, attributes, attributeName, attributeName);
-				}
-			}
+
+	/**
+	 * Attribute of a source annotation overriding one or more attributes of
+	 * a target annotation in the annotation hierarchy.
+	 * @since 5.2
+	 */
+	private static final class AttributeOverride {
+
+		final String sourceAttributeName;
+
+		final String[] targetAttributeNames;
+
+		AttributeOverride(String sourceAttributeName, String[] targetAttributeNames) {
+			this.sourceAttributeName = sourceAttributeName;
+			this.targetAttributeNames = targetAttributeNames;
 		}
+	}
+
+
+	/**
+	 * Cache key for the merged annotation cache.
+	 */
+	private static final class MergedAnnotationCacheKey {
+
+		private final AnnotatedElement element;
+
+		private final Class<? extends Annotation> annotationType;
 
-		private void overrideAttributes(@Nullable AnnotatedElement element, Annotation annotation,
-				AnnotationAttributes attributes, String sourceAttributeName, List<String> targetAttributeNames) {
+		private final boolean find;
 
-			Object adaptedValue = getAdaptedValue(element, annotation, sourceAttributeName);
+		public MergedAnnotationCacheKey(AnnotatedElement element, Class<? extends Annotation> annotationType, boolean find) {
+			this.element = element;
+			this.annotationType = annotationType;
+			this.find = find;
+		}
 
-			for (String targetAttributeName : targetAttributeNames) {
-				attributes.put(targetAttributeName, adaptedValue);
+		@Override
+		public boolean equals(Object other) {
+			if (this == other) {
+				return true;
 			}
+			if (!(other instanceof MergedAnnotationCacheKey)) {
+				return false;
+			}
+			MergedAnnotationCacheKey otherKey = (MergedAnnotationCacheKey) other;
+			return (this.element.equals(otherKey.element) && this.annotationType.equals(otherKey.annotationType) &&
+					this.find == otherKey.find);
 		}
 
-		private void overrideAttribute(@Nullable AnnotatedElement element, Annotation annotation,
-				AnnotationAttributes attributes, String sourceAttributeName, String targetAttributeName) {
+		@Override
+		public int hashCode() {
+			return ((this.element.hashCode() * 29 + this.annotationType.hashCode()) * 29 + (this.find ? 1 : 0));
+		}
 
-			attributes.put(targetAttributeName, getAdaptedValue(element, annotation, sourceAttributeName));
+		@Override
+		public String toString() {
+			return "@" + this.annotationType + " on " + this.element + (this.find ? " (find)" : " (get)");
 		}
+	}
 
-		@Nullable
-		private Object getAdaptedValue(
-				@Nullable AnnotatedElement element, Annotation annotation, String sourceAttributeName) {
 
-			Object value = AnnotationUtils.getValue(annotation, sourceAttributeName);
-			return AnnotationUtils.adaptValue(element, value, this.classValuesAsString, this.nestedAnnotationsAsMap);
+	/**
+	 * Cache key for the attribute overrides cache.
+	 */
+	private static final class AttributeOverridesCacheKey {
+
+		private final Class<? extends Annotation> annotationType;
+
+		private final Class<? extends Annotation> targetAnnotationType;
+
+		public AttributeOverridesCacheKey(Class<? extends Annotation> annotationType,
+				Class<? extends Annotation> targetAnnotationType) {
+
+			this.annotationType = annotationType;
+			this.targetAnnotationType = targetAnnotationType;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof AttributeOverridesCacheKey)) {
+				return false;
+			}
+			AttributeOverridesCacheKey otherKey = (AttributeOverridesCacheKey) other;
+			return (this.annotationType == otherKey.annotationType &&
+					this.targetAnnotationType == otherKey.targetAnnotationType);
+		}
+
+		@Override
+		public int hashCode() {
+			return (this.annotationType.hashCode() * 29 + this.targetAnnotationType.hashCode());
 		}
 	}
 
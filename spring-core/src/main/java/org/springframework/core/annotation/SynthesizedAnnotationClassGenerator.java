@@ -0,0 +1,267 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.annotation;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.asm.ClassWriter;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
+import org.springframework.asm.Type;
+import org.springframework.cglib.core.ReflectUtils;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+
+/**
+ * Generates a concrete {@link AbstractSynthesizedAnnotation} subclass per
+ * annotation type, with one field per attribute, and synthesizes annotations
+ * as instances of that class rather than as JDK dynamic proxies.
+ *
+ * <p>Attribute values are extracted, and nested annotations synthesized, once
+ * on creation of the synthesized annotation; attribute access is then a plain
+ * field read, plus a defensive copy for array values.
+ *
+ * @since 5.2
+ * @see AnnotationUtils#GENERATED_SYNTHESIS_PROPERTY_NAME
+ * @see SynthesizedAnnotationInvocationHandler
+ */
+final class SynthesizedAnnotationClassGenerator {
+
+	private static final String CLASS_NAME_SUFFIX = "$$SpringSynthesized";
+
+	private static final String SUPER_CLASS_NAME = Type.getInternalName(AbstractSynthesizedAnnotation.class);
+
+	private static final Log logger = LogFactory.getLog(SynthesizedAnnotationClassGenerator.class);
+
+	/**
+	 * Marker for annotation types that cannot be backed by a generated class.
+	 */
+	private static final Object NOT_GENERATABLE = new Object();
+
+	private static final Map<Class<? extends Annotation>, Object> constructorCache =
+			new ConcurrentReferenceHashMap<>(256);
+
+
+	private SynthesizedAnnotationClassGenerator() {
+	}
+
+
+	/**
+	 * Synthesize an annotation for the supplied attribute extractor as an
+	 * instance of a generated class.
+	 * @param attributeExtractor the extractor to obtain attribute values from
+	 * @return the synthesized annotation, or {@code null} if no class can be
+	 * generated for the annotation type or its attribute values cannot be
+	 * extracted eagerly, in which case a proxy should be used instead
+	 */
+	@SuppressWarnings("unchecked")
+	@Nullable
+	static <A extends Annotation> A synthesize(AnnotationAttributeExtractor<?> attributeExtractor) {
+		Class<? extends Annotation> annotationType = attributeExtractor.getAnnotationType();
+		Constructor<?> constructor = getConstructor(annotationType);
+		if (constructor == null) {
+			return null;
+		}
+
+		Object[] values;
+		try {
+			values = extractAttributeValues(attributeExtractor);
+		}
+		catch (RuntimeException ex) {
+			// Let the proxy report invalid attribute values on access, as usual
+			return null;
+		}
+
+		try {
+			return (A) constructor.newInstance((Object) values);
+		}
+		catch (Throwable ex) {
+			// Attribute values not assignable to the attribute types:
+			// let the proxy report them on access, as usual
+			return null;
+		}
+	}
+
+	private static Object[] extractAttributeValues(AnnotationAttributeExtractor<?> attributeExtractor) {
+		List<Method> attributeMethods = AnnotationUtils.getAttributeMethods(attributeExtractor.getAnnotationType());
+		Object[] values = new Object[attributeMethods.size()];
+		for (int i = 0; i < values.length; i++) {
+			Method attributeMethod = attributeMethods.get(i);
+			Object value = attributeExtractor.getAttributeValue(attributeMethod);
+			if (value == null) {
+				throw new IllegalStateException(String.format(
+						"%s returned null for attribute name [%s] from attribute source [%s]",
+						attributeExtractor.getClass().getName(), attributeMethod.getName(), attributeExtractor.getSource()));
+			}
+
+			// Synthesize nested annotations upfront.
+			if (value instanceof Annotation) {
+				value = AnnotationUtils.synthesizeAnnotation((Annotation) value, attributeExtractor.getAnnotatedElement());
+			}
+			else if (value instanceof Annotation[]) {
+				value = AnnotationUtils.synthesizeAnnotationArray((Annotation[]) value, attributeExtractor.getAnnotatedElement());
+			}
+			values[i] = value;
+		}
+		return values;
+	}
+
+	@Nullable
+	private static Constructor<?> getConstructor(Class<? extends Annotation> annotationType) {
+		Object constructor = constructorCache.get(annotationType);
+		if (constructor == null) {
+			constructor = NOT_GENERATABLE;
+			ClassLoader classLoader = annotationType.getClassLoader();
+			if (classLoader != null && ClassUtils.isVisible(AbstractSynthesizedAnnotation.class, classLoader)) {
+				try {
+					Class<?> generatedClass = getGeneratedClass(annotationType, classLoader);
+					constructor = generatedClass.getConstructor(Object[].class);
+				}
+				catch (Throwable ex) {
+					if (logger.isDebugEnabled()) {
+						logger.debug("Failed to generate synthesized annotation class for " +
+								annotationType.getName() + " - falling back to dynamic proxies", ex);
+					}
+				}
+			}
+			constructorCache.put(annotationType, constructor);
+		}
+		return (constructor != NOT_GENERATABLE ? (Constructor<?>) constructor : null);
+	}
+
+	/**
+	 * Obtain the generated class for the given annotation type, reusing a class
+	 * defined before: generated classes cannot be unloaded individually, so there
+	 * is exactly one per annotation type, surviving {@link #clearCache()}.
+	 */
+	private static Class<?> getGeneratedClass(Class<? extends Annotation> annotationType, ClassLoader classLoader)
+			throws Exception {
+
+		String className = annotationType.getName() + CLASS_NAME_SUFFIX;
+		synchronized (classLoader) {
+			try {
+				Class<?> generatedClass = classLoader.loadClass(className);
+				// A parent ClassLoader may expose a class generated for another copy of the annotation type
+				if (annotationType.isAssignableFrom(generatedClass)) {
+					return generatedClass;
+				}
+			}
+			catch (ClassNotFoundException ex) {
+				// Not generated yet
+			}
+			return generateClass(annotationType, className);
+		}
+	}
+
+	private static Class<?> generateClass(Class<? extends Annotation> annotationType, String className)
+			throws Exception {
+
+		String internalName = className.replace('.', '/');
+		List<Method> attributeMethods = AnnotationUtils.getAttributeMethods(annotationType);
+
+		ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+		cw.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SUPER | Opcodes.ACC_SYNTHETIC,
+				internalName, null, SUPER_CLASS_NAME, new String[] {Type.getInternalName(annotationType)});
+
+		for (int i = 0; i < attributeMethods.size(); i++) {
+			cw.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_FINAL, fieldName(i),
+					Type.getDescriptor(attributeMethods.get(i).getReturnType()), null, null).visitEnd();
+		}
+
+		// Constructor: super(annotationType, values), then populate the fields
+		MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "([Ljava/lang/Object;)V", null, null);
+		mv.visitCode();
+		mv.visitVarInsn(Opcodes.ALOAD, 0);
+		mv.visitLdcInsn(Type.getType(annotationType));
+		mv.visitVarInsn(Opcodes.ALOAD, 1);
+		mv.visitMethodInsn(Opcodes.INVOKESPECIAL, SUPER_CLASS_NAME, "<init>",
+				"(Ljava/lang/Class;[Ljava/lang/Object;)V", false);
+		for (int i = 0; i < attributeMethods.size(); i++) {
+			Class<?> returnType = attributeMethods.get(i).getReturnType();
+			mv.visitVarInsn(Opcodes.ALOAD, 0);
+			mv.visitVarInsn(Opcodes.ALOAD, 1);
+			mv.visitLdcInsn(i);
+			mv.visitInsn(Opcodes.AALOAD);
+			insertUnboxOrCast(mv, returnType);
+			mv.visitFieldInsn(Opcodes.PUTFIELD, internalName, fieldName(i), Type.getDescriptor(returnType));
+		}
+		mv.visitInsn(Opcodes.RETURN);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+
+		// Attribute accessors: return the field, cloning arrays so that
+		// callers cannot alter the contents of the synthesized values
+		for (int i = 0; i < attributeMethods.size(); i++) {
+			Method attributeMethod = attributeMethods.get(i);
+			Type returnType = Type.getType(attributeMethod.getReturnType());
+			mv = cw.visitMethod(Opcodes.ACC_PUBLIC, attributeMethod.getName(),
+					Type.getMethodDescriptor(attributeMethod), null, null);
+			mv.visitCode();
+			mv.visitVarInsn(Opcodes.ALOAD, 0);
+			mv.visitFieldInsn(Opcodes.GETFIELD, internalName, fieldName(i), returnType.getDescriptor());
+			if (returnType.getSort() == Type.ARRAY) {
+				mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, returnType.getDescriptor(), "clone",
+						"()Ljava/lang/Object;", false);
+				mv.visitTypeInsn(Opcodes.CHECKCAST, returnType.getDescriptor());
+			}
+			mv.visitInsn(returnType.getOpcode(Opcodes.IRETURN));
+			mv.visitMaxs(0, 0);
+			mv.visitEnd();
+		}
+
+		cw.visitEnd();
+		return ReflectUtils.defineClass(className, cw.toByteArray(), annotationType.getClassLoader(),
+				annotationType.getProtectionDomain(), annotationType);
+	}
+
+	private static String fieldName(int index) {
+		return "attribute" + index;
+	}
+
+	private static void insertUnboxOrCast(MethodVisitor mv, Class<?> type) {
+		if (type.isPrimitive()) {
+			Class<?> wrapperType = ClassUtils.resolvePrimitiveIfNecessary(type);
+			String wrapperName = Type.getInternalName(wrapperType);
+			mv.visitTypeInsn(Opcodes.CHECKCAST, wrapperName);
+			mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, wrapperName, type.getName() + "Value",
+					"()" + Type.getDescriptor(type), false);
+		}
+		else {
+			Type asmType = Type.getType(type);
+			mv.visitTypeInsn(Opcodes.CHECKCAST,
+					(asmType.getSort() == Type.ARRAY ? asmType.getDescriptor() : asmType.getInternalName()));
+		}
+	}
+
+	/**
+	 * Clear the cache of constructors for generated classes.
+	 * <p>The generated classes themselves remain defined in the class loaders
+	 * of their annotation types and get reused on subsequent synthesis.
+	 */
+	static void clearCache() {
+		constructorCache.clear();
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2018 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,15 +20,12 @@ import java.lang.annotation.Annotation;
 import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
-import java.util.Arrays;
-import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 import org.springframework.util.Assert;
-import org.springframework.util.ObjectUtils;
 import org.springframework.util.ReflectionUtils;
-import org.springframework.util.StringUtils;
 
 /**
  * {@link InvocationHandler} for an {@link Annotation} that Spring has
@@ -85,6 +82,17 @@ class SynthesizedAnnotationInvocationHandler implements InvocationHandler {
 	}
 
 	private Object getAttributeValue(Method attributeMethod) {
+		Object value = getCachedAttributeValue(attributeMethod);
+
+		// Clone arrays so that users cannot alter the contents of values in our cache.
+		if (value.getClass().isArray()) {
+			value = cloneArray(value);
+		}
+
+		return value;
+	}
+
+	private Object getCachedAttributeValue(Method attributeMethod) {
 		String attributeName = attributeMethod.getName();
 		Object value = this.valueCache.get(attributeName);
 		if (value == null) {
@@ -105,12 +113,6 @@ class SynthesizedAnnotationInvocationHandler implements InvocationHandler {
 
 			this.valueCache.put(attributeName, value);
 		}
-
-		// Clone arrays so that users cannot alter the contents of values in our cache.
-		if (value.getClass().isArray()) {
-			value = cloneArray(value);
-		}
-
 		return value;
 	}
 
@@ -150,109 +152,39 @@ class SynthesizedAnnotationInvocationHandler implements InvocationHandler {
 	}
 
 	/**
-	 * See {@link Annotation#equals(Object)} for a definition of the required algorithm.
-	 * @param other the other object to compare against
+	 * Return the attribute values in the order of the attribute methods,
+	 * without cloning arrays since they are only used for comparison.
 	 */
-	private boolean annotationEquals(Object other) {
-		if (this == other) {
-			return true;
-		}
-		if (!annotationType().isInstance(other)) {
-			return false;
+	private Object[] getAttributeValues() {
+		List<Method> attributeMethods = AnnotationUtils.getAttributeMethods(annotationType());
+		Object[] values = new Object[attributeMethods.size()];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = getCachedAttributeValue(attributeMethods.get(i));
 		}
-
-		for (Method attributeMethod : AnnotationUtils.getAttributeMethods(annotationType())) {
-			Object thisValue = getAttributeValue(attributeMethod);
-			Object otherValue = ReflectionUtils.invokeMethod(attributeMethod, other);
-			if (!ObjectUtils.nullSafeEquals(thisValue, otherValue)) {
-				return false;
-			}
-		}
-
-		return true;
+		return values;
 	}
 
 	/**
-	 * See {@link Annotation#hashCode()} for a definition of the required algorithm.
+	 * See {@link Annotation#equals(Object)} for a definition of the required algorithm.
+	 * @param other the other object to compare against
 	 */
-	private int annotationHashCode() {
-		int result = 0;
-
-		for (Method attributeMethod : AnnotationUtils.getAttributeMethods(annotationType())) {
-			Object value = getAttributeValue(attributeMethod);
-			int hashCode;
-			if (value.getClass().isArray()) {
-				hashCode = hashCodeForArray(value);
-			}
-			else {
-				hashCode = value.hashCode();
-			}
-			result += (127 * attributeMethod.getName().hashCode()) ^ hashCode;
-		}
-
-		return result;
+	private boolean annotationEquals(Object other) {
+		return (this == other ||
+				SynthesizedAnnotationSupport.annotationEquals(annotationType(), getAttributeValues(), other));
 	}
 
 	/**
-	 * WARNING: we can NOT use any of the {@code nullSafeHashCode()} methods
-	 * in Spring's {@link ObjectUtils} because those hash code generation
-	 * algorithms do not comply with the requirements specified in
-	 * {@link Annotation#hashCode()}.
-	 * @param array the array to compute the hash code for
+	 * See {@link Annotation#hashCode()} for a definition of the required algorithm.
 	 */
-	private int hashCodeForArray(Object array) {
-		if (array instanceof boolean[]) {
-			return Arrays.hashCode((boolean[]) array);
-		}
-		if (array instanceof byte[]) {
-			return Arrays.hashCode((byte[]) array);
-		}
-		if (array instanceof char[]) {
-			return Arrays.hashCode((char[]) array);
-		}
-		if (array instanceof double[]) {
-			return Arrays.hashCode((double[]) array);
-		}
-		if (array instanceof float[]) {
-			return Arrays.hashCode((float[]) array);
-		}
-		if (array instanceof int[]) {
-			return Arrays.hashCode((int[]) array);
-		}
-		if (array instanceof long[]) {
-			return Arrays.hashCode((long[]) array);
-		}
-		if (array instanceof short[]) {
-			return Arrays.hashCode((short[]) array);
-		}
-
-		// else
-		return Arrays.hashCode((Object[]) array);
+	private int annotationHashCode() {
+		return SynthesizedAnnotationSupport.annotationHashCode(annotationType(), getAttributeValues());
 	}
 
 	/**
 	 * See {@link Annotation#toString()} for guidelines on the recommended format.
 	 */
 	private String annotationToString() {
-		StringBuilder sb = new StringBuilder("@").append(annotationType().getName()).append("(");
-
-		Iterator<Method> iterator = AnnotationUtils.getAttributeMethods(annotationType()).iterator();
-		while (iterator.hasNext()) {
-			Method attributeMethod = iterator.next();
-			sb.append(attributeMethod.getName());
-			sb.append('=');
-			sb.append(attributeValueToString(getAttributeValue(attributeMethod)));
-			sb.append(iterator.hasNext() ? ", " : "");
-		}
-
-		return sb.append(")").toString();
-	}
-
-	private String attributeValueToString(Object value) {
-		if (value instanceof Object[]) {
-			return "[" + StringUtils.arrayToDelimitedString((Object[]) value, ", ") + "]";
-		}
-		return String.valueOf(value);
+		return SynthesizedAnnotationSupport.annotationToString(annotationType(), getAttributeValues());
 	}
 
 }
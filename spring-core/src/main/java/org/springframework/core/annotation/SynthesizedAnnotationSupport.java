@@ -0,0 +1,141 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.annotation;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+
+import org.springframework.util.ObjectUtils;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * {@link Annotation#equals}, {@link Annotation#hashCode} and
+ * {@link Annotation#toString} algorithms shared by proxy-based and
+ * generated synthesized annotations.
+ *
+ * <p>Attribute values are passed in the order of
+ * {@link AnnotationUtils#getAttributeMethods(Class)} for the annotation type.
+ *
+ * @since 5.2
+ * @see SynthesizedAnnotationInvocationHandler
+ * @see AbstractSynthesizedAnnotation
+ */
+abstract class SynthesizedAnnotationSupport {
+
+	/**
+	 * See {@link Annotation#equals(Object)} for a definition of the required algorithm.
+	 * @param annotationType the type of the synthesized annotation
+	 * @param values the attribute values of the synthesized annotation
+	 * @param other the other object to compare against
+	 */
+	static boolean annotationEquals(Class<? extends Annotation> annotationType, Object[] values, Object other) {
+		if (!annotationType.isInstance(other)) {
+			return false;
+		}
+		List<Method> attributeMethods = AnnotationUtils.getAttributeMethods(annotationType);
+		for (int i = 0; i < attributeMethods.size(); i++) {
+			Object otherValue = ReflectionUtils.invokeMethod(attributeMethods.get(i), other);
+			if (!ObjectUtils.nullSafeEquals(values[i], otherValue)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * See {@link Annotation#hashCode()} for a definition of the required algorithm.
+	 * @param annotationType the type of the synthesized annotation
+	 * @param values the attribute values of the synthesized annotation
+	 */
+	static int annotationHashCode(Class<? extends Annotation> annotationType, Object[] values) {
+		int result = 0;
+		List<Method> attributeMethods = AnnotationUtils.getAttributeMethods(annotationType);
+		for (int i = 0; i < attributeMethods.size(); i++) {
+			Object value = values[i];
+			int hashCode = (value.getClass().isArray() ? hashCodeForArray(value) : value.hashCode());
+			result += (127 * attributeMethods.get(i).getName().hashCode()) ^ hashCode;
+		}
+		return result;
+	}
+
+	/**
+	 * WARNING: we can NOT use any of the {@code nullSafeHashCode()} methods
+	 * in Spring's {@link ObjectUtils} because those hash code generation
+	 * algorithms do not comply with the requirements specified in
+	 * {@link Annotation#hashCode()}.
+	 * @param array the array to compute the hash code for
+	 */
+	private static int hashCodeForArray(Object array) {
+		if (array instanceof boolean[]) {
+			return Arrays.hashCode((boolean[]) array);
+		}
+		if (array instanceof byte[]) {
+			return Arrays.hashCode((byte[]) array);
+		}
+		if (array instanceof char[]) {
+			return Arrays.hashCode((char[]) array);
+		}
+		if (array instanceof double[]) {
+			return Arrays.hashCode((double[]) array);
+		}
+		if (array instanceof float[]) {
+			return Arrays.hashCode((float[]) array);
+		}
+		if (array instanceof int[]) {
+			return Arrays.hashCode((int[]) array);
+		}
+		if (array instanceof long[]) {
+			return Arrays.hashCode((long[]) array);
+		}
+		if (array instanceof short[]) {
+			return Arrays.hashCode((short[]) array);
+		}
+
+		// else
+		return Arrays.hashCode((Object[]) array);
+	}
+
+	/**
+	 * See {@link Annotation#toString()} for guidelines on the recommended format.
+	 * @param annotationType the type of the synthesized annotation
+	 * @param values the attribute values of the synthesized annotation
+	 */
+	static String annotationToString(Class<? extends Annotation> annotationType, Object[] values) {
+		StringBuilder sb = new StringBuilder("@").append(annotationType.getName()).append("(");
+		List<Method> attributeMethods = AnnotationUtils.getAttributeMethods(annotationType);
+		for (int i = 0; i < attributeMethods.size(); i++) {
+			if (i > 0) {
+				sb.append(", ");
+			}
+			sb.append(attributeMethods.get(i).getName());
+			sb.append('=');
+			sb.append(attributeValueToString(values[i]));
+		}
+		return sb.append(")").toString();
+	}
+
+	private static String attributeValueToString(Object value) {
+		if (value instanceof Object[]) {
+			return "[" + StringUtils.arrayToDelimitedString((Object[]) value, ", ") + "]";
+		}
+		return String.valueOf(value);
+	}
+
+}
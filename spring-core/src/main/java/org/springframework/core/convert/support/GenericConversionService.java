@@ -29,6 +29,7 @@ import org.springframework.util.StringUtils;
 
 import java.lang.reflect.Array;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Base {@link ConversionService} implementation suitable for use in most environments.
@@ -65,6 +66,21 @@ public class GenericConversionService implements ConfigurableConversionService {
      */
 	private final Map<ConverterCacheKey, GenericConverter> converterCache = new ConcurrentReferenceHashMap<>(64);
 
+	/**
+	 * Conversion plans for plain source and target classes, keyed by source class
+	 * and then by target class, so that lookups do not allocate a cache key.
+	 */
+	private final Map<Class<?>, Map<Class<?>, ConversionPlan>> conversionPlans = new ConcurrentReferenceHashMap<>(64);
+
+	/**
+	 * Whether the Class-based {@code canConvert} and {@code convert} variants may
+	 * apply conversion plans directly: only if their TypeDescriptor-based
+	 * counterparts are not overridden, since subclasses expect those to be called.
+	 */
+	private final boolean conversionPlansApplicable =
+			(isNotOverridden("canConvert", TypeDescriptor.class, TypeDescriptor.class) &&
+					isNotOverridden("convert", Object.class, TypeDescriptor.class, TypeDescriptor.class));
+
 
 	// ConverterRegistry implementation
 
@@ -125,8 +141,13 @@ public class GenericConversionService implements ConfigurableConversionService {
 	@Override
 	public boolean canConvert(@Nullable Class<?> sourceType, Class<?> targetType) {
 		Assert.notNull(targetType, "Target type to convert to cannot be null");
-		return canConvert((sourceType != null ? TypeDescriptor.valueOf(sourceType) : null),
-				TypeDescriptor.valueOf(targetType));
+		if (sourceType == null) {
+			return true;
+		}
+		if (!this.conversionPlansApplicable) {
+			return canConvert(TypeDescriptor.valueOf(sourceType), TypeDescriptor.valueOf(targetType));
+		}
+		return (getConversionPlan(sourceType, targetType).converter != null);
 	}
 
 	@Override
@@ -164,7 +185,18 @@ public class GenericConversionService implements ConfigurableConversionService {
 	@Nullable
 	public <T> T convert(@Nullable Object source, Class<T> targetType) {
 		Assert.notNull(targetType, "Target type to convert to cannot be null");
-		return (T) convert(source, TypeDescriptor.forObject(source), TypeDescriptor.valueOf(targetType));
+		if (source == null) {
+			return (T) convert(null, null, TypeDescriptor.valueOf(targetType));
+		}
+		if (!this.conversionPlansApplicable) {
+			return (T) convert(source, TypeDescriptor.forObject(source), TypeDescriptor.valueOf(targetType));
+		}
+		ConversionPlan plan = getConversionPlan(source.getClass(), targetType);
+		if (plan.converter != null) {
+			Object result = ConversionUtils.invokeConverter(plan.converter, source, plan.sourceType, plan.targetType);
+			return (T) handleResult(plan.sourceType, plan.targetType, result);
+		}
+		return (T) handleConverterNotFound(source, plan.sourceType, plan.targetType);
 	}
 
 	@Override
@@ -251,6 +283,15 @@ public class GenericConversionService implements ConfigurableConversionService {
 	 */
 	@Nullable
 	protected GenericConverter getConverter(TypeDescriptor sourceType, TypeDescriptor targetType) {
+		// Shortcut: plain types with a known conversion plan, without allocating a cache key
+		boolean plainTypes = (isPlainType(sourceType) && isPlainType(targetType));
+		if (plainTypes) {
+			ConversionPlan plan = getCachedConversionPlan(sourceType.getType(), targetType.getType());
+			if (plan != null) {
+				return plan.converter;
+			}
+		}
+
 		// 创建 ConverterCacheKey 对象
 	    ConverterCacheKey key = new ConverterCacheKey(sourceType, targetType);
 	    // 从 converterCache 缓存中，获得 GenericConverter 对象 converter
@@ -268,6 +309,9 @@ public class GenericConversionService implements ConfigurableConversionService {
 		}
 
 		// 如果找到 converter ，则添加 converter 到 converterCache 中，并返回 converter
+		if (plainTypes) {
+			cacheConversionPlan(sourceType.getType(), targetType.getType(), converter);
+		}
 		if (converter != null) {
 			this.converterCache.put(key, converter);
 			return converter;
@@ -309,8 +353,60 @@ public class GenericConversionService implements ConfigurableConversionService {
 		return generics;
 	}
 
+	/**
+	 * Return the conversion plan for the given plain source and target classes,
+	 * resolving the converter through {@link #getConverter} on first access.
+	 */
+	private ConversionPlan getConversionPlan(Class<?> sourceType, Class<?> targetType) {
+		ConversionPlan plan = getCachedConversionPlan(sourceType, targetType);
+		if (plan == null) {
+			// Usually registers the plan as a side effect, unless getConverter is overridden
+			GenericConverter converter = getConverter(TypeDescriptor.valueOf(sourceType), TypeDescriptor.valueOf(targetType));
+			plan = getCachedConversionPlan(sourceType, targetType);
+			if (plan == null) {
+				plan = cacheConversionPlan(sourceType, targetType, converter);
+			}
+		}
+		return plan;
+	}
+
+	private boolean isNotOverridden(String methodName, Class<?>... parameterTypes) {
+		try {
+			return (getClass().getMethod(methodName, parameterTypes).getDeclaringClass() ==
+					GenericConversionService.class);
+		}
+		catch (NoSuchMethodException ex) {
+			throw new IllegalStateException("Expected method not found: " + ex);
+		}
+	}
+
+	private ConversionPlan cacheConversionPlan(
+			Class<?> sourceType, Class<?> targetType, @Nullable GenericConverter converter) {
+
+		ConversionPlan plan = new ConversionPlan(
+				TypeDescriptor.valueOf(sourceType), TypeDescriptor.valueOf(targetType), converter);
+		this.conversionPlans.computeIfAbsent(sourceType, key -> new ConcurrentHashMap<>(8)).put(targetType, plan);
+		return plan;
+	}
+
+	@Nullable
+	private ConversionPlan getCachedConversionPlan(Class<?> sourceType, Class<?> targetType) {
+		Map<Class<?>, ConversionPlan> plans = this.conversionPlans.get(sourceType);
+		return (plans != null ? plans.get(targetType) : null);
+	}
+
+	/**
+	 * Determine whether the given type descriptor matches converters just like
+	 * a descriptor for its plain class: without annotations and element types.
+	 */
+	private static boolean isPlainType(TypeDescriptor typeDescriptor) {
+		return (typeDescriptor.getAnnotations().length == 0 && !typeDescriptor.isArray() &&
+				!typeDescriptor.isCollection() && !typeDescriptor.isMap());
+	}
+
 	private void invalidateCache() {
 		this.converterCache.clear();
+		this.conversionPlans.clear();
 	}
 
 	@Nullable
@@ -451,6 +547,29 @@ public class GenericConversionService implements ConfigurableConversionService {
 	}
 
 
+	/**
+	 * Resolved conversion between plain source and target classes: the type
+	 * descriptors to pass to the converter, and the converter itself.
+	 */
+	private static final class ConversionPlan {
+
+		final TypeDescriptor sourceType;
+
+		final TypeDescriptor targetType;
+
+		@Nullable
+		final GenericConverter converter;
+
+		public ConversionPlan(TypeDescriptor sourceType, TypeDescriptor targetType,
+				@Nullable GenericConverter converter) {
+
+			this.sourceType = sourceType;
+			this.targetType = targetType;
+			this.converter = converter;
+		}
+	}
+
+
 	/**
 	 * Key for use with the converter cache.
 	 */
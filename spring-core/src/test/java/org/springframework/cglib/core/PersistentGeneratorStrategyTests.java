@@ -0,0 +1,263 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cglib.core;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import org.springframework.asm.ClassWriter;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
+import org.springframework.asm.Type;
+import org.springframework.cglib.proxy.Callback;
+import org.springframework.cglib.proxy.CallbackFilter;
+import org.springframework.cglib.proxy.Enhancer;
+import org.springframework.cglib.proxy.FixedValue;
+import org.springframework.cglib.proxy.NoOp;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link PersistentGeneratorStrategy}.
+ *
+ * @since 5.2
+ */
+public class PersistentGeneratorStrategyTests {
+
+	private static final CallbackFilter FILTER = method -> (method.getName().equals("getName") ? 1 : 0);
+
+	private static final Class<?>[] CALLBACK_TYPES = new Class<?>[] {NoOp.class, FixedValue.class};
+
+	@Rule
+	public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private final AtomicInteger generated = new AtomicInteger();
+
+	private String location;
+
+
+	@Before
+	public void setup() throws Exception {
+		this.location = this.temporaryFolder.newFolder().getAbsolutePath();
+	}
+
+
+	@Test
+	public void generateOnceAndReuse() throws Exception {
+		Class<?> first = createClass();
+		assertEquals(1, this.generated.get());
+		assertTrue(new File(this.location, first.getName() + ".cglib").isFile());
+
+		Class<?> second = createClass();
+		assertEquals(1, this.generated.get());
+		assertEquals(first.getName(), second.getName());
+		assertNotSame(first, second);
+		assertEquals("fixed", newInstance(second).getName());
+	}
+
+	@Test
+	public void regenerateOnChangedKey() throws Exception {
+		Class<?> first = createClass();
+		assertEquals(1, this.generated.get());
+
+		// Same class name, but an outdated key
+		Path file = new File(this.location, first.getName() + ".cglib").toPath();
+		rewriteKey(file, "0000");
+		Class<?> second = createClass();
+		assertEquals(2, this.generated.get());
+		assertEquals(first.getName(), second.getName());
+		assertEquals("fixed", newInstance(second).getName());
+
+		createClass();
+		assertEquals(2, this.generated.get());
+	}
+
+	@Test
+	public void readOnlyClasspathLocation() throws Exception {
+		Class<?> first = createClass();
+		assertEquals(1, this.generated.get());
+
+		URL root = new File(this.location).getParentFile().toURI().toURL();
+		String classpathLocation = "classpath:" + new File(this.location).getName();
+		ClassLoader classLoader = new URLClassLoader(new URL[] {root}, getClass().getClassLoader());
+		Class<?> second = createClass(classpathLocation, classLoader);
+		assertEquals(1, this.generated.get());
+		assertEquals(first.getName(), second.getName());
+	}
+
+	@Test
+	public void generateKeyReflectsConfiguration() {
+		String key = generateKey(newEnhancer(Person.class));
+		assertEquals(key, generateKey(newEnhancer(Person.class)));
+		assertEquals(64, key.length());
+
+		Enhancer enhancer = newEnhancer(Person.class);
+		enhancer.setCallbackFilter(method -> 0);
+		assertNotEquals(key, generateKey(enhancer));
+		assertNotEquals(key, generateKey(newEnhancer(Object.class)));
+		assertNotEquals(key, new PersistentGeneratorStrategy(new DefaultGeneratorStrategy() {}, this.location)
+				.generateKey(newEnhancer(Person.class)));
+
+		enhancer = newEnhancer(Person.class);
+		enhancer.setInterceptDuringConstruction(false);
+		assertNotEquals(key, generateKey(enhancer));
+		enhancer = newEnhancer(Person.class);
+		enhancer.setUseFactory(false);
+		assertNotEquals(key, generateKey(enhancer));
+		enhancer = newEnhancer(Person.class);
+		enhancer.setSerialVersionUID(1L);
+		assertNotEquals(key, generateKey(enhancer));
+	}
+
+	@Test
+	public void generateKeyReflectsDeclaredExceptions() throws Exception {
+		Class<?> withoutThrows = new SampleClassLoader().defineSample();
+		Class<?> withThrows = new SampleClassLoader(IOException.class).defineSample();
+		assertEquals(withoutThrows.getName(), withThrows.getName());
+		assertNotEquals(generateKey(newEnhancer(withoutThrows)), generateKey(newEnhancer(withThrows)));
+		assertEquals(generateKey(newEnhancer(withThrows)),
+				generateKey(newEnhancer(new SampleClassLoader(IOException.class).defineSample())));
+	}
+
+
+	private String generateKey(Enhancer enhancer) {
+		return new PersistentGeneratorStrategy(DefaultGeneratorStrategy.INSTANCE, this.location).generateKey(enhancer);
+	}
+
+	private static Enhancer newEnhancer(Class<?> superclass) {
+		Enhancer enhancer = new Enhancer();
+		enhancer.setSuperclass(superclass);
+		enhancer.setCallbackFilter(FILTER);
+		enhancer.setCallbackTypes(CALLBACK_TYPES);
+		return enhancer;
+	}
+
+	private static void rewriteKey(Path file, String key) throws IOException {
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		try (DataInputStream dis = new DataInputStream(Files.newInputStream(file));
+				DataOutputStream dos = new DataOutputStream(bos)) {
+			dos.writeInt(dis.readInt());
+			dis.readUTF();
+			dos.writeUTF(key);
+			dos.writeUTF(dis.readUTF());
+			byte[] bytes = new byte[dis.readInt()];
+			dis.readFully(bytes);
+			dos.writeInt(bytes.length);
+			dos.write(bytes);
+		}
+		Files.write(file, bos.toByteArray());
+	}
+
+
+	private Class<?> createClass() {
+		return createClass(this.location, new URLClassLoader(new URL[0], getClass().getClassLoader()));
+	}
+
+	private Class<?> createClass(String location, ClassLoader classLoader) {
+		GeneratorStrategy delegate = new CountingGeneratorStrategy();
+		PersistentGeneratorStrategy strategy = new PersistentGeneratorStrategy(delegate, location);
+		Enhancer enhancer = newEnhancer(Person.class);
+		enhancer.setClassLoader(classLoader);
+		enhancer.setStrategy(strategy);
+		enhancer.setNamingPolicy(strategy.getNamingPolicy());
+		return enhancer.createClass();
+	}
+
+	private Person newInstance(Class<?> proxyClass) throws Exception {
+		Enhancer.registerCallbacks(proxyClass, new Callback[] {NoOp.INSTANCE, (FixedValue) () -> "fixed"});
+		try {
+			return (Person) proxyClass.newInstance();
+		}
+		finally {
+			Enhancer.registerCallbacks(proxyClass, null);
+		}
+	}
+
+
+	/**
+	 * Counts the classes that actually get generated.
+	 */
+	private class CountingGeneratorStrategy extends DefaultGeneratorStrategy {
+
+		@Override
+		public byte[] generate(ClassGenerator cg) throws Exception {
+			generated.incrementAndGet();
+			return super.generate(cg);
+		}
+	}
+
+
+	/**
+	 * Defines a class "Sample" with a method {@code run()} that declares the
+	 * given exceptions, standing in for different builds of the same class.
+	 */
+	private static class SampleClassLoader extends ClassLoader {
+
+		private final Class<?>[] exceptionTypes;
+
+		public SampleClassLoader(Class<?>... exceptionTypes) {
+			super(PersistentGeneratorStrategyTests.class.getClassLoader());
+			this.exceptionTypes = exceptionTypes;
+		}
+
+		public Class<?> defineSample() {
+			String[] exceptions = new String[this.exceptionTypes.length];
+			for (int i = 0; i < exceptions.length; i++) {
+				exceptions[i] = Type.getInternalName(this.exceptionTypes[i]);
+			}
+			ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+			cw.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC | Opcodes.ACC_SUPER, "Sample", null, "java/lang/Object", null);
+			MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+			mv.visitCode();
+			mv.visitVarInsn(Opcodes.ALOAD, 0);
+			mv.visitMethodInsn(Opcodes.INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+			mv.visitInsn(Opcodes.RETURN);
+			mv.visitMaxs(0, 0);
+			mv.visitEnd();
+			mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "run", "()V", null, exceptions);
+			mv.visitCode();
+			mv.visitInsn(Opcodes.RETURN);
+			mv.visitMaxs(0, 0);
+			mv.visitEnd();
+			cw.visitEnd();
+			byte[] bytes = cw.toByteArray();
+			return defineClass("Sample", bytes, 0, bytes.length);
+		}
+	}
+
+
+	public static class Person {
+
+		public String getName() {
+			return "person";
+		}
+	}
+
+}
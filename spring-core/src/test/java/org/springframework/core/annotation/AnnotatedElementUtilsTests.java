@@ -725,6 +725,39 @@ public class AnnotatedElementUtilsTests {
 		assertEquals(1, allMergedAnnotations.size());
 	}
 
+	@Test
+	public void findMergedAnnotationIsCached() {
+		Class<?> element = AliasedComposedContextConfigAndTestPropSourceClass.class;
+		ContextConfig contextConfig = findMergedAnnotation(element, ContextConfig.class);
+		assertNotNull(contextConfig);
+		assertSame(contextConfig, findMergedAnnotation(element, ContextConfig.class));
+		assertNull(findMergedAnnotation(element, Order.class));
+		assertNull(findMergedAnnotation(element, Order.class));
+
+		AnnotationUtils.clearCache();
+		ContextConfig recomputed = findMergedAnnotation(element, ContextConfig.class);
+		assertNotSame(contextConfig, recomputed);
+		assertEquals(contextConfig, recomputed);
+	}
+
+	@Test
+	public void getMergedAnnotationIsCachedSeparatelyFromFindSemantics() throws Exception {
+		Method method = ExtendsBaseClassWithGenericAnnotatedMethod.class.getMethod("foo", String.class);
+		assertNull(getMergedAnnotation(method, Order.class));
+		assertNotNull(findMergedAnnotation(method, Order.class));
+		assertNull(getMergedAnnotation(method, Order.class));
+	}
+
+	@Test
+	public void findMergedAnnotationIsNotCachedForAnnotationsAdapter() {
+		Annotation[] annotations = AliasedComposedContextConfigAndTestPropSourceClass.class.getAnnotations();
+		ContextConfig contextConfig = findMergedAnnotation(forAnnotations(annotations), ContextConfig.class);
+		assertNotNull(contextConfig);
+		ContextConfig recomputed = findMergedAnnotation(forAnnotations(annotations), ContextConfig.class);
+		assertNotSame(contextConfig, recomputed);
+		assertEquals(contextConfig, recomputed);
+	}
+
 	@Test  // SPR-16060
 	public void findMethodAnnotationFromGenericInterface() throws Exception {
 		Method method = ImplementsInterfaceWithGenericAnnotatedMethod.class.getMethod("foo", String.class);
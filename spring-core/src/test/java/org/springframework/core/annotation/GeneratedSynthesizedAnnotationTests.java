@@ -0,0 +1,228 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.annotation;
+
+import java.lang.annotation.Annotation;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import org.springframework.core.OverridingClassLoader;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for synthesized annotations backed by classes generated through
+ * {@link SynthesizedAnnotationClassGenerator}.
+ *
+ * @since 5.2
+ * @see AnnotationUtils#GENERATED_SYNTHESIS_PROPERTY_NAME
+ */
+public class GeneratedSynthesizedAnnotationTests {
+
+	@Test
+	public void synthesizeFromAnnotation() {
+		Mapping annotation = MappedClass.class.getAnnotation(Mapping.class);
+		Mapping synthesized = synthesize(annotation, MappedClass.class);
+
+		assertTrue(synthesized instanceof AbstractSynthesizedAnnotation);
+		assertFalse(Proxy.isProxyClass(synthesized.getClass()));
+		assertSame(Mapping.class, synthesized.annotationType());
+		assertArrayEquals(new String[] {"/test"}, synthesized.path());
+		assertArrayEquals(new String[] {"/test"}, synthesized.value());
+		assertEquals(5, synthesized.order());
+		assertTrue(synthesized.enabled());
+		assertEquals('x', synthesized.separator());
+		assertEquals(Kind.SECOND, synthesized.kind());
+		assertArrayEquals(new Class<?>[] {String.class}, synthesized.types());
+		assertTrue(synthesized.nested() instanceof SynthesizedAnnotation);
+		assertEquals("nested", synthesized.nested().name());
+		assertEquals("nested", synthesized.nested().value());
+	}
+
+	@Test
+	public void arrayValuesAreCopied() {
+		Mapping synthesized = synthesize(MappedClass.class.getAnnotation(Mapping.class), MappedClass.class);
+		synthesized.path()[0] = "/modified";
+		assertArrayEquals(new String[] {"/test"}, synthesized.path());
+	}
+
+	@Test
+	public void equalsHashCodeAndToStringConsistentWithProxy() {
+		Mapping annotation = MappedClass.class.getAnnotation(Mapping.class);
+		Mapping generated = synthesize(annotation, MappedClass.class);
+		Mapping proxy = (Mapping) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[] {Mapping.class, SynthesizedAnnotation.class},
+				new SynthesizedAnnotationInvocationHandler(new DefaultAnnotationAttributeExtractor(annotation, MappedClass.class)));
+		assertTrue(Proxy.isProxyClass(proxy.getClass()));
+
+		assertEquals(generated, proxy);
+		assertEquals(proxy, generated);
+		assertEquals(proxy.hashCode(), generated.hashCode());
+		assertEquals(proxy.toString(), generated.toString());
+		assertNotEquals(generated, OtherMappedClass.class.getAnnotation(Mapping.class));
+	}
+
+	@Test
+	public void synthesizeFromMap() {
+		Map<String, Object> attributes = new HashMap<>();
+		attributes.put("value", "/path");
+		Mapping synthesized = SynthesizedAnnotationClassGenerator.synthesize(
+				new MapAnnotationAttributeExtractor(attributes, Mapping.class, null));
+
+		assertTrue(synthesized instanceof AbstractSynthesizedAnnotation);
+		assertArrayEquals(new String[] {"/path"}, synthesized.path());
+		assertEquals(0, synthesized.order());
+		assertFalse(synthesized.enabled());
+		assertEquals(Kind.FIRST, synthesized.kind());
+		assertEquals("", synthesized.nested().name());
+	}
+
+	@Test
+	public void fallBackToProxyForInvalidAttributeValues() {
+		Nested annotation = InvalidNestedClass.class.getAnnotation(Nested.class);
+		Nested synthesized = synthesize(annotation, InvalidNestedClass.class);
+		assertTrue(Proxy.isProxyClass(synthesized.getClass()));
+		try {
+			synthesized.name();
+			fail("Should have thrown AnnotationConfigurationException");
+		}
+		catch (AnnotationConfigurationException ex) {
+			// expected
+		}
+	}
+
+	@Test
+	public void synthesizeAnnotationWithGeneratedSynthesisEnabled() throws Exception {
+		// The flag is read when AnnotationUtils gets initialized: use a fresh copy of this package
+		ClassLoader classLoader = new OverridingClassLoader(getClass().getClassLoader()) {
+			@Override
+			protected boolean isEligibleForOverriding(String className) {
+				return className.startsWith(AnnotationUtils.class.getPackage().getName() + ".");
+			}
+		};
+		System.setProperty(AnnotationUtils.GENERATED_SYNTHESIS_PROPERTY_NAME, "true");
+		try {
+			Class<?> mappedClass = classLoader.loadClass(MappedClass.class.getName());
+			Annotation annotation = mappedClass.getAnnotation(
+					classLoader.loadClass(Mapping.class.getName()).asSubclass(Annotation.class));
+			Method synthesizeAnnotation = classLoader.loadClass(AnnotationUtils.class.getName())
+					.getMethod("synthesizeAnnotation", Annotation.class, AnnotatedElement.class);
+			Annotation synthesized = (Annotation) synthesizeAnnotation.invoke(null, annotation, mappedClass);
+
+			assertFalse(Proxy.isProxyClass(synthesized.getClass()));
+			assertEquals(AbstractSynthesizedAnnotation.class.getName(),
+					synthesized.getClass().getSuperclass().getName());
+			assertSame(annotation.annotationType(), synthesized.annotationType());
+			assertTrue(synthesized.toString().contains("value=[/test], path=[/test]"));
+			assertTrue(synthesized.toString().contains("order=5"));
+
+			Annotation other = (Annotation) synthesizeAnnotation.invoke(null, annotation, mappedClass);
+			assertNotSame(synthesized, other);
+			assertSame(synthesized.getClass(), other.getClass());
+			assertEquals(synthesized, other);
+			assertEquals(synthesized.hashCode(), other.hashCode());
+		}
+		finally {
+			System.clearProperty(AnnotationUtils.GENERATED_SYNTHESIS_PROPERTY_NAME);
+		}
+	}
+
+	@Test
+	public void generatedClassReusedAfterClearCache() {
+		Mapping annotation = MappedClass.class.getAnnotation(Mapping.class);
+		Class<?> generatedClass = synthesize(annotation, MappedClass.class).getClass();
+		AnnotationUtils.clearCache();
+		assertSame(generatedClass, synthesize(annotation, MappedClass.class).getClass());
+		assertSame(generatedClass, synthesize(OtherMappedClass.class.getAnnotation(Mapping.class),
+				OtherMappedClass.class).getClass());
+	}
+
+
+	/**
+	 * Synthesize the given annotation through a generated class, falling back
+	 * to a dynamic proxy like {@link AnnotationUtils} does.
+	 */
+	private static <A extends Annotation> A synthesize(A annotation, Class<?> annotatedElement) {
+		A synthesized = SynthesizedAnnotationClassGenerator.synthesize(
+				new DefaultAnnotationAttributeExtractor(annotation, annotatedElement));
+		return (synthesized != null ? synthesized : AnnotationUtils.synthesizeAnnotation(annotation, annotatedElement));
+	}
+
+
+	enum Kind {
+
+		FIRST, SECOND
+	}
+
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@interface Nested {
+
+		@AliasFor("name")
+		String value() default "";
+
+		@AliasFor("value")
+		String name() default "";
+	}
+
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@interface Mapping {
+
+		@AliasFor("path")
+		String[] value() default {};
+
+		@AliasFor("value")
+		String[] path() default {};
+
+		int order() default 0;
+
+		boolean enabled() default false;
+
+		char separator() default '/';
+
+		Kind kind() default Kind.FIRST;
+
+		Class<?>[] types() default {};
+
+		Nested nested() default @Nested;
+	}
+
+
+	@Mapping(path = "/test", order = 5, enabled = true, separator = 'x', kind = Kind.SECOND,
+			types = String.class, nested = @Nested(name = "nested"))
+	static class MappedClass {
+	}
+
+
+	@Mapping("/other")
+	static class OtherMappedClass {
+	}
+
+
+	@Nested(value = "one", name = "two")
+	static class InvalidNestedClass {
+	}
+
+}
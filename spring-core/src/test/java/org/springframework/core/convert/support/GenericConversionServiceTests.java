@@ -465,6 +465,48 @@ public class GenericConversionServiceTests {
 		assertTrue(converter.getMatchAttempts() > 0);
 	}
 
+	@Test
+	public void conditionalConverterMatchedOncePerPlainTypePair() {
+		MyConditionalConverter converter = new MyConditionalConverter();
+		conversionService.addConverter(new ColorConverter());
+		conversionService.addConverter(converter);
+		assertEquals(Color.BLACK, conversionService.convert("#000000", Color.class));
+		int matchAttempts = converter.getMatchAttempts();
+
+		assertEquals(Color.WHITE, conversionService.convert("#FFFFFF", Color.class));
+		assertTrue(conversionService.canConvert(String.class, Color.class));
+		assertTrue(conversionService.canConvert(TypeDescriptor.valueOf(String.class), TypeDescriptor.valueOf(Color.class)));
+		assertEquals(matchAttempts, converter.getMatchAttempts());
+
+		conversionService.removeConvertible(String.class, Color.class);
+		assertFalse(conversionService.canConvert(String.class, Color.class));
+		assertFalse(conversionService.canConvert(TypeDescriptor.valueOf(String.class), TypeDescriptor.valueOf(Color.class)));
+	}
+
+	@Test
+	public void classBasedMethodsDelegateToOverriddenDescriptorBasedMethods() {
+		GenericConversionService conversionService = new GenericConversionService() {
+			@Override
+			public boolean canConvert(@Nullable TypeDescriptor sourceType, TypeDescriptor targetType) {
+				return false;
+			}
+			@Override
+			@Nullable
+			public Object convert(@Nullable Object source, @Nullable TypeDescriptor sourceType, TypeDescriptor targetType) {
+				throw new ConversionFailedException(sourceType, targetType, source, null);
+			}
+		};
+		conversionService.addConverter(new ColorConverter());
+		assertFalse(conversionService.canConvert(String.class, Color.class));
+		try {
+			conversionService.convert("#000000", Color.class);
+			fail("Should have thrown ConversionFailedException");
+		}
+		catch (ConversionFailedException ex) {
+			// expected
+		}
+	}
+
 	@Test
 	public void conditionalConverterFactory() {
 		MyConditionalConverterFactory converter = new MyConditionalConverterFactory();
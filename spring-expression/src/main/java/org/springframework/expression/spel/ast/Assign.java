@@ -16,9 +16,13 @@
 
 package org.springframework.expression.spel.ast;
 
+import org.springframework.asm.MethodVisitor;
+import org.springframework.expression.EvaluationContext;
 import org.springframework.expression.EvaluationException;
 import org.springframework.expression.TypedValue;
+import org.springframework.expression.spel.CodeFlow;
 import org.springframework.expression.spel.ExpressionState;
+import org.springframework.lang.Nullable;
 
 /**
  * Represents assignment. An alternative to calling setValue() for an expression is to use
@@ -40,12 +44,64 @@ public class Assign extends SpelNodeImpl {
 	public TypedValue getValueInternal(ExpressionState state) throws EvaluationException {
 		TypedValue newValue = this.children[1].getValueInternal(state);
 		getChild(0).setValue(state, newValue.getValue());
+		this.exitTypeDescriptor = this.children[1].exitTypeDescriptor;
 		return newValue;
 	}
 
+	/**
+	 * Assignments to variables are compilable, while assignments to properties
+	 * and indexed elements still require the accessors of the evaluation context.
+	 */
+	@Override
+	public boolean isCompilable() {
+		return (this.children[0] instanceof VariableReference &&
+				((VariableReference) this.children[0]).getAssignableVariableName() != null &&
+				this.children[1].isCompilable() && this.exitTypeDescriptor != null &&
+				!"V".equals(this.exitTypeDescriptor));
+	}
+
+	@Override
+	public void generateCode(MethodVisitor mv, CodeFlow cf) {
+		String descriptor = this.exitTypeDescriptor;
+		cf.loadEvaluationContext(mv);
+		mv.visitLdcInsn(((VariableReference) this.children[0]).getAssignableVariableName());
+		cf.enterCompilationScope();
+		this.children[1].generateCode(mv, cf);
+		cf.exitCompilationScope();
+		CodeFlow.insertBoxIfNecessary(mv, descriptor);
+		String evaluationContextClassName = EvaluationContext.class.getName().replace('.', '/');
+		mv.visitMethodInsn(INVOKESTATIC, Assign.class.getName().replace('.', '/'), "assignVariable",
+				"(L" + evaluationContextClassName + ";Ljava/lang/String;Ljava/lang/Object;)Ljava/lang/Object;", false);
+		if (CodeFlow.isPrimitive(descriptor)) {
+			CodeFlow.insertUnboxInsns(mv, descriptor.charAt(0), "Ljava/lang/Object");
+		}
+		else {
+			CodeFlow.insertCheckCast(mv, descriptor);
+		}
+		cf.pushDescriptor(descriptor);
+	}
+
 	@Override
 	public String toStringAST() {
 		return getChild(0).toStringAST() + "=" + getChild(1).toStringAST();
 	}
 
+
+	/**
+	 * Assign the given value to the specified variable of the given evaluation
+	 * context.
+	 * <p>This method is used from compiled expression code, which is why it
+	 * needs to be declared as {@code public static} here.
+	 * @param context the current evaluation context
+	 * @param variableName the name of the variable to assign
+	 * @param value the value to assign
+	 * @return the assigned value
+	 * @since 5.2
+	 */
+	@Nullable
+	public static Object assignVariable(EvaluationContext context, String variableName, @Nullable Object value) {
+		context.setVariable(variableName, value);
+		return value;
+	}
+
 }
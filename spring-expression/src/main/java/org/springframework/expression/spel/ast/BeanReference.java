@@ -16,13 +16,19 @@
 
 package org.springframework.expression.spel.ast;
 
+import java.lang.reflect.Modifier;
+
+import org.springframework.asm.MethodVisitor;
 import org.springframework.expression.AccessException;
 import org.springframework.expression.BeanResolver;
+import org.springframework.expression.EvaluationContext;
 import org.springframework.expression.EvaluationException;
 import org.springframework.expression.TypedValue;
+import org.springframework.expression.spel.CodeFlow;
 import org.springframework.expression.spel.ExpressionState;
 import org.springframework.expression.spel.SpelEvaluationException;
 import org.springframework.expression.spel.SpelMessage;
+import org.springframework.lang.Nullable;
 
 /**
  * Represents a bean reference to a type, for example <tt>@foo</tt> or <tt>@'foo.bar'</tt>.
@@ -45,19 +51,39 @@ public class BeanReference extends SpelNodeImpl {
 
 	@Override
 	public TypedValue getValueInternal(ExpressionState state) throws EvaluationException {
-		BeanResolver beanResolver = state.getEvaluationContext().getBeanResolver();
-		if (beanResolver == null) {
-			throw new SpelEvaluationException(
-					getStartPosition(), SpelMessage.NO_BEAN_RESOLVER_REGISTERED, this.beanName);
-		}
-
+		Object bean;
 		try {
-			return new TypedValue(beanResolver.resolve(state.getEvaluationContext(), this.beanName));
+			bean = resolveBean(state.getEvaluationContext(), this.beanName);
 		}
-		catch (AccessException ex) {
-			throw new SpelEvaluationException(getStartPosition(), ex, SpelMessage.EXCEPTION_DURING_BEAN_RESOLUTION,
-				this.beanName, ex.getMessage());
+		catch (SpelEvaluationException ex) {
+			ex.setPosition(getStartPosition());
+			throw ex;
+		}
+		if (bean == null || !Modifier.isPublic(bean.getClass().getModifiers())) {
+			// A checkcast to a non-public type would cause an IllegalAccessError
+			this.exitTypeDescriptor = "Ljava/lang/Object";
 		}
+		else {
+			this.exitTypeDescriptor = CodeFlow.toDescriptorFromObject(bean);
+		}
+		return new TypedValue(bean);
+	}
+
+	@Override
+	public boolean isCompilable() {
+		return (this.exitTypeDescriptor != null);
+	}
+
+	@Override
+	public void generateCode(MethodVisitor mv, CodeFlow cf) {
+		cf.loadEvaluationContext(mv);
+		mv.visitLdcInsn(this.beanName);
+		String beanReferenceClassName = BeanReference.class.getName().replace('.', '/');
+		String evaluationContextClassName = EvaluationContext.class.getName().replace('.', '/');
+		mv.visitMethodInsn(INVOKESTATIC, beanReferenceClassName, "resolveBean",
+				"(L" + evaluationContextClassName + ";Ljava/lang/String;)Ljava/lang/Object;", false);
+		CodeFlow.insertCheckCast(mv, this.exitTypeDescriptor);
+		cf.pushDescriptor(this.exitTypeDescriptor);
 	}
 
 	@Override
@@ -75,4 +101,33 @@ public class BeanReference extends SpelNodeImpl {
 		return sb.toString();
 	}
 
+
+	/**
+	 * Resolve the bean with the given name through the {@link BeanResolver}
+	 * of the given evaluation context.
+	 * <p>This method is not just used for the interpreted evaluation of bean
+	 * references but also from compiled expression code, which is why it needs
+	 * to be declared as {@code public static} here.
+	 * @param context the current evaluation context
+	 * @param beanName the name of the bean to resolve
+	 * @return the resolved bean
+	 * @throws SpelEvaluationException if there is no bean resolver or the bean
+	 * could not be resolved
+	 * @since 5.2
+	 */
+	@Nullable
+	public static Object resolveBean(EvaluationContext context, String beanName) throws SpelEvaluationException {
+		BeanResolver beanResolver = context.getBeanResolver();
+		if (beanResolver == null) {
+			throw new SpelEvaluationException(SpelMessage.NO_BEAN_RESOLVER_REGISTERED, beanName);
+		}
+		try {
+			return beanResolver.resolve(context, beanName);
+		}
+		catch (AccessException ex) {
+			throw new SpelEvaluationException(ex, SpelMessage.EXCEPTION_DURING_BEAN_RESOLUTION,
+				beanName, ex.getMessage());
+		}
+	}
+
 }
@@ -16,12 +16,17 @@
 
 package org.springframework.expression.spel.ast;
 
+import java.lang.reflect.Modifier;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Type;
+import org.springframework.expression.EvaluationContext;
 import org.springframework.expression.EvaluationException;
 import org.springframework.expression.Operation;
 import org.springframework.expression.TypedValue;
+import org.springframework.expression.spel.CodeFlow;
 import org.springframework.expression.spel.ExpressionState;
 import org.springframework.expression.spel.SpelEvaluationException;
 import org.springframework.expression.spel.SpelMessage;
@@ -59,35 +64,7 @@ public class OpInc extends Operator {
 		TypedValue newValue = null;
 
 		if (value instanceof Number) {
-			Number op1 = (Number) value;
-			if (op1 instanceof BigDecimal) {
-				newValue = new TypedValue(((BigDecimal) op1).add(BigDecimal.ONE), typedValue.getTypeDescriptor());
-			}
-			else if (op1 instanceof Double) {
-				newValue = new TypedValue(op1.doubleValue() + 1.0d, typedValue.getTypeDescriptor());
-			}
-			else if (op1 instanceof Float) {
-				newValue = new TypedValue(op1.floatValue() + 1.0f, typedValue.getTypeDescriptor());
-			}
-			else if (op1 instanceof BigInteger) {
-				newValue = new TypedValue(((BigInteger) op1).add(BigInteger.ONE), typedValue.getTypeDescriptor());
-			}
-			else if (op1 instanceof Long) {
-				newValue = new TypedValue(op1.longValue() + 1L, typedValue.getTypeDescriptor());
-			}
-			else if (op1 instanceof Integer) {
-				newValue = new TypedValue(op1.intValue() + 1, typedValue.getTypeDescriptor());
-			}
-			else if (op1 instanceof Short) {
-				newValue = new TypedValue(op1.shortValue() + (short) 1, typedValue.getTypeDescriptor());
-			}
-			else if (op1 instanceof Byte) {
-				newValue = new TypedValue(op1.byteValue() + (byte) 1, typedValue.getTypeDescriptor());
-			}
-			else {
-				// Unknown Number subtype -> best guess is double increment
-				newValue = new TypedValue(op1.doubleValue() + 1.0d, typedValue.getTypeDescriptor());
-			}
+			newValue = new TypedValue(increment((Number) value), typedValue.getTypeDescriptor());
 		}
 
 		if (newValue == null) {
@@ -123,9 +100,36 @@ public class OpInc extends Operator {
 			returnValue = newValue;
 		}
 
+		Object result = returnValue.getValue();
+		this.exitTypeDescriptor = (operand instanceof VariableReference &&
+				((VariableReference) operand).getAssignableVariableName() != null && result instanceof Number &&
+				Modifier.isPublic(result.getClass().getModifiers()) ? CodeFlow.toDescriptorFromObject(result) : null);
 		return returnValue;
 	}
 
+	/**
+	 * Increments of variables are compilable, while increments of properties
+	 * and indexed elements still require the accessors of the evaluation context.
+	 */
+	@Override
+	public boolean isCompilable() {
+		return (this.exitTypeDescriptor != null);
+	}
+
+	@Override
+	public void generateCode(MethodVisitor mv, CodeFlow cf) {
+		String variableName = ((VariableReference) getLeftOperand()).getAssignableVariableName();
+		cf.loadEvaluationContext(mv);
+		mv.visitLdcInsn(variableName);
+		mv.visitInsn(this.postfix ? ICONST_1 : ICONST_0);
+		mv.visitLdcInsn(Type.getType(this.exitTypeDescriptor + ";"));
+		String evaluationContextClassName = EvaluationContext.class.getName().replace('.', '/');
+		mv.visitMethodInsn(INVOKESTATIC, OpInc.class.getName().replace('.', '/'), "incrementVariable",
+				"(L" + evaluationContextClassName + ";Ljava/lang/String;ZLjava/lang/Class;)Ljava/lang/Object;", false);
+		CodeFlow.insertCheckCast(mv, this.exitTypeDescriptor);
+		cf.pushDescriptor(this.exitTypeDescriptor);
+	}
+
 	@Override
 	public String toStringAST() {
 		return getLeftOperand().toStringAST() + "++";
@@ -136,4 +140,70 @@ public class OpInc extends Operator {
 		throw new IllegalStateException("No right operand");
 	}
 
+
+	/**
+	 * Increment the given number by one, keeping its type where possible.
+	 */
+	private static Number increment(Number op1) {
+		if (op1 instanceof BigDecimal) {
+			return ((BigDecimal) op1).add(BigDecimal.ONE);
+		}
+		else if (op1 instanceof Double) {
+			return op1.doubleValue() + 1.0d;
+		}
+		else if (op1 instanceof Float) {
+			return op1.floatValue() + 1.0f;
+		}
+		else if (op1 instanceof BigInteger) {
+			return ((BigInteger) op1).add(BigInteger.ONE);
+		}
+		else if (op1 instanceof Long) {
+			return op1.longValue() + 1L;
+		}
+		else if (op1 instanceof Integer) {
+			return op1.intValue() + 1;
+		}
+		else if (op1 instanceof Short) {
+			return op1.shortValue() + (short) 1;
+		}
+		else if (op1 instanceof Byte) {
+			return op1.byteValue() + (byte) 1;
+		}
+		else {
+			// Unknown Number subtype -> best guess is double increment
+			return op1.doubleValue() + 1.0d;
+		}
+	}
+
+	/**
+	 * Increment the specified numeric variable of the given evaluation context.
+	 * <p>This method is used from compiled expression code, which is why it
+	 * needs to be declared as {@code public static} here.
+	 * @param context the current evaluation context
+	 * @param variableName the name of the variable to increment
+	 * @param postfix whether to return the original rather than the incremented value
+	 * @param resultType the type of result that the compiled code expects
+	 * @return the original or the incremented value
+	 * @throws SpelEvaluationException if the variable does not hold a number
+	 * @throws IllegalStateException if the result is not of the expected type,
+	 * in which case the variable is left unchanged
+	 * @since 5.2
+	 */
+	public static Object incrementVariable(EvaluationContext context, String variableName,
+			boolean postfix, Class<?> resultType) {
+
+		Object value = context.lookupVariable(variableName);
+		if (!(value instanceof Number)) {
+			throw new SpelEvaluationException(SpelMessage.OPERAND_NOT_INCREMENTABLE, "#" + variableName);
+		}
+		Number newValue = increment((Number) value);
+		Object result = (postfix ? value : newValue);
+		if (!resultType.isInstance(result)) {
+			throw new IllegalStateException("Compiled code expects result of type " + resultType.getName() +
+					" but was " + result.getClass().getName());
+		}
+		context.setVariable(variableName, newValue);
+		return result;
+	}
+
 }
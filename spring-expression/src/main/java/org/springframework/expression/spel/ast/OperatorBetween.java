@@ -18,12 +18,16 @@ package org.springframework.expression.spel.ast;
 
 import java.util.List;
 
+import org.springframework.asm.MethodVisitor;
+import org.springframework.expression.EvaluationContext;
 import org.springframework.expression.EvaluationException;
 import org.springframework.expression.TypeComparator;
+import org.springframework.expression.spel.CodeFlow;
 import org.springframework.expression.spel.ExpressionState;
 import org.springframework.expression.spel.SpelEvaluationException;
 import org.springframework.expression.spel.SpelMessage;
 import org.springframework.expression.spel.support.BooleanTypedValue;
+import org.springframework.lang.Nullable;
 
 /**
  * Represents the between operator. The left operand to between must be a single value and
@@ -38,6 +42,7 @@ public class OperatorBetween extends Operator {
 
 	public OperatorBetween(int pos, SpelNodeImpl... operands) {
 		super("between", pos, operands);
+		this.exitTypeDescriptor = "Z";
 	}
 
 
@@ -58,12 +63,8 @@ public class OperatorBetween extends Operator {
 					SpelMessage.BETWEEN_RIGHT_OPERAND_MUST_BE_TWO_ELEMENT_LIST);
 		}
 
-		List<?> list = (List<?>) right;
-		Object low = list.get(0);
-		Object high = list.get(1);
-		TypeComparator comp = state.getTypeComparator();
 		try {
-			return BooleanTypedValue.forValue(comp.compare(left, low) >= 0 && comp.compare(left, high) <= 0);
+			return BooleanTypedValue.forValue(between(state.getEvaluationContext(), left, right));
 		}
 		catch (SpelEvaluationException ex) {
 			ex.setPosition(getStartPosition());
@@ -71,4 +72,58 @@ public class OperatorBetween extends Operator {
 		}
 	}
 
+	@Override
+	public boolean isCompilable() {
+		return (getLeftOperand().isCompilable() && getRightOperand().isCompilable());
+	}
+
+	@Override
+	public void generateCode(MethodVisitor mv, CodeFlow cf) {
+		cf.loadEvaluationContext(mv);
+		String leftDesc = getLeftOperand().exitTypeDescriptor;
+		String rightDesc = getRightOperand().exitTypeDescriptor;
+
+		cf.enterCompilationScope();
+		getLeftOperand().generateCode(mv, cf);
+		cf.exitCompilationScope();
+		if (CodeFlow.isPrimitive(leftDesc)) {
+			CodeFlow.insertBoxIfNecessary(mv, leftDesc.charAt(0));
+		}
+		cf.enterCompilationScope();
+		getRightOperand().generateCode(mv, cf);
+		cf.exitCompilationScope();
+		if (CodeFlow.isPrimitive(rightDesc)) {
+			CodeFlow.insertBoxIfNecessary(mv, rightDesc.charAt(0));
+		}
+
+		String operatorClassName = OperatorBetween.class.getName().replace('.', '/');
+		String evaluationContextClassName = EvaluationContext.class.getName().replace('.', '/');
+		mv.visitMethodInsn(INVOKESTATIC, operatorClassName, "between",
+				"(L" + evaluationContextClassName + ";Ljava/lang/Object;Ljava/lang/Object;)Z", false);
+		cf.pushDescriptor("Z");
+	}
+
+
+	/**
+	 * Check whether the given value lies within the given two-element range,
+	 * using the type comparator of the given evaluation context.
+	 * <p>This method is not just used for the interpreted evaluation of this
+	 * operator but also from compiled expression code, which is why it needs
+	 * to be declared as {@code public static} here.
+	 * @param context the current evaluation context
+	 * @param left the left-hand operand value
+	 * @param right the right-hand operand value, expected to be a two-element list
+	 * @since 5.2
+	 */
+	public static boolean between(EvaluationContext context, @Nullable Object left, @Nullable Object right) {
+		if (!(right instanceof List) || ((List<?>) right).size() != 2) {
+			throw new SpelEvaluationException(SpelMessage.BETWEEN_RIGHT_OPERAND_MUST_BE_TWO_ELEMENT_LIST);
+		}
+		List<?> list = (List<?>) right;
+		Object low = list.get(0);
+		Object high = list.get(1);
+		TypeComparator comp = context.getTypeComparator();
+		return (comp.compare(left, low) >= 0 && comp.compare(left, high) <= 0);
+	}
+
 }
@@ -16,17 +16,22 @@
 
 package org.springframework.expression.spel.ast;
 
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 
+import org.springframework.asm.MethodVisitor;
 import org.springframework.expression.EvaluationException;
+import org.springframework.expression.spel.CodeFlow;
 import org.springframework.expression.spel.ExpressionState;
 import org.springframework.expression.spel.SpelEvaluationException;
 import org.springframework.expression.spel.SpelMessage;
 import org.springframework.expression.spel.support.BooleanTypedValue;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ConcurrentReferenceHashMap;
 
 /**
  * Implements the matches operator. Matches takes two operands:
@@ -42,11 +47,19 @@ public class OperatorMatches extends Operator {
 
 	private static final int PATTERN_ACCESS_THRESHOLD = 1000000;
 
+	private static final String PATTERN_DESCRIPTOR = "Ljava/util/regex/Pattern;";
+
+	/**
+	 * Patterns for regular expressions only known at runtime of compiled expressions.
+	 */
+	private static final Map<String, Pattern> sharedPatternCache = new ConcurrentReferenceHashMap<>(256);
+
 	private final ConcurrentMap<String, Pattern> patternCache = new ConcurrentHashMap<>();
 
 
 	public OperatorMatches(int pos, SpelNodeImpl... operands) {
 		super("matches", pos, operands);
+		this.exitTypeDescriptor = "Z";
 	}
 
 
@@ -81,8 +94,7 @@ public class OperatorMatches extends Operator {
 				pattern = Pattern.compile(rightString);
 				this.patternCache.putIfAbsent(rightString, pattern);
 			}
-			Matcher matcher = pattern.matcher(new MatcherInput(left, new AccessCount()));
-			return BooleanTypedValue.forValue(matcher.matches());
+			return BooleanTypedValue.forValue(matchesWithAccessCheck(left, pattern));
 		}
 		catch (PatternSyntaxException ex) {
 			throw new SpelEvaluationException(
@@ -94,6 +106,137 @@ public class OperatorMatches extends Operator {
 		}
 	}
 
+	@Override
+	public boolean isCompilable() {
+		SpelNodeImpl left = getLeftOperand();
+		SpelNodeImpl right = getRightOperand();
+		if (!left.isCompilable() || !"Ljava/lang/String".equals(left.exitTypeDescriptor)) {
+			return false;
+		}
+		if (getLiteralPattern() != null) {
+			return true;
+		}
+		return (right.isCompilable() && "Ljava/lang/String".equals(right.exitTypeDescriptor));
+	}
+
+	@Override
+	public void generateCode(MethodVisitor mv, CodeFlow cf) {
+		cf.enterCompilationScope();
+		getLeftOperand().generateCode(mv, cf);
+		cf.exitCompilationScope();
+
+		String operatorClassName = OperatorMatches.class.getName().replace('.', '/');
+		Pattern literalPattern = getLiteralPattern();
+		if (literalPattern != null) {
+			// Compile the regex once, when the compiled expression class is initialized
+			String className = cf.getClassName();
+			String fieldName = "pattern$" + cf.nextFieldId();
+			String regex = literalPattern.pattern();
+			cf.registerNewField((cw, cflow) ->
+					cw.visitField(ACC_PRIVATE | ACC_STATIC | ACC_FINAL, fieldName, PATTERN_DESCRIPTOR, null, null));
+			cf.registerNewClinit((clinit, cflow) -> {
+				clinit.visitLdcInsn(regex);
+				clinit.visitMethodInsn(INVOKESTATIC, "java/util/regex/Pattern", "compile",
+						"(Ljava/lang/String;)" + PATTERN_DESCRIPTOR, false);
+				clinit.visitFieldInsn(PUTSTATIC, className, fieldName, PATTERN_DESCRIPTOR);
+			});
+			mv.visitFieldInsn(GETSTATIC, className, fieldName, PATTERN_DESCRIPTOR);
+			mv.visitMethodInsn(INVOKESTATIC, operatorClassName, "matches",
+					"(Ljava/lang/String;" + PATTERN_DESCRIPTOR + ")Z", false);
+		}
+		else {
+			cf.enterCompilationScope();
+			getRightOperand().generateCode(mv, cf);
+			cf.exitCompilationScope();
+			mv.visitMethodInsn(INVOKESTATIC, operatorClassName, "matches",
+					"(Ljava/lang/String;Ljava/lang/String;)Z", false);
+		}
+		cf.pushDescriptor("Z");
+	}
+
+	/**
+	 * Return the pattern for a valid regex specified as a String literal,
+	 * or {@code null} if the regex is only known at runtime or is invalid.
+	 */
+	@Nullable
+	private Pattern getLiteralPattern() {
+		SpelNodeImpl right = getRightOperand();
+		if (!(right instanceof StringLiteral)) {
+			return null;
+		}
+		Object regex = ((StringLiteral) right).getLiteralValue().getValue();
+		if (!(regex instanceof String)) {
+			return null;
+		}
+		String regexString = (String) regex;
+		Pattern pattern = this.patternCache.get(regexString);
+		if (pattern == null) {
+			try {
+				pattern = Pattern.compile(regexString);
+			}
+			catch (PatternSyntaxException ex) {
+				// Let the invalid pattern be reported at runtime
+				return null;
+			}
+			this.patternCache.putIfAbsent(regexString, pattern);
+		}
+		return pattern;
+	}
+
+
+	/**
+	 * Check whether the given input matches the given precompiled pattern.
+	 * <p>This method is called from compiled expression code, which is
+	 * why it needs to be declared as {@code public static} here.
+	 * @param input the left-hand operand value
+	 * @param pattern the pattern for the right-hand operand
+	 * @since 5.2
+	 */
+	public static boolean matches(@Nullable String input, Pattern pattern) {
+		if (input == null) {
+			throw new SpelEvaluationException(SpelMessage.INVALID_FIRST_OPERAND_FOR_MATCHES_OPERATOR, (Object) null);
+		}
+		try {
+			return matchesWithAccessCheck(input, pattern);
+		}
+		catch (IllegalStateException ex) {
+			throw new SpelEvaluationException(ex, SpelMessage.FLAWED_PATTERN, pattern.pattern());
+		}
+	}
+
+	/**
+	 * Check whether the given input matches the given regex.
+	 * <p>This method is called from compiled expression code, which is
+	 * why it needs to be declared as {@code public static} here.
+	 * @param input the left-hand operand value
+	 * @param regex the right-hand operand value
+	 * @since 5.2
+	 */
+	public static boolean matches(@Nullable String input, @Nullable String regex) {
+		if (input == null) {
+			throw new SpelEvaluationException(SpelMessage.INVALID_FIRST_OPERAND_FOR_MATCHES_OPERATOR, (Object) null);
+		}
+		if (regex == null) {
+			throw new SpelEvaluationException(SpelMessage.INVALID_SECOND_OPERAND_FOR_MATCHES_OPERATOR, (Object) null);
+		}
+		Pattern pattern = sharedPatternCache.get(regex);
+		if (pattern == null) {
+			try {
+				pattern = Pattern.compile(regex);
+			}
+			catch (PatternSyntaxException ex) {
+				throw new SpelEvaluationException(ex, SpelMessage.INVALID_PATTERN, regex);
+			}
+			sharedPatternCache.put(regex, pattern);
+		}
+		return matches(input, pattern);
+	}
+
+	private static boolean matchesWithAccessCheck(String input, Pattern pattern) {
+		Matcher matcher = pattern.matcher(new MatcherInput(input, new AccessCount()));
+		return matcher.matches();
+	}
+
 
 	private static class AccessCount {
 
@@ -19,10 +19,13 @@ package org.springframework.expression.spel.ast;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 
+import org.springframework.asm.MethodVisitor;
 import org.springframework.expression.EvaluationException;
 import org.springframework.expression.Operation;
 import org.springframework.expression.TypedValue;
+import org.springframework.expression.spel.CodeFlow;
 import org.springframework.expression.spel.ExpressionState;
+import org.springframework.util.Assert;
 import org.springframework.util.NumberUtils;
 
 /**
@@ -46,6 +49,7 @@ public class OperatorPower extends Operator {
 
 		Object leftOperand = leftOp.getValueInternal(state).getValue();
 		Object rightOperand = rightOp.getValueInternal(state).getValue();
+		this.exitTypeDescriptor = null;
 
 		if (leftOperand instanceof Number && rightOperand instanceof Number) {
 			Number leftNumber = (Number) leftOperand;
@@ -60,13 +64,19 @@ public class OperatorPower extends Operator {
 				return new TypedValue(leftBigInteger.pow(rightNumber.intValue()));
 			}
 			else if (leftNumber instanceof Double || rightNumber instanceof Double) {
+				this.exitTypeDescriptor = "D";
 				return new TypedValue(Math.pow(leftNumber.doubleValue(), rightNumber.doubleValue()));
 			}
 			else if (leftNumber instanceof Float || rightNumber instanceof Float) {
+				this.exitTypeDescriptor = "D";
 				return new TypedValue(Math.pow(leftNumber.floatValue(), rightNumber.floatValue()));
 			}
 
 			double d = Math.pow(leftNumber.doubleValue(), rightNumber.doubleValue());
+			if (leftNumber instanceof Long || rightNumber instanceof Long) {
+				// The result type does not depend on the operand values: compilable
+				this.exitTypeDescriptor = "J";
+			}
 			if (d > Integer.MAX_VALUE || leftNumber instanceof Long || rightNumber instanceof Long) {
 				return new TypedValue((long) d);
 			}
@@ -78,4 +88,53 @@ public class OperatorPower extends Operator {
 		return state.operate(Operation.POWER, leftOperand, rightOperand);
 	}
 
+	/**
+	 * Only operations with a {@code double} or {@code long} result are compilable:
+	 * for {@code int} operands, the result type depends on the actual result value.
+	 */
+	@Override
+	public boolean isCompilable() {
+		SpelNodeImpl left = getLeftOperand();
+		SpelNodeImpl right = getRightOperand();
+		if (!left.isCompilable() || !right.isCompilable()) {
+			return false;
+		}
+		return (this.exitTypeDescriptor != null &&
+				CodeFlow.isPrimitiveOrUnboxableSupportedNumber(left.exitTypeDescriptor) &&
+				CodeFlow.isPrimitiveOrUnboxableSupportedNumber(right.exitTypeDescriptor));
+	}
+
+	@Override
+	public void generateCode(MethodVisitor mv, CodeFlow cf) {
+		String leftDesc = getLeftOperand().exitTypeDescriptor;
+		String rightDesc = getRightOperand().exitTypeDescriptor;
+		String exitDesc = this.exitTypeDescriptor;
+		Assert.state(leftDesc != null && rightDesc != null && exitDesc != null, "No exit type descriptor");
+
+		// Float operands (without double operands) are narrowed to float first,
+		// like in interpreted mode, before widening them for Math.pow
+		char operandDesc = (CodeFlow.toPrimitiveTargetDesc(leftDesc) == 'D' ||
+				CodeFlow.toPrimitiveTargetDesc(rightDesc) == 'D' || exitDesc.charAt(0) == 'J' ? 'D' : 'F');
+
+		cf.enterCompilationScope();
+		getLeftOperand().generateCode(mv, cf);
+		cf.exitCompilationScope();
+		CodeFlow.insertNumericUnboxOrPrimitiveTypeCoercion(mv, leftDesc, operandDesc);
+		if (operandDesc == 'F') {
+			mv.visitInsn(F2D);
+		}
+		cf.enterCompilationScope();
+		getRightOperand().generateCode(mv, cf);
+		cf.exitCompilationScope();
+		CodeFlow.insertNumericUnboxOrPrimitiveTypeCoercion(mv, rightDesc, operandDesc);
+		if (operandDesc == 'F') {
+			mv.visitInsn(F2D);
+		}
+		mv.visitMethodInsn(INVOKESTATIC, "java/lang/Math", "pow", "(DD)D", false);
+		if (exitDesc.charAt(0) == 'J') {
+			mv.visitInsn(D2L);
+		}
+		cf.pushDescriptor(exitDesc);
+	}
+
 }
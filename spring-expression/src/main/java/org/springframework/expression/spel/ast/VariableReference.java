@@ -109,6 +109,16 @@ public class VariableReference extends SpelNodeImpl {
 		return (this.exitTypeDescriptor != null);
 	}
 
+	/**
+	 * Return the name of the referenced variable if compiled code may assign it,
+	 * i.e. if it is neither {@code #this} nor {@code #root}.
+	 * @since 5.2
+	 */
+	@Nullable
+	String getAssignableVariableName() {
+		return (this.name.equals(THIS) || this.name.equals(ROOT) ? null : this.name);
+	}
+
 	@Override
 	public void generateCode(MethodVisitor mv, CodeFlow cf) {
 		if (this.name.equals(ROOT)) {
@@ -517,6 +517,40 @@ public class SpelExpression implements Expression {
 		return (this.compiledAst != null);
 	}
 
+	/**
+	 * Return whether this expression is currently evaluated in compiled form,
+	 * e.g. for monitoring which expressions remain interpreted.
+	 * @since 5.2
+	 * @see #compileExpression()
+	 * @see #revertToInterpreted()
+	 */
+	public boolean isCompiled() {
+		return (this.compiledAst != null);
+	}
+
+	/**
+	 * Return how many times this expression has been interpreted since it was
+	 * created or last reverted to interpreted form.
+	 * <p>The count is cumulative: compiling the expression does not reset it,
+	 * it just stops increasing while the compiled form is used. It is reset by
+	 * {@link #revertToInterpreted()}, and in {@link SpelCompilerMode#MIXED}
+	 * mode when the compiled form fails and the expression falls back to
+	 * interpretation.
+	 * @since 5.2
+	 */
+	public int getInterpretedCount() {
+		return this.interpretedCount;
+	}
+
+	/**
+	 * Return how many times compilation of this expression has failed since
+	 * it was last reverted to interpreted form.
+	 * @since 5.2
+	 */
+	public int getFailedCompilationAttempts() {
+		return this.failedAttempts;
+	}
+
 	/**
 	 * Cause an expression to revert to being interpreted if it has been using a compiled
 	 * form. It also resets the compilation attempt failure count (an expression is normally no
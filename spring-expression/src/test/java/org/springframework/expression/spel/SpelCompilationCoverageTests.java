@@ -19,7 +19,9 @@ package org.springframework.expression.spel;
 import java.io.IOException;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -103,17 +105,18 @@ public class SpelCompilationCoverageTests extends AbstractExpressionTests {
 	 * ConstructorReference
 	 * FunctionReference
 	 * InlineList
+	 * InlineMap
 	 * OpModulus
-	 *
-	 * Not yet compiled (some may never need to be):
-	 * Assign
-	 * BeanReference
-	 * Identifier
-	 * OpDec
 	 * OpBetween
 	 * OpMatches
 	 * OpPower
-	 * OpInc
+	 * BeanReference
+	 * Assign (to variables)
+	 * OpInc (of variables)
+	 * OpDec (of variables)
+	 *
+	 * Not yet compiled (some may never need to be):
+	 * Identifier
 	 * Projection
 	 * QualifiedId
 	 * Selection
@@ -441,6 +444,259 @@ public class SpelCompilationCoverageTests extends AbstractExpressionTests {
 		assertEquals("op", o);
 	}
 
+	@SuppressWarnings("rawtypes")
+	@Test
+	public void inlineMap() throws Exception {
+		expression = parser.parseExpression("{a:'abc',b:2,'c':3L,4:{5,6},d:{e:true,f:null}}");
+		Map<Object, Object> m = (Map) expression.getValue();
+		assertEquals("{a=abc, b=2, c=3, 4=[5, 6], d={e=true, f=null}}", m.toString());
+		assertCanCompile(expression);
+		m = (Map) expression.getValue();
+		assertEquals("{a=abc, b=2, c=3, 4=[5, 6], d={e=true, f=null}}", m.toString());
+		assertEquals(3L, m.get("c"));
+		assertEquals(5, ((List) m.get(4)).get(0));
+		try {
+			m.put("g", "h");
+			fail("Should not be able to modify the constant map");
+		}
+		catch (UnsupportedOperationException ex) {
+			// expected
+		}
+
+		expression = parser.parseExpression("{a:1,b:2}['b']");
+		assertEquals(2, expression.getValue());
+		assertCanCompile(expression);
+		assertEquals(2, expression.getValue());
+
+		// Not a constant map
+		expression = parser.parseExpression("{a:#root}");
+		assertEquals("{a=abc}", expression.getValue("abc").toString());
+		assertCantCompile(expression);
+	}
+
+	@Test
+	public void operatorMatches() throws Exception {
+		expression = parser.parseExpression("'abc' matches 'a.c'");
+		assertTrue(expression.getValue(Boolean.class));
+		assertCanCompile(expression);
+		assertTrue(expression.getValue(Boolean.class));
+		assertEquals("Z", getAst().getExitDescriptor());
+
+		expression = parser.parseExpression("#root matches '[0-9]+'");
+		assertTrue(expression.getValue("123", Boolean.class));
+		assertCanCompile(expression);
+		assertTrue(expression.getValue("123", Boolean.class));
+		assertFalse(expression.getValue("12a", Boolean.class));
+
+		// Regex only known at runtime
+		expression = parser.parseExpression("'abc' matches #root");
+		assertTrue(expression.getValue("[a-c]+", Boolean.class));
+		assertCanCompile(expression);
+		assertTrue(expression.getValue("[a-c]+", Boolean.class));
+		assertFalse(expression.getValue("[a-b]+", Boolean.class));
+		assertTrue(expression.getValue("abc", Boolean.class));
+
+		expression = parser.parseExpression("'abc' matches #root");
+		assertTrue(expression.getValue("abc", Boolean.class));
+		assertCanCompile(expression);
+		try {
+			expression.getValue("[a-c", Boolean.class);
+			fail("Should have failed on invalid pattern");
+		}
+		catch (SpelEvaluationException ex) {
+			assertEquals(SpelMessage.EXCEPTION_RUNNING_COMPILED_EXPRESSION, ex.getMessageCode());
+			assertEquals(SpelMessage.INVALID_PATTERN,
+					((SpelEvaluationException) ex.getCause()).getMessageCode());
+		}
+
+		// Invalid pattern literal is reported at runtime, as in interpreted mode
+		expression = parser.parseExpression("'abc' matches '[a'");
+		assertGetValueFail(expression);
+		assertCanCompile(expression);
+		assertGetValueFail(expression);
+
+		// Left operand of unknown type
+		expression = parser.parseExpression("#root matches 'a.c'");
+		assertTrue(expression.getValue(new StringBuilder("abc"), Boolean.class));
+		assertCantCompile(expression);
+	}
+
+	@Test
+	public void operatorBetween() throws Exception {
+		expression = parser.parseExpression("5 between {1,10}");
+		assertTrue(expression.getValue(Boolean.class));
+		assertCanCompile(expression);
+		assertTrue(expression.getValue(Boolean.class));
+		assertEquals("Z", getAst().getExitDescriptor());
+
+		expression = parser.parseExpression("#root between {'b','d'}");
+		assertTrue(expression.getValue("c", Boolean.class));
+		assertCanCompile(expression);
+		assertTrue(expression.getValue("c", Boolean.class));
+		assertTrue(expression.getValue("d", Boolean.class));
+		assertFalse(expression.getValue("e", Boolean.class));
+
+		expression = parser.parseExpression("3.5d between #root");
+		assertTrue(expression.getValue(new ArrayList<>(Arrays.asList(3, 4)), Boolean.class));
+		assertCanCompile(expression);
+		assertTrue(expression.getValue(new ArrayList<>(Arrays.asList(3, 4)), Boolean.class));
+		assertFalse(expression.getValue(new ArrayList<>(Arrays.asList(4, 5)), Boolean.class));
+		try {
+			expression.getValue(new ArrayList<>(Arrays.asList(3, 4, 5)), Boolean.class);
+			fail("Should have failed on three-element list");
+		}
+		catch (SpelEvaluationException ex) {
+			assertEquals(SpelMessage.BETWEEN_RIGHT_OPERAND_MUST_BE_TWO_ELEMENT_LIST,
+					((SpelEvaluationException) ex.getCause()).getMessageCode());
+		}
+	}
+
+	@Test
+	public void operatorPower() throws Exception {
+		expression = parser.parseExpression("2.0d ^ 3");
+		assertEquals(8.0d, expression.getValue());
+		assertCanCompile(expression);
+		assertEquals(8.0d, expression.getValue());
+		assertEquals("D", getAst().getExitDescriptor());
+
+		expression = parser.parseExpression("2.0f ^ 0.5f");
+		Object resultI = expression.getValue();
+		assertCanCompile(expression);
+		assertEquals(resultI, expression.getValue());
+
+		expression = parser.parseExpression("16777217 ^ 1.0f");
+		resultI = expression.getValue();
+		assertCanCompile(expression);
+		assertEquals(resultI, expression.getValue());
+
+		expression = parser.parseExpression("2L ^ 40");
+		assertEquals(1099511627776L, expression.getValue());
+		assertCanCompile(expression);
+		assertEquals(1099511627776L, expression.getValue());
+		assertEquals("J", getAst().getExitDescriptor());
+
+		expression = parser.parseExpression("#root ^ 2");
+		assertEquals(9L, expression.getValue(3L));
+		assertCanCompile(expression);
+		assertEquals(9L, expression.getValue(3L));
+
+		// Result type of int operands depends on the result value
+		expression = parser.parseExpression("2 ^ 3");
+		assertEquals(8, expression.getValue());
+		assertCantCompile(expression);
+	}
+
+	@Test
+	public void beanReference() throws Exception {
+		StandardEvaluationContext ctx = new StandardEvaluationContext();
+		ctx.setBeanResolver((context, beanName) -> {
+			if (beanName.equals("foo")) {
+				return "bar";
+			}
+			throw new AccessException("No bean named '" + beanName + "'");
+		});
+
+		expression = parser.parseExpression("@foo");
+		assertEquals("bar", expression.getValue(ctx));
+		assertCanCompile(expression);
+		assertEquals("bar", expression.getValue(ctx));
+		assertEquals("Ljava/lang/String", getAst().getExitDescriptor());
+
+		expression = parser.parseExpression("@foo.length()");
+		assertEquals(3, expression.getValue(ctx));
+		assertCanCompile(expression);
+		assertEquals(3, expression.getValue(ctx));
+
+		expression = parser.parseExpression("@foo");
+		assertEquals("bar", expression.getValue(ctx));
+		assertCanCompile(expression);
+		try {
+			expression.getValue(new StandardEvaluationContext());
+			fail("Should have failed without bean resolver");
+		}
+		catch (SpelEvaluationException ex) {
+			assertEquals(SpelMessage.NO_BEAN_RESOLVER_REGISTERED,
+					((SpelEvaluationException) ex.getCause()).getMessageCode());
+		}
+	}
+
+	@Test
+	public void assignVariable() throws Exception {
+		StandardEvaluationContext ctx = new StandardEvaluationContext();
+		expression = parser.parseExpression("#a = 'abc'");
+		assertEquals("abc", expression.getValue(ctx));
+		assertCanCompile(expression);
+		ctx.setVariable("a", null);
+		assertEquals("abc", expression.getValue(ctx));
+		assertEquals("abc", ctx.lookupVariable("a"));
+		assertEquals("Ljava/lang/String", getAst().getExitDescriptor());
+
+		expression = parser.parseExpression("(#b = 3 * 4) + 1");
+		assertEquals(13, expression.getValue(ctx));
+		assertCanCompile(expression);
+		ctx.setVariable("b", null);
+		assertEquals(13, expression.getValue(ctx));
+		assertEquals(12, ctx.lookupVariable("b"));
+
+		// Properties are assigned through the property accessors
+		expression = parser.parseExpression("age = 5");
+		Person3 person = new Person3("abc", 1);
+		assertEquals(5, expression.getValue(ctx, person));
+		assertEquals(5, person.getAge());
+		assertCantCompile(expression);
+
+		expression = parser.parseExpression("#root = 'abc'");
+		expression.getValue(ctx);
+		assertCantCompile(expression);
+	}
+
+	@Test
+	public void incrementAndDecrementVariable() throws Exception {
+		StandardEvaluationContext ctx = new StandardEvaluationContext();
+		ctx.setVariable("i", 1);
+		expression = parser.parseExpression("#i++");
+		assertEquals(1, expression.getValue(ctx));
+		assertCanCompile(expression);
+		assertEquals(2, expression.getValue(ctx));
+		assertEquals(3, ctx.lookupVariable("i"));
+		assertEquals("Ljava/lang/Integer", getAst().getExitDescriptor());
+
+		expression = parser.parseExpression("++#i");
+		assertEquals(4, expression.getValue(ctx));
+		assertCanCompile(expression);
+		assertEquals(5, expression.getValue(ctx));
+		assertEquals(5, ctx.lookupVariable("i"));
+
+		expression = parser.parseExpression("#i-- * 2");
+		assertEquals(10, expression.getValue(ctx));
+		assertCanCompile(expression);
+		assertEquals(8, expression.getValue(ctx));
+		assertEquals(3, ctx.lookupVariable("i"));
+
+		ctx.setVariable("d", new BigDecimal("1.5"));
+		expression = parser.parseExpression("--#d");
+		assertEquals(new BigDecimal("0.5"), expression.getValue(ctx));
+		assertCanCompile(expression);
+		assertEquals(new BigDecimal("-0.5"), expression.getValue(ctx));
+
+		// Change of type: falls back to interpreted mode without incrementing twice
+		SpelParserConfiguration configuration = new SpelParserConfiguration(SpelCompilerMode.MIXED, null);
+		expression = new SpelExpressionParser(configuration).parseExpression("#i++");
+		ctx.setVariable("i", 1);
+		assertEquals(1, expression.getValue(ctx));
+		assertCanCompile(expression);
+		ctx.setVariable("i", 1L);
+		assertEquals(1L, expression.getValue(ctx));
+		assertEquals(2L, ctx.lookupVariable("i"));
+
+		// Properties are updated through the property accessors
+		expression = parser.parseExpression("age++");
+		Person3 person = new Person3("abc", 1);
+		assertEquals(1, expression.getValue(ctx, person));
+		assertEquals(2, person.getAge());
+		assertCantCompile(expression);
+	}
+
 	@Test
 	public void intLiteral() throws Exception {
 		expression = parser.parseExpression("42");
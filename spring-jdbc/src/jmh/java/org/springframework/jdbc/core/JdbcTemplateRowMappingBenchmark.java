@@ -0,0 +1,162 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core;
+
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+/**
+ * Benchmarks for {@link JdbcTemplate} row mapping against an embedded HSQL database,
+ * comparing a hand-written {@link RowMapper}, {@link BeanPropertyRowMapper},
+ * {@link ColumnMapRowMapper} and {@link SingleColumnRowMapper}.
+ * <p>Typically run with {@code "./gradlew :spring-jdbc:jmh"}.
+ *
+ * @since 5.2
+ */
+@BenchmarkMode(Mode.Throughput)
+public class JdbcTemplateRowMappingBenchmark {
+
+	private static final String SELECT_ALL = "SELECT id, name, email, age, active FROM person";
+
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkState {
+
+		@Param({"10", "1000"})
+		public int rowCount;
+
+		public EmbeddedDatabase database;
+
+		public JdbcTemplate jdbcTemplate;
+
+		public final RowMapper<Person> beanPropertyRowMapper = new BeanPropertyRowMapper<>(Person.class);
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.HSQL)
+					.generateUniqueName(true).build();
+			this.jdbcTemplate = new JdbcTemplate(this.database);
+			this.jdbcTemplate.execute("CREATE TABLE person (id BIGINT PRIMARY KEY, name VARCHAR(50), " +
+					"email VARCHAR(100), age INTEGER, active BOOLEAN)");
+			for (int i = 0; i < this.rowCount; i++) {
+				this.jdbcTemplate.update("INSERT INTO person VALUES (?, ?, ?, ?, ?)",
+						i, "name" + i, "person" + i + "@example.org", i % 100, i % 2 == 0);
+			}
+		}
+
+		@TearDown(Level.Trial)
+		public void tearDown() {
+			this.database.shutdown();
+		}
+	}
+
+	@Benchmark
+	public List<Person> handWrittenRowMapper(BenchmarkState state) {
+		return state.jdbcTemplate.query(SELECT_ALL, (rs, rowNum) -> {
+			Person person = new Person();
+			person.setId(rs.getLong(1));
+			person.setName(rs.getString(2));
+			person.setEmail(rs.getString(3));
+			person.setAge(rs.getInt(4));
+			person.setActive(rs.getBoolean(5));
+			return person;
+		});
+	}
+
+	@Benchmark
+	public List<Person> beanPropertyRowMapper(BenchmarkState state) {
+		return state.jdbcTemplate.query(SELECT_ALL, state.beanPropertyRowMapper);
+	}
+
+	@Benchmark
+	public Object columnMapRowMapper(BenchmarkState state) {
+		return state.jdbcTemplate.queryForList(SELECT_ALL);
+	}
+
+	@Benchmark
+	public List<String> singleColumnRowMapper(BenchmarkState state) {
+		return state.jdbcTemplate.queryForList("SELECT name FROM person", String.class);
+	}
+
+
+	public static class Person {
+
+		private long id;
+
+		private String name;
+
+		private String email;
+
+		private int age;
+
+		private boolean active;
+
+		public long getId() {
+			return this.id;
+		}
+
+		public void setId(long id) {
+			this.id = id;
+		}
+
+		public String getName() {
+			return this.name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+
+		public String getEmail() {
+			return this.email;
+		}
+
+		public void setEmail(String email) {
+			this.email = email;
+		}
+
+		public int getAge() {
+			return this.age;
+		}
+
+		public void setAge(int age) {
+			this.age = age;
+		}
+
+		public boolean isActive() {
+			return this.active;
+		}
+
+		public void setActive(boolean active) {
+			this.active = active;
+		}
+	}
+
+}
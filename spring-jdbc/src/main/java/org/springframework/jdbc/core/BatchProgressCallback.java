@@ -0,0 +1,41 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core;
+
+/**
+ * Callback interface for progress notifications from a {@link ChunkedBatchUpdate},
+ * invoked after each chunk of the batch has been executed successfully.
+ *
+ * <p>With concurrent chunk execution, implementations are invoked from the
+ * executing threads, possibly concurrently and not in chunk order, and therefore
+ * need to be thread-safe.
+ *
+ * @since 5.2
+ * @see ChunkedBatchUpdate#setProgressCallback
+ */
+@FunctionalInterface
+public interface BatchProgressCallback {
+
+	/**
+	 * Called after a chunk of the batch has been executed.
+	 * @param chunkIndex the index of the chunk, starting at 0
+	 * @param updateCounts the number of rows affected by each statement
+	 * in the chunk, as returned from {@link java.sql.Statement#executeBatch()}
+	 */
+	void chunkCompleted(int chunkIndex, int[] updateCounts);
+
+}
@@ -16,21 +16,32 @@
 
 package org.springframework.jdbc.core;
 
+import java.beans.PropertyChangeEvent;
 import java.beans.PropertyDescriptor;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.InvocationTargetException;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.GeneratedAccessorBeanWrapper;
+import org.springframework.beans.GeneratedAccessorBeanWrapper.PropertyWriter;
+import org.springframework.beans.MethodInvocationException;
 import org.springframework.beans.NotWritablePropertyException;
 import org.springframework.beans.PropertyAccessorFactory;
 import org.springframework.beans.TypeMismatchException;
@@ -42,6 +53,8 @@ import org.springframework.jdbc.support.JdbcUtils;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
+import org.springframework.util.ObjectUtils;
+import org.springframework.util.ReflectionUtils;
 import org.springframework.util.StringUtils;
 
 /**
@@ -68,7 +81,8 @@ import org.springframework.util.StringUtils;
  * will have been set to the primitive's default value instead of null.
  *
  * <p>Please note that this class is designed to provide convenience rather than high performance.
- * For best performance, consider using a custom {@link RowMapper} implementation.
+ * For best performance, consider using a custom {@link RowMapper} implementation, or switch on
+ * {@link #setCompiledMapping compiled mapping} for large result sets.
  *
  * @author Thomas Risberg
  * @author Juergen Hoeller
@@ -90,6 +104,12 @@ public class BeanPropertyRowMapper<T> implements RowMapper<T> {
 	/** Whether we're defaulting primitives when mapping a null value. */
 	private boolean primitivesDefaultedForNullValue = false;
 
+	/** Whether we're accessing bean properties through generated accessor classes. */
+	private boolean generatedPropertyAccess = false;
+
+	/** Whether we're mapping rows through a mapping plan compiled per ResultSet. */
+	private boolean compiledMapping = false;
+
 	/** ConversionService for binding JDBC values to bean properties. */
 	@Nullable
 	private ConversionService conversionService = DefaultConversionService.getSharedInstance();
@@ -102,6 +122,18 @@ public class BeanPropertyRowMapper<T> implements RowMapper<T> {
 	@Nullable
 	private Set<String> mappedProperties;
 
+	/** Mapping plans per ResultSet column layout, in compiled mapping mode. */
+	private final Map<ColumnLayout, CompiledMapping> compiledMappings = new ConcurrentHashMap<>(4);
+
+	/** Mapping plan for the most recently mapped ResultSet, to avoid re-reading its meta-data per row. */
+	@Nullable
+	private volatile ResultSetMapping lastResultSetMapping;
+
+	/** Whether {@link #initBeanWrapper} is overridden, preventing compiled mapping. */
+	private final boolean customBeanWrapperInitialization =
+			(ReflectionUtils.findMethod(getClass(), "initBeanWrapper", BeanWrapper.class).getDeclaringClass() !=
+					BeanPropertyRowMapper.class);
+
 
 	/**
 	 * Create a new {@code BeanPropertyRowMapper} for bean-style configuration.
@@ -164,6 +196,7 @@ public class BeanPropertyRowMapper<T> implements RowMapper<T> {
 	 */
 	public void setCheckFullyPopulated(boolean checkFullyPopulated) {
 		this.checkFullyPopulated = checkFullyPopulated;
+		clearCompiledMappings();
 	}
 
 	/**
@@ -181,6 +214,7 @@ public class BeanPropertyRowMapper<T> implements RowMapper<T> {
 	 */
 	public void setPrimitivesDefaultedForNullValue(boolean primitivesDefaultedForNullValue) {
 		this.primitivesDefaultedForNullValue = primitivesDefaultedForNullValue;
+		clearCompiledMappings();
 	}
 
 	/**
@@ -191,6 +225,57 @@ public class BeanPropertyRowMapper<T> implements RowMapper<T> {
 		return this.primitivesDefaultedForNullValue;
 	}
 
+	/**
+	 * Set whether bean properties should be populated through accessor classes
+	 * generated per mapped class rather than through reflection.
+	 * <p>Default is {@code false}.
+	 * @since 5.2
+	 * @see PropertyAccessorFactory#forGeneratedBeanPropertyAccess
+	 */
+	public void setGeneratedPropertyAccess(boolean generatedPropertyAccess) {
+		this.generatedPropertyAccess = generatedPropertyAccess;
+	}
+
+	/**
+	 * Return whether bean properties are populated through generated accessor classes.
+	 * @since 5.2
+	 */
+	public boolean isGeneratedPropertyAccess() {
+		return this.generatedPropertyAccess;
+	}
+
+	/**
+	 * Set whether rows should be mapped through a mapping plan that is compiled
+	 * once per {@link ResultSet} column layout, i.e. per sequence of column
+	 * labels and types in the {@link ResultSetMetaData}.
+	 * <p>The plan resolves the target property for each column index upfront,
+	 * and writes values that are assignable to the property type through the
+	 * accessor class generated per mapped class (as used by
+	 * {@link #setGeneratedPropertyAccess generated property access}), without
+	 * creating a {@link BeanWrapper} for each row. Values that require
+	 * conversion, such as {@code null} for a primitive property, still go
+	 * through a {@code BeanWrapper}, with the same
+	 * {@link #setPrimitivesDefaultedForNullValue primitivesDefaultedForNullValue}
+	 * and {@link #setCheckFullyPopulated checkFullyPopulated} semantics as usual.
+	 * <p>Only applies if {@link #initBeanWrapper} is not overridden and no
+	 * custom {@link #setConversionService ConversionService} is set, since
+	 * either might affect assignable values as well; rows are mapped through
+	 * a {@code BeanWrapper} as usual otherwise.
+	 * <p>Default is {@code false}. Consider switching this on for large result sets.
+	 * @since 5.2
+	 */
+	public void setCompiledMapping(boolean compiledMapping) {
+		this.compiledMapping = compiledMapping;
+	}
+
+	/**
+	 * Return whether rows are mapped through a mapping plan compiled per {@link ResultSet}.
+	 * @since 5.2
+	 */
+	public boolean isCompiledMapping() {
+		return this.compiledMapping;
+	}
+
 	/**
 	 * Set a {@link ConversionService} for binding JDBC values to bean properties,
 	 * or {@code null} for none.
@@ -220,6 +305,7 @@ public class BeanPropertyRowMapper<T> implements RowMapper<T> {
 	 */
 	protected void initialize(Class<T> mappedClass) {
 		this.mappedClass = mappedClass;
+		clearCompiledMappings();
 		this.mappedFields = new HashMap<>();
 		this.mappedProperties = new HashSet<>();
 		PropertyDescriptor[] pds = BeanUtils.getPropertyDescriptors(mappedClass);
@@ -282,9 +368,24 @@ public class BeanPropertyRowMapper<T> implements RowMapper<T> {
 	@Override
 	public T mapRow(ResultSet rs, int rowNumber) throws SQLException {
 		Assert.state(this.mappedClass != null, "Mapped class was not specified");
+		if (this.compiledMapping && isCompiledMappingApplicable()) {
+			ResultSetMapping resultSetMapping = this.lastResultSetMapping;
+			CompiledMapping mapping = (resultSetMapping != null && rowNumber > 0 ?
+					resultSetMapping.getMappingFor(rs) : null);
+			if (mapping == null) {
+				ColumnLayout layout = new ColumnLayout(rs.getMetaData());
+				mapping = this.compiledMappings.get(layout);
+				if (mapping == null) {
+					mapping = compileMapping(rs, this.mappedClass);
+					this.compiledMappings.put(layout, mapping);
+				}
+				this.lastResultSetMapping = new ResultSetMapping(rs, mapping);
+			}
+			return mapping.mapRow(rs, rowNumber);
+		}
+
 		T mappedObject = BeanUtils.instantiateClass(this.mappedClass);
-		BeanWrapper bw = PropertyAccessorFactory.forBeanPropertyAccess(mappedObject);
-		initBeanWrapper(bw);
+		BeanWrapper bw = createBeanWrapper(mappedObject);
 
 		ResultSetMetaData rsmd = rs.getMetaData();
 		int columnCount = rsmd.getColumnCount();
@@ -295,36 +396,14 @@ public class BeanPropertyRowMapper<T> implements RowMapper<T> {
 			String field = lowerCaseName(StringUtils.delete(column, " "));
 			PropertyDescriptor pd = (this.mappedFields != null ? this.mappedFields.get(field) : null);
 			if (pd != null) {
-				try {
-					Object value = getColumnValue(rs, index, pd);
-					if (rowNumber == 0 && logger.isDebugEnabled()) {
-						logger.debug("Mapping column '" + column + "' to property '" + pd.getName() +
-								"' of type '" + ClassUtils.getQualifiedName(pd.getPropertyType()) + "'");
-					}
-					try {
-						bw.setPropertyValue(pd.getName(), value);
-					}
-					catch (TypeMismatchException ex) {
-						if (value == null && this.primitivesDefaultedForNullValue) {
-							if (logger.isDebugEnabled()) {
-								logger.debug("Intercepted TypeMismatchException for row " + rowNumber +
-										" and column '" + column + "' with null value when setting property '" +
-										pd.getName() + "' of type '" +
-										ClassUtils.getQualifiedName(pd.getPropertyType()) +
-										"' on object: " + mappedObject, ex);
-							}
-						}
-						else {
-							throw ex;
-						}
-					}
-					if (populatedProperties != null) {
-						populatedProperties.add(pd.getName());
-					}
+				Object value = getColumnValue(rs, index, pd);
+				if (rowNumber == 0 && logger.isDebugEnabled()) {
+					logger.debug("Mapping column '" + column + "' to property '" + pd.getName() +
+							"' of type '" + ClassUtils.getQualifiedName(pd.getPropertyType()) + "'");
 				}
-				catch (NotWritablePropertyException ex) {
-					throw new DataRetrievalFailureException(
-							"Unable to map column '" + column + "' to property '" + pd.getName() + "'", ex);
+				setPropertyValue(bw, column, pd, value, rowNumber);
+				if (populatedProperties != null) {
+					populatedProperties.add(pd.getName());
 				}
 			}
 			else {
@@ -335,13 +414,104 @@ public class BeanPropertyRowMapper<T> implements RowMapper<T> {
 			}
 		}
 
-		if (populatedProperties != null && !populatedProperties.equals(this.mappedProperties)) {
+		if (populatedProperties != null) {
+			checkFullyPopulated(populatedProperties, this.mappedClass);
+		}
+
+		return mappedObject;
+	}
+
+	private void clearCompiledMappings() {
+		this.compiledMappings.clear();
+		this.lastResultSetMapping = null;
+	}
+
+	private boolean isCompiledMappingApplicable() {
+		if (this.customBeanWrapperInitialization) {
+			return false;
+		}
+		ConversionService cs = getConversionService();
+		return (cs == null || cs == DefaultConversionService.getSharedInstance());
+	}
+
+	private BeanWrapper createBeanWrapper(T mappedObject) {
+		BeanWrapper bw = (this.generatedPropertyAccess ?
+				PropertyAccessorFactory.forGeneratedBeanPropertyAccess(mappedObject) :
+				PropertyAccessorFactory.forBeanPropertyAccess(mappedObject));
+		initBeanWrapper(bw);
+		return bw;
+	}
+
+	private void setPropertyValue(BeanWrapper bw, String column, PropertyDescriptor pd,
+			@Nullable Object value, int rowNumber) {
+
+		try {
+			bw.setPropertyValue(pd.getName(), value);
+		}
+		catch (TypeMismatchException ex) {
+			if (value == null && this.primitivesDefaultedForNullValue) {
+				if (logger.isDebugEnabled()) {
+					logger.debug("Intercepted TypeMismatchException for row " + rowNumber +
+							" and column '" + column + "' with null value when setting property '" +
+							pd.getName() + "' of type '" +
+							ClassUtils.getQualifiedName(pd.getPropertyType()) +
+							"' on object: " + bw.getWrappedInstance(), ex);
+				}
+			}
+			else {
+				throw ex;
+			}
+		}
+		catch (NotWritablePropertyException ex) {
+			throw new DataRetrievalFailureException(
+					"Unable to map column '" + column + "' to property '" + pd.getName() + "'", ex);
+		}
+	}
+
+	private void checkFullyPopulated(Set<String> populatedProperties, Class<T> mappedClass) {
+		if (!populatedProperties.equals(this.mappedProperties)) {
 			throw new InvalidDataAccessApiUsageException("Given ResultSet does not contain all fields " +
-					"necessary to populate object of class [" + this.mappedClass.getName() + "]: " +
+					"necessary to populate object of class [" + mappedClass.getName() + "]: " +
 					this.mappedProperties);
 		}
+	}
 
-		return mappedObject;
+	/**
+	 * Resolve the mapping plan for the column layout of the given ResultSet.
+	 */
+	private CompiledMapping compileMapping(ResultSet rs, Class<T> mappedClass) throws SQLException {
+		ResultSetMetaData rsmd = rs.getMetaData();
+		int columnCount = rsmd.getColumnCount();
+		Set<String> populatedProperties = (isCheckFullyPopulated() ? new HashSet<>() : null);
+		List<ColumnMapping> columnMappings = new ArrayList<>(columnCount);
+
+		for (int index = 1; index <= columnCount; index++) {
+			String column = JdbcUtils.lookupColumnName(rsmd, index);
+			String field = lowerCaseName(StringUtils.delete(column, " "));
+			PropertyDescriptor pd = (this.mappedFields != null ? this.mappedFields.get(field) : null);
+			if (pd != null) {
+				if (logger.isDebugEnabled()) {
+					logger.debug("Mapping column '" + column + "' to property '" + pd.getName() +
+							"' of type '" + ClassUtils.getQualifiedName(pd.getPropertyType()) + "'");
+				}
+				columnMappings.add(new ColumnMapping(index, column, pd,
+						GeneratedAccessorBeanWrapper.getPropertyWriter(mappedClass, pd)));
+				if (populatedProperties != null) {
+					populatedProperties.add(pd.getName());
+				}
+			}
+			else {
+				if (logger.isDebugEnabled()) {
+					logger.debug("No property found for column '" + column + "' mapped to field '" + field + "'");
+				}
+			}
+		}
+
+		if (populatedProperties != null) {
+			checkFullyPopulated(populatedProperties, mappedClass);
+		}
+
+		return new CompiledMapping(mappedClass, columnMappings.toArray(new ColumnMapping[0]));
 	}
 
 	/**
@@ -388,4 +558,147 @@ public class BeanPropertyRowMapper<T> implements RowMapper<T> {
 		return new BeanPropertyRowMapper<>(mappedClass);
 	}
 
+
+	/**
+	 * Labels and types of the columns of a ResultSet, as the key for
+	 * the mapping plan for its rows.
+	 */
+	private static class ColumnLayout {
+
+		private final String[] columns;
+
+		private final int[] types;
+
+		public ColumnLayout(ResultSetMetaData rsmd) throws SQLException {
+			int columnCount = rsmd.getColumnCount();
+			this.columns = new String[columnCount];
+			this.types = new int[columnCount];
+			for (int i = 0; i < columnCount; i++) {
+				this.columns[i] = JdbcUtils.lookupColumnName(rsmd, i + 1);
+				this.types[i] = rsmd.getColumnType(i + 1);
+			}
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof ColumnLayout)) {
+				return false;
+			}
+			ColumnLayout otherLayout = (ColumnLayout) other;
+			return (Arrays.equals(this.columns, otherLayout.columns) && Arrays.equals(this.types, otherLayout.types));
+		}
+
+		@Override
+		public int hashCode() {
+			return (ObjectUtils.nullSafeHashCode(this.columns) * 29 + ObjectUtils.nullSafeHashCode(this.types));
+		}
+	}
+
+
+	/**
+	 * The mapping plan resolved for a specific ResultSet, which is held weakly
+	 * and matched by identity for subsequent rows of the same ResultSet.
+	 */
+	private class ResultSetMapping {
+
+		private final WeakReference<ResultSet> resultSet;
+
+		private final CompiledMapping mapping;
+
+		public ResultSetMapping(ResultSet resultSet, CompiledMapping mapping) {
+			this.resultSet = new WeakReference<>(resultSet);
+			this.mapping = mapping;
+		}
+
+		@Nullable
+		public CompiledMapping getMappingFor(ResultSet rs) {
+			return (this.resultSet.get() == rs ? this.mapping : null);
+		}
+	}
+
+
+	/**
+	 * Mapping plan for the rows of ResultSets with a specific column layout,
+	 * with the target property resolved for each mapped column index.
+	 */
+	private class CompiledMapping {
+
+		private final Class<T> mappedClass;
+
+		private final ColumnMapping[] columnMappings;
+
+		public CompiledMapping(Class<T> mappedClass, ColumnMapping[] columnMappings) {
+			this.mappedClass = mappedClass;
+			this.columnMappings = columnMappings;
+		}
+
+		public T mapRow(ResultSet rs, int rowNumber) throws SQLException {
+			T mappedObject = BeanUtils.instantiateClass(this.mappedClass);
+			BeanWrapper bw = null;
+			for (ColumnMapping columnMapping : this.columnMappings) {
+				PropertyDescriptor pd = columnMapping.pd;
+				Object value = getColumnValue(rs, columnMapping.index, pd);
+				if (columnMapping.isDirectlyAssignable(value)) {
+					columnMapping.setValue(mappedObject, value);
+				}
+				else {
+					// Conversion required: go through a BeanWrapper, as in regular mode
+					if (bw == null) {
+						bw = createBeanWrapper(mappedObject);
+					}
+					setPropertyValue(bw, columnMapping.column, pd, value, rowNumber);
+				}
+			}
+			return mappedObject;
+		}
+	}
+
+
+	/**
+	 * Target property for a specific column index, with its writer resolved
+	 * against the generated accessor class for the mapped class.
+	 */
+	private static class ColumnMapping {
+
+		final int index;
+
+		final String column;
+
+		final PropertyDescriptor pd;
+
+		private final PropertyWriter writer;
+
+		public ColumnMapping(int index, String column, PropertyDescriptor pd, PropertyWriter writer) {
+			this.index = index;
+			this.column = column;
+			this.pd = pd;
+			this.writer = writer;
+		}
+
+		public boolean isDirectlyAssignable(@Nullable Object value) {
+			Class<?> propertyType = this.pd.getPropertyType();
+			if (value == null) {
+				return (!propertyType.isPrimitive() && propertyType != Optional.class);
+			}
+			return ClassUtils.isAssignableValue(propertyType, value);
+		}
+
+		public void setValue(Object target, @Nullable Object value) {
+			try {
+				this.writer.setValue(target, value);
+			}
+			catch (InvocationTargetException ex) {
+				throw new MethodInvocationException(
+						new PropertyChangeEvent(target, this.pd.getName(), null, value), ex.getTargetException());
+			}
+			catch (Exception ex) {
+				throw new MethodInvocationException(
+						new PropertyChangeEvent(target, this.pd.getName(), null, value), ex);
+			}
+		}
+	}
+
 }
@@ -0,0 +1,347 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.lang.Nullable;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Batch update for large numbers of rows, streaming its arguments from an
+ * {@link Iterator} or {@link Stream} and sending them to the database in
+ * chunks of a configurable size.
+ *
+ * <p>Unlike {@link JdbcTemplate#batchUpdate(String, java.util.Collection, int,
+ * ParameterizedPreparedStatementSetter)}, arguments are consumed lazily and no
+ * update counts are retained beyond the current chunk: each executed chunk is
+ * reported to an optional {@link BatchProgressCallback}, and {@link #execute}
+ * returns the total number of affected rows.
+ *
+ * <p>By default, all chunks are executed one after another on a single
+ * PreparedStatement. With a {@link #setTaskExecutor task executor}, chunks are
+ * executed concurrently instead, each on a Connection of its own obtained from
+ * the DataSource in the executing thread, while the calling thread keeps reading
+ * arguments for the next chunks. At most {@link #setMaxConcurrentChunks
+ * maxConcurrentChunks} + 1 chunks are held in memory: the ones in progress plus
+ * the next one, read ahead by the calling thread. Concurrent execution
+ * only applies outside of a transaction; within a transaction, chunks are always
+ * executed on the transactional Connection in the calling thread.
+ *
+ * <p>Concurrently executed chunks are committed independently of each other,
+ * so a failure leaves the chunks executed before in place. After a failure, no
+ * further chunks are submitted, and the first failure is rethrown once all
+ * chunks in progress have completed.
+ *
+ * @since 5.2
+ * @param <T> the argument type
+ * @see org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate#chunkedBatchUpdate(String)
+ */
+public class ChunkedBatchUpdate<T> {
+
+	private static final Log logger = LogFactory.getLog(ChunkedBatchUpdate.class);
+
+	private final JdbcOperations jdbcOperations;
+
+	private final String sql;
+
+	private final ParameterizedPreparedStatementSetter<T> pss;
+
+	private int batchSize = 1000;
+
+	@Nullable
+	private Executor taskExecutor;
+
+	private int maxConcurrentChunks = 4;
+
+	@Nullable
+	private BatchProgressCallback progressCallback;
+
+
+	/**
+	 * Create a new {@code ChunkedBatchUpdate} for the given SQL statement.
+	 * @param jdbcOperations the JdbcOperations to execute the chunks with
+	 * @param sql the SQL statement to execute
+	 * @param pss the callback that sets the values for each argument
+	 * on the PreparedStatement
+	 */
+	public ChunkedBatchUpdate(JdbcOperations jdbcOperations, String sql, ParameterizedPreparedStatementSetter<T> pss) {
+		Assert.notNull(jdbcOperations, "JdbcOperations must not be null");
+		Assert.notNull(sql, "SQL must not be null");
+		Assert.notNull(pss, "ParameterizedPreparedStatementSetter must not be null");
+		this.jdbcOperations = jdbcOperations;
+		this.sql = sql;
+		this.pss = pss;
+	}
+
+
+	/**
+	 * Set the number of arguments to send to the database per chunk.
+	 * <p>Default is 1000.
+	 */
+	public void setBatchSize(int batchSize) {
+		Assert.isTrue(batchSize > 0, "Batch size must be greater than 0");
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Return the number of arguments sent to the database per chunk.
+	 */
+	public int getBatchSize() {
+		return this.batchSize;
+	}
+
+	/**
+	 * Set the executor to execute chunks concurrently with, each on a
+	 * Connection of its own, when not running within a transaction.
+	 * <p>Default is none, executing all chunks in the calling thread.
+	 * The executor should provide up to {@link #setMaxConcurrentChunks
+	 * maxConcurrentChunks} threads, with the DataSource providing a
+	 * corresponding number of Connections.
+	 */
+	public void setTaskExecutor(@Nullable Executor taskExecutor) {
+		this.taskExecutor = taskExecutor;
+	}
+
+	/**
+	 * Return the executor to execute chunks concurrently with, if any.
+	 */
+	@Nullable
+	public Executor getTaskExecutor() {
+		return this.taskExecutor;
+	}
+
+	/**
+	 * Set the maximum number of chunks to execute concurrently, when
+	 * running with a {@link #setTaskExecutor task executor}.
+	 * <p>Default is 4. While that many chunks are in progress, the calling
+	 * thread reads one further chunk of arguments and then blocks until
+	 * a chunk completes.
+	 */
+	public void setMaxConcurrentChunks(int maxConcurrentChunks) {
+		Assert.isTrue(maxConcurrentChunks > 0, "Max concurrent chunks must be greater than 0");
+		this.maxConcurrentChunks = maxConcurrentChunks;
+	}
+
+	/**
+	 * Return the maximum number of chunks to execute concurrently.
+	 */
+	public int getMaxConcurrentChunks() {
+		return this.maxConcurrentChunks;
+	}
+
+	/**
+	 * Set a callback to be notified after each executed chunk.
+	 */
+	public void setProgressCallback(@Nullable BatchProgressCallback progressCallback) {
+		this.progressCallback = progressCallback;
+	}
+
+	/**
+	 * Return the callback to be notified after each executed chunk, if any.
+	 */
+	@Nullable
+	public BatchProgressCallback getProgressCallback() {
+		return this.progressCallback;
+	}
+
+
+	/**
+	 * Execute the batch update for all elements of the given Stream,
+	 * closing the Stream once processed.
+	 * @param batchArgs the arguments for the batch
+	 * @return the total number of rows affected, as far as reported by the driver
+	 * @throws org.springframework.dao.DataAccessException if there is any problem
+	 * issuing the update
+	 */
+	public long execute(Stream<? extends T> batchArgs) {
+		try (Stream<? extends T> stream = batchArgs) {
+			return execute(stream.iterator());
+		}
+	}
+
+	/**
+	 * Execute the batch update for all remaining elements of the given Iterator.
+	 * @param batchArgs the arguments for the batch
+	 * @return the total number of rows affected, as far as reported by the driver
+	 * @throws org.springframework.dao.DataAccessException if there is any problem
+	 * issuing the update
+	 */
+	public long execute(Iterator<? extends T> batchArgs) {
+		Assert.notNull(batchArgs, "Batch arguments must not be null");
+		if (logger.isDebugEnabled()) {
+			logger.debug("Executing chunked SQL batch update [" + this.sql + "] with a batch size of " +
+					this.batchSize);
+		}
+		try {
+			Executor executor = this.taskExecutor;
+			if (executor != null && !TransactionSynchronizationManager.isActualTransactionActive() &&
+					!TransactionSynchronizationManager.isSynchronizationActive()) {
+				return executeConcurrently(batchArgs, executor);
+			}
+			return executeSequentially(batchArgs);
+		}
+		finally {
+			if (this.pss instanceof ParameterDisposer) {
+				((ParameterDisposer) this.pss).cleanupParameters();
+			}
+		}
+	}
+
+	private long executeSequentially(Iterator<? extends T> batchArgs) {
+		Long totalRows = this.jdbcOperations.execute(this.sql, (PreparedStatementCallback<Long>) ps -> {
+			boolean batchSupported = isBatchSupported(ps);
+			long rows = 0;
+			int chunkIndex = 0;
+			int[] updateCounts;
+			while ((updateCounts = executeChunk(ps, batchArgs, batchSupported)) != null) {
+				rows += chunkCompleted(chunkIndex++, updateCounts);
+			}
+			return rows;
+		});
+		Assert.state(totalRows != null, "No update count");
+		return totalRows;
+	}
+
+	private long executeConcurrently(Iterator<? extends T> batchArgs, Executor executor) {
+		Semaphore permits = new Semaphore(this.maxConcurrentChunks);
+		AtomicLong totalRows = new AtomicLong();
+		AtomicReference<Throwable> failure = new AtomicReference<>();
+		int chunkIndex = 0;
+		boolean interrupted = false;
+		while (failure.get() == null && batchArgs.hasNext()) {
+			List<T> chunk = new ArrayList<>(this.batchSize);
+			while (chunk.size() < this.batchSize && batchArgs.hasNext()) {
+				chunk.add(batchArgs.next());
+			}
+			try {
+				permits.acquire();
+			}
+			catch (InterruptedException ex) {
+				interrupted = true;
+				failure.compareAndSet(null, new IllegalStateException(
+						"Interrupted while waiting to submit batch update chunk", ex));
+				break;
+			}
+			int index = chunkIndex++;
+			try {
+				executor.execute(() -> {
+					try {
+						int[] updateCounts = this.jdbcOperations.execute(this.sql,
+								(PreparedStatementCallback<int[]>) ps ->
+										executeChunk(ps, chunk.iterator(), isBatchSupported(ps)));
+						Assert.state(updateCounts != null, "No update counts");
+						totalRows.addAndGet(chunkCompleted(index, updateCounts));
+					}
+					catch (Throwable ex) {
+						failure.compareAndSet(null, ex);
+					}
+					finally {
+						permits.release();
+					}
+				});
+			}
+			catch (Throwable ex) {
+				permits.release();
+				failure.compareAndSet(null, ex);
+			}
+		}
+		// Wait for all chunks in progress to complete, even when interrupted:
+		// they may still use the parameters that get cleaned up afterwards
+		permits.acquireUninterruptibly(this.maxConcurrentChunks);
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+
+		Throwable ex = failure.get();
+		if (ex != null) {
+			ReflectionUtils.rethrowRuntimeException(ex);
+		}
+		return totalRows.get();
+	}
+
+	/**
+	 * Execute the next chunk of arguments from the given Iterator.
+	 * @return the update counts for the chunk, or {@code null} if there
+	 * were no further arguments
+	 */
+	@Nullable
+	private int[] executeChunk(PreparedStatement ps, Iterator<? extends T> batchArgs, boolean batchSupported)
+			throws SQLException {
+
+		int[] updateCounts = (batchSupported ? null : new int[this.batchSize]);
+		int count = 0;
+		while (count < this.batchSize && batchArgs.hasNext()) {
+			this.pss.setValues(ps, batchArgs.next());
+			if (updateCounts != null) {
+				updateCounts[count] = ps.executeUpdate();
+			}
+			else {
+				ps.addBatch();
+			}
+			count++;
+		}
+		if (count == 0) {
+			return null;
+		}
+		if (updateCounts != null) {
+			return (count < updateCounts.length ? Arrays.copyOf(updateCounts, count) : updateCounts);
+		}
+		return ps.executeBatch();
+	}
+
+	private boolean isBatchSupported(PreparedStatement ps) throws SQLException {
+		if (!JdbcUtils.supportsBatchUpdates(ps.getConnection())) {
+			logger.debug("JDBC Driver does not support Batch updates; resorting to single statement execution");
+			return false;
+		}
+		return true;
+	}
+
+	private long chunkCompleted(int chunkIndex, int[] updateCounts) {
+		if (logger.isTraceEnabled()) {
+			logger.trace("Executed SQL batch update chunk #" + chunkIndex + " with " + updateCounts.length + " items");
+		}
+		if (this.progressCallback != null) {
+			this.progressCallback.chunkCompleted(chunkIndex, updateCounts);
+		}
+		long rows = 0;
+		for (int updateCount : updateCounts) {
+			if (updateCount > 0) {
+				rows += updateCount;
+			}
+		}
+		return rows;
+	}
+
+}
@@ -35,6 +35,12 @@ import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.BaseStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import javax.sql.DataSource;
 
 import org.springframework.dao.DataAccessException;
@@ -366,30 +372,47 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 	@Override
 	@Nullable
 	public <T> T execute(StatementCallback<T> action) throws DataAccessException {
+		return execute(action, true);
+	}
+
+	/**
+	 * Execute a JDBC data access operation, implemented as callback action
+	 * working on a JDBC Statement.
+	 * @param action the callback object that specifies the action
+	 * @param closeResources whether to close the Statement and release the
+	 * Connection after the action, or to leave that to the returned result
+	 * (in case of successful completion)
+	 * @return a result object returned by the action, or {@code null}
+	 * @throws DataAccessException if there is any problem
+	 */
+	@Nullable
+	private <T> T execute(StatementCallback<T> action, boolean closeResources) throws DataAccessException {
 		Assert.notNull(action, "Callback object must not be null");
 
 		Connection con = DataSourceUtils.getConnection(obtainDataSource());
 		Statement stmt = null;
+		T result = null;
+		boolean completed = false;
 		try {
 			stmt = con.createStatement();
 			applyStatementSettings(stmt);
-			T result = action.doInStatement(stmt);
+			result = action.doInStatement(stmt);
 			handleWarnings(stmt);
+			completed = true;
 			return result;
 		}
 		catch (SQLException ex) {
 			// Release Connection early, to avoid potential connection pool deadlock
 			// in the case when the exception translator hasn't been initialized yet.
 			String sql = getSql(action);
-			JdbcUtils.closeStatement(stmt);
-			stmt = null;
-			DataSourceUtils.releaseConnection(con, getDataSource());
+			releaseResources(result, closeResources, null, stmt, con);
 			con = null;
 			throw translateException("StatementCallback", sql, ex);
 		}
 		finally {
-			JdbcUtils.closeStatement(stmt);
-			DataSourceUtils.releaseConnection(con, getDataSource());
+			if (con != null && (closeResources || !completed)) {
+				releaseResources(result, closeResources, null, stmt, con);
+			}
 		}
 	}
 
@@ -462,6 +485,43 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 		return result(query(sql, new RowMapperResultSetExtractor<>(rowMapper)));
 	}
 
+	@Override
+	public <T> Stream<T> queryForStream(final String sql, final RowMapper<T> rowMapper) throws DataAccessException {
+		Assert.notNull(sql, "SQL must not be null");
+		Assert.notNull(rowMapper, "RowMapper must not be null");
+		if (logger.isDebugEnabled()) {
+			logger.debug("Executing SQL query [" + sql + "]");
+		}
+
+		/**
+		 * Callback to execute the query, leaving the Statement open for the Stream.
+		 */
+		class StreamStatementCallback implements StatementCallback<Stream<T>>, SqlProvider {
+			@Override
+			public Stream<T> doInStatement(Statement stmt) throws SQLException {
+				ResultSet rs = stmt.executeQuery(sql);
+				try {
+					Connection con = stmt.getConnection();
+					return new ResultSetSpliterator<>(rs, rowMapper).stream().onClose(() -> {
+						JdbcUtils.closeResultSet(rs);
+						JdbcUtils.closeStatement(stmt);
+						DataSourceUtils.releaseConnection(con, getDataSource());
+					});
+				}
+				catch (SQLException | RuntimeException | Error ex) {
+					JdbcUtils.closeResultSet(rs);
+					throw ex;
+				}
+			}
+			@Override
+			public String getSql() {
+				return sql;
+			}
+		}
+
+		return result(execute(new StreamStatementCallback(), false));
+	}
+
 	@Override
 	public Map<String, Object> queryForMap(String sql) throws DataAccessException {
 		return result(queryForObject(sql, getColumnMapRowMapper()));
@@ -602,6 +662,24 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 	public <T> T execute(PreparedStatementCreator psc, PreparedStatementCallback<T> action)
 			throws DataAccessException {
 
+		return execute(psc, action, true);
+	}
+
+	/**
+	 * Execute a JDBC data access operation, implemented as callback action
+	 * working on a JDBC PreparedStatement.
+	 * @param psc a callback that creates a PreparedStatement given a Connection
+	 * @param action a callback that specifies the action
+	 * @param closeResources whether to close the PreparedStatement and release
+	 * the Connection after the action, or to leave that to the returned result
+	 * (in case of successful completion)
+	 * @return a result object returned by the action, or {@code null}
+	 * @throws DataAccessException if there is any problem
+	 */
+	@Nullable
+	private <T> T execute(PreparedStatementCreator psc, PreparedStatementCallback<T> action, boolean closeResources)
+			throws DataAccessException {
+
 		Assert.notNull(psc, "PreparedStatementCreator must not be null");
 		Assert.notNull(action, "Callback object must not be null");
 		if (logger.isDebugEnabled()) {
@@ -611,35 +689,56 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 
 		Connection con = DataSourceUtils.getConnection(obtainDataSource());
 		PreparedStatement ps = null;
+		T result = null;
+		boolean completed = false;
 		try {
 			ps = psc.createPreparedStatement(con);
 			applyStatementSettings(ps);
-			T result = action.doInPreparedStatement(ps);
+			result = action.doInPreparedStatement(ps);
 			handleWarnings(ps);
+			completed = true;
 			return result;
 		}
 		catch (SQLException ex) {
 			// Release Connection early, to avoid potential connection pool deadlock
 			// in the case when the exception translator hasn't been initialized yet.
-			if (psc instanceof ParameterDisposer) {
-				((ParameterDisposer) psc).cleanupParameters();
-			}
 			String sql = getSql(psc);
-			JdbcUtils.closeStatement(ps);
-			ps = null;
-			DataSourceUtils.releaseConnection(con, getDataSource());
+			releaseResources(result, closeResources, psc, ps, con);
 			con = null;
 			throw translateException("PreparedStatementCallback", sql, ex);
 		}
 		finally {
-			if (psc instanceof ParameterDisposer) {
-				((ParameterDisposer) psc).cleanupParameters();
+			if (con != null && (closeResources || !completed)) {
+				releaseResources(result, closeResources, psc, ps, con);
 			}
-			JdbcUtils.closeStatement(ps);
-			DataSourceUtils.releaseConnection(con, getDataSource());
 		}
 	}
 
+	/**
+	 * Release the resources of an execute call, after completion or failure.
+	 * <p>A result that was meant to leave resource cleanup to the caller, i.e.
+	 * a Stream, has taken over the resources already: it gets closed instead,
+	 * e.g. if the result was not handed to the caller because of a warning.
+	 * @param result the result of the callback action, if any
+	 * @param closeResources whether the resources are closed after the action
+	 * @param disposer the PreparedStatementCreator to clean up, if any
+	 * @param stmt the Statement to close, if any
+	 * @param con the Connection to release
+	 */
+	private void releaseResources(@Nullable Object result, boolean closeResources,
+			@Nullable Object disposer, @Nullable Statement stmt, Connection con) {
+
+		if (!closeResources && result instanceof BaseStream) {
+			((BaseStream<?, ?>) result).close();
+			return;
+		}
+		if (disposer instanceof ParameterDisposer) {
+			((ParameterDisposer) disposer).cleanupParameters();
+		}
+		JdbcUtils.closeStatement(stmt);
+		DataSourceUtils.releaseConnection(con, getDataSource());
+	}
+
 	@Override
 	@Nullable
 	public <T> T execute(String sql, PreparedStatementCallback<T> action) throws DataAccessException {
@@ -768,6 +867,79 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 		return result(query(sql, args, new RowMapperResultSetExtractor<>(rowMapper)));
 	}
 
+	/**
+	 * Query using a prepared statement, allowing for a PreparedStatementCreator
+	 * and a PreparedStatementSetter, and turning the mapped rows into a Stream.
+	 * The PreparedStatement and the Connection are kept open until the Stream
+	 * is closed.
+	 * @param psc a callback that creates a PreparedStatement given a Connection
+	 * @param pss a callback that knows how to set values on the prepared statement.
+	 * If this is {@code null}, the SQL will be assumed to contain no bind parameters.
+	 * @param rowMapper a callback that will map one object per row
+	 * @return the result Stream, containing mapped objects, needing to be
+	 * closed once fully processed (e.g. through a try-with-resources clause)
+	 * @throws DataAccessException if the query fails
+	 * @since 5.2
+	 */
+	public <T> Stream<T> queryForStream(PreparedStatementCreator psc, @Nullable PreparedStatementSetter pss,
+			RowMapper<T> rowMapper) throws DataAccessException {
+
+		Assert.notNull(rowMapper, "RowMapper must not be null");
+		logger.debug("Executing prepared SQL query for Stream");
+
+		return result(execute(psc, ps -> {
+			ResultSet rs = null;
+			try {
+				if (pss != null) {
+					pss.setValues(ps);
+				}
+				ResultSet resultSet = ps.executeQuery();
+				rs = resultSet;
+				Connection con = ps.getConnection();
+				return new ResultSetSpliterator<>(resultSet, rowMapper).stream().onClose(() -> {
+					JdbcUtils.closeResultSet(resultSet);
+					if (pss instanceof ParameterDisposer) {
+						((ParameterDisposer) pss).cleanupParameters();
+					}
+					if (psc instanceof ParameterDisposer) {
+						((ParameterDisposer) psc).cleanupParameters();
+					}
+					JdbcUtils.closeStatement(ps);
+					DataSourceUtils.releaseConnection(con, getDataSource());
+				});
+			}
+			catch (SQLException | RuntimeException | Error ex) {
+				// Not handed over to a Stream: the Statement and Connection get released by execute
+				JdbcUtils.closeResultSet(rs);
+				if (pss instanceof ParameterDisposer) {
+					((ParameterDisposer) pss).cleanupParameters();
+				}
+				throw ex;
+			}
+		}, false));
+	}
+
+	@Override
+	public <T> Stream<T> queryForStream(PreparedStatementCreator psc, RowMapper<T> rowMapper)
+			throws DataAccessException {
+
+		return queryForStream(psc, null, rowMapper);
+	}
+
+	@Override
+	public <T> Stream<T> queryForStream(String sql, @Nullable PreparedStatementSetter pss, RowMapper<T> rowMapper)
+			throws DataAccessException {
+
+		return queryForStream(new SimplePreparedStatementCreator(sql), pss, rowMapper);
+	}
+
+	@Override
+	public <T> Stream<T> queryForStream(String sql, RowMapper<T> rowMapper, @Nullable Object... args)
+			throws DataAccessException {
+
+		return queryForStream(new SimplePreparedStatementCreator(sql), newArgPreparedStatementSetter(args), rowMapper);
+	}
+
 	@Override
 	@Nullable
 	public <T> T queryForObject(String sql, Object[] args, int[] argTypes, RowMapper<T> rowMapper)
@@ -1581,4 +1753,45 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 		}
 	}
 
+
+	/**
+	 * Spliterator for queryForStream adaptation of a ResultSet to a Stream.
+	 * <p>Rows are read and mapped sequentially; for a parallel Stream, the
+	 * inherited {@link #trySplit()} hands out batches of mapped rows for
+	 * concurrent processing downstream.
+	 * @since 5.2
+	 */
+	private class ResultSetSpliterator<T> extends Spliterators.AbstractSpliterator<T> {
+
+		private final ResultSet rs;
+
+		private final RowMapper<T> rowMapper;
+
+		private int rowNum = 0;
+
+		public ResultSetSpliterator(ResultSet rs, RowMapper<T> rowMapper) {
+			super(Long.MAX_VALUE, Spliterator.ORDERED);
+			this.rs = rs;
+			this.rowMapper = rowMapper;
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super T> action) {
+			try {
+				if (this.rs.next()) {
+					action.accept(this.rowMapper.mapRow(this.rs, this.rowNum++));
+					return true;
+				}
+				return false;
+			}
+			catch (SQLException ex) {
+				throw translateException("ResultSetSpliterator", null, ex);
+			}
+		}
+
+		public Stream<T> stream() {
+			return StreamSupport.stream(this, false);
+		}
+	}
+
 }
@@ -45,9 +45,7 @@ public abstract class NamedParameterBatchUpdateUtils extends BatchUpdateUtils {
 				new BatchPreparedStatementSetter() {
 					@Override
 					public void setValues(PreparedStatement ps, int i) throws SQLException {
-						Object[] values = NamedParameterUtils.buildValueArray(parsedSql, batchArgs[i], null);
-						int[] columnTypes = NamedParameterUtils.buildSqlTypeArray(parsedSql, batchArgs[i]);
-						setStatementParameters(values, ps, columnTypes);
+						setStatementParameters(parsedSql, batchArgs[i], ps);
 					}
 					@Override
 					public int getBatchSize() {
@@ -56,4 +54,20 @@ public abstract class NamedParameterBatchUpdateUtils extends BatchUpdateUtils {
 				});
 	}
 
+	/**
+	 * Set the values of the given parameter source on the given PreparedStatement.
+	 * @param parsedSql the parsed SQL statement
+	 * @param paramSource the source for named parameters
+	 * @param ps the PreparedStatement to set the values on
+	 * @throws SQLException if thrown by PreparedStatement methods
+	 * @since 5.2
+	 */
+	static void setStatementParameters(ParsedSql parsedSql, SqlParameterSource paramSource, PreparedStatement ps)
+			throws SQLException {
+
+		Object[] values = NamedParameterUtils.buildValueArray(parsedSql, paramSource, null);
+		int[] columnTypes = NamedParameterUtils.buildSqlTypeArray(parsedSql, paramSource);
+		setStatementParameters(values, ps, columnTypes);
+	}
+
 }
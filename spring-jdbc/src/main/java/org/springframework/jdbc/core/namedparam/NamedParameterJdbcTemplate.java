@@ -16,14 +16,21 @@
 
 package org.springframework.jdbc.core.namedparam;
 
-import java.util.LinkedHashMap;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Consumer;
+import java.util.stream.Stream;
 import javax.sql.DataSource;
 
 import org.springframework.dao.DataAccessException;
 import org.springframework.dao.support.DataAccessUtils;
+import org.springframework.jdbc.core.ChunkedBatchUpdate;
 import org.springframework.jdbc.core.ColumnMapRowMapper;
 import org.springframework.jdbc.core.JdbcOperations;
 import org.springframework.jdbc.core.JdbcTemplate;
@@ -35,6 +42,7 @@ import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.SingleColumnRowMapper;
 import org.springframework.jdbc.core.SqlParameter;
+import org.springframework.jdbc.core.SqlParameterValue;
 import org.springframework.jdbc.core.SqlRowSetResultSetExtractor;
 import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.jdbc.support.rowset.SqlRowSet;
@@ -67,21 +75,28 @@ public class NamedParameterJdbcTemplate implements NamedParameterJdbcOperations
 	/** Default maximum number of entries for this template's SQL cache: 256. */
 	public static final int DEFAULT_CACHE_LIMIT = 256;
 
+	/** Maximum number of distinct parameter shapes cached per SQL statement. */
+	private static final int STATEMENT_SHAPE_LIMIT = 64;
+
 
 	/** The JdbcTemplate we are wrapping. */
 	private final JdbcOperations classicJdbcTemplate;
 
 	private volatile int cacheLimit = DEFAULT_CACHE_LIMIT;
 
-	/** Cache of original SQL String to ParsedSql representation. */
-	@SuppressWarnings("serial")
-	private final Map<String, ParsedSql> parsedSqlCache =
-			new LinkedHashMap<String, ParsedSql>(DEFAULT_CACHE_LIMIT, 0.75f, true) {
-				@Override
-				protected boolean removeEldestEntry(Map.Entry<String, ParsedSql> eldest) {
-					return size() > getCacheLimit();
-				}
-			};
+	/** Cache of original SQL String to parsed representation and derived statements. */
+	private final Map<String, CachedSql> sqlCache = new ConcurrentHashMap<>(DEFAULT_CACHE_LIMIT);
+
+	/** Keys of the SQL cache in insertion order, for evicting the oldest entries. */
+	private final Queue<String> sqlCacheKeys = new ConcurrentLinkedQueue<>();
+
+	private final LongAdder parsedSqlCacheHits = new LongAdder();
+
+	private final LongAdder parsedSqlCacheMisses = new LongAdder();
+
+	private final LongAdder statementCacheHits = new LongAdder();
+
+	private final LongAdder statementCacheMisses = new LongAdder();
 
 
 	/**
@@ -141,6 +156,63 @@ public class NamedParameterJdbcTemplate implements NamedParameterJdbcOperations
 		return this.cacheLimit;
 	}
 
+	/**
+	 * Return the number of SQL statements currently held in this template's SQL cache.
+	 * @since 5.2
+	 */
+	public int getCacheSize() {
+		return this.sqlCache.size();
+	}
+
+	/**
+	 * Return the number of parsed SQL lookups served from this template's SQL cache.
+	 * @since 5.2
+	 * @see #getParsedSql(String)
+	 */
+	public long getParsedSqlCacheHitCount() {
+		return this.parsedSqlCacheHits.sum();
+	}
+
+	/**
+	 * Return the number of parsed SQL lookups that required parsing the SQL statement.
+	 * @since 5.2
+	 * @see #getParsedSql(String)
+	 */
+	public long getParsedSqlCacheMissCount() {
+		return this.parsedSqlCacheMisses.sum();
+	}
+
+	/**
+	 * Return the number of statement preparations that reused the expanded SQL
+	 * and {@link PreparedStatementCreatorFactory} for the same parameter shape,
+	 * i.e. the same parameter types and collection sizes.
+	 * @since 5.2
+	 * @see #getPreparedStatementCreator(String, SqlParameterSource)
+	 */
+	public long getStatementCacheHitCount() {
+		return this.statementCacheHits.sum();
+	}
+
+	/**
+	 * Return the number of statement preparations that required substituting
+	 * the named parameters and creating a new {@link PreparedStatementCreatorFactory}.
+	 * @since 5.2
+	 * @see #getPreparedStatementCreator(String, SqlParameterSource)
+	 */
+	public long getStatementCacheMissCount() {
+		return this.statementCacheMisses.sum();
+	}
+
+	/**
+	 * Remove all entries from this template's SQL cache.
+	 * The hit and miss counts are not reset.
+	 * @since 5.2
+	 */
+	public void clearCache() {
+		this.sqlCache.clear();
+		this.sqlCacheKeys.clear();
+	}
+
 
 	@Override
 	@Nullable
@@ -219,6 +291,20 @@ public class NamedParameterJdbcTemplate implements NamedParameterJdbcOperations
 		return query(sql, new MapSqlParameterSource(paramMap), rowMapper);
 	}
 
+	@Override
+	public <T> Stream<T> queryForStream(String sql, SqlParameterSource paramSource, RowMapper<T> rowMapper)
+			throws DataAccessException {
+
+		return getJdbcOperations().queryForStream(getPreparedStatementCreator(sql, paramSource), rowMapper);
+	}
+
+	@Override
+	public <T> Stream<T> queryForStream(String sql, Map<String, ?> paramMap, RowMapper<T> rowMapper)
+			throws DataAccessException {
+
+		return queryForStream(sql, new MapSqlParameterSource(paramMap), rowMapper);
+	}
+
 	@Override
 	public <T> List<T> query(String sql, RowMapper<T> rowMapper) throws DataAccessException {
 		return query(sql, EmptySqlParameterSource.INSTANCE, rowMapper);
@@ -356,6 +442,26 @@ public class NamedParameterJdbcTemplate implements NamedParameterJdbcOperations
 				getParsedSql(sql), batchArgs, getJdbcOperations());
 	}
 
+	/**
+	 * Create a {@link ChunkedBatchUpdate} for the given SQL statement with
+	 * named parameters, for streaming large numbers of parameter sources to
+	 * the database in chunks.
+	 * <p>The SQL statement is parsed and its named parameters are substituted
+	 * once, upfront; each parameter source only contributes its values. Hence,
+	 * named parameters that expand to a collection of values are not supported.
+	 * @param sql the SQL statement to execute
+	 * @return the batch update, to be configured and executed by the caller
+	 * @since 5.2
+	 * @see ChunkedBatchUpdate#execute(java.util.Iterator)
+	 * @see ChunkedBatchUpdate#execute(java.util.stream.Stream)
+	 */
+	public ChunkedBatchUpdate<SqlParameterSource> chunkedBatchUpdate(String sql) {
+		ParsedSql parsedSql = getParsedSql(sql);
+		String sqlToUse = NamedParameterUtils.substituteNamedParameters(parsedSql, null);
+		return new ChunkedBatchUpdate<>(getJdbcOperations(), sqlToUse, (ps, paramSource) ->
+				NamedParameterBatchUpdateUtils.setStatementParameters(parsedSql, paramSource, ps));
+	}
+
 
 	/**
 	 * Build a {@link PreparedStatementCreator} based on the given SQL and named parameters.
@@ -389,11 +495,15 @@ public class NamedParameterJdbcTemplate implements NamedParameterJdbcOperations
 			@Nullable Consumer<PreparedStatementCreatorFactory> customizer) {
 
 		ParsedSql parsedSql = getParsedSql(sql);
-		String sqlToUse = NamedParameterUtils.substituteNamedParameters(parsedSql, paramSource);
-		List<SqlParameter> declaredParameters = NamedParameterUtils.buildSqlParameterList(parsedSql, paramSource);
-		PreparedStatementCreatorFactory pscf = new PreparedStatementCreatorFactory(sqlToUse, declaredParameters);
-		if (customizer != null) {
-			customizer.accept(pscf);
+		PreparedStatementCreatorFactory pscf = null;
+		if (customizer == null) {
+			pscf = getCachedPreparedStatementCreatorFactory(sql, parsedSql, paramSource);
+		}
+		if (pscf == null) {
+			pscf = createPreparedStatementCreatorFactory(parsedSql, paramSource);
+			if (customizer != null) {
+				customizer.accept(pscf);
+			}
 		}
 		Object[] params = NamedParameterUtils.buildValueArray(parsedSql, paramSource, null);
 		return pscf.newPreparedStatementCreator(params);
@@ -401,21 +511,174 @@ public class NamedParameterJdbcTemplate implements NamedParameterJdbcOperations
 
 	/**
 	 * Obtain a parsed representation of the given SQL statement.
-	 * <p>The default implementation uses an LRU cache with an upper limit of 256 entries.
+	 * <p>The default implementation uses a cache with an upper limit of 256 entries,
+	 * evicting the oldest entries first. Lookups do not block each other.
 	 * @param sql the original SQL statement
 	 * @return a representation of the parsed SQL statement
+	 * @see #setCacheLimit
 	 */
 	protected ParsedSql getParsedSql(String sql) {
-		if (getCacheLimit() <= 0) {
+		int cacheLimit = getCacheLimit();
+		if (cacheLimit <= 0) {
+			this.parsedSqlCacheMisses.increment();
 			return NamedParameterUtils.parseSqlStatement(sql);
 		}
-		synchronized (this.parsedSqlCache) {
-			ParsedSql parsedSql = this.parsedSqlCache.get(sql);
-			if (parsedSql == null) {
-				parsedSql = NamedParameterUtils.parseSqlStatement(sql);
-				this.parsedSqlCache.put(sql, parsedSql);
+		CachedSql cachedSql = this.sqlCache.get(sql);
+		if (cachedSql != null) {
+			this.parsedSqlCacheHits.increment();
+			return cachedSql.parsedSql;
+		}
+		this.parsedSqlCacheMisses.increment();
+		cachedSql = new CachedSql(NamedParameterUtils.parseSqlStatement(sql));
+		CachedSql existing = this.sqlCache.putIfAbsent(sql, cachedSql);
+		if (existing != null) {
+			return existing.parsedSql;
+		}
+		this.sqlCacheKeys.add(sql);
+		while (this.sqlCache.size() > cacheLimit) {
+			String eldest = this.sqlCacheKeys.poll();
+			if (eldest == null) {
+				break;
+			}
+			this.sqlCache.remove(eldest);
+		}
+		return cachedSql.parsedSql;
+	}
+
+	/**
+	 * Obtain the cached {@link PreparedStatementCreatorFactory} for the given
+	 * parameter shape, creating and caching it if necessary.
+	 * @return the factory, or {@code null} if the given ParsedSql has not been
+	 * obtained from this template's SQL cache
+	 */
+	@Nullable
+	private PreparedStatementCreatorFactory getCachedPreparedStatementCreatorFactory(
+			String sql, ParsedSql parsedSql, SqlParameterSource paramSource) {
+
+		CachedSql cachedSql = this.sqlCache.get(sql);
+		if (cachedSql == null || cachedSql.parsedSql != parsedSql) {
+			return null;
+		}
+		ParameterShape shape = new ParameterShape(parsedSql, paramSource);
+		PreparedStatementCreatorFactory pscf = cachedSql.factories.get(shape);
+		if (pscf != null) {
+			this.statementCacheHits.increment();
+			return pscf;
+		}
+		this.statementCacheMisses.increment();
+		pscf = createPreparedStatementCreatorFactory(parsedSql, paramSource);
+		if (cachedSql.factories.size() < STATEMENT_SHAPE_LIMIT) {
+			PreparedStatementCreatorFactory existing = cachedSql.factories.putIfAbsent(shape, pscf);
+			if (existing != null) {
+				return existing;
+			}
+		}
+		return pscf;
+	}
+
+	private PreparedStatementCreatorFactory createPreparedStatementCreatorFactory(
+			ParsedSql parsedSql, SqlParameterSource paramSource) {
+
+		String sqlToUse = NamedParameterUtils.substituteNamedParameters(parsedSql, paramSource);
+		List<SqlParameter> declaredParameters = NamedParameterUtils.buildSqlParameterList(parsedSql, paramSource);
+		return new PreparedStatementCreatorFactory(sqlToUse, declaredParameters);
+	}
+
+
+	/**
+	 * Cache entry for a parsed SQL statement, along with the statement
+	 * factories derived from it per parameter shape.
+	 */
+	private static class CachedSql {
+
+		final ParsedSql parsedSql;
+
+		final Map<ParameterShape, PreparedStatementCreatorFactory> factories = new ConcurrentHashMap<>(4);
+
+		public CachedSql(ParsedSql parsedSql) {
+			this.parsedSql = parsedSql;
+		}
+	}
+
+
+	/**
+	 * Key for the characteristics of a parameter source that determine the
+	 * substituted SQL and the declared parameters: per named parameter in the
+	 * statement, its SQL type and type name, whether it has a value, and the
+	 * size of collection values (including the lengths of array elements).
+	 */
+	private static final class ParameterShape {
+
+		private static final int NO_VALUE = -1;
+
+		private static final int SINGLE_VALUE = -2;
+
+		private final int[] codes;
+
+		@Nullable
+		private final String[] typeNames;
+
+		private final int hashCode;
+
+		public ParameterShape(ParsedSql parsedSql, SqlParameterSource paramSource) {
+			List<String> paramNames = parsedSql.getParameterNames();
+			int[] codes = new int[paramNames.size() * 2];
+			int count = 0;
+			String[] typeNames = null;
+			for (int i = 0; i < paramNames.size(); i++) {
+				String paramName = paramNames.get(i);
+				String typeName = paramSource.getTypeName(paramName);
+				if (typeName != null) {
+					if (typeNames == null) {
+						typeNames = new String[paramNames.size()];
+					}
+					typeNames[i] = typeName;
+				}
+				codes = ensureCapacity(codes, count + 2);
+				codes[count++] = paramSource.getSqlType(paramName);
+				if (!paramSource.hasValue(paramName)) {
+					codes[count++] = NO_VALUE;
+					continue;
+				}
+				Object value = paramSource.getValue(paramName);
+				if (value instanceof SqlParameterValue) {
+					value = ((SqlParameterValue) value).getValue();
+				}
+				if (!(value instanceof Collection)) {
+					codes[count++] = SINGLE_VALUE;
+					continue;
+				}
+				Collection<?> entries = (Collection<?>) value;
+				codes[count++] = entries.size();
+				codes = ensureCapacity(codes, count + entries.size());
+				for (Object entry : entries) {
+					codes[count++] = (entry instanceof Object[] ? ((Object[]) entry).length + 1 : 0);
+				}
 			}
-			return parsedSql;
+			this.codes = (count < codes.length ? Arrays.copyOf(codes, count) : codes);
+			this.typeNames = typeNames;
+			this.hashCode = Arrays.hashCode(this.codes) * 29 + Arrays.hashCode(this.typeNames);
+		}
+
+		private static int[] ensureCapacity(int[] codes, int capacity) {
+			return (capacity > codes.length ? Arrays.copyOf(codes, Math.max(capacity, codes.length * 2)) : codes);
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof ParameterShape)) {
+				return false;
+			}
+			ParameterShape otherShape = (ParameterShape) other;
+			return (Arrays.equals(this.codes, otherShape.codes) && Arrays.equals(this.typeNames, otherShape.typeNames));
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hashCode;
 		}
 	}
 
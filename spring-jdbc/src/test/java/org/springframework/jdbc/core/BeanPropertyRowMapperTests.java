@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2018 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,13 +16,16 @@
 
 package org.springframework.jdbc.core;
 
+import java.beans.PropertyEditorSupport;
 import java.util.List;
 
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
+import org.springframework.beans.BeanWrapper;
 import org.springframework.beans.TypeMismatchException;
+import org.springframework.core.convert.support.DefaultConversionService;
 import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.jdbc.core.test.ConcretePerson;
 import org.springframework.jdbc.core.test.DatePerson;
@@ -31,6 +34,7 @@ import org.springframework.jdbc.core.test.Person;
 import org.springframework.jdbc.core.test.SpacePerson;
 
 import static org.junit.Assert.*;
+import static org.mockito.BDDMockito.*;
 
 /**
  * @author Thomas Risberg
@@ -119,6 +123,152 @@ public class BeanPropertyRowMapperTests extends AbstractRowMapperTests {
 				"select name, null as age, birth_date, balance from people", mapper);
 	}
 
+	@Test
+	public void testStaticQueryWithGeneratedPropertyAccess() throws Exception {
+		BeanPropertyRowMapper<ConcretePerson> mapper = new BeanPropertyRowMapper<>(ConcretePerson.class);
+		mapper.setGeneratedPropertyAccess(true);
+		Mock mock = new Mock();
+		List<ConcretePerson> result = mock.getJdbcTemplate().query(
+				"select name, age, birth_date, balance from people", mapper);
+		assertEquals(1, result.size());
+		verifyPerson(result.get(0));
+		mock.verifyClosed();
+	}
+
+	@Test
+	public void testMappingNullValueWithGeneratedPropertyAccess() throws Exception {
+		BeanPropertyRowMapper<Person> mapper = new BeanPropertyRowMapper<>(Person.class);
+		mapper.setGeneratedPropertyAccess(true);
+		Mock mock = new Mock(MockType.TWO);
+		thrown.expect(TypeMismatchException.class);
+		mock.getJdbcTemplate().query(
+				"select name, null as age, birth_date, balance from people", mapper);
+	}
+
+	@Test
+	public void testCompiledMapping() throws Exception {
+		BeanPropertyRowMapper<ConcretePerson> mapper = new BeanPropertyRowMapper<>(ConcretePerson.class, true);
+		mapper.setCompiledMapping(true);
+		Mock mock = new Mock();
+		List<ConcretePerson> result = mock.getJdbcTemplate().query(
+				"select name, age, birth_date, balance from people", mapper);
+		assertEquals(1, result.size());
+		verifyPerson(result.get(0));
+		mock.verifyClosed();
+	}
+
+	@Test
+	public void testCompiledMappingPerColumnLayout() throws Exception {
+		BeanPropertyRowMapper<Person> mapper = new BeanPropertyRowMapper<>(Person.class);
+		mapper.setCompiledMapping(true);
+		Mock mock = new Mock();
+		verifyPerson(mapper.mapRow(mock.getResultSet(), 0));
+		verifyPerson(mapper.mapRow(new Mock().getResultSet(), 0));
+
+		Mock other = new Mock(MockType.THREE);
+		Person person = mapper.mapRow(other.getResultSet(), 0);
+		assertNull(person.getName());
+		assertEquals(22L, person.getAge());
+		verifyPerson(mapper.mapRow(mock.getResultSet(), 1));
+	}
+
+	@Test
+	public void testCompiledMappingResolvedOncePerResultSet() throws Exception {
+		BeanPropertyRowMapper<Person> mapper = new BeanPropertyRowMapper<>(Person.class);
+		mapper.setCompiledMapping(true);
+		verifyPerson(mapper.mapRow(new Mock().getResultSet(), 0));
+
+		Mock mock = new Mock();
+		for (int i = 0; i < 3; i++) {
+			verifyPerson(mapper.mapRow(mock.getResultSet(), i));
+		}
+		verify(mock.getResultSet(), times(1)).getMetaData();
+	}
+
+	@Test
+	public void testCompiledMappingWithCheckFullyPopulatedChanged() throws Exception {
+		BeanPropertyRowMapper<ExtendedPerson> mapper = new BeanPropertyRowMapper<>(ExtendedPerson.class);
+		mapper.setCompiledMapping(true);
+		Mock mock = new Mock();
+		assertEquals("Bubba", mapper.mapRow(mock.getResultSet(), 0).getName());
+		mapper.setCheckFullyPopulated(true);
+		thrown.expect(InvalidDataAccessApiUsageException.class);
+		mapper.mapRow(mock.getResultSet(), 1);
+	}
+
+	@Test
+	public void testCompiledMappingWithCustomBeanWrapperInitialization() throws Exception {
+		BeanPropertyRowMapper<Person> mapper = new BeanPropertyRowMapper<Person>(Person.class) {
+			@Override
+			protected void initBeanWrapper(BeanWrapper bw) {
+				super.initBeanWrapper(bw);
+				bw.registerCustomEditor(String.class, "name", new PropertyEditorSupport() {
+					@Override
+					public void setAsText(String text) {
+						setValue(text.toUpperCase());
+					}
+				});
+			}
+		};
+		mapper.setCompiledMapping(true);
+		Mock mock = new Mock();
+		assertEquals("BUBBA", mapper.mapRow(mock.getResultSet(), 0).getName());
+	}
+
+	@Test
+	public void testCompiledMappingWithCustomConversionService() throws Exception {
+		DefaultConversionService conversionService = new DefaultConversionService();
+		conversionService.addConverter(String.class, String.class, String::toUpperCase);
+		BeanPropertyRowMapper<Person> mapper = new BeanPropertyRowMapper<>(Person.class);
+		mapper.setCompiledMapping(true);
+		mapper.setConversionService(conversionService);
+		Mock mock = new Mock();
+		assertEquals("BUBBA", mapper.mapRow(mock.getResultSet(), 0).getName());
+	}
+
+	@Test
+	public void testCompiledMappingWithConversion() throws Exception {
+		BeanPropertyRowMapper<SpacePerson> mapper = new BeanPropertyRowMapper<>(SpacePerson.class);
+		mapper.setCompiledMapping(true);
+		Mock mock = new Mock(MockType.THREE);
+		List<SpacePerson> result = mock.getJdbcTemplate().query(
+				"select last_name as \"Last Name\", age, birth_date, balance from people", mapper);
+		assertEquals(1, result.size());
+		verifyPerson(result.get(0));
+		mock.verifyClosed();
+	}
+
+	@Test
+	public void testCompiledMappingWithUnpopulatedFieldsNotAccepted() throws Exception {
+		BeanPropertyRowMapper<ExtendedPerson> mapper = new BeanPropertyRowMapper<>(ExtendedPerson.class, true);
+		mapper.setCompiledMapping(true);
+		Mock mock = new Mock();
+		thrown.expect(InvalidDataAccessApiUsageException.class);
+		mock.getJdbcTemplate().query("select name, age, birth_date, balance from people", mapper);
+	}
+
+	@Test
+	public void testCompiledMappingNullValue() throws Exception {
+		BeanPropertyRowMapper<Person> mapper = new BeanPropertyRowMapper<>(Person.class);
+		mapper.setCompiledMapping(true);
+		Mock mock = new Mock(MockType.TWO);
+		thrown.expect(TypeMismatchException.class);
+		mock.getJdbcTemplate().query(
+				"select name, null as age, birth_date, balance from people", mapper);
+	}
+
+	@Test
+	public void testCompiledMappingNullValueWithPrimitivesDefaulted() throws Exception {
+		BeanPropertyRowMapper<Person> mapper = new BeanPropertyRowMapper<>(Person.class);
+		mapper.setCompiledMapping(true);
+		mapper.setPrimitivesDefaultedForNullValue(true);
+		Mock mock = new Mock(MockType.TWO);
+		List<Person> result = mock.getJdbcTemplate().query(
+				"select name, null as age, birth_date, balance from people", mapper);
+		assertEquals(1, result.size());
+		assertEquals(0L, result.get(0).getAge());
+	}
+
 	@Test
 	public void testQueryWithSpaceInColumnNameAndLocalDateTime() throws Exception {
 		Mock mock = new Mock(MockType.THREE);
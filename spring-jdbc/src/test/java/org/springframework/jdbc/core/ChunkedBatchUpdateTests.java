@@ -0,0 +1,242 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.IntStream;
+import javax.sql.DataSource;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.support.SQLStateSQLExceptionTranslator;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.Assert.*;
+import static org.mockito.BDDMockito.*;
+
+/**
+ * Tests for {@link ChunkedBatchUpdate}.
+ *
+ * @since 5.2
+ */
+public class ChunkedBatchUpdateTests {
+
+	private static final String SQL = "INSERT INTO NOSUCHTABLE (ID) VALUES (?)";
+
+	private final AtomicInteger connectionCount = new AtomicInteger();
+
+	private final Map<Object, Integer> setValues = new ConcurrentHashMap<>();
+
+	private volatile boolean failOnExecute;
+
+	private DataSource dataSource;
+
+	private JdbcTemplate template;
+
+	private ExecutorService executor;
+
+
+	@Before
+	public void setup() throws Exception {
+		this.dataSource = mock(DataSource.class);
+		given(this.dataSource.getConnection()).willAnswer(invocation -> createConnection());
+		this.template = new JdbcTemplate(this.dataSource);
+		this.template.setExceptionTranslator(new SQLStateSQLExceptionTranslator());
+		this.executor = Executors.newFixedThreadPool(3);
+	}
+
+	@After
+	public void shutdown() {
+		this.executor.shutdownNow();
+	}
+
+	private Connection createConnection() throws SQLException {
+		this.connectionCount.incrementAndGet();
+		Connection connection = mock(Connection.class);
+		DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+		given(metaData.supportsBatchUpdates()).willReturn(true);
+		given(connection.getMetaData()).willReturn(metaData);
+		given(connection.prepareStatement(SQL)).willAnswer(invocation -> createPreparedStatement(connection));
+		return connection;
+	}
+
+	private PreparedStatement createPreparedStatement(Connection connection) throws SQLException {
+		AtomicInteger batchCount = new AtomicInteger();
+		PreparedStatement ps = mock(PreparedStatement.class);
+		given(ps.getConnection()).willReturn(connection);
+		willAnswer(invocation -> this.setValues.merge(invocation.getArgument(1), 1, Integer::sum))
+				.given(ps).setObject(eq(1), any());
+		willAnswer(invocation -> batchCount.incrementAndGet()).given(ps).addBatch();
+		given(ps.executeBatch()).willAnswer(invocation -> {
+			if (this.failOnExecute) {
+				throw new SQLException("expected");
+			}
+			int[] updateCounts = new int[batchCount.getAndSet(0)];
+			Arrays.fill(updateCounts, 1);
+			return updateCounts;
+		});
+		return ps;
+	}
+
+	private ChunkedBatchUpdate<Integer> createBatchUpdate() {
+		ChunkedBatchUpdate<Integer> batchUpdate = new ChunkedBatchUpdate<>(this.template, SQL,
+				(ps, id) -> ps.setObject(1, id));
+		batchUpdate.setBatchSize(10);
+		return batchUpdate;
+	}
+
+
+	@Test
+	public void executeSequentially() {
+		ChunkedBatchUpdate<Integer> batchUpdate = createBatchUpdate();
+		List<String> chunks = new CopyOnWriteArrayList<>();
+		batchUpdate.setProgressCallback((chunkIndex, updateCounts) -> chunks.add(chunkIndex + ":" + updateCounts.length));
+
+		assertEquals(25, batchUpdate.execute(IntStream.range(0, 25).boxed()));
+		assertEquals(Arrays.asList("0:10", "1:10", "2:5"), chunks);
+		assertEquals(1, this.connectionCount.get());
+		assertEquals(25, this.setValues.size());
+	}
+
+	@Test
+	public void executeEmpty() {
+		ChunkedBatchUpdate<Integer> batchUpdate = createBatchUpdate();
+		batchUpdate.setProgressCallback((chunkIndex, updateCounts) -> fail("Unexpected chunk"));
+		assertEquals(0, batchUpdate.execute(IntStream.range(0, 0).boxed()));
+	}
+
+	@Test
+	public void executeConcurrently() {
+		ChunkedBatchUpdate<Integer> batchUpdate = createBatchUpdate();
+		batchUpdate.setTaskExecutor(this.executor);
+		batchUpdate.setMaxConcurrentChunks(3);
+		AtomicInteger chunks = new AtomicInteger();
+		batchUpdate.setProgressCallback((chunkIndex, updateCounts) -> chunks.incrementAndGet());
+
+		assertEquals(1000, batchUpdate.execute(IntStream.range(0, 1000).boxed().iterator()));
+		assertEquals(100, chunks.get());
+		assertEquals(100, this.connectionCount.get());
+		assertEquals(1000, this.setValues.size());
+		assertTrue(this.setValues.values().stream().allMatch(count -> count == 1));
+	}
+
+	@Test
+	public void executeConcurrentlyWithFailure() {
+		ChunkedBatchUpdate<Integer> batchUpdate = createBatchUpdate();
+		batchUpdate.setTaskExecutor(this.executor);
+		this.failOnExecute = true;
+		try {
+			batchUpdate.execute(IntStream.range(0, 1000).boxed().iterator());
+			fail("Should have thrown DataAccessException");
+		}
+		catch (DataAccessException ex) {
+			assertTrue(ex.getCause() instanceof SQLException);
+		}
+		assertTrue(this.connectionCount.get() < 100);
+	}
+
+	@Test
+	public void executeConcurrentlyWithError() {
+		ChunkedBatchUpdate<Integer> batchUpdate = createBatchUpdate();
+		batchUpdate.setTaskExecutor(this.executor);
+		LinkageError error = new LinkageError("expected");
+		batchUpdate.setProgressCallback((chunkIndex, updateCounts) -> {
+			throw error;
+		});
+		try {
+			batchUpdate.execute(IntStream.range(0, 1000).boxed().iterator());
+			fail("Should have thrown LinkageError");
+		}
+		catch (LinkageError ex) {
+			assertSame(error, ex);
+		}
+	}
+
+	@Test
+	public void executeConcurrentlyInterrupted() {
+		CleanupTrackingSetter setter = new CleanupTrackingSetter();
+		ChunkedBatchUpdate<Integer> batchUpdate = new ChunkedBatchUpdate<>(this.template, SQL, setter);
+		batchUpdate.setBatchSize(10);
+		batchUpdate.setTaskExecutor(this.executor);
+		batchUpdate.setMaxConcurrentChunks(1);
+		Thread caller = Thread.currentThread();
+		batchUpdate.setProgressCallback((chunkIndex, updateCounts) -> {
+			// The caller waits for this chunk before submitting the next one
+			caller.interrupt();
+			LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(100));
+			setter.completedChunks.incrementAndGet();
+		});
+		try {
+			batchUpdate.execute(IntStream.range(0, 1000).boxed().iterator());
+			fail("Should have thrown IllegalStateException");
+		}
+		catch (IllegalStateException ex) {
+			assertTrue(ex.getCause() instanceof InterruptedException);
+		}
+		assertTrue(Thread.interrupted());
+		assertEquals(1, setter.completedChunks.get());
+		assertEquals(1, setter.completedChunksOnCleanup);
+	}
+
+	@Test
+	public void executeWithinTransactionUsesCallingThread() {
+		ChunkedBatchUpdate<Integer> batchUpdate = createBatchUpdate();
+		batchUpdate.setTaskExecutor(task -> fail("Should not execute chunks concurrently"));
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			assertEquals(25, batchUpdate.execute(IntStream.range(0, 25).boxed()));
+		}
+		finally {
+			TransactionSynchronizationManager.clear();
+		}
+	}
+
+
+	private static class CleanupTrackingSetter implements ParameterizedPreparedStatementSetter<Integer>, ParameterDisposer {
+
+		final AtomicInteger completedChunks = new AtomicInteger();
+
+		volatile int completedChunksOnCleanup = -1;
+
+		@Override
+		public void setValues(PreparedStatement ps, Integer id) throws SQLException {
+			ps.setObject(1, id);
+		}
+
+		@Override
+		public void cleanupParameters() {
+			this.completedChunksOnCleanup = this.completedChunks.get();
+		}
+	}
+
+}
@@ -23,9 +23,14 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.sql.SQLWarning;
 import java.sql.Statement;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import javax.sql.DataSource;
 
 import org.junit.Before;
@@ -33,7 +38,10 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
+import org.springframework.dao.DataAccessException;
 import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.jdbc.SQLWarningException;
+import org.springframework.jdbc.support.SQLStateSQLExceptionTranslator;
 
 import static org.junit.Assert.*;
 import static org.mockito.BDDMockito.*;
@@ -81,6 +89,8 @@ public class JdbcTemplateQueryTests {
 		given(this.connection.prepareStatement(anyString())).willReturn(this.preparedStatement);
 		given(this.preparedStatement.executeQuery()).willReturn(this.resultSet);
 		given(this.statement.executeQuery(anyString())).willReturn(this.resultSet);
+		given(this.statement.getConnection()).willReturn(this.connection);
+		given(this.preparedStatement.getConnection()).willReturn(this.connection);
 	}
 
 
@@ -97,6 +107,119 @@ public class JdbcTemplateQueryTests {
 		verify(this.statement).close();
 	}
 
+	@Test
+	public void testQueryForStream() throws Exception {
+		String sql = "SELECT AGE FROM CUSTMR WHERE ID < 3";
+		given(this.resultSet.next()).willReturn(true, true, false);
+		given(this.resultSet.getInt(1)).willReturn(11, 12);
+		try (Stream<Integer> stream = this.template.queryForStream(sql, (rs, rowNum) -> rs.getInt(1))) {
+			verify(this.resultSet, never()).next();
+			assertEquals(23, stream.mapToInt(Integer::intValue).sum());
+			verify(this.resultSet, never()).close();
+			verify(this.statement, never()).close();
+			verify(this.connection, never()).close();
+		}
+		verify(this.resultSet).close();
+		verify(this.statement).close();
+		verify(this.connection).close();
+	}
+
+	@Test
+	public void testQueryForStreamWithArgsAndFetchSize() throws Exception {
+		String sql = "SELECT AGE FROM CUSTMR WHERE ID < ?";
+		given(this.resultSet.next()).willReturn(true, true, false);
+		given(this.resultSet.getInt(1)).willReturn(11, 12);
+		this.template.setFetchSize(500);
+		try (Stream<Integer> stream = this.template.queryForStream(sql, (rs, rowNum) -> rs.getInt(1), 3)) {
+			assertEquals(Arrays.asList(11, 12), stream.collect(Collectors.toList()));
+		}
+		verify(this.preparedStatement).setFetchSize(500);
+		verify(this.preparedStatement).setObject(1, 3);
+		verify(this.resultSet).close();
+		verify(this.preparedStatement).close();
+		verify(this.connection).close();
+	}
+
+	@Test
+	public void testQueryForStreamInParallel() throws Exception {
+		String sql = "SELECT AGE FROM CUSTMR";
+		AtomicInteger counter = new AtomicInteger();
+		given(this.resultSet.next()).willAnswer(invocation -> counter.incrementAndGet() <= 5000);
+		try (Stream<Integer> stream = this.template.queryForStream(sql, (rs, rowNum) -> rowNum)) {
+			List<Integer> result = stream.parallel().map(rowNum -> rowNum * 2).collect(Collectors.toList());
+			assertEquals(5000, result.size());
+			for (int i = 0; i < result.size(); i++) {
+				assertEquals(i * 2, result.get(i).intValue());
+			}
+		}
+		verify(this.resultSet).close();
+	}
+
+	@Test
+	public void testQueryForStreamWithSQLException() throws Exception {
+		String sql = "SELECT AGE FROM CUSTMR WHERE ID < 3";
+		given(this.resultSet.next()).willThrow(new SQLException("expected"));
+		this.template.setExceptionTranslator(new SQLStateSQLExceptionTranslator());
+		try (Stream<Integer> stream = this.template.queryForStream(sql, (rs, rowNum) -> rs.getInt(1))) {
+			stream.count();
+			fail("Should have thrown DataAccessException");
+		}
+		catch (DataAccessException ex) {
+			// expected
+		}
+		verify(this.resultSet).close();
+		verify(this.statement).close();
+		verify(this.connection).close();
+	}
+
+	@Test
+	public void testQueryForStreamWithRuntimeExceptionFromCallback() throws Exception {
+		String sql = "SELECT AGE FROM CUSTMR WHERE ID < 3";
+		given(this.statement.executeQuery(sql)).willThrow(new IllegalStateException("expected"));
+		try {
+			this.template.queryForStream(sql, (rs, rowNum) -> rs.getInt(1));
+			fail("Should have thrown IllegalStateException");
+		}
+		catch (IllegalStateException ex) {
+			// expected
+		}
+		verify(this.statement).close();
+		verify(this.connection).close();
+	}
+
+	@Test
+	public void testQueryForStreamWithRuntimeExceptionFromPreparedStatementSetter() throws Exception {
+		String sql = "SELECT AGE FROM CUSTMR WHERE ID = ?";
+		try {
+			this.template.queryForStream(sql, ps -> {
+				throw new IllegalStateException("expected");
+			}, (rs, rowNum) -> rs.getInt(1));
+			fail("Should have thrown IllegalStateException");
+		}
+		catch (IllegalStateException ex) {
+			// expected
+		}
+		verify(this.preparedStatement).close();
+		verify(this.connection).close();
+	}
+
+	@Test
+	public void testQueryForStreamWithWarning() throws Exception {
+		String sql = "SELECT AGE FROM CUSTMR WHERE ID < 3";
+		given(this.statement.getWarnings()).willReturn(new SQLWarning("expected"));
+		this.template.setIgnoreWarnings(false);
+		try {
+			this.template.queryForStream(sql, (rs, rowNum) -> rs.getInt(1));
+			fail("Should have thrown SQLWarningException");
+		}
+		catch (SQLWarningException ex) {
+			// expected
+		}
+		verify(this.resultSet).close();
+		verify(this.statement).close();
+		verify(this.connection).close();
+	}
+
 	@Test
 	public void testQueryForListWithEmptyResult() throws Exception {
 		String sql = "SELECT AGE FROM CUSTMR WHERE ID < 3";
@@ -28,6 +28,8 @@ import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import javax.sql.DataSource;
 
 import org.junit.Before;
@@ -37,6 +39,7 @@ import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
 import org.springframework.jdbc.Customer;
+import org.springframework.jdbc.core.ChunkedBatchUpdate;
 import org.springframework.jdbc.core.JdbcOperations;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.PreparedStatementCallback;
@@ -331,6 +334,35 @@ public class NamedParameterJdbcTemplateTests {
 		verify(connection).close();
 	}
 
+	@Test
+	public void testQueryForStreamWithRowMapper() throws SQLException {
+		given(resultSet.next()).willReturn(true, false);
+		given(resultSet.getInt("id")).willReturn(1);
+		given(resultSet.getString("forename")).willReturn("rod");
+
+		params.put("id", new SqlParameterValue(Types.DECIMAL, 1));
+		params.put("country", "UK");
+		List<Customer> customers;
+		try (Stream<Customer> stream = namedParameterTemplate.queryForStream(SELECT_NAMED_PARAMETERS, params,
+				(rs, rownum) -> {
+					Customer cust = new Customer();
+					cust.setId(rs.getInt(COLUMN_NAMES[0]));
+					cust.setForename(rs.getString(COLUMN_NAMES[1]));
+					return cust;
+				})) {
+			customers = stream.collect(Collectors.toList());
+		}
+		assertEquals(1, customers.size());
+		assertTrue("Customer id was assigned correctly", customers.get(0).getId() == 1);
+		assertTrue("Customer forename was assigned correctly", customers.get(0).getForename().equals("rod"));
+		verify(connection).prepareStatement(SELECT_NAMED_PARAMETERS_PARSED);
+		verify(preparedStatement).setObject(1, 1, Types.DECIMAL);
+		verify(preparedStatement).setString(2, "UK");
+		verify(resultSet).close();
+		verify(preparedStatement).close();
+		verify(connection).close();
+	}
+
 	@Test
 	public void testQueryWithRowMapperNoParameters() throws SQLException {
 		given(resultSet.next()).willReturn(true, false);
@@ -408,6 +440,71 @@ public class NamedParameterJdbcTemplateTests {
 		verify(connection).close();
 	}
 
+	@Test
+	public void testUpdateWithCachedStatement() throws SQLException {
+		given(preparedStatement.executeUpdate()).willReturn(1);
+
+		params.put("perfId", 1);
+		params.put("priceId", 1);
+		namedParameterTemplate.update(UPDATE_NAMED_PARAMETERS, params);
+		params.put("priceId", 2);
+		namedParameterTemplate.update(UPDATE_NAMED_PARAMETERS, params);
+
+		verify(connection, times(2)).prepareStatement(UPDATE_NAMED_PARAMETERS_PARSED);
+		verify(preparedStatement, times(2)).setObject(1, 1);
+		verify(preparedStatement).setObject(2, 1);
+		verify(preparedStatement).setObject(2, 2);
+		assertEquals(1, namedParameterTemplate.getCacheSize());
+		assertEquals(1, namedParameterTemplate.getParsedSqlCacheHitCount());
+		assertEquals(1, namedParameterTemplate.getParsedSqlCacheMissCount());
+		assertEquals(1, namedParameterTemplate.getStatementCacheHitCount());
+		assertEquals(1, namedParameterTemplate.getStatementCacheMissCount());
+	}
+
+	@Test
+	public void testUpdateWithCachedStatementPerParameterShape() throws SQLException {
+		given(preparedStatement.executeUpdate()).willReturn(1);
+		String sql = "update customer set type = 1 where id in (:ids)";
+
+		params.put("ids", Arrays.asList(1, 2));
+		namedParameterTemplate.update(sql, params);
+		params.put("ids", Arrays.asList(3, 4, 5));
+		namedParameterTemplate.update(sql, params);
+		params.put("ids", new SqlParameterValue(Types.INTEGER, Arrays.asList(6, 7)));
+		namedParameterTemplate.update(sql, params);
+		params.put("ids", Arrays.asList(8, 9));
+		namedParameterTemplate.update(sql, params);
+
+		verify(connection, times(3)).prepareStatement("update customer set type = 1 where id in (?, ?)");
+		verify(connection).prepareStatement("update customer set type = 1 where id in (?, ?, ?)");
+		verify(preparedStatement).setObject(1, 6, Types.INTEGER);
+		verify(preparedStatement).setObject(2, 9);
+		assertEquals(3, namedParameterTemplate.getParsedSqlCacheHitCount());
+		assertEquals(1, namedParameterTemplate.getStatementCacheHitCount());
+		assertEquals(3, namedParameterTemplate.getStatementCacheMissCount());
+	}
+
+	@Test
+	public void testCacheLimit() throws SQLException {
+		given(preparedStatement.executeUpdate()).willReturn(1);
+		namedParameterTemplate.setCacheLimit(2);
+
+		params.put("id", 1);
+		namedParameterTemplate.update("update customer set type = 1 where id = :id", params);
+		namedParameterTemplate.update("update customer set type = 2 where id = :id", params);
+		namedParameterTemplate.update("update customer set type = 3 where id = :id", params);
+		assertEquals(2, namedParameterTemplate.getCacheSize());
+		namedParameterTemplate.update("update customer set type = 3 where id = :id", params);
+		namedParameterTemplate.update("update customer set type = 1 where id = :id", params);
+
+		assertEquals(1, namedParameterTemplate.getParsedSqlCacheHitCount());
+		assertEquals(4, namedParameterTemplate.getParsedSqlCacheMissCount());
+		assertEquals(2, namedParameterTemplate.getCacheSize());
+
+		namedParameterTemplate.clearCache();
+		assertEquals(0, namedParameterTemplate.getCacheSize());
+	}
+
 	@Test
 	public void testBatchUpdateWithPlainMap() throws Exception {
 		@SuppressWarnings("unchecked")
@@ -461,6 +558,27 @@ public class NamedParameterJdbcTemplateTests {
 		verify(connection, atLeastOnce()).close();
 	}
 
+	@Test
+	public void testChunkedBatchUpdate() throws Exception {
+		given(preparedStatement.executeBatch()).willReturn(new int[] {1, 1}, new int[] {1});
+		given(connection.getMetaData()).willReturn(databaseMetaData);
+
+		ChunkedBatchUpdate<SqlParameterSource> batchUpdate = namedParameterTemplate.chunkedBatchUpdate(
+				"UPDATE NOSUCHTABLE SET DATE_DISPATCHED = SYSDATE WHERE ID = :id");
+		batchUpdate.setBatchSize(2);
+		long rowsAffected = batchUpdate.execute(Stream.of(100, 200, 300).map(id -> new MapSqlParameterSource("id", id)));
+
+		assertEquals(3, rowsAffected);
+		verify(connection).prepareStatement("UPDATE NOSUCHTABLE SET DATE_DISPATCHED = SYSDATE WHERE ID = ?");
+		verify(preparedStatement).setObject(1, 100);
+		verify(preparedStatement).setObject(1, 200);
+		verify(preparedStatement).setObject(1, 300);
+		verify(preparedStatement, times(3)).addBatch();
+		verify(preparedStatement, times(2)).executeBatch();
+		verify(preparedStatement).close();
+		verify(connection).close();
+	}
+
 	@Test
 	public void testBatchUpdateWithSqlParameterSourcePlusTypeInfo() throws Exception {
 		SqlParameterSource[] ids = new SqlParameterSource[2];
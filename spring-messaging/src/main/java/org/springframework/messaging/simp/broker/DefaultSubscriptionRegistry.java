@@ -16,15 +16,19 @@
 
 package org.springframework.messaging.simp.broker;
 
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashSet;
-import java.util.LinkedHashMap;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
 
 import org.springframework.expression.EvaluationContext;
 import org.springframework.expression.Expression;
@@ -55,6 +59,13 @@ import org.springframework.util.StringUtils;
  * header on subscription messages with Spring EL expressions evaluated against
  * the headers to filter out messages in addition to destination matching.
  *
+ * <p>As of 5.2, subscribed destination patterns are indexed by their leading
+ * literal path segments when using a case-sensitive {@link AntPathMatcher}
+ * with "/" or "." as path separator: resolving a destination only evaluates
+ * the patterns that share its leading segments, rather than the patterns of
+ * all subscriptions. Subscription changes update the index concurrently,
+ * without a global lock.
+ *
  * @author Rossen Stoyanchev
  * @author Sebastien Deleuze
  * @author Juergen Hoeller
@@ -72,6 +83,10 @@ public class DefaultSubscriptionRegistry extends AbstractSubscriptionRegistry {
 
 	private PathMatcher pathMatcher = new AntPathMatcher();
 
+	/** Path separator for the destination pattern index, or {@code null} if not indexable. */
+	@Nullable
+	private volatile String indexSeparator = AntPathMatcher.DEFAULT_PATH_SEPARATOR;
+
 	private volatile int cacheLimit = DEFAULT_CACHE_LIMIT;
 
 	@Nullable
@@ -81,7 +96,7 @@ public class DefaultSubscriptionRegistry extends AbstractSubscriptionRegistry {
 
 	private final ExpressionParser expressionParser = new SpelExpressionParser();
 
-	private final DestinationCache destinationCache = new DestinationCache();
+	private final DestinationIndex destinationIndex = new DestinationIndex();
 
 	private final SessionSubscriptionRegistry subscriptionRegistry = new SessionSubscriptionRegistry();
 
@@ -91,6 +106,8 @@ public class DefaultSubscriptionRegistry extends AbstractSubscriptionRegistry {
 	 */
 	public void setPathMatcher(PathMatcher pathMatcher) {
 		this.pathMatcher = pathMatcher;
+		this.indexSeparator = determineIndexSeparator(pathMatcher);
+		this.destinationIndex.rebuild();
 	}
 
 	/**
@@ -149,7 +166,7 @@ public class DefaultSubscriptionRegistry extends AbstractSubscriptionRegistry {
 
 		Expression expression = getSelectorExpression(message.getHeaders());
 		this.subscriptionRegistry.addSubscription(sessionId, subsId, destination, expression);
-		this.destinationCache.updateAfterNewSubscription(destination, sessionId, subsId);
+		this.destinationIndex.addSubscriber(destination, sessionId);
 	}
 
 	@Nullable
@@ -181,7 +198,7 @@ public class DefaultSubscriptionRegistry extends AbstractSubscriptionRegistry {
 		if (info != null) {
 			String destination = info.removeSubscription(subsId);
 			if (destination != null) {
-				this.destinationCache.updateAfterRemovedSubscription(sessionId, subsId);
+				this.destinationIndex.removeSubscriber(destination, sessionId);
 			}
 		}
 	}
@@ -190,13 +207,15 @@ public class DefaultSubscriptionRegistry extends AbstractSubscriptionRegistry {
 	public void unregisterAllSubscriptions(String sessionId) {
 		SessionSubscriptionInfo info = this.subscriptionRegistry.removeSubscriptions(sessionId);
 		if (info != null) {
-			this.destinationCache.updateAfterRemovedSession(info);
+			for (String destination : info.getDestinations()) {
+				this.destinationIndex.removeSubscriber(destination, sessionId);
+			}
 		}
 	}
 
 	@Override
 	protected MultiValueMap<String, String> findSubscriptionsInternal(String destination, Message<?> message) {
-		MultiValueMap<String, String> result = this.destinationCache.getSubscriptions(destination, message);
+		MultiValueMap<String, String> result = this.destinationIndex.getSubscriptions(destination);
 		return filterSubscriptions(result, message);
 	}
 
@@ -242,127 +261,307 @@ public class DefaultSubscriptionRegistry extends AbstractSubscriptionRegistry {
 
 	@Override
 	public String toString() {
-		return "DefaultSubscriptionRegistry[" + this.destinationCache + ", " + this.subscriptionRegistry + "]";
+		return "DefaultSubscriptionRegistry[" + this.destinationIndex + ", " + this.subscriptionRegistry + "]";
+	}
+
+
+	/**
+	 * Determine the path separator to index destination patterns by, provided
+	 * that the given PathMatcher is known to only match destinations whose
+	 * leading segments are equal to the literal leading segments of the pattern.
+	 * @return the path separator, or {@code null} if the PathMatcher is not
+	 * a plain, case-sensitive {@link AntPathMatcher} separating by "/" or "."
+	 */
+	@Nullable
+	private static String determineIndexSeparator(PathMatcher pathMatcher) {
+		if (pathMatcher.getClass() != AntPathMatcher.class ||
+				pathMatcher.match("a", "A") || pathMatcher.match("a", " a")) {
+			// Case-insensitive or trimming tokens
+			return null;
+		}
+		// A single wildcard only matches a destination with a separator if it is not a separator
+		boolean slashSeparated = !pathMatcher.match("*", "a/b");
+		boolean dotSeparated = !pathMatcher.match("*", "a.b");
+		if (slashSeparated == dotSeparated) {
+			return null;
+		}
+		return (slashSeparated ? "/" : ".");
 	}
 
 
 	/**
-	 * A cache for destinations previously resolved via
+	 * Index of subscribed destination patterns, with a cache for destinations
+	 * previously resolved via
 	 * {@link DefaultSubscriptionRegistry#findSubscriptionsInternal(String, Message)}.
 	 */
-	private class DestinationCache {
+	private class DestinationIndex {
+
+		/** Map from destination pattern to the ids of the sessions subscribed to it. */
+		private final ConcurrentMap<String, PatternSubscribers> patterns = new ConcurrentHashMap<>();
+
+		/** Map from joined leading literal segments to the destination patterns starting with them. */
+		private final ConcurrentMap<String, IndexNode> nodes = new ConcurrentHashMap<>();
+
+		/** Incremented whenever a destination pattern is added or removed, before invalidating the cache. */
+		private final AtomicLong version = new AtomicLong();
 
-		/** Map from destination to {@code <sessionId, subscriptionId>} for fast look-ups. */
-		private final Map<String, LinkedMultiValueMap<String, String>> accessCache =
+		/** Map from destination to the destination patterns matching it. */
+		private final ConcurrentMap<String, List<PatternSubscribers>> resolvedCache =
 				new ConcurrentHashMap<>(DEFAULT_CACHE_LIMIT);
 
-		/** Map from destination to {@code <sessionId, subscriptionId>} with locking. */
-		@SuppressWarnings("serial")
-		private final Map<String, LinkedMultiValueMap<String, String>> updateCache =
-				new LinkedHashMap<String, LinkedMultiValueMap<String, String>>(DEFAULT_CACHE_LIMIT, 0.75f, true) {
-					@Override
-					protected boolean removeEldestEntry(Map.Entry<String, LinkedMultiValueMap<String, String>> eldest) {
-						if (size() > getCacheLimit()) {
-							accessCache.remove(eldest.getKey());
-							return true;
-						}
-						else {
-							return false;
-						}
+		/** Keys of the resolved destination cache in insertion order, for eviction. */
+		private final Queue<String> resolvedCacheKeys = new ConcurrentLinkedQueue<>();
+
+		public void addSubscriber(String pattern, String sessionId) {
+			PatternSubscribers[] added = new PatternSubscribers[1];
+			this.patterns.compute(pattern, (key, subscribers) -> {
+				if (subscribers == null) {
+					subscribers = new PatternSubscribers(key);
+					addToNode(subscribers, indexSeparator);
+					added[0] = subscribers;
+				}
+				subscribers.sessionIds.add(sessionId);
+				return subscribers;
+			});
+			if (added[0] != null) {
+				this.version.incrementAndGet();
+				// Only destinations matching the new pattern are affected
+				this.resolvedCache.forEach((destination, matches) -> {
+					if (getPathMatcher().match(pattern, destination)) {
+						evictMatchingPatterns(destination, matches);
 					}
-				};
-
-
-		public LinkedMultiValueMap<String, String> getSubscriptions(String destination, Message<?> message) {
-			LinkedMultiValueMap<String, String> result = this.accessCache.get(destination);
-			if (result == null) {
-				synchronized (this.updateCache) {
-					result = new LinkedMultiValueMap<>();
-					for (SessionSubscriptionInfo info : subscriptionRegistry.getAllSubscriptions()) {
-						for (String destinationPattern : info.getDestinations()) {
-							if (getPathMatcher().match(destinationPattern, destination)) {
-								for (Subscription sub : info.getSubscriptions(destinationPattern)) {
-									result.add(info.sessionId, sub.getId());
-								}
-							}
-						}
+				});
+			}
+		}
+
+		public void removeSubscriber(String pattern, String sessionId) {
+			PatternSubscribers[] removed = new PatternSubscribers[1];
+			this.patterns.computeIfPresent(pattern, (key, subscribers) -> {
+				// The session may have subscribed to the pattern again in the meantime
+				SessionSubscriptionInfo info = subscriptionRegistry.getSubscriptions(sessionId);
+				if (info == null || info.getSubscriptions(key) == null) {
+					subscribers.sessionIds.remove(sessionId);
+				}
+				if (!subscribers.sessionIds.isEmpty()) {
+					return subscribers;
+				}
+				removeFromNode(subscribers, indexSeparator);
+				removed[0] = subscribers;
+				return null;
+			});
+			if (removed[0] != null) {
+				this.version.incrementAndGet();
+				// Only destinations matched by the removed pattern are affected
+				this.resolvedCache.forEach((destination, matches) -> {
+					if (matches.contains(removed[0])) {
+						evictMatchingPatterns(destination, matches);
 					}
-					if (!result.isEmpty()) {
-						this.updateCache.put(destination, result.deepCopy());
-						this.accessCache.put(destination, result);
+				});
+			}
+		}
+
+		/**
+		 * Re-index all destination patterns, e.g. after a change of PathMatcher.
+		 * Not to be called concurrently with subscription changes.
+		 */
+		public void rebuild() {
+			this.nodes.clear();
+			String separator = indexSeparator;
+			for (PatternSubscribers subscribers : this.patterns.values()) {
+				addToNode(subscribers, separator);
+			}
+			this.version.incrementAndGet();
+			this.resolvedCache.clear();
+			this.resolvedCacheKeys.clear();
+		}
+
+		public LinkedMultiValueMap<String, String> getSubscriptions(String destination) {
+			List<PatternSubscribers> matchingPatterns = getMatchingPatterns(destination);
+			if (matchingPatterns.size() == 1) {
+				LinkedMultiValueMap<String, String> result = new LinkedMultiValueMap<>();
+				addSubscriptions(matchingPatterns.get(0), (sessionId, sub) -> result.add(sessionId, sub.getId()));
+				return result;
+			}
+			// Subscriptions of a session may match through several patterns:
+			// list them in the order of subscription, as with a single pattern
+			LinkedMultiValueMap<String, Subscription> subscriptions = new LinkedMultiValueMap<>();
+			for (PatternSubscribers subscribers : matchingPatterns) {
+				addSubscriptions(subscribers, subscriptions::add);
+			}
+			LinkedMultiValueMap<String, String> result = new LinkedMultiValueMap<>(subscriptions.size());
+			subscriptions.forEach((sessionId, subs) -> {
+				if (subs.size() > 1) {
+					subs.sort(Comparator.comparingLong(Subscription::getSequence));
+				}
+				for (Subscription sub : subs) {
+					result.add(sessionId, sub.getId());
+				}
+			});
+			return result;
+		}
+
+		private void addSubscriptions(PatternSubscribers subscribers, BiConsumer<String, Subscription> consumer) {
+			for (String sessionId : subscribers.sessionIds) {
+				SessionSubscriptionInfo info = subscriptionRegistry.getSubscriptions(sessionId);
+				Set<Subscription> subs = (info != null ? info.getSubscriptions(subscribers.pattern) : null);
+				if (subs != null) {
+					for (Subscription sub : subs) {
+						consumer.accept(sessionId, sub);
 					}
 				}
 			}
-			return result;
 		}
 
-		public void updateAfterNewSubscription(String destination, String sessionId, String subsId) {
-			synchronized (this.updateCache) {
-				this.updateCache.forEach((cachedDestination, subscriptions) -> {
-					if (getPathMatcher().match(destination, cachedDestination)) {
-						// Subscription id's may also be populated via getSubscriptions()
-						List<String> subsForSession = subscriptions.get(sessionId);
-						if (subsForSession == null || !subsForSession.contains(subsId)) {
-							subscriptions.add(sessionId, subsId);
-							this.accessCache.put(cachedDestination, subscriptions.deepCopy());
+		private List<PatternSubscribers> getMatchingPatterns(String destination) {
+			List<PatternSubscribers> cached = this.resolvedCache.get(destination);
+			if (cached != null) {
+				return cached;
+			}
+			long currentVersion = this.version.get();
+			List<PatternSubscribers> matches = new ArrayList<>();
+			String separator = indexSeparator;
+			if (separator != null) {
+				String[] segments = StringUtils.tokenizeToStringArray(destination, separator, false, true);
+				for (int i = 0; i <= segments.length; i++) {
+					IndexNode node = this.nodes.get(joinSegments(segments, i, separator));
+					if (node != null) {
+						addMatches(node.wildcardPatterns.values(), destination, matches);
+						if (i == segments.length) {
+							addMatches(node.literalPatterns.values(), destination, matches);
 						}
 					}
-				});
+				}
+			}
+			else {
+				addMatches(this.patterns.values(), destination, matches);
+			}
+			if (!matches.isEmpty()) {
+				cacheMatchingPatterns(destination, matches, currentVersion);
 			}
+			return matches;
 		}
 
-		public void updateAfterRemovedSubscription(String sessionId, String subsId) {
-			synchronized (this.updateCache) {
-				Set<String> destinationsToRemove = new HashSet<>();
-				this.updateCache.forEach((destination, sessionMap) -> {
-					List<String> subscriptions = sessionMap.get(sessionId);
-					if (subscriptions != null) {
-						subscriptions.remove(subsId);
-						if (subscriptions.isEmpty()) {
-							sessionMap.remove(sessionId);
-						}
-						if (sessionMap.isEmpty()) {
-							destinationsToRemove.add(destination);
-						}
-						else {
-							this.accessCache.put(destination, sessionMap.deepCopy());
-						}
+		private void addMatches(Collection<PatternSubscribers> candidates, String destination,
+				List<PatternSubscribers> matches) {
+
+			for (PatternSubscribers subscribers : candidates) {
+				if (getPathMatcher().match(subscribers.pattern, destination)) {
+					matches.add(subscribers);
+				}
+			}
+		}
+
+		private void cacheMatchingPatterns(String destination, List<PatternSubscribers> matches, long version) {
+			int cacheLimit = getCacheLimit();
+			if (cacheLimit <= 0) {
+				return;
+			}
+			if (this.resolvedCache.put(destination, matches) == null) {
+				this.resolvedCacheKeys.add(destination);
+				while (this.resolvedCache.size() > cacheLimit) {
+					String eldest = this.resolvedCacheKeys.poll();
+					if (eldest == null) {
+						break;
 					}
-				});
-				for (String destination : destinationsToRemove) {
-					this.updateCache.remove(destination);
-					this.accessCache.remove(destination);
+					this.resolvedCache.remove(eldest);
 				}
 			}
+			if (this.version.get() != version) {
+				// Patterns changed while resolving: the invalidation may have missed this entry
+				evictMatchingPatterns(destination, matches);
+			}
 		}
 
-		public void updateAfterRemovedSession(SessionSubscriptionInfo info) {
-			synchronized (this.updateCache) {
-				Set<String> destinationsToRemove = new HashSet<>();
-				this.updateCache.forEach((destination, sessionMap) -> {
-					if (sessionMap.remove(info.getSessionId()) != null) {
-						if (sessionMap.isEmpty()) {
-							destinationsToRemove.add(destination);
-						}
-						else {
-							this.accessCache.put(destination, sessionMap.deepCopy());
-						}
+		private void evictMatchingPatterns(String destination, List<PatternSubscribers> matches) {
+			if (this.resolvedCache.remove(destination, matches)) {
+				this.resolvedCacheKeys.remove(destination);
+			}
+		}
+
+		private void addToNode(PatternSubscribers subscribers, @Nullable String separator) {
+			if (separator != null) {
+				String[] segments = StringUtils.tokenizeToStringArray(subscribers.pattern, separator, false, true);
+				int literalCount = countLiteralSegments(segments);
+				boolean literal = (literalCount == segments.length);
+				this.nodes.compute(joinSegments(segments, literalCount, separator), (key, node) -> {
+					if (node == null) {
+						node = new IndexNode();
 					}
+					(literal ? node.literalPatterns : node.wildcardPatterns).put(subscribers.pattern, subscribers);
+					return node;
 				});
-				for (String destination : destinationsToRemove) {
-					this.updateCache.remove(destination);
-					this.accessCache.remove(destination);
+			}
+		}
+
+		private void removeFromNode(PatternSubscribers subscribers, @Nullable String separator) {
+			if (separator != null) {
+				String[] segments = StringUtils.tokenizeToStringArray(subscribers.pattern, separator, false, true);
+				int literalCount = countLiteralSegments(segments);
+				boolean literal = (literalCount == segments.length);
+				this.nodes.computeIfPresent(joinSegments(segments, literalCount, separator), (key, node) -> {
+					(literal ? node.literalPatterns : node.wildcardPatterns).remove(subscribers.pattern);
+					return (node.literalPatterns.isEmpty() && node.wildcardPatterns.isEmpty() ? null : node);
+				});
+			}
+		}
+
+		private int countLiteralSegments(String[] segments) {
+			for (int i = 0; i < segments.length; i++) {
+				String segment = segments[i];
+				if (segment.indexOf('*') != -1 || segment.indexOf('?') != -1 || segment.indexOf('{') != -1) {
+					return i;
 				}
 			}
+			return segments.length;
+		}
+
+		private String joinSegments(String[] segments, int count, String separator) {
+			if (count == 0) {
+				return "";
+			}
+			StringBuilder sb = new StringBuilder(segments[0]);
+			for (int i = 1; i < count; i++) {
+				sb.append(separator).append(segments[i]);
+			}
+			return sb.toString();
 		}
 
 		@Override
 		public String toString() {
-			return "cache[" + this.accessCache.size() + " destination(s)]";
+			return "index[" + this.patterns.size() + " destination pattern(s)], " +
+					"cache[" + this.resolvedCache.size() + " destination(s)]";
 		}
 	}
 
 
+	/**
+	 * The ids of the sessions subscribed to a specific destination pattern.
+	 */
+	private static class PatternSubscribers {
+
+		final String pattern;
+
+		final Set<String> sessionIds = ConcurrentHashMap.newKeySet();
+
+		public PatternSubscribers(String pattern) {
+			this.pattern = pattern;
+		}
+	}
+
+
+	/**
+	 * Destination patterns sharing the same leading literal segments: literal
+	 * patterns consisting of those segments only, and patterns with a wildcard
+	 * in the segment following them.
+	 */
+	private static class IndexNode {
+
+		final Map<String, PatternSubscribers> literalPatterns = new ConcurrentHashMap<>(4);
+
+		final Map<String, PatternSubscribers> wildcardPatterns = new ConcurrentHashMap<>(4);
+	}
+
+
 	/**
 	 * Provide access to session subscriptions by sessionId.
 	 */
@@ -376,10 +575,6 @@ public class DefaultSubscriptionRegistry extends AbstractSubscriptionRegistry {
 			return this.sessions.get(sessionId);
 		}
 
-		public Collection<SessionSubscriptionInfo> getAllSubscriptions() {
-			return this.sessions.values();
-		}
-
 		public SessionSubscriptionInfo addSubscription(String sessionId, String subscriptionId,
 				String destination, @Nullable Expression selectorExpression) {
 
@@ -491,11 +686,15 @@ public class DefaultSubscriptionRegistry extends AbstractSubscriptionRegistry {
 
 	private static final class Subscription {
 
+		private static final AtomicLong sequenceGenerator = new AtomicLong();
+
 		private final String id;
 
 		@Nullable
 		private final Expression selectorExpression;
 
+		private final long sequence = sequenceGenerator.incrementAndGet();
+
 		public Subscription(String id, @Nullable Expression selector) {
 			Assert.notNull(id, "Subscription id must not be null");
 			this.id = id;
@@ -506,6 +705,13 @@ public class DefaultSubscriptionRegistry extends AbstractSubscriptionRegistry {
 			return this.id;
 		}
 
+		/**
+		 * Return the position of this subscription in the order of subscription.
+		 */
+		public long getSequence() {
+			return this.sequence;
+		}
+
 		@Nullable
 		public Expression getSelectorExpression() {
 			return this.selectorExpression;
@@ -21,6 +21,7 @@ import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Test;
 
@@ -28,6 +29,7 @@ import org.springframework.messaging.Message;
 import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 import org.springframework.messaging.simp.SimpMessageType;
 import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.AntPathMatcher;
 import org.springframework.util.MultiValueMap;
 
 import static org.junit.Assert.assertEquals;
@@ -439,6 +441,95 @@ public class DefaultSubscriptionRegistryTests {
 		assertEquals(2, this.registry.findSubscriptions(createMessage("/bar")).size());
 	}
 
+	@Test
+	public void findSubscriptionsWithDotSeparatedPatterns() {
+		this.registry.setPathMatcher(new AntPathMatcher("."));
+		this.registry.registerSubscription(subscribeMessage("sess1", "1", "price.stock.nasdaq.ibm"));
+		this.registry.registerSubscription(subscribeMessage("sess1", "2", "price.stock.*.ibm"));
+		this.registry.registerSubscription(subscribeMessage("sess2", "1", "price.**"));
+		this.registry.registerSubscription(subscribeMessage("sess2", "2", "price.stock.{exchange}.goog"));
+		this.registry.registerSubscription(subscribeMessage("sess3", "1", "price.stock.nyse.ibm"));
+
+		MultiValueMap<String, String> actual = this.registry.findSubscriptions(createMessage("price.stock.nasdaq.ibm"));
+		assertEquals(2, actual.size());
+		assertEquals(Arrays.asList("1", "2"), actual.get("sess1"));
+		assertEquals(Collections.singletonList("1"), actual.get("sess2"));
+
+		actual = this.registry.findSubscriptions(createMessage("price.stock.nasdaq.goog"));
+		assertEquals(1, actual.size());
+		assertEquals(Arrays.asList("1", "2"), actual.get("sess2"));
+
+		actual = this.registry.findSubscriptions(createMessage("price"));
+		assertEquals(1, actual.size());
+		assertEquals(Collections.singletonList("1"), actual.get("sess2"));
+
+		this.registry.unregisterAllSubscriptions("sess2");
+		assertEquals(0, this.registry.findSubscriptions(createMessage("price")).size());
+		assertEquals(1, this.registry.findSubscriptions(createMessage("price.stock.nasdaq.ibm")).size());
+	}
+
+	@Test
+	public void findSubscriptionsWithLiteralDestinationVariants() {
+		this.registry.registerSubscription(subscribeMessage("sess1", "1", "/topic/foo"));
+		this.registry.registerSubscription(subscribeMessage("sess1", "2", "/topic/foo/"));
+
+		assertEquals(Collections.singletonList("1"),
+				this.registry.findSubscriptions(createMessage("/topic/foo")).get("sess1"));
+		assertEquals(Collections.singletonList("1"),
+				this.registry.findSubscriptions(createMessage("/topic//foo")).get("sess1"));
+		assertEquals(Collections.singletonList("2"),
+				this.registry.findSubscriptions(createMessage("/topic/foo/")).get("sess1"));
+		assertEquals(0, this.registry.findSubscriptions(createMessage("topic/foo")).size());
+		assertEquals(0, this.registry.findSubscriptions(createMessage("/topic")).size());
+	}
+
+	@Test
+	public void findSubscriptionsWithCaseInsensitivePathMatcher() {
+		AntPathMatcher pathMatcher = new AntPathMatcher();
+		pathMatcher.setCaseSensitive(false);
+		this.registry.registerSubscription(subscribeMessage("sess1", "1", "/Topic/Foo"));
+		this.registry.registerSubscription(subscribeMessage("sess1", "2", "/TOPIC/*"));
+		assertEquals(0, this.registry.findSubscriptions(createMessage("/topic/foo")).size());
+
+		this.registry.setPathMatcher(pathMatcher);
+		assertEquals(Arrays.asList("1", "2"),
+				this.registry.findSubscriptions(createMessage("/topic/foo")).get("sess1"));
+
+		this.registry.setPathMatcher(new AntPathMatcher());
+		assertEquals(Collections.singletonList("1"),
+				this.registry.findSubscriptions(createMessage("/Topic/Foo")).get("sess1"));
+	}
+
+	@Test
+	public void findSubscriptionsCachedAcrossUnrelatedSubscriptions() {
+		AtomicInteger matchCount = new AtomicInteger();
+		this.registry.setPathMatcher(new AntPathMatcher() {
+			@Override
+			public boolean match(String pattern, String path) {
+				if (pattern.equals("/topic/*")) {
+					matchCount.incrementAndGet();
+				}
+				return super.match(pattern, path);
+			}
+		});
+		this.registry.registerSubscription(subscribeMessage("sess1", "1", "/topic/*"));
+		assertEquals(1, this.registry.findSubscriptions(createMessage("/topic/a")).size());
+		assertEquals(1, this.registry.findSubscriptions(createMessage("/topic/a")).size());
+		assertEquals(1, matchCount.get());
+
+		this.registry.registerSubscription(subscribeMessage("sess2", "1", "/queue/b"));
+		assertEquals(1, this.registry.findSubscriptions(createMessage("/topic/a")).size());
+		assertEquals(1, matchCount.get());
+
+		this.registry.registerSubscription(subscribeMessage("sess2", "2", "/topic/a"));
+		assertEquals(2, this.registry.findSubscriptions(createMessage("/topic/a")).size());
+		assertEquals(2, matchCount.get());
+
+		this.registry.unregisterAllSubscriptions("sess2");
+		assertEquals(1, this.registry.findSubscriptions(createMessage("/topic/a")).size());
+		assertEquals(3, matchCount.get());
+	}
+
 	private Message<?> createMessage(String destination) {
 		SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create();
 		accessor.setDestination(destination);
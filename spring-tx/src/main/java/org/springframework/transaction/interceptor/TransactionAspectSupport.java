@@ -20,22 +20,32 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.BeanFactoryUtils;
 import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.NoSuchBeanDefinitionException;
 import org.springframework.beans.factory.annotation.BeanFactoryAnnotationUtils;
 import org.springframework.core.NamedThreadLocal;
+import org.springframework.core.ReactiveAdapter;
+import org.springframework.core.ReactiveAdapterRegistry;
 import org.springframework.lang.Nullable;
 import org.springframework.transaction.NoTransactionException;
 import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.ReactiveTransactionManager;
 import org.springframework.transaction.TransactionStatus;
 import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.reactive.TransactionalOperator;
 import org.springframework.transaction.support.CallbackPreferringPlatformTransactionManager;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.ConcurrentReferenceHashMap;
 import org.springframework.util.StringUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.lang.reflect.Method;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentMap;
 
 /**
@@ -55,6 +65,11 @@ import java.util.concurrent.ConcurrentMap;
  * implementation will perform the actual transaction management, and a
  * {@code TransactionAttributeSource} is used for determining transaction definitions.
  *
+ * <p>Methods returning a reactive type such as {@code Mono} or {@code Flux} are
+ * executed within a transaction of a {@link ReactiveTransactionManager} instead,
+ * if one is available: the transaction spans the subscription to the returned
+ * publisher rather than the method invocation itself.
+ *
  * <p>A transaction aspect is serializable if its {@code PlatformTransactionManager}
  * and {@code TransactionAttributeSource} are serializable.
  *
@@ -78,6 +93,19 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 	 */
 	private static final Object DEFAULT_TRANSACTION_MANAGER_KEY = new Object();
 
+	/**
+	 * Marker for transactions without an applicable reactive transaction manager.
+	 */
+	private static final Object NO_REACTIVE_TRANSACTION_MANAGER = new Object();
+
+	/**
+	 * Marker for methods that are not subject to reactive transaction demarcation.
+	 */
+	private static final Object NO_REACTIVE_TRANSACTION_SUPPORT = new Object();
+
+	private static final boolean reactorPresent = ClassUtils.isPresent(
+			"reactor.core.publisher.Flux", TransactionAspectSupport.class.getClassLoader());
+
 	/**
 	 * Holder to support the {@code currentTransactionStatus()} method,
 	 * and to support communication between different cooperating advices
@@ -157,6 +185,22 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 	private final ConcurrentMap<Object, PlatformTransactionManager> transactionManagerCache =
 			new ConcurrentReferenceHashMap<>(4);
 
+	@Nullable
+	private ReactiveTransactionManager reactiveTransactionManager;
+
+	@Nullable
+	private final ReactiveAdapterRegistry reactiveAdapterRegistry =
+			(reactorPresent ? ReactiveAdapterRegistry.getSharedInstance() : null);
+
+	private final ConcurrentMap<Object, Object> reactiveTransactionManagerCache =
+			new ConcurrentReferenceHashMap<>(4);
+
+	@Nullable
+	private volatile Boolean reactiveTransactionManagerAvailable;
+
+	private final ConcurrentMap<Method, Object> transactionSupportCache =
+			new ConcurrentReferenceHashMap<>(1024);
+
 
 	/**
 	 * Specify the name of the default transaction manager bean.
@@ -192,6 +236,28 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 		return this.transactionManager;
 	}
 
+	/**
+	 * Specify the <em>default</em> reactive transaction manager to use to drive
+	 * transactions for methods returning a reactive type.
+	 * <p>If not specified, a unique {@link ReactiveTransactionManager} bean
+	 * is looked up in the BeanFactory, if any. Without a reactive transaction
+	 * manager, such methods are handled like any other transactional method.
+	 * @since 5.2
+	 * @see #setTransactionManager
+	 */
+	public void setReactiveTransactionManager(@Nullable ReactiveTransactionManager reactiveTransactionManager) {
+		this.reactiveTransactionManager = reactiveTransactionManager;
+	}
+
+	/**
+	 * Return the default reactive transaction manager, or {@code null} if unknown.
+	 * @since 5.2
+	 */
+	@Nullable
+	public ReactiveTransactionManager getReactiveTransactionManager() {
+		return this.reactiveTransactionManager;
+	}
+
 	/**
 	 * Set properties with method names as keys and transaction attribute
 	 * descriptors (parsed via TransactionAttributeEditor) as values:
@@ -264,7 +330,7 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 	 */
 	@Override
 	public void afterPropertiesSet() {
-		if (getTransactionManager() == null && this.beanFactory == null) {
+		if (getTransactionManager() == null && getReactiveTransactionManager() == null && this.beanFactory == null) {
 			throw new IllegalStateException(
 					"Set the 'transactionManager' property or make sure to run within a BeanFactory " +
 					"containing a PlatformTransactionManager bean!");
@@ -298,6 +364,19 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 		// If the transaction attribute is null, the method is non-transactional.
 		TransactionAttributeSource tas = getTransactionAttributeSource();
 		final TransactionAttribute txAttr = (tas != null ? tas.getTransactionAttribute(method, targetClass) : null);
+
+		// Methods returning a reactive type: transaction spans the returned publisher.
+		if (this.reactiveAdapterRegistry != null && txAttr != null && isReactiveTransactionManagerAvailable()) {
+			ReactiveTransactionSupport txSupport = getReactiveTransactionSupport(method, this.reactiveAdapterRegistry);
+			if (txSupport != null) {
+				ReactiveTransactionManager rtm = determineReactiveTransactionManager(txAttr);
+				if (rtm != null) {
+					return txSupport.invokeWithinTransaction(
+							rtm, txAttr, methodIdentification(method, targetClass, txAttr), invocation);
+				}
+			}
+		}
+
 		// 获得事务管理器 PlatformTransactionManager 对象
 		final PlatformTransactionManager tm = determineTransactionManager(txAttr);
 		// 获得方法唯一标识( 类.方法 )，例如：xxx.yyy.UserService.save 。该变量，主要用于 logger 打日志，显示之用。
@@ -386,6 +465,8 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 	 */
 	protected void clearTransactionManagerCache() {
 		this.transactionManagerCache.clear();
+		this.reactiveTransactionManagerCache.clear();
+		this.reactiveTransactionManagerAvailable = null;
 		this.beanFactory = null;
 	}
 
@@ -427,6 +508,97 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 		}
 	}
 
+	/**
+	 * Determine the specific reactive transaction manager to use for the given
+	 * transaction of a method returning a reactive type.
+	 * @param txAttr the TransactionAttribute of the method
+	 * @return the reactive transaction manager, or {@code null} if none is
+	 * applicable, in which case the method is handled like any other
+	 * transactional method
+	 * @since 5.2
+	 */
+	@Nullable
+	protected ReactiveTransactionManager determineReactiveTransactionManager(TransactionAttribute txAttr) {
+		if (this.beanFactory == null) {
+			return getReactiveTransactionManager();
+		}
+
+		String qualifier = txAttr.getQualifier();
+		if (!StringUtils.hasText(qualifier)) {
+			qualifier = this.transactionManagerBeanName;
+		}
+		if (!StringUtils.hasText(qualifier) && getReactiveTransactionManager() != null) {
+			return getReactiveTransactionManager();
+		}
+
+		Object cacheKey = (StringUtils.hasText(qualifier) ? qualifier : DEFAULT_TRANSACTION_MANAGER_KEY);
+		Object txManager = this.reactiveTransactionManagerCache.get(cacheKey);
+		if (txManager == null) {
+			if (StringUtils.hasText(qualifier)) {
+				try {
+					txManager = BeanFactoryAnnotationUtils.qualifiedBeanOfType(
+							this.beanFactory, ReactiveTransactionManager.class, qualifier);
+				}
+				catch (NoSuchBeanDefinitionException ex) {
+					// Qualifier refers to a PlatformTransactionManager
+				}
+			}
+			else {
+				txManager = this.beanFactory.getBeanProvider(ReactiveTransactionManager.class).getIfUnique();
+			}
+			if (txManager == null) {
+				txManager = NO_REACTIVE_TRANSACTION_MANAGER;
+			}
+			this.reactiveTransactionManagerCache.putIfAbsent(cacheKey, txManager);
+		}
+		return (txManager != NO_REACTIVE_TRANSACTION_MANAGER ? (ReactiveTransactionManager) txManager : null);
+	}
+
+	/**
+	 * Check whether a reactive transaction manager is configured or at least
+	 * available in the BeanFactory, so that methods returning a reactive type
+	 * need to be identified at all.
+	 */
+	private boolean isReactiveTransactionManagerAvailable() {
+		if (getReactiveTransactionManager() != null) {
+			return true;
+		}
+		BeanFactory beanFactory = this.beanFactory;
+		if (!(beanFactory instanceof ListableBeanFactory)) {
+			// No BeanFactory: nothing to resolve; other BeanFactory: cannot tell upfront
+			return (beanFactory != null);
+		}
+		Boolean available = this.reactiveTransactionManagerAvailable;
+		if (available == null) {
+			available = (BeanFactoryUtils.beanNamesForTypeIncludingAncestors(
+					(ListableBeanFactory) beanFactory, ReactiveTransactionManager.class).length > 0);
+			this.reactiveTransactionManagerAvailable = available;
+		}
+		return available;
+	}
+
+	/**
+	 * Determine the reactive transaction demarcation for the given method,
+	 * caching the decision per method.
+	 * @return the reactive transaction support for the method's return type,
+	 * or {@code null} if the method does not return a reactive type
+	 */
+	@Nullable
+	private ReactiveTransactionSupport getReactiveTransactionSupport(
+			Method method, ReactiveAdapterRegistry reactiveAdapterRegistry) {
+
+		Object txSupport = this.transactionSupportCache.get(method);
+		if (txSupport == null) {
+			Class<?> returnType = method.getReturnType();
+			// A CompletableFuture is already running once returned, unlike a publisher
+			ReactiveAdapter adapter = (!CompletableFuture.class.isAssignableFrom(returnType) ?
+					reactiveAdapterRegistry.getAdapter(returnType) : null);
+			txSupport = (adapter != null ? new ReactiveTransactionSupport(adapter) : NO_REACTIVE_TRANSACTION_SUPPORT);
+			this.transactionSupportCache.putIfAbsent(method, txSupport);
+		}
+		return (txSupport != NO_REACTIVE_TRANSACTION_SUPPORT ? (ReactiveTransactionSupport) txSupport : null);
+	}
+
 	private PlatformTransactionManager determineQualifiedTransactionManager(BeanFactory beanFactory, String qualifier) {
 		// 从缓存中，获得 PlatformTransactionManager 对象
 	    PlatformTransactionManager txManager = this.transactionManagerCache.get(qualifier);
@@ -763,4 +935,46 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 		}
 	}
 
+
+	/**
+	 * Delegate for Reactor-based transaction demarcation of methods returning
+	 * a reactive type, in order to avoid a hard dependency on Reactor.
+	 */
+	private static class ReactiveTransactionSupport {
+
+		private final ReactiveAdapter adapter;
+
+		public ReactiveTransactionSupport(ReactiveAdapter adapter) {
+			this.adapter = adapter;
+		}
+
+		@SuppressWarnings("serial")
+		public Object invokeWithinTransaction(ReactiveTransactionManager rtm, TransactionAttribute txAttr,
+				String joinpointIdentification, InvocationCallback invocation) {
+
+			// If no name specified, apply method identification as transaction name.
+			TransactionAttribute definition = txAttr;
+			if (txAttr.getName() == null) {
+				definition = new DelegatingTransactionAttribute(txAttr) {
+					@Override
+					public String getName() {
+						return joinpointIdentification;
+					}
+				};
+			}
+
+			// The target method is invoked on subscription, within the transaction;
+			// the operator applies the rollback rules of the transaction attribute.
+			Flux<Object> result = TransactionalOperator.create(rtm, definition).execute(status -> {
+				try {
+					return this.adapter.toPublisher(invocation.proceedWithInvocation());
+				}
+				catch (Throwable ex) {
+					return Mono.error(ex);
+				}
+			});
+			return this.adapter.fromPublisher(this.adapter.isMultiValue() ? result : result.singleOrEmpty());
+		}
+	}
+
 }
@@ -22,6 +22,7 @@ import org.springframework.aop.support.AopUtils;
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.lang.Nullable;
 import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.ReactiveTransactionManager;
 
 import java.io.IOException;
 import java.io.ObjectInputStream;
@@ -111,6 +112,7 @@ public class TransactionInterceptor extends TransactionAspectSupport implements
 		// Deserialize superclass fields.
 		oos.writeObject(getTransactionManagerBeanName());
 		oos.writeObject(getTransactionManager());
+		oos.writeObject(getReactiveTransactionManager());
 		oos.writeObject(getTransactionAttributeSource());
 		oos.writeObject(getBeanFactory());
 	}
@@ -124,6 +126,7 @@ public class TransactionInterceptor extends TransactionAspectSupport implements
 		// for AspectJ aspects (which are not allowed to implement Serializable)!
 		setTransactionManagerBeanName((String) ois.readObject());
 		setTransactionManager((PlatformTransactionManager) ois.readObject());
+		setReactiveTransactionManager((ReactiveTransactionManager) ois.readObject());
 		setTransactionAttributeSource((TransactionAttributeSource) ois.readObject());
 		setBeanFactory((BeanFactory) ois.readObject());
 	}
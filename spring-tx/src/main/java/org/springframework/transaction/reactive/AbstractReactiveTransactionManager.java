@@ -0,0 +1,862 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.transaction.reactive;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import org.springframework.lang.Nullable;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.InvalidTimeoutException;
+import org.springframework.transaction.NestedTransactionNotSupportedException;
+import org.springframework.transaction.ReactiveTransaction;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.TransactionSuspensionNotSupportedException;
+import org.springframework.transaction.UnexpectedRollbackException;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+
+/**
+ * Abstract base class that implements Spring's standard reactive transaction workflow,
+ * serving as basis for concrete reactive transaction managers.
+ *
+ * <p>This base class provides the following workflow handling, like
+ * {@link org.springframework.transaction.support.AbstractPlatformTransactionManager}
+ * does for thread-bound transactions:
+ * <ul>
+ * <li>determines if there is an existing transaction;
+ * <li>applies the appropriate propagation behavior;
+ * <li>suspends and resumes transactions if necessary;
+ * <li>checks the rollback-only flag on commit;
+ * <li>applies the appropriate modification on rollback
+ * (actual rollback or setting rollback-only);
+ * <li>triggers registered synchronization callbacks.
+ * </ul>
+ *
+ * <p>Transaction state is not bound to a thread but held in the
+ * {@link TransactionContext} of the current subscriber context, exposed to
+ * subclasses through the given {@link TransactionSynchronizationManager}.
+ * Nested transactions based on savepoints are not supported:
+ * {@link TransactionDefinition#PROPAGATION_NESTED} starts a new transaction
+ * if none exists and fails within an existing transaction.
+ *
+ * <p>Subclasses have to implement specific template methods for specific
+ * states of a transaction, e.g.: begin, suspend, resume, commit, rollback.
+ * The most important of them are abstract and must be provided by a concrete
+ * implementation; for the rest, defaults are provided, so overriding is optional.
+ *
+ * @since 5.2
+ * @see TransactionSynchronizationManager
+ * @see TransactionalOperator
+ */
+public abstract class AbstractReactiveTransactionManager implements ReactiveTransactionManager {
+
+	protected final Log logger = LogFactory.getLog(getClass());
+
+
+	//---------------------------------------------------------------------
+	// Implementation of ReactiveTransactionManager
+	//---------------------------------------------------------------------
+
+	/**
+	 * This implementation handles propagation behavior. Delegates to
+	 * {@code doGetTransaction}, {@code isExistingTransaction}
+	 * and {@code doBegin}.
+	 * @see #doGetTransaction
+	 * @see #isExistingTransaction
+	 * @see #doBegin
+	 */
+	@Override
+	public final Mono<ReactiveTransaction> getReactiveTransaction(@Nullable TransactionDefinition definition)
+			throws TransactionException {
+
+		TransactionDefinition def = (definition != null ? definition : new DefaultTransactionDefinition());
+
+		return TransactionSynchronizationManager.forCurrentTransaction().flatMap(synchronizationManager -> {
+			Object transaction = doGetTransaction(synchronizationManager);
+
+			// Cache debug flag to avoid repeated checks.
+			boolean debugEnabled = logger.isDebugEnabled();
+
+			if (isExistingTransaction(transaction)) {
+				// Existing transaction found -> check propagation behavior to find out how to behave.
+				return handleExistingTransaction(synchronizationManager, def, transaction, debugEnabled);
+			}
+
+			// Check definition settings for new transaction.
+			if (def.getTimeout() < TransactionDefinition.TIMEOUT_DEFAULT) {
+				return Mono.error(new InvalidTimeoutException("Invalid transaction timeout", def.getTimeout()));
+			}
+
+			// No existing transaction found -> check propagation behavior to find out how to proceed.
+			if (def.getPropagationBehavior() == TransactionDefinition.PROPAGATION_MANDATORY) {
+				return Mono.error(new IllegalTransactionStateException(
+						"No existing transaction found for transaction marked with propagation 'mandatory'"));
+			}
+			else if (def.getPropagationBehavior() == TransactionDefinition.PROPAGATION_REQUIRED ||
+					def.getPropagationBehavior() == TransactionDefinition.PROPAGATION_REQUIRES_NEW ||
+					def.getPropagationBehavior() == TransactionDefinition.PROPAGATION_NESTED) {
+				return suspend(synchronizationManager, null).flatMap(suspendedResources -> {
+					if (debugEnabled) {
+						logger.debug("Creating new transaction with name [" + def.getName() + "]: " + def);
+					}
+					GenericReactiveTransaction status = newReactiveTransaction(synchronizationManager,
+							def, transaction, true, debugEnabled, suspendedResources);
+					return doBegin(synchronizationManager, transaction, def)
+							.doOnSuccess(ignore -> prepareSynchronization(synchronizationManager, status, def))
+							.thenReturn((ReactiveTransaction) status)
+							.onErrorResume(ex -> resume(synchronizationManager, null, suspendedResources)
+									.then(Mono.error(ex)));
+				});
+			}
+			else {
+				// Create "empty" transaction: no actual transaction, but potentially synchronization.
+				if (def.getIsolationLevel() != TransactionDefinition.ISOLATION_DEFAULT && logger.isWarnEnabled()) {
+					logger.warn("Custom isolation level specified but no actual transaction initiated; " +
+							"isolation level will effectively be ignored: " + def);
+				}
+				GenericReactiveTransaction status = newReactiveTransaction(synchronizationManager,
+						def, null, true, debugEnabled, null);
+				prepareSynchronization(synchronizationManager, status, def);
+				return Mono.just(status);
+			}
+		});
+	}
+
+	/**
+	 * Create a ReactiveTransaction for an existing transaction.
+	 */
+	private Mono<ReactiveTransaction> handleExistingTransaction(TransactionSynchronizationManager synchronizationManager,
+			TransactionDefinition definition, Object transaction, boolean debugEnabled) throws TransactionException {
+
+		if (definition.getPropagationBehavior() == TransactionDefinition.PROPAGATION_NEVER) {
+			return Mono.error(new IllegalTransactionStateException(
+					"Existing transaction found for transaction marked with propagation 'never'"));
+		}
+
+		if (definition.getPropagationBehavior() == TransactionDefinition.PROPAGATION_NOT_SUPPORTED) {
+			if (debugEnabled) {
+				logger.debug("Suspending current transaction");
+			}
+			return suspend(synchronizationManager, transaction).map(suspendedResources -> {
+				GenericReactiveTransaction status = newReactiveTransaction(synchronizationManager,
+						definition, null, false, debugEnabled, suspendedResources);
+				prepareSynchronization(synchronizationManager, status, definition);
+				return status;
+			});
+		}
+
+		if (definition.getPropagationBehavior() == TransactionDefinition.PROPAGATION_REQUIRES_NEW) {
+			if (debugEnabled) {
+				logger.debug("Suspending current transaction, creating new transaction with name [" +
+						definition.getName() + "]");
+			}
+			return suspend(synchronizationManager, transaction).flatMap(suspendedResources -> {
+				GenericReactiveTransaction status = newReactiveTransaction(synchronizationManager,
+						definition, transaction, true, debugEnabled, suspendedResources);
+				return doBegin(synchronizationManager, transaction, definition)
+						.doOnSuccess(ignore -> prepareSynchronization(synchronizationManager, status, definition))
+						.thenReturn((ReactiveTransaction) status)
+						.onErrorResume(ex -> resume(synchronizationManager, null, suspendedResources)
+								.then(Mono.error(ex)));
+			});
+		}
+
+		if (definition.getPropagationBehavior() == TransactionDefinition.PROPAGATION_NESTED) {
+			return Mono.error(new NestedTransactionNotSupportedException(
+					"Reactive transaction manager does not support nested transactions"));
+		}
+
+		// Assumably PROPAGATION_SUPPORTS or PROPAGATION_REQUIRED.
+		if (debugEnabled) {
+			logger.debug("Participating in existing transaction");
+		}
+		GenericReactiveTransaction status = newReactiveTransaction(synchronizationManager,
+				definition, transaction, false, debugEnabled, null);
+		prepareSynchronization(synchronizationManager, status, definition);
+		return Mono.just(status);
+	}
+
+	/**
+	 * Create a new GenericReactiveTransaction for the given arguments,
+	 * opening a new transaction synchronization unless already active.
+	 */
+	private GenericReactiveTransaction newReactiveTransaction(
+			TransactionSynchronizationManager synchronizationManager, TransactionDefinition definition,
+			@Nullable Object transaction, boolean newTransaction, boolean debug,
+			@Nullable Object suspendedResources) {
+
+		return new GenericReactiveTransaction(transaction, newTransaction,
+				!synchronizationManager.isSynchronizationActive(),
+				definition.isReadOnly(), debug, suspendedResources);
+	}
+
+	/**
+	 * Initialize transaction synchronization as appropriate.
+	 */
+	private void prepareSynchronization(TransactionSynchronizationManager synchronizationManager,
+			GenericReactiveTransaction status, TransactionDefinition definition) {
+
+		if (status.isNewSynchronization()) {
+			synchronizationManager.setActualTransactionActive(status.hasTransaction());
+			synchronizationManager.setCurrentTransactionIsolationLevel(
+					definition.getIsolationLevel() != TransactionDefinition.ISOLATION_DEFAULT ?
+							definition.getIsolationLevel() : null);
+			synchronizationManager.setCurrentTransactionReadOnly(definition.isReadOnly());
+			synchronizationManager.setCurrentTransactionName(definition.getName());
+			synchronizationManager.initSynchronization();
+		}
+	}
+
+	/**
+	 * Suspend the given transaction. Suspends transaction synchronization first,
+	 * then delegates to the {@code doSuspend} template method.
+	 * @param synchronizationManager the synchronization manager bound to the current transaction
+	 * @param transaction the current transaction object
+	 * (or {@code null} to just suspend active synchronizations, if any)
+	 * @return an object that holds suspended resources
+	 * @see #doSuspend
+	 * @see #resume
+	 */
+	private Mono<SuspendedResourcesHolder> suspend(TransactionSynchronizationManager synchronizationManager,
+			@Nullable Object transaction) throws TransactionException {
+
+		if (synchronizationManager.isSynchronizationActive()) {
+			return doSuspendSynchronization(synchronizationManager).flatMap(suspendedSynchronizations -> {
+				Mono<SuspendedResourcesHolder> suspendedResources = (transaction != null ?
+						doSuspend(synchronizationManager, transaction).map(SuspendedResourcesHolder::new)
+								.defaultIfEmpty(new SuspendedResourcesHolder(null)) :
+						Mono.just(new SuspendedResourcesHolder(null)));
+				return suspendedResources.map(holder -> {
+					holder.suspendSynchronization(synchronizationManager, suspendedSynchronizations);
+					return holder;
+				}).onErrorResume(ex -> doResumeSynchronization(synchronizationManager, suspendedSynchronizations)
+						.then(Mono.error(ex)));
+			});
+		}
+		else if (transaction != null) {
+			// Transaction active but no synchronization active.
+			return doSuspend(synchronizationManager, transaction).map(SuspendedResourcesHolder::new)
+					.defaultIfEmpty(new SuspendedResourcesHolder(null));
+		}
+		else {
+			// Neither transaction nor synchronization active.
+			return Mono.just(new SuspendedResourcesHolder(null));
+		}
+	}
+
+	/**
+	 * Resume the given transaction. Delegates to the {@code doResume}
+	 * template method first, then resuming transaction synchronization.
+	 * @param synchronizationManager the synchronization manager bound to the current transaction
+	 * @param transaction the current transaction object
+	 * @param resourcesHolder the object that holds suspended resources,
+	 * as returned by {@code suspend}
+	 * @see #doResume
+	 * @see #suspend
+	 */
+	private Mono<Void> resume(TransactionSynchronizationManager synchronizationManager,
+			@Nullable Object transaction, SuspendedResourcesHolder resourcesHolder) throws TransactionException {
+
+		return Mono.defer(() -> {
+			Mono<Void> resume = Mono.empty();
+			Object suspendedResources = resourcesHolder.suspendedResources;
+			if (suspendedResources != null) {
+				resume = doResume(synchronizationManager, transaction, suspendedResources);
+			}
+			List<TransactionSynchronization> suspendedSynchronizations = resourcesHolder.suspendedSynchronizations;
+			if (suspendedSynchronizations != null) {
+				resume = resume.then(Mono.defer(() -> {
+					resourcesHolder.resumeSynchronization(synchronizationManager);
+					return doResumeSynchronization(synchronizationManager, suspendedSynchronizations);
+				}));
+			}
+			return resume;
+		});
+	}
+
+	/**
+	 * Suspend all current synchronizations and deactivate transaction
+	 * synchronization for the current transaction context.
+	 * @param synchronizationManager the synchronization manager bound to the current transaction
+	 * @return the List of suspended TransactionSynchronization objects
+	 */
+	private Mono<List<TransactionSynchronization>> doSuspendSynchronization(
+			TransactionSynchronizationManager synchronizationManager) {
+
+		List<TransactionSynchronization> suspendedSynchronizations = synchronizationManager.getSynchronizations();
+		return Flux.fromIterable(suspendedSynchronizations)
+				.concatMap(TransactionSynchronization::suspend)
+				.then(Mono.fromRunnable(synchronizationManager::clearSynchronization))
+				.thenReturn(suspendedSynchronizations);
+	}
+
+	/**
+	 * Reactivate transaction synchronization for the current transaction context
+	 * and resume all given synchronizations.
+	 * @param synchronizationManager the synchronization manager bound to the current transaction
+	 * @param suspendedSynchronizations a List of TransactionSynchronization objects
+	 */
+	private Mono<Void> doResumeSynchronization(TransactionSynchronizationManager synchronizationManager,
+			List<TransactionSynchronization> suspendedSynchronizations) {
+
+		synchronizationManager.initSynchronization();
+		return Flux.fromIterable(suspendedSynchronizations)
+				.concatMap(synchronization -> synchronization.resume()
+						.then(Mono.fromRunnable(() -> synchronizationManager.registerSynchronization(synchronization))))
+				.then();
+	}
+
+	/**
+	 * This implementation of commit handles participating in existing
+	 * transactions and programmatic rollback requests.
+	 * Delegates to {@code isRollbackOnly}, {@code doCommit}
+	 * and {@code rollback}.
+	 * @see ReactiveTransaction#isRollbackOnly()
+	 * @see #doCommit
+	 * @see #rollback
+	 */
+	@Override
+	public final Mono<Void> commit(ReactiveTransaction transaction) throws TransactionException {
+		if (transaction.isCompleted()) {
+			return Mono.error(new IllegalTransactionStateException(
+					"Transaction is already completed - do not call commit or rollback more than once per transaction"));
+		}
+
+		return TransactionSynchronizationManager.forCurrentTransaction().flatMap(synchronizationManager -> {
+			GenericReactiveTransaction status = (GenericReactiveTransaction) transaction;
+			if (status.isLocalRollbackOnly()) {
+				if (status.isDebug()) {
+					logger.debug("Transactional code has requested rollback");
+				}
+				return processRollback(synchronizationManager, status);
+			}
+			if (status.isGlobalRollbackOnly()) {
+				if (status.isDebug()) {
+					logger.debug("Global transaction is marked as rollback-only but transactional code requested commit");
+				}
+				Mono<Void> rollback = processRollback(synchronizationManager, status);
+				// Throw UnexpectedRollbackException only at outermost transaction boundary.
+				return (status.isNewTransaction() ? rollback.then(Mono.error(new UnexpectedRollbackException(
+						"Transaction rolled back because it has been marked as rollback-only"))) : rollback);
+			}
+			return processCommit(synchronizationManager, status);
+		});
+	}
+
+	/**
+	 * Process an actual commit.
+	 * Rollback-only flags have already been checked and applied.
+	 * @param synchronizationManager the synchronization manager bound to the current transaction
+	 * @param status object representing the transaction
+	 * @throws TransactionException in case of commit failure
+	 */
+	private Mono<Void> processCommit(TransactionSynchronizationManager synchronizationManager,
+			GenericReactiveTransaction status) throws TransactionException {
+
+		AtomicBoolean beforeCompletionInvoked = new AtomicBoolean();
+
+		Mono<Void> commit = prepareForCommit(synchronizationManager, status)
+				.then(triggerBeforeCommit(synchronizationManager, status))
+				.then(Mono.defer(() -> {
+					beforeCompletionInvoked.set(true);
+					return triggerBeforeCompletion(synchronizationManager, status);
+				}))
+				.then(Mono.defer(() -> {
+					if (status.isNewTransaction()) {
+						if (status.isDebug()) {
+							logger.debug("Initiating transaction commit");
+						}
+						return doCommit(synchronizationManager, status);
+					}
+					return Mono.empty();
+				}))
+				.onErrorResume(ex -> {
+					if (ex instanceof TransactionException) {
+						// Can only be caused by doCommit.
+						return triggerAfterCompletion(synchronizationManager, status,
+								TransactionSynchronization.STATUS_UNKNOWN).then(Mono.error(ex));
+					}
+					// RuntimeException or Error from a synchronization callback: roll back.
+					Mono<Void> beforeCompletion = (beforeCompletionInvoked.get() ? Mono.empty() :
+							triggerBeforeCompletion(synchronizationManager, status));
+					return beforeCompletion.then(doRollbackOnCommitException(synchronizationManager, status, ex));
+				})
+				.then(Mono.defer(() -> triggerAfterCommit(synchronizationManager, status)
+						.then(triggerAfterCompletion(synchronizationManager, status,
+								TransactionSynchronization.STATUS_COMMITTED))));
+
+		return commit
+				.onErrorResume(ex -> cleanupAfterCompletion(synchronizationManager, status).then(Mono.error(ex)))
+				.then(Mono.defer(() -> cleanupAfterCompletion(synchronizationManager, status)));
+	}
+
+	/**
+	 * This implementation of rollback handles participating in existing
+	 * transactions. Delegates to {@code doRollback} and
+	 * {@code doSetRollbackOnly}.
+	 * @see #doRollback
+	 * @see #doSetRollbackOnly
+	 */
+	@Override
+	public final Mono<Void> rollback(ReactiveTransaction transaction) throws TransactionException {
+		if (transaction.isCompleted()) {
+			return Mono.error(new IllegalTransactionStateException(
+					"Transaction is already completed - do not call commit or rollback more than once per transaction"));
+		}
+		return TransactionSynchronizationManager.forCurrentTransaction().flatMap(synchronizationManager ->
+				processRollback(synchronizationManager, (GenericReactiveTransaction) transaction));
+	}
+
+	/**
+	 * Process an actual rollback.
+	 * The completed flag has already been checked.
+	 * @param synchronizationManager the synchronization manager bound to the current transaction
+	 * @param status object representing the transaction
+	 * @throws TransactionException in case of rollback failure
+	 */
+	private Mono<Void> processRollback(TransactionSynchronizationManager synchronizationManager,
+			GenericReactiveTransaction status) {
+
+		Mono<Void> rollback = triggerBeforeCompletion(synchronizationManager, status)
+				.then(Mono.defer(() -> {
+					if (status.isNewTransaction()) {
+						if (status.isDebug()) {
+							logger.debug("Initiating transaction rollback");
+						}
+						return doRollback(synchronizationManager, status);
+					}
+					else if (status.hasTransaction()) {
+						if (status.isDebug()) {
+							logger.debug("Participating transaction failed - marking existing transaction as rollback-only");
+						}
+						return doSetRollbackOnly(synchronizationManager, status);
+					}
+					else {
+						logger.debug("Should roll back transaction but cannot - no transaction available");
+						return Mono.empty();
+					}
+				}))
+				.onErrorResume(ex -> triggerAfterCompletion(synchronizationManager, status,
+						TransactionSynchronization.STATUS_UNKNOWN).then(Mono.error(ex)))
+				.then(Mono.defer(() -> triggerAfterCompletion(synchronizationManager, status,
+						TransactionSynchronization.STATUS_ROLLED_BACK)));
+
+		return rollback
+				.onErrorResume(ex -> cleanupAfterCompletion(synchronizationManager, status).then(Mono.error(ex)))
+				.then(Mono.defer(() -> cleanupAfterCompletion(synchronizationManager, status)));
+	}
+
+	/**
+	 * Invoke {@code doRollback}, handling rollback exceptions properly,
+	 * and propagate the original commit exception unless the rollback failed.
+	 * @param synchronizationManager the synchronization manager bound to the current transaction
+	 * @param status object representing the transaction
+	 * @param ex the thrown application exception or error
+	 * @throws TransactionException in case of rollback failure
+	 * @see #doRollback
+	 */
+	private Mono<Void> doRollbackOnCommitException(TransactionSynchronizationManager synchronizationManager,
+			GenericReactiveTransaction status, Throwable ex) throws TransactionException {
+
+		return Mono.defer(() -> {
+			if (status.isNewTransaction()) {
+				if (status.isDebug()) {
+					logger.debug("Initiating transaction rollback after commit exception", ex);
+				}
+				return doRollback(synchronizationManager, status);
+			}
+			else if (status.hasTransaction()) {
+				if (status.isDebug()) {
+					logger.debug("Marking existing transaction as rollback-only after commit exception", ex);
+				}
+				return doSetRollbackOnly(synchronizationManager, status);
+			}
+			return Mono.empty();
+		}).onErrorResume(rbex -> {
+			logger.error("Commit exception overridden by rollback exception", ex);
+			return triggerAfterCompletion(synchronizationManager, status, TransactionSynchronization.STATUS_UNKNOWN)
+					.then(Mono.error(rbex));
+		}).then(Mono.defer(() -> triggerAfterCompletion(synchronizationManager, status,
+				TransactionSynchronization.STATUS_ROLLED_BACK))).then(Mono.error(ex));
+	}
+
+	/**
+	 * Trigger {@code beforeCommit} callbacks.
+	 * @param synchronizationManager the synchronization manager bound to the current transaction
+	 * @param status object representing the transaction
+	 */
+	private Mono<Void> triggerBeforeCommit(TransactionSynchronizationManager synchronizationManager,
+			GenericReactiveTransaction status) {
+
+		if (status.isNewSynchronization()) {
+			if (status.isDebug()) {
+				logger.trace("Triggering beforeCommit synchronization");
+			}
+			return Flux.fromIterable(synchronizationManager.getSynchronizations())
+					.concatMap(synchronization -> synchronization.beforeCommit(status.isReadOnly()))
+					.then();
+		}
+		return Mono.empty();
+	}
+
+	/**
+	 * Trigger {@code beforeCompletion} callbacks. Errors emitted by a callback
+	 * are logged but not propagated.
+	 * @param synchronizationManager the synchronization manager bound to the current transaction
+	 * @param status object representing the transaction
+	 */
+	private Mono<Void> triggerBeforeCompletion(TransactionSynchronizationManager synchronizationManager,
+			GenericReactiveTransaction status) {
+
+		if (status.isNewSynchronization()) {
+			if (status.isDebug()) {
+				logger.trace("Triggering beforeCompletion synchronization");
+			}
+			return Flux.fromIterable(synchronizationManager.getSynchronizations())
+					.concatMap(synchronization -> synchronization.beforeCompletion().onErrorResume(ex -> {
+						logger.error("TransactionSynchronization.beforeCompletion threw exception", ex);
+						return Mono.empty();
+					}))
+					.then();
+		}
+		return Mono.empty();
+	}
+
+	/**
+	 * Trigger {@code afterCommit} callbacks.
+	 * @param synchronizationManager the synchronization manager bound to the current transaction
+	 * @param status object representing the transaction
+	 */
+	private Mono<Void> triggerAfterCommit(TransactionSynchronizationManager synchronizationManager,
+			GenericReactiveTransaction status) {
+
+		if (status.isNewSynchronization()) {
+			if (status.isDebug()) {
+				logger.trace("Triggering afterCommit synchronization");
+			}
+			return Flux.fromIterable(synchronizationManager.getSynchronizations())
+					.concatMap(TransactionSynchronization::afterCommit)
+					.then();
+		}
+		return Mono.empty();
+	}
+
+	/**
+	 * Trigger {@code afterCompletion} callbacks, deactivating synchronization
+	 * beforehand. Errors emitted by a callback are logged but not propagated.
+	 * <p>Synchronizations registered within a participating transaction are
+	 * invoked with {@link TransactionSynchronization#STATUS_UNKNOWN} since the
+	 * outcome of the outer transaction is not known yet.
+	 * @param synchronizationManager the synchronization manager bound to the current transaction
+	 * @param status object representing the transaction
+	 * @param completionStatus completion status according to TransactionSynchronization constants
+	 */
+	private Mono<Void> triggerAfterCompletion(TransactionSynchronizationManager synchronizationManager,
+			GenericReactiveTransaction status, int completionStatus) {
+
+		if (status.isNewSynchronization() && synchronizationManager.isSynchronizationActive()) {
+			List<TransactionSynchronization> synchronizations = synchronizationManager.getSynchronizations();
+			synchronizationManager.clearSynchronization();
+			int actualStatus = (!status.hasTransaction() || status.isNewTransaction() ?
+					completionStatus : TransactionSynchronization.STATUS_UNKNOWN);
+			if (status.isDebug()) {
+				logger.trace("Triggering afterCompletion synchronization");
+			}
+			return Flux.fromIterable(synchronizations)
+					.concatMap(synchronization -> synchronization.afterCompletion(actualStatus).onErrorResume(ex -> {
+						logger.error("TransactionSynchronization.afterCompletion threw exception", ex);
+						return Mono.empty();
+					}))
+					.then();
+		}
+		return Mono.empty();
+	}
+
+	/**
+	 * Clean up after completion, clearing synchronization if necessary,
+	 * and invoking doCleanupAfterCompletion.
+	 * @param synchronizationManager the synchronization manager bound to the current transaction
+	 * @param status object representing the transaction
+	 * @see #doCleanupAfterCompletion
+	 */
+	private Mono<Void> cleanupAfterCompletion(TransactionSynchronizationManager synchronizationManager,
+			GenericReactiveTransaction status) {
+
+		return Mono.defer(() -> {
+			status.setCompleted();
+			if (status.isNewSynchronization()) {
+				synchronizationManager.clear();
+			}
+			Mono<Void> cleanup = Mono.empty();
+			if (status.isNewTransaction()) {
+				cleanup = doCleanupAfterCompletion(synchronizationManager, status.getTransaction());
+			}
+			if (status.getSuspendedResources() != null) {
+				if (status.isDebug()) {
+					logger.debug("Resuming suspended transaction after completion of inner transaction");
+				}
+				Object transaction = (status.hasTransaction() ? status.getTransaction() : null);
+				cleanup = cleanup.then(resume(synchronizationManager, transaction,
+						(SuspendedResourcesHolder) status.getSuspendedResources()));
+			}
+			return cleanup;
+		});
+	}
+
+
+	//---------------------------------------------------------------------
+	// Template methods to be implemented in subclasses
+	//---------------------------------------------------------------------
+
+	/**
+	 * Return a transaction object for the current transaction state.
+	 * <p>The returned object will usually be specific to the concrete transaction
+	 * manager implementation, carrying corresponding transaction state in a
+	 * modifiable fashion. This object will be passed into the other template
+	 * methods (e.g. doBegin and doCommit), either directly or as part of a
+	 * GenericReactiveTransaction instance.
+	 * <p>The returned object should contain information about any existing
+	 * transaction, that is, a transaction that has already started before the
+	 * current {@code getReactiveTransaction} call on the transaction manager.
+	 * Consequently, a {@code doGetTransaction} implementation will usually
+	 * look for an existing transaction and store corresponding state in the
+	 * returned transaction object.
+	 * @param synchronizationManager the synchronization manager bound to the current transaction
+	 * @return the current transaction object
+	 * @throws org.springframework.transaction.CannotCreateTransactionException
+	 * if transaction support is not available
+	 * @see #doBegin
+	 * @see #doCommit
+	 * @see #doRollback
+	 * @see GenericReactiveTransaction#getTransaction
+	 */
+	protected abstract Object doGetTransaction(TransactionSynchronizationManager synchronizationManager)
+			throws TransactionException;
+
+	/**
+	 * Check if the given transaction object indicates an existing transaction
+	 * (that is, a transaction which has already started).
+	 * <p>The result will be evaluated according to the specified propagation
+	 * behavior for the new transaction. An existing transaction might get
+	 * suspended (in case of PROPAGATION_REQUIRES_NEW), or the new transaction
+	 * might participate in the existing one (in case of PROPAGATION_REQUIRED).
+	 * <p>The default implementation returns {@code false}, assuming that
+	 * participating in existing transactions is generally not supported.
+	 * Subclasses are of course encouraged to provide such support.
+	 * @param transaction transaction object returned by doGetTransaction
+	 * @return if there is an existing transaction
+	 * @throws TransactionException in case of system errors
+	 * @see #doGetTransaction
+	 */
+	protected boolean isExistingTransaction(Object transaction) throws TransactionException {
+		return false;
+	}
+
+	/**
+	 * Begin a new transaction with semantics according to the given transaction
+	 * definition. Does not have to care about applying the propagation behavior,
+	 * as this has already been handled by this abstract manager.
+	 * <p>This method gets called when the transaction manager has decided to actually
+	 * start a new transaction. Either there wasn't any transaction before, or the
+	 * previous transaction has been suspended.
+	 * @param synchronizationManager the synchronization manager bound to the current transaction
+	 * @param transaction transaction object returned by {@code doGetTransaction}
+	 * @param definition a TransactionDefinition instance, describing propagation
+	 * behavior, isolation level, read-only flag, timeout, and transaction name
+	 * @throws TransactionException in case of creation or system errors
+	 * @throws org.springframework.transaction.NestedTransactionNotSupportedException
+	 * if the underlying transaction does not support nesting (e.g. through savepoints)
+	 */
+	protected abstract Mono<Void> doBegin(TransactionSynchronizationManager synchronizationManager,
+			Object transaction, TransactionDefinition definition) throws TransactionException;
+
+	/**
+	 * Suspend the resources of the current transaction.
+	 * Transaction synchronization will already have been suspended.
+	 * <p>The default implementation emits a TransactionSuspensionNotSupportedException,
+	 * assuming that transaction suspension is generally not supported.
+	 * @param synchronizationManager the synchronization manager bound to the current transaction
+	 * @param transaction transaction object returned by {@code doGetTransaction}
+	 * @return an object that holds suspended resources
+	 * (will be kept unexamined for passing it into doResume)
+	 * @throws org.springframework.transaction.TransactionSuspensionNotSupportedException
+	 * if suspending is not supported by the transaction manager implementation
+	 * @throws TransactionException in case of system errors
+	 * @see #doResume
+	 */
+	protected Mono<Object> doSuspend(TransactionSynchronizationManager synchronizationManager,
+			Object transaction) throws TransactionException {
+
+		return Mono.error(new TransactionSuspensionNotSupportedException(
+				"Transaction manager [" + getClass().getName() + "] does not support transaction suspension"));
+	}
+
+	/**
+	 * Resume the resources of the current transaction.
+	 * Transaction synchronization will be resumed afterwards.
+	 * <p>The default implementation emits a TransactionSuspensionNotSupportedException,
+	 * assuming that transaction suspension is generally not supported.
+	 * @param synchronizationManager the synchronization manager bound to the current transaction
+	 * @param transaction transaction object returned by {@code doGetTransaction}
+	 * @param suspendedResources the object that holds suspended resources,
+	 * as returned by doSuspend
+	 * @throws org.springframework.transaction.TransactionSuspensionNotSupportedException
+	 * if resuming is not supported by the transaction manager implementation
+	 * @throws TransactionException in case of system errors
+	 * @see #doSuspend
+	 */
+	protected Mono<Void> doResume(TransactionSynchronizationManager synchronizationManager,
+			@Nullable Object transaction, Object suspendedResources) throws TransactionException {
+
+		return Mono.error(new TransactionSuspensionNotSupportedException(
+				"Transaction manager [" + getClass().getName() + "] does not support transaction suspension"));
+	}
+
+	/**
+	 * Make preparations for commit, to be performed before the
+	 * {@code beforeCommit} synchronization callbacks occur.
+	 * <p>Note that exceptions will get propagated to the commit caller
+	 * and cause a rollback of the transaction.
+	 * @param synchronizationManager the synchronization manager bound to the current transaction
+	 * @param status the status representation of the transaction
+	 * @throws RuntimeException in case of errors; will be <b>propagated to the caller</b>
+	 * (note: do not emit TransactionException subclasses here!)
+	 */
+	protected Mono<Void> prepareForCommit(TransactionSynchronizationManager synchronizationManager,
+			GenericReactiveTransaction status) {
+
+		return Mono.empty();
+	}
+
+	/**
+	 * Perform an actual commit of the given transaction.
+	 * <p>An implementation does not need to check the "new transaction" flag
+	 * or the rollback-only flag; this will already have been handled before.
+	 * Usually, a straight commit will be performed on the transaction object
+	 * contained in the passed-in status.
+	 * @param synchronizationManager the synchronization manager bound to the current transaction
+	 * @param status the status representation of the transaction
+	 * @throws TransactionException in case of commit or system errors
+	 * @see GenericReactiveTransaction#getTransaction
+	 */
+	protected abstract Mono<Void> doCommit(TransactionSynchronizationManager synchronizationManager,
+			GenericReactiveTransaction status) throws TransactionException;
+
+	/**
+	 * Perform an actual rollback of the given transaction.
+	 * <p>An implementation does not need to check the "new transaction" flag;
+	 * this will already have been handled before. Usually, a straight rollback
+	 * will be performed on the transaction object contained in the passed-in status.
+	 * @param synchronizationManager the synchronization manager bound to the current transaction
+	 * @param status the status representation of the transaction
+	 * @throws TransactionException in case of system errors
+	 * @see GenericReactiveTransaction#getTransaction
+	 */
+	protected abstract Mono<Void> doRollback(TransactionSynchronizationManager synchronizationManager,
+			GenericReactiveTransaction status) throws TransactionException;
+
+	/**
+	 * Set the given transaction rollback-only. Only called on rollback
+	 * if the current transaction participates in an existing one.
+	 * <p>The default implementation emits an IllegalTransactionStateException,
+	 * assuming that participating in existing transactions is generally not
+	 * supported. Subclasses are of course encouraged to provide such support,
+	 * typically marking a {@link org.springframework.transaction.support.SmartTransactionObject}
+	 * as rollback-only.
+	 * @param synchronizationManager the synchronization manager bound to the current transaction
+	 * @param status the status representation of the transaction
+	 * @throws TransactionException in case of system errors
+	 */
+	protected Mono<Void> doSetRollbackOnly(TransactionSynchronizationManager synchronizationManager,
+			GenericReactiveTransaction status) throws TransactionException {
+
+		return Mono.error(new IllegalTransactionStateException(
+				"Participating in existing transactions is not supported - when 'isExistingTransaction' " +
+				"returns true, appropriate 'doSetRollbackOnly' behavior must be provided"));
+	}
+
+	/**
+	 * Cleanup resources after transaction completion.
+	 * <p>Called after {@code doCommit} and {@code doRollback} execution,
+	 * on any outcome. The default implementation does nothing.
+	 * <p>Should not throw any exceptions but just issue warnings on errors.
+	 * @param synchronizationManager the synchronization manager bound to the current transaction
+	 * @param transaction transaction object returned by {@code doGetTransaction}
+	 */
+	protected Mono<Void> doCleanupAfterCompletion(TransactionSynchronizationManager synchronizationManager,
+			Object transaction) {
+
+		return Mono.empty();
+	}
+
+
+	/**
+	 * Holder for suspended resources.
+	 * Used internally by {@code suspend} and {@code resume}.
+	 */
+	protected static final class SuspendedResourcesHolder {
+
+		@Nullable
+		private final Object suspendedResources;
+
+		@Nullable
+		private List<TransactionSynchronization> suspendedSynchronizations;
+
+		@Nullable
+		private String name;
+
+		private boolean readOnly;
+
+		@Nullable
+		private Integer isolationLevel;
+
+		private boolean wasActive;
+
+		private SuspendedResourcesHolder(@Nullable Object suspendedResources) {
+			this.suspendedResources = suspendedResources;
+		}
+
+		private void suspendSynchronization(TransactionSynchronizationManager synchronizationManager,
+				List<TransactionSynchronization> suspendedSynchronizations) {
+
+			this.suspendedSynchronizations = suspendedSynchronizations;
+			this.name = synchronizationManager.getCurrentTransactionName();
+			this.readOnly = synchronizationManager.isCurrentTransactionReadOnly();
+			this.isolationLevel = synchronizationManager.getCurrentTransactionIsolationLevel();
+			this.wasActive = synchronizationManager.isActualTransactionActive();
+			synchronizationManager.setCurrentTransactionName(null);
+			synchronizationManager.setCurrentTransactionReadOnly(false);
+			synchronizationManager.setCurrentTransactionIsolationLevel(null);
+			synchronizationManager.setActualTransactionActive(false);
+		}
+
+		private void resumeSynchronization(TransactionSynchronizationManager synchronizationManager) {
+			synchronizationManager.setActualTransactionActive(this.wasActive);
+			synchronizationManager.setCurrentTransactionIsolationLevel(this.isolationLevel);
+			synchronizationManager.setCurrentTransactionReadOnly(this.readOnly);
+			synchronizationManager.setCurrentTransactionName(this.name);
+		}
+	}
+
+}
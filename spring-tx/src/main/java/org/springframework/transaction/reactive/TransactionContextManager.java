@@ -0,0 +1,65 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.transaction.reactive;
+
+import java.util.function.Function;
+
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+import org.springframework.transaction.NoTransactionException;
+
+/**
+ * Delegate to obtain the {@link TransactionContext} of the current subscriber
+ * context, and to register a new one for a transactional pipeline.
+ *
+ * <p>Mainly for internal use within the framework: transactional code
+ * typically interacts with {@link TransactionSynchronizationManager}.
+ *
+ * @since 5.2
+ * @see TransactionContext
+ */
+public abstract class TransactionContextManager {
+
+	/**
+	 * Obtain the current {@link TransactionContext} from the subscriber context.
+	 * @return the current transaction context, emitting a
+	 * {@link NoTransactionException} if the subscriber context
+	 * does not hold a transaction context
+	 */
+	public static Mono<TransactionContext> currentContext() {
+		return Mono.subscriberContext().flatMap(context -> {
+			if (context.hasKey(TransactionContext.class)) {
+				return Mono.just(context.get(TransactionContext.class));
+			}
+			return Mono.error(new NoTransactionException("No transaction in context"));
+		});
+	}
+
+	/**
+	 * Return a function to apply to the subscriber context of a transactional
+	 * pipeline, registering a new {@link TransactionContext} unless the
+	 * subscriber context already holds one, e.g. for an outer pipeline.
+	 * @see Mono#subscriberContext(Function)
+	 * @see reactor.core.publisher.Flux#subscriberContext(Function)
+	 */
+	public static Function<Context, Context> getOrCreateContext() {
+		return context -> (context.hasKey(TransactionContext.class) ? context :
+				context.put(TransactionContext.class, new TransactionContext()));
+	}
+
+}
@@ -0,0 +1,323 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.transaction.reactive;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import reactor.core.publisher.Mono;
+
+import org.springframework.core.annotation.AnnotationAwareOrderComparator;
+import org.springframework.lang.Nullable;
+import org.springframework.transaction.NoTransactionException;
+import org.springframework.util.Assert;
+
+/**
+ * Central delegate that manages resources and transaction synchronizations
+ * per subscriber context. To be used by resource management code but not
+ * by typical application code.
+ *
+ * <p>This is the reactive counterpart of
+ * {@link org.springframework.transaction.support.TransactionSynchronizationManager}:
+ * instead of {@code ThreadLocal}s, it operates on the {@link TransactionContext}
+ * held in the Reactor subscriber context of the current transactional pipeline,
+ * as obtained through {@link #forCurrentTransaction()}.
+ *
+ * <p>Supports one resource per key without overwriting, that is, a resource
+ * needs to be removed before a new one can be set for the same key.
+ * Supports a list of transaction synchronizations if synchronization is active.
+ *
+ * @since 5.2
+ * @see #forCurrentTransaction()
+ * @see AbstractReactiveTransactionManager
+ */
+public class TransactionSynchronizationManager {
+
+	private final TransactionContext transactionContext;
+
+
+	/**
+	 * Create a new {@code TransactionSynchronizationManager} for the given context.
+	 * @param transactionContext the transaction context to operate on
+	 */
+	public TransactionSynchronizationManager(TransactionContext transactionContext) {
+		Assert.notNull(transactionContext, "TransactionContext must not be null");
+		this.transactionContext = transactionContext;
+	}
+
+
+	/**
+	 * Obtain the {@code TransactionSynchronizationManager} for the
+	 * {@link TransactionContext} of the current subscriber context.
+	 * @return the synchronization manager, emitting a {@link NoTransactionException}
+	 * if not running within a transactional pipeline
+	 * @see TransactionalOperator
+	 */
+	public static Mono<TransactionSynchronizationManager> forCurrentTransaction() {
+		return TransactionContextManager.currentContext().map(TransactionSynchronizationManager::new);
+	}
+
+
+	/**
+	 * Check if there is a resource for the given key bound to the current context.
+	 * @param key the key to check (usually the resource factory)
+	 * @return if there is a value bound to the current context
+	 */
+	public boolean hasResource(Object key) {
+		return this.transactionContext.getResources().containsKey(key);
+	}
+
+	/**
+	 * Retrieve a resource for the given key that is bound to the current context.
+	 * @param key the key to check (usually the resource factory)
+	 * @return a value bound to the current context (usually the active
+	 * resource object), or {@code null} if none
+	 */
+	@Nullable
+	public Object getResource(Object key) {
+		return this.transactionContext.getResources().get(key);
+	}
+
+	/**
+	 * Bind the given resource for the given key to the current context.
+	 * @param key the key to bind the value to (usually the resource factory)
+	 * @param value the value to bind (usually the active resource object)
+	 * @throws IllegalStateException if there is already a value bound to the context
+	 */
+	public void bindResource(Object key, Object value) throws IllegalStateException {
+		Assert.notNull(value, "Value must not be null");
+		Map<Object, Object> map = this.transactionContext.getResources();
+		Object oldValue = map.putIfAbsent(key, value);
+		if (oldValue != null) {
+			throw new IllegalStateException("Already value [" + oldValue + "] for key [" +
+					key + "] bound to context");
+		}
+	}
+
+	/**
+	 * Unbind a resource for the given key from the current context.
+	 * @param key the key to unbind (usually the resource factory)
+	 * @return the previously bound value (usually the active resource object)
+	 * @throws IllegalStateException if there is no value bound to the context
+	 */
+	public Object unbindResource(Object key) throws IllegalStateException {
+		Object value = this.transactionContext.getResources().remove(key);
+		if (value == null) {
+			throw new IllegalStateException("No value for key [" + key + "] bound to context");
+		}
+		return value;
+	}
+
+	/**
+	 * Unbind a resource for the given key from the current context.
+	 * @param key the key to unbind (usually the resource factory)
+	 * @return the previously bound value, or {@code null} if none bound
+	 */
+	@Nullable
+	public Object unbindResourceIfPossible(Object key) {
+		return this.transactionContext.getResources().remove(key);
+	}
+
+
+	//-------------------------------------------------------------------------
+	// Management of transaction synchronizations
+	//-------------------------------------------------------------------------
+
+	/**
+	 * Return if transaction synchronization is active for the current context.
+	 * Can be called before register to avoid unnecessary instance creation.
+	 * @see #registerSynchronization
+	 */
+	public boolean isSynchronizationActive() {
+		return (this.transactionContext.getSynchronizations() != null);
+	}
+
+	/**
+	 * Activate transaction synchronization for the current context.
+	 * Called by a transaction manager on transaction begin.
+	 * @throws IllegalStateException if synchronization is already active
+	 */
+	public void initSynchronization() throws IllegalStateException {
+		if (isSynchronizationActive()) {
+			throw new IllegalStateException("Cannot activate transaction synchronization - already active");
+		}
+		this.transactionContext.setSynchronizations(new LinkedHashSet<>());
+	}
+
+	/**
+	 * Register a new transaction synchronization for the current context.
+	 * Typically called by resource management code.
+	 * <p>Note that synchronizations can implement the
+	 * {@link org.springframework.core.Ordered} interface.
+	 * They will be executed in an order according to their order value (if any).
+	 * @param synchronization the synchronization object to register
+	 * @throws IllegalStateException if transaction synchronization is not active
+	 * @see org.springframework.core.Ordered
+	 */
+	public void registerSynchronization(TransactionSynchronization synchronization)
+			throws IllegalStateException {
+
+		Assert.notNull(synchronization, "TransactionSynchronization must not be null");
+		Set<TransactionSynchronization> synchs = this.transactionContext.getSynchronizations();
+		if (synchs == null) {
+			throw new IllegalStateException("Transaction synchronization is not active");
+		}
+		synchs.add(synchronization);
+	}
+
+	/**
+	 * Return an unmodifiable snapshot list of all registered synchronizations
+	 * for the current context.
+	 * @return unmodifiable List of TransactionSynchronization instances
+	 * @throws IllegalStateException if synchronization is not active
+	 * @see TransactionSynchronization
+	 */
+	public List<TransactionSynchronization> getSynchronizations() throws IllegalStateException {
+		Set<TransactionSynchronization> synchs = this.transactionContext.getSynchronizations();
+		if (synchs == null) {
+			throw new IllegalStateException("Transaction synchronization is not active");
+		}
+		if (synchs.isEmpty()) {
+			return Collections.emptyList();
+		}
+		// Sort lazily here, not in registerSynchronization.
+		List<TransactionSynchronization> sortedSynchs = new ArrayList<>(synchs);
+		AnnotationAwareOrderComparator.sort(sortedSynchs);
+		return Collections.unmodifiableList(sortedSynchs);
+	}
+
+	/**
+	 * Deactivate transaction synchronization for the current context.
+	 * Called by the transaction manager on transaction cleanup.
+	 * @throws IllegalStateException if synchronization is not active
+	 */
+	public void clearSynchronization() throws IllegalStateException {
+		if (!isSynchronizationActive()) {
+			throw new IllegalStateException("Cannot deactivate transaction synchronization - not active");
+		}
+		this.transactionContext.setSynchronizations(null);
+	}
+
+
+	//-------------------------------------------------------------------------
+	// Exposure of transaction characteristics
+	//-------------------------------------------------------------------------
+
+	/**
+	 * Expose the name of the current transaction, if any.
+	 * Called by the transaction manager on transaction begin and on cleanup.
+	 * @param name the name of the transaction, or {@code null} to reset it
+	 * @see org.springframework.transaction.TransactionDefinition#getName()
+	 */
+	public void setCurrentTransactionName(@Nullable String name) {
+		this.transactionContext.setCurrentTransactionName(name);
+	}
+
+	/**
+	 * Return the name of the current transaction, or {@code null} if none set.
+	 * To be called by resource management code for optimizations per use case,
+	 * for example to optimize fetch strategies for specific named transactions.
+	 * @see org.springframework.transaction.TransactionDefinition#getName()
+	 */
+	@Nullable
+	public String getCurrentTransactionName() {
+		return this.transactionContext.getCurrentTransactionName();
+	}
+
+	/**
+	 * Expose a read-only flag for the current transaction.
+	 * Called by the transaction manager on transaction begin and on cleanup.
+	 * @param readOnly {@code true} to mark the current transaction
+	 * as read-only; {@code false} to reset such a read-only marker
+	 * @see org.springframework.transaction.TransactionDefinition#isReadOnly()
+	 */
+	public void setCurrentTransactionReadOnly(boolean readOnly) {
+		this.transactionContext.setCurrentTransactionReadOnly(readOnly);
+	}
+
+	/**
+	 * Return whether the current transaction is marked as read-only.
+	 * To be called by resource management code when preparing a newly
+	 * created resource.
+	 * @see TransactionSynchronization#beforeCommit(boolean)
+	 */
+	public boolean isCurrentTransactionReadOnly() {
+		return this.transactionContext.isCurrentTransactionReadOnly();
+	}
+
+	/**
+	 * Expose an isolation level for the current transaction.
+	 * Called by the transaction manager on transaction begin and on cleanup.
+	 * @param isolationLevel the isolation level to expose, according to the
+	 * {@code ISOLATION_*} constants in the TransactionDefinition interface,
+	 * or {@code null} to reset it
+	 * @see org.springframework.transaction.TransactionDefinition#getIsolationLevel()
+	 */
+	public void setCurrentTransactionIsolationLevel(@Nullable Integer isolationLevel) {
+		this.transactionContext.setCurrentTransactionIsolationLevel(isolationLevel);
+	}
+
+	/**
+	 * Return the isolation level for the current transaction, if any.
+	 * To be called by resource management code when preparing a newly
+	 * created resource.
+	 * @return the currently exposed isolation level, or {@code null} if none
+	 * @see org.springframework.transaction.TransactionDefinition#getIsolationLevel()
+	 */
+	@Nullable
+	public Integer getCurrentTransactionIsolationLevel() {
+		return this.transactionContext.getCurrentTransactionIsolationLevel();
+	}
+
+	/**
+	 * Expose whether there currently is an actual transaction active.
+	 * Called by the transaction manager on transaction begin and on cleanup.
+	 * @param active {@code true} to mark the current context as being associated
+	 * with an actual transaction; {@code false} to reset that marker
+	 */
+	public void setActualTransactionActive(boolean active) {
+		this.transactionContext.setActualTransactionActive(active);
+	}
+
+	/**
+	 * Return whether there currently is an actual transaction active.
+	 * This indicates whether the current context is associated with an actual
+	 * transaction rather than just with active transaction synchronization.
+	 * @see #isSynchronizationActive()
+	 */
+	public boolean isActualTransactionActive() {
+		return this.transactionContext.isActualTransactionActive();
+	}
+
+	/**
+	 * Clear the entire transaction synchronization state:
+	 * registered synchronizations as well as the various transaction characteristics.
+	 * @see #clearSynchronization()
+	 * @see #setCurrentTransactionName
+	 * @see #setCurrentTransactionReadOnly
+	 * @see #setCurrentTransactionIsolationLevel
+	 * @see #setActualTransactionActive
+	 */
+	public void clear() {
+		this.transactionContext.clear();
+	}
+
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.transaction.reactive;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import org.springframework.transaction.ReactiveTransaction;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.interceptor.TransactionAttribute;
+import org.springframework.util.Assert;
+
+/**
+ * Default implementation of {@link TransactionalOperator}, executing the
+ * callback's publisher within a transaction obtained from the given
+ * {@link ReactiveTransactionManager} for the given {@link TransactionDefinition}.
+ *
+ * <p>If the definition is a {@link TransactionAttribute}, its rollback rules
+ * are applied to exceptions emitted by the callback's publisher.
+ *
+ * @since 5.2
+ * @see TransactionalOperator#create(ReactiveTransactionManager, TransactionDefinition)
+ */
+final class TransactionalOperatorImpl implements TransactionalOperator {
+
+	private static final Log logger = LogFactory.getLog(TransactionalOperatorImpl.class);
+
+	private final ReactiveTransactionManager transactionManager;
+
+	private final TransactionDefinition transactionDefinition;
+
+
+	/**
+	 * Construct a new TransactionalOperatorImpl using the given transaction manager.
+	 * @param transactionManager the transaction management strategy to be used
+	 * @param transactionDefinition the transaction definition to copy the
+	 * default settings from. Local properties can still be set to change values.
+	 */
+	TransactionalOperatorImpl(ReactiveTransactionManager transactionManager,
+			TransactionDefinition transactionDefinition) {
+
+		Assert.notNull(transactionManager, "ReactiveTransactionManager must not be null");
+		Assert.notNull(transactionDefinition, "TransactionDefinition must not be null");
+		this.transactionManager = transactionManager;
+		this.transactionDefinition = transactionDefinition;
+	}
+
+
+	/**
+	 * Return the transaction management strategy to be used.
+	 */
+	public ReactiveTransactionManager getTransactionManager() {
+		return this.transactionManager;
+	}
+
+	/**
+	 * Return the transaction definition to apply.
+	 */
+	public TransactionDefinition getTransactionDefinition() {
+		return this.transactionDefinition;
+	}
+
+
+	@Override
+	public <T> Flux<T> execute(TransactionCallback<T> action) throws TransactionException {
+		return Mono.subscriberContext().flatMapMany(context ->
+				this.transactionManager.getReactiveTransaction(this.transactionDefinition).flatMapMany(status ->
+						// Commit on completion, roll back on cancellation (detached from the
+						// cancelled subscriber, hence with the captured context); errors are
+						// handled below according to the rollback rules.
+						Flux.usingWhen(Mono.just(status), action::doInTransaction, this.transactionManager::commit,
+								s -> Mono.empty(), s -> this.transactionManager.rollback(s).subscriberContext(context))
+						.onErrorMap(this::unwrapIfResourceCleanupFailure)
+						.onErrorResume(ex -> rollbackOnException(status, ex).then(Mono.error(ex)))))
+				.subscriberContext(TransactionContextManager.getOrCreateContext());
+	}
+
+	/**
+	 * Unwrap the given exception if it is a wrapper raised by {@code usingWhen}
+	 * for a failed commit, exposing the actual transaction exception.
+	 */
+	private Throwable unwrapIfResourceCleanupFailure(Throwable ex) {
+		if (ex instanceof RuntimeException && ex.getCause() != null) {
+			String msg = ex.getMessage();
+			if (msg != null && msg.startsWith("Async resource cleanup failed")) {
+				return ex.getCause();
+			}
+		}
+		return ex;
+	}
+
+	/**
+	 * Perform a rollback, handling rollback exceptions properly.
+	 * <p>Commits instead if the transaction definition is a
+	 * {@link TransactionAttribute} that does not roll back on the given exception.
+	 * @param status object representing the transaction
+	 * @param ex the thrown application exception or error
+	 * @throws TransactionException in case of a rollback error
+	 */
+	private Mono<Void> rollbackOnException(ReactiveTransaction status, Throwable ex) throws TransactionException {
+		if (status.isCompleted()) {
+			// Failure on commit: the transaction has been completed already.
+			return Mono.empty();
+		}
+		if (this.transactionDefinition instanceof TransactionAttribute &&
+				!((TransactionAttribute) this.transactionDefinition).rollbackOn(ex)) {
+			logger.debug("Application exception does not match rollback rules - committing transaction");
+			return this.transactionManager.commit(status).onErrorMap(ex2 -> {
+				logger.error("Application exception overridden by commit exception", ex);
+				if (ex2 instanceof TransactionSystemException) {
+					((TransactionSystemException) ex2).initApplicationException(ex);
+				}
+				return ex2;
+			});
+		}
+		logger.debug("Initiating transaction rollback on application exception", ex);
+		return this.transactionManager.rollback(status).onErrorMap(ex2 -> {
+			logger.error("Application exception overridden by rollback exception", ex);
+			if (ex2 instanceof TransactionSystemException) {
+				((TransactionSystemException) ex2).initApplicationException(ex);
+			}
+			return ex2;
+		});
+	}
+
+}
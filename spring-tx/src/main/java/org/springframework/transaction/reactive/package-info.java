@@ -0,0 +1,12 @@
+/**
+ * Support classes for reactive transaction management.
+ * Provides an abstract base class for reactive transaction manager implementations,
+ * and a transactional operator plus callback for transaction demarcation, with
+ * transaction state carried in the Reactor subscriber context.
+ */
+@NonNullApi
+@NonNullFields
+package org.springframework.transaction.reactive;
+
+import org.springframework.lang.NonNullApi;
+import org.springframework.lang.NonNullFields;
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2002-2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.transaction.interceptor;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.transaction.reactive.ReactiveTestTransactionManager;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
+import org.springframework.util.SerializationTestUtils;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link TransactionInterceptor} with methods returning a reactive type.
+ *
+ * @since 5.2
+ */
+public class ReactiveTransactionInterceptorTests {
+
+	private final ReactiveTestTransactionManager tm = new ReactiveTestTransactionManager();
+
+	private final ReactiveService service = createProxy();
+
+
+	@Test
+	public void commitOnSubscription() {
+		Mono<String> result = this.service.mono("foo");
+		assertEquals("Transaction must not begin before subscription", 0, this.tm.begin);
+		StepVerifier.create(result)
+				.expectNext("foo")
+				.verifyComplete();
+		assertEquals(1, this.tm.begin);
+		assertEquals(1, this.tm.commit);
+		assertEquals(0, this.tm.rollback);
+	}
+
+	@Test
+	public void commitWithFlux() {
+		StepVerifier.create(this.service.flux("foo", "bar"))
+				.expectNext("foo", "bar")
+				.verifyComplete();
+		assertEquals(1, this.tm.commit);
+	}
+
+	@Test
+	public void transactionNameFromMethod() {
+		StepVerifier.create(this.service.transactionName())
+				.expectNext(ReactiveService.class.getName() + ".transactionName")
+				.verifyComplete();
+	}
+
+	@Test
+	public void rollbackOnRuntimeException() {
+		StepVerifier.create(this.service.failing(new IllegalStateException()))
+				.verifyError(IllegalStateException.class);
+		assertEquals(0, this.tm.commit);
+		assertEquals(1, this.tm.rollback);
+	}
+
+	@Test
+	public void rollbackOnExceptionThrownByMethod() {
+		StepVerifier.create(this.service.throwing())
+				.verifyError(IllegalStateException.class);
+		assertEquals(0, this.tm.commit);
+		assertEquals(1, this.tm.rollback);
+	}
+
+	@Test
+	public void commitOnCheckedException() {
+		StepVerifier.create(this.service.failing(new IOException()))
+				.verifyError(IOException.class);
+		assertEquals(1, this.tm.commit);
+		assertEquals(0, this.tm.rollback);
+	}
+
+	@Test
+	public void completableFutureNotDemarcatedReactively() throws Exception {
+		CompletableFuture<String> result = this.service.future("foo");
+		assertEquals("foo", result.get());
+		assertEquals(0, this.tm.begin);
+	}
+
+	@Test
+	public void serializableWithReactiveTransactionManager() throws Exception {
+		TransactionInterceptor ti = new TransactionInterceptor();
+		ti.setReactiveTransactionManager(new SerializableReactiveTransactionManager());
+		ti.setTransactionAttributeSource(new NameMatchTransactionAttributeSource());
+		ti = (TransactionInterceptor) SerializationTestUtils.serializeAndDeserialize(ti);
+		assertTrue(ti.getReactiveTransactionManager() instanceof SerializableReactiveTransactionManager);
+	}
+
+
+	private ReactiveService createProxy() {
+		Properties attributes = new Properties();
+		attributes.setProperty("*", "PROPAGATION_REQUIRED");
+		TransactionInterceptor ti = new TransactionInterceptor();
+		ti.setReactiveTransactionManager(this.tm);
+		ti.setTransactionAttributes(attributes);
+		ProxyFactory pf = new ProxyFactory(new ReactiveService());
+		pf.addAdvice(ti);
+		return (ReactiveService) pf.getProxy();
+	}
+
+
+	public static class ReactiveService {
+
+		public Mono<String> mono(String value) {
+			return Mono.just(value);
+		}
+
+		public Flux<String> flux(String... values) {
+			return Flux.just(values);
+		}
+
+		public Mono<String> transactionName() {
+			return TransactionSynchronizationManager.forCurrentTransaction()
+					.map(TransactionSynchronizationManager::getCurrentTransactionName);
+		}
+
+		public Mono<String> failing(Exception ex) {
+			return Mono.error(ex);
+		}
+
+		public Mono<String> throwing() {
+			throw new IllegalStateException();
+		}
+
+		public CompletableFuture<String> future(String value) {
+			return CompletableFuture.completedFuture(value);
+		}
+	}
+
+
+	@SuppressWarnings("serial")
+	public static class SerializableReactiveTransactionManager extends ReactiveTestTransactionManager
+			implements Serializable {
+	}
+
+}
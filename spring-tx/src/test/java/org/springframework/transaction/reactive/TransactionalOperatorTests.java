@@ -0,0 +1,210 @@
+/*
+ * Copyright 2002-2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.transaction.reactive;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.NoTransactionException;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.UnexpectedRollbackException;
+import org.springframework.transaction.interceptor.DefaultTransactionAttribute;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link TransactionalOperator} and {@link AbstractReactiveTransactionManager}.
+ *
+ * @since 5.2
+ */
+public class TransactionalOperatorTests {
+
+	private final ReactiveTestTransactionManager tm = new ReactiveTestTransactionManager();
+
+
+	@Test
+	public void commitWithMono() {
+		TransactionalOperator operator = TransactionalOperator.create(this.tm);
+		StepVerifier.create(operator.transactional(Mono.just("foo")))
+				.expectNext("foo")
+				.verifyComplete();
+		assertEquals(1, this.tm.begin);
+		assertEquals(1, this.tm.commit);
+		assertEquals(0, this.tm.rollback);
+	}
+
+	@Test
+	public void commitWithFlux() {
+		TransactionalOperator operator = TransactionalOperator.create(this.tm);
+		StepVerifier.create(operator.transactional(Flux.just("foo", "bar")))
+				.expectNext("foo", "bar")
+				.verifyComplete();
+		assertEquals(1, this.tm.begin);
+		assertEquals(1, this.tm.commit);
+		assertEquals(0, this.tm.rollback);
+	}
+
+	@Test
+	public void rollbackOnError() {
+		TransactionalOperator operator = TransactionalOperator.create(this.tm);
+		StepVerifier.create(operator.transactional(Mono.error(new IllegalStateException())))
+				.verifyError(IllegalStateException.class);
+		assertEquals(1, this.tm.begin);
+		assertEquals(0, this.tm.commit);
+		assertEquals(1, this.tm.rollback);
+	}
+
+	@Test
+	public void rollbackOnCancel() {
+		TransactionalOperator operator = TransactionalOperator.create(this.tm);
+		StepVerifier.create(operator.transactional(Flux.concat(Mono.just("foo"), Flux.never())))
+				.expectNext("foo")
+				.thenCancel()
+				.verify();
+		assertEquals(1, this.tm.begin);
+		assertEquals(0, this.tm.commit);
+		assertEquals(1, this.tm.rollback);
+	}
+
+	@Test
+	public void commitOnErrorNotMatchingRollbackRules() {
+		TransactionalOperator operator = TransactionalOperator.create(this.tm, new DefaultTransactionAttribute());
+		StepVerifier.create(operator.transactional(Mono.error(new IOException())))
+				.verifyError(IOException.class);
+		assertEquals(1, this.tm.commit);
+		assertEquals(0, this.tm.rollback);
+	}
+
+	@Test
+	public void beginFailure() {
+		ReactiveTestTransactionManager tm = new ReactiveTestTransactionManager(false);
+		TransactionalOperator operator = TransactionalOperator.create(tm);
+		StepVerifier.create(operator.transactional(Mono.just("foo")))
+				.verifyError(CannotCreateTransactionException.class);
+		assertEquals(0, tm.commit);
+		assertEquals(0, tm.rollback);
+	}
+
+	@Test
+	public void participateInExistingTransaction() {
+		TransactionalOperator operator = TransactionalOperator.create(this.tm);
+		StepVerifier.create(operator.transactional(operator.transactional(Mono.just("foo"))))
+				.expectNext("foo")
+				.verifyComplete();
+		assertEquals(1, this.tm.begin);
+		assertEquals(1, this.tm.commit);
+		assertEquals(0, this.tm.rollback);
+	}
+
+	@Test
+	public void participatingTransactionMarksExistingRollbackOnly() {
+		TransactionalOperator operator = TransactionalOperator.create(this.tm);
+		Mono<String> inner = operator.transactional(Mono.<String>error(new IllegalStateException()))
+				.onErrorResume(ex -> Mono.just("recovered"));
+		StepVerifier.create(operator.transactional(inner))
+				.verifyError(UnexpectedRollbackException.class);
+		assertEquals(1, this.tm.begin);
+		assertEquals(1, this.tm.rollbackOnly);
+		assertEquals(0, this.tm.commit);
+		assertEquals(1, this.tm.rollback);
+	}
+
+	@Test
+	public void requiresNewSuspendsExistingTransaction() {
+		TransactionalOperator operator = TransactionalOperator.create(this.tm);
+		TransactionalOperator requiresNew = TransactionalOperator.create(this.tm,
+				new DefaultTransactionDefinition(TransactionDefinition.PROPAGATION_REQUIRES_NEW));
+
+		Mono<Boolean> sameResource = currentResource().flatMap(outer ->
+				requiresNew.transactional(currentResource().map(inner -> inner != outer))
+						.then(currentResource()).map(resumed -> resumed == outer));
+		StepVerifier.create(operator.transactional(sameResource))
+				.expectNext(true)
+				.verifyComplete();
+		assertEquals(2, this.tm.begin);
+		assertEquals(2, this.tm.commit);
+		assertEquals(0, this.tm.rollback);
+	}
+
+	@Test
+	public void neverFailsWithinExistingTransaction() {
+		TransactionalOperator operator = TransactionalOperator.create(this.tm);
+		TransactionalOperator never = TransactionalOperator.create(this.tm,
+				new DefaultTransactionDefinition(TransactionDefinition.PROPAGATION_NEVER));
+		StepVerifier.create(operator.transactional(never.transactional(Mono.just("foo"))))
+				.verifyError(IllegalTransactionStateException.class);
+		assertEquals(1, this.tm.rollback);
+	}
+
+	@Test
+	public void synchronizationCallbacks() {
+		List<String> events = new ArrayList<>();
+		TransactionSynchronization synchronization = new TransactionSynchronization() {
+			@Override
+			public Mono<Void> beforeCommit(boolean readOnly) {
+				return Mono.fromRunnable(() -> events.add("beforeCommit"));
+			}
+			@Override
+			public Mono<Void> beforeCompletion() {
+				return Mono.fromRunnable(() -> events.add("beforeCompletion"));
+			}
+			@Override
+			public Mono<Void> afterCommit() {
+				return Mono.fromRunnable(() -> events.add("afterCommit"));
+			}
+			@Override
+			public Mono<Void> afterCompletion(int status) {
+				return Mono.fromRunnable(() -> events.add("afterCompletion:" + status));
+			}
+		};
+
+		TransactionalOperator operator = TransactionalOperator.create(this.tm);
+		Mono<String> action = TransactionSynchronizationManager.forCurrentTransaction()
+				.doOnNext(synchronizationManager -> {
+					assertTrue(synchronizationManager.isActualTransactionActive());
+					synchronizationManager.registerSynchronization(synchronization);
+				})
+				.thenReturn("foo");
+		StepVerifier.create(operator.transactional(action))
+				.expectNext("foo")
+				.verifyComplete();
+		assertEquals("[beforeCommit, beforeCompletion, afterCommit, afterCompletion:" +
+				TransactionSynchronization.STATUS_COMMITTED + "]", events.toString());
+	}
+
+	@Test
+	public void noTransactionContextOutsideOfOperator() {
+		StepVerifier.create(TransactionSynchronizationManager.forCurrentTransaction())
+				.verifyError(NoTransactionException.class);
+	}
+
+
+	private Mono<Object> currentResource() {
+		return TransactionSynchronizationManager.forCurrentTransaction()
+				.map(synchronizationManager -> synchronizationManager.getResource(this.tm));
+	}
+
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.codec.json;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+
+/**
+ * Benchmarks for {@link Jackson2JsonEncoder} and {@link Jackson2JsonDecoder},
+ * covering single values as well as JSON arrays and streams of values.
+ * <p>Typically run with {@code "./gradlew :spring-web:jmh"}.
+ *
+ * @since 5.2
+ */
+@BenchmarkMode(Mode.Throughput)
+public class Jackson2JsonCodecBenchmark {
+
+	private static final ResolvableType POJO_TYPE = ResolvableType.forClass(Pojo.class);
+
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkState {
+
+		@Param({"1", "100"})
+		public int elementCount;
+
+		public final Jackson2JsonEncoder encoder = new Jackson2JsonEncoder();
+
+		public final Jackson2JsonDecoder decoder = new Jackson2JsonDecoder();
+
+		public final DataBufferFactory bufferFactory = new DefaultDataBufferFactory();
+
+		public List<Pojo> pojos;
+
+		public byte[] json;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.pojos = new ArrayList<>(this.elementCount);
+			StringBuilder builder = new StringBuilder("[");
+			for (int i = 0; i < this.elementCount; i++) {
+				this.pojos.add(new Pojo("foo" + i, "bar" + i));
+				builder.append(i > 0 ? "," : "").append("{\"foo\":\"foo").append(i)
+						.append("\",\"bar\":\"bar").append(i).append("\"}");
+			}
+			this.json = builder.append("]").toString().getBytes(StandardCharsets.UTF_8);
+		}
+	}
+
+	@Benchmark
+	public void encodeValue(BenchmarkState state, Blackhole bh) {
+		Flux<DataBuffer> output = state.encoder.encode(Mono.just(state.pojos.get(0)), state.bufferFactory,
+				POJO_TYPE, MediaType.APPLICATION_JSON, Collections.emptyMap());
+		output.doOnNext(bh::consume).doOnNext(DataBufferUtils::release).blockLast();
+	}
+
+	@Benchmark
+	public void encodeArray(BenchmarkState state, Blackhole bh) {
+		Flux<DataBuffer> output = state.encoder.encode(Flux.fromIterable(state.pojos), state.bufferFactory,
+				POJO_TYPE, MediaType.APPLICATION_JSON, Collections.emptyMap());
+		output.doOnNext(bh::consume).doOnNext(DataBufferUtils::release).blockLast();
+	}
+
+	@Benchmark
+	public void encodeStream(BenchmarkState state, Blackhole bh) {
+		Flux<DataBuffer> output = state.encoder.encode(Flux.fromIterable(state.pojos), state.bufferFactory,
+				POJO_TYPE, MediaType.APPLICATION_STREAM_JSON, Collections.emptyMap());
+		output.doOnNext(bh::consume).doOnNext(DataBufferUtils::release).blockLast();
+	}
+
+	@Benchmark
+	public void decodeArray(BenchmarkState state, Blackhole bh) {
+		Flux<DataBuffer> input = Flux.defer(() -> Mono.just(state.bufferFactory.wrap(state.json)));
+		state.decoder.decode(input, POJO_TYPE, MediaType.APPLICATION_JSON, Collections.emptyMap())
+				.doOnNext(bh::consume).blockLast();
+	}
+
+
+	public static class Pojo {
+
+		private String foo;
+
+		private String bar;
+
+		public Pojo() {
+		}
+
+		public Pojo(String foo, String bar) {
+			this.foo = foo;
+			this.bar = bar;
+		}
+
+		public String getFoo() {
+			return this.foo;
+		}
+
+		public void setFoo(String foo) {
+			this.foo = foo;
+		}
+
+		public String getBar() {
+			return this.bar;
+		}
+
+		public void setBar(String bar) {
+			this.bar = bar;
+		}
+	}
+
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.util.pattern;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import org.springframework.http.server.PathContainer;
+
+/**
+ * Benchmarks for {@link PathPattern#matches(PathContainer)} and
+ * {@link PathPattern#matchAndExtract(PathContainer)} against a set of
+ * typical request mapping patterns.
+ * <p>Typically run with {@code "./gradlew :spring-web:jmh"}.
+ *
+ * @since 5.2
+ */
+@BenchmarkMode(Mode.Throughput)
+public class PathPatternBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkState {
+
+		public final List<PathPattern> patterns = new ArrayList<>();
+
+		public final List<String> rawPaths = new ArrayList<>();
+
+		public final List<PathContainer> paths = new ArrayList<>();
+
+		@Setup(Level.Trial)
+		public void setup() {
+			PathPatternParser parser = new PathPatternParser();
+			for (String resource : new String[] {"orders", "customers", "products", "invoices", "shipments"}) {
+				this.patterns.add(parser.parse("/api/" + resource));
+				this.patterns.add(parser.parse("/api/" + resource + "/{id}"));
+				this.patterns.add(parser.parse("/api/" + resource + "/{id}/items/{itemId}"));
+				this.patterns.add(parser.parse("/api/" + resource + "/search/*.json"));
+				this.rawPaths.add("/api/" + resource);
+				this.rawPaths.add("/api/" + resource + "/42");
+				this.rawPaths.add("/api/" + resource + "/42/items/7");
+				this.rawPaths.add("/api/" + resource + "/search/latest.json");
+			}
+			this.patterns.add(parser.parse("/static/**"));
+			this.rawPaths.add("/static/css/main.css");
+			this.rawPaths.add("/unknown/path");
+			for (String rawPath : this.rawPaths) {
+				this.paths.add(PathContainer.parsePath(rawPath));
+			}
+		}
+	}
+
+	@Benchmark
+	public void matchAll(BenchmarkState state, Blackhole bh) {
+		for (PathContainer path : state.paths) {
+			for (PathPattern pattern : state.patterns) {
+				bh.consume(pattern.matches(path));
+			}
+		}
+	}
+
+	@Benchmark
+	public void parseAndMatchAll(BenchmarkState state, Blackhole bh) {
+		for (String rawPath : state.rawPaths) {
+			PathContainer path = PathContainer.parsePath(rawPath);
+			for (PathPattern pattern : state.patterns) {
+				bh.consume(pattern.matches(path));
+			}
+		}
+	}
+
+	@Benchmark
+	public void matchAndExtractAll(BenchmarkState state, Blackhole bh) {
+		for (PathContainer path : state.paths) {
+			for (PathPattern pattern : state.patterns) {
+				bh.consume(pattern.matchAndExtract(path));
+			}
+		}
+	}
+
+}
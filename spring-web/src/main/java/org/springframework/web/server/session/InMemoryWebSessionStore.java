@@ -20,16 +20,22 @@ import java.time.Clock;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.ZoneId;
-import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.ReentrantLock;
 
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 
+import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.IdGenerator;
 import org.springframework.util.JdkIdGenerator;
@@ -38,6 +44,15 @@ import org.springframework.web.server.WebSession;
 /**
  * Simple Map-based storage for {@link WebSession} instances.
  *
+ * <p>Expired sessions are tracked in a timing wheel: each stored session is
+ * scheduled in a one-second slot according to its expiration time, and every
+ * elapsed slot is processed once, lazily during calls to
+ * {@link #createWebSession() create} or {@link #retrieveSession retrieve}.
+ * Sessions that were accessed in the meantime are rescheduled rather than
+ * expired. The cost of expiration checks is therefore spread over time
+ * instead of scanning all sessions at once, and may be moved off the calling
+ * thread through {@link #setExpirationScheduler}.
+ *
  * @author Rossen Stoyanchev
  * @author Rob Winch
  * @since 5.0
@@ -49,12 +64,16 @@ public class InMemoryWebSessionStore implements WebSessionStore {
 
 	private int maxSessions = 10000;
 
+	private boolean evictOnMaxSessions = false;
+
 	private Clock clock = Clock.system(ZoneId.of("GMT"));
 
 	private final Map<String, InMemoryWebSession> sessions = new ConcurrentHashMap<>();
 
 	private final ExpiredSessionChecker expiredSessionChecker = new ExpiredSessionChecker();
 
+	private final ExpirationWheel expirationWheel = new ExpirationWheel();
+
 
 	/**
 	 * Set the maximum number of sessions that can be stored. Once the limit is
@@ -76,6 +95,52 @@ public class InMemoryWebSessionStore implements WebSessionStore {
 		return this.maxSessions;
 	}
 
+	/**
+	 * Set whether to evict the least recently used session in order to store
+	 * an additional session once the {@link #setMaxSessions max sessions}
+	 * limit is reached, rather than rejecting it with an
+	 * {@link IllegalStateException}.
+	 * <p>The evicted session is the one closest to its expiration time, which
+	 * corresponds to the least recently used session as long as all sessions
+	 * share the same max idle time.
+	 * <p>By default set to {@code false}.
+	 * @since 5.2
+	 */
+	public void setEvictOnMaxSessions(boolean evictOnMaxSessions) {
+		this.evictOnMaxSessions = evictOnMaxSessions;
+	}
+
+	/**
+	 * Return whether the least recently used session gets evicted once the
+	 * max sessions limit is reached.
+	 * @since 5.2
+	 */
+	public boolean isEvictOnMaxSessions() {
+		return this.evictOnMaxSessions;
+	}
+
+	/**
+	 * Set the {@link Scheduler} to run expiration checks on. Checks are still
+	 * triggered by calls to {@link #createWebSession() create} or
+	 * {@link #retrieveSession retrieve} but then performed asynchronously, which
+	 * keeps them off request threads such as event loop threads.
+	 * <p>By default not set, performing checks on the calling thread.
+	 * @param scheduler the scheduler to use, or {@code null} for none
+	 * @since 5.2
+	 */
+	public void setExpirationScheduler(@Nullable Scheduler scheduler) {
+		this.expirationWheel.scheduler = scheduler;
+	}
+
+	/**
+	 * Return the configured {@link Scheduler} for expiration checks, if any.
+	 * @since 5.2
+	 */
+	@Nullable
+	public Scheduler getExpirationScheduler() {
+		return this.expirationWheel.scheduler;
+	}
+
 	/**
 	 * Configure the {@link Clock} to use to set lastAccessTime on every created
 	 * session and to calculate if it is expired.
@@ -88,6 +153,7 @@ public class InMemoryWebSessionStore implements WebSessionStore {
 	public void setClock(Clock clock) {
 		Assert.notNull(clock, "Clock is required");
 		this.clock = clock;
+		this.expirationWheel.reset();
 		removeExpiredSessions();
 	}
 
@@ -112,14 +178,14 @@ public class InMemoryWebSessionStore implements WebSessionStore {
 	@Override
 	public Mono<WebSession> createWebSession() {
 		Instant now = this.clock.instant();
-		this.expiredSessionChecker.checkIfNecessary(now);
+		this.expirationWheel.advanceIfNecessary(now);
 		return Mono.fromSupplier(() -> new InMemoryWebSession(now));
 	}
 
 	@Override
 	public Mono<WebSession> retrieveSession(String id) {
 		Instant now = this.clock.instant();
-		this.expiredSessionChecker.checkIfNecessary(now);
+		this.expirationWheel.advanceIfNecessary(now);
 		InMemoryWebSession session = this.sessions.get(id);
 		if (session == null) {
 			return Mono.empty();
@@ -149,10 +215,10 @@ public class InMemoryWebSessionStore implements WebSessionStore {
 	}
 
 	/**
-	 * Check for expired sessions and remove them. Typically such checks are
-	 * kicked off lazily during calls to {@link #createWebSession() create} or
-	 * {@link #retrieveSession retrieve}, no less than 60 seconds apart.
-	 * This method can be called to force a check at a specific time.
+	 * Check all sessions for expiration and remove expired ones. Typically
+	 * expired sessions are removed incrementally during calls to
+	 * {@link #createWebSession() create} or {@link #retrieveSession retrieve}.
+	 * This method can be called to force a full check at a specific time.
 	 * @since 5.0.8
 	 */
 	public void removeExpiredSessions() {
@@ -174,6 +240,8 @@ public class InMemoryWebSessionStore implements WebSessionStore {
 
 		private final AtomicReference<State> state = new AtomicReference<>(State.NEW);
 
+		private final AtomicBoolean scheduled = new AtomicBoolean();
+
 
 		public InMemoryWebSession(Instant creationTime) {
 			this.creationTime = creationTime;
@@ -251,6 +319,9 @@ public class InMemoryWebSessionStore implements WebSessionStore {
 			if (isStarted()) {
 				// Save
 				InMemoryWebSessionStore.this.sessions.put(this.getId(), this);
+				if (this.scheduled.compareAndSet(false, true)) {
+					expirationWheel.schedule(this);
+				}
 
 				// Unless it was invalidated
 				if (this.state.get().equals(State.EXPIRED)) {
@@ -264,7 +335,20 @@ public class InMemoryWebSessionStore implements WebSessionStore {
 
 		private void checkMaxSessionsLimit() {
 			if (sessions.size() >= maxSessions) {
-				expiredSessionChecker.removeExpiredSessions(clock.instant());
+				if (evictOnMaxSessions) {
+					if (sessions.containsKey(getId())) {
+						return;
+					}
+					Instant now = clock.instant();
+					while (sessions.size() >= maxSessions) {
+						if (!expirationWheel.evictEldest(now)) {
+							break;
+						}
+					}
+				}
+				else {
+					expiredSessionChecker.removeExpiredSessions(clock.instant());
+				}
 				if (sessions.size() >= maxSessions) {
 					throw new IllegalStateException("Max sessions limit reached: " + sessions.size());
 				}
@@ -292,6 +376,17 @@ public class InMemoryWebSessionStore implements WebSessionStore {
 					currentTime.minus(this.maxIdleTime).isAfter(this.lastAccessTime);
 		}
 
+		/**
+		 * Return the time after which this session expires, in milliseconds,
+		 * or {@code -1} if it never expires.
+		 */
+		private long getExpirationMillis() {
+			if (this.maxIdleTime.isNegative()) {
+				return -1;
+			}
+			return this.lastAccessTime.plus(this.maxIdleTime).toEpochMilli();
+		}
+
 		private void updateLastAccessTime(Instant currentTime) {
 			this.lastAccessTime = currentTime;
 		}
@@ -300,21 +395,8 @@ public class InMemoryWebSessionStore implements WebSessionStore {
 
 	private class ExpiredSessionChecker {
 
-		/** Max time between expiration checks. */
-		private static final int CHECK_PERIOD = 60 * 1000;
-
-
 		private final ReentrantLock lock = new ReentrantLock();
 
-		private Instant checkTime = clock.instant().plus(CHECK_PERIOD, ChronoUnit.MILLIS);
-
-
-		public void checkIfNecessary(Instant now) {
-			if (this.checkTime.isBefore(now)) {
-				removeExpiredSessions(now);
-			}
-		}
-
 		public void removeExpiredSessions(Instant now) {
 			if (sessions.isEmpty()) {
 				return;
@@ -331,7 +413,6 @@ public class InMemoryWebSessionStore implements WebSessionStore {
 					}
 				}
 				finally {
-					this.checkTime = now.plus(CHECK_PERIOD, ChronoUnit.MILLIS);
 					this.lock.unlock();
 				}
 			}
@@ -339,6 +420,186 @@ public class InMemoryWebSessionStore implements WebSessionStore {
 	}
 
 
+	/**
+	 * Hashed timing wheel with one-second slots, holding each stored session
+	 * once under its expiration time at scheduling. Sessions whose expiration
+	 * time moved on by the time their slot gets processed are rescheduled.
+	 */
+	private class ExpirationWheel {
+
+		private static final int TICK_MILLIS = 1000;
+
+		private static final int WHEEL_SIZE = 4096;
+
+
+		@SuppressWarnings("unchecked")
+		private final Queue<Timeout>[] slots = new Queue[WHEEL_SIZE];
+
+		private final ReentrantLock lock = new ReentrantLock();
+
+		private final AtomicBoolean advancePending = new AtomicBoolean();
+
+		private volatile long processedTick = clock.millis() / TICK_MILLIS;
+
+		@Nullable
+		private volatile Scheduler scheduler;
+
+		public ExpirationWheel() {
+			for (int i = 0; i < WHEEL_SIZE; i++) {
+				this.slots[i] = new ConcurrentLinkedQueue<>();
+			}
+		}
+
+		public void reset() {
+			this.lock.lock();
+			try {
+				this.processedTick = clock.millis() / TICK_MILLIS;
+			}
+			finally {
+				this.lock.unlock();
+			}
+		}
+
+		public void schedule(InMemoryWebSession session) {
+			long expirationMillis = session.getExpirationMillis();
+			if (expirationMillis < 0) {
+				// Never expires: only a full check may remove it after a change of max idle time
+				session.scheduled.set(false);
+				return;
+			}
+			// Round up, so that the slot is processed once the expiration time has passed
+			long tick = expirationMillis / TICK_MILLIS + 1;
+			this.slots[(int) (tick & (WHEEL_SIZE - 1))].add(new Timeout(session, tick));
+		}
+
+		public void advanceIfNecessary(Instant now) {
+			long tick = now.toEpochMilli() / TICK_MILLIS;
+			if (tick <= this.processedTick) {
+				return;
+			}
+			Scheduler scheduler = this.scheduler;
+			if (scheduler == null) {
+				advance(now);
+			}
+			else if (this.advancePending.compareAndSet(false, true)) {
+				scheduler.schedule(() -> {
+					this.advancePending.set(false);
+					advance(clock.instant());
+				});
+			}
+		}
+
+		private void advance(Instant now) {
+			if (!this.lock.tryLock()) {
+				return;
+			}
+			try {
+				long nowTick = now.toEpochMilli() / TICK_MILLIS;
+				long fromTick = Math.max(this.processedTick + 1, nowTick - WHEEL_SIZE + 1);
+				for (long tick = fromTick; tick <= nowTick; tick++) {
+					processSlot(tick, now);
+				}
+				if (nowTick > this.processedTick) {
+					this.processedTick = nowTick;
+				}
+			}
+			finally {
+				this.lock.unlock();
+			}
+		}
+
+		private void processSlot(long tick, Instant now) {
+			Queue<Timeout> slot = this.slots[(int) (tick & (WHEEL_SIZE - 1))];
+			List<Timeout> pending = null;
+			Timeout timeout;
+			while ((timeout = slot.poll()) != null) {
+				if (timeout.tick > tick) {
+					// Due in a later round of the wheel
+					if (pending == null) {
+						pending = new ArrayList<>();
+					}
+					pending.add(timeout);
+				}
+				else {
+					expireOrReschedule(timeout.session, now);
+				}
+			}
+			if (pending != null) {
+				slot.addAll(pending);
+			}
+		}
+
+		private void expireOrReschedule(InMemoryWebSession session, Instant now) {
+			if (sessions.get(session.getId()) != session) {
+				session.scheduled.set(false);
+			}
+			else if (session.isExpired(now)) {
+				sessions.remove(session.getId());
+				session.invalidate();
+			}
+			else {
+				schedule(session);
+			}
+		}
+
+		/**
+		 * Remove the session closest to its expiration time.
+		 * @return {@code true} if a session was removed, {@code false} if
+		 * there are no scheduled sessions left
+		 */
+		public boolean evictEldest(Instant now) {
+			this.lock.lock();
+			try {
+				long startTick = this.processedTick + 1;
+				for (int round = 0; round < 2; round++) {
+					for (long tick = startTick; tick < startTick + WHEEL_SIZE; tick++) {
+						Queue<Timeout> slot = this.slots[(int) (tick & (WHEEL_SIZE - 1))];
+						for (Iterator<Timeout> it = slot.iterator(); it.hasNext();) {
+							Timeout timeout = it.next();
+							// First pass: only the current round of the wheel
+							if (round == 0 && timeout.tick >= startTick + WHEEL_SIZE) {
+								continue;
+							}
+							it.remove();
+							InMemoryWebSession session = timeout.session;
+							if (sessions.get(session.getId()) != session) {
+								session.scheduled.set(false);
+								continue;
+							}
+							long expirationTick = session.getExpirationMillis() / TICK_MILLIS + 1;
+							if (!session.isExpired(now) && expirationTick > timeout.tick) {
+								// Accessed since being scheduled
+								schedule(session);
+								continue;
+							}
+							sessions.remove(session.getId());
+							session.invalidate();
+							return true;
+						}
+					}
+				}
+				return false;
+			}
+			finally {
+				this.lock.unlock();
+			}
+		}
+	}
+
+
+	private static final class Timeout {
+
+		final InMemoryWebSession session;
+
+		final long tick;
+
+		Timeout(InMemoryWebSession session, long tick) {
+			this.session = session;
+			this.tick = tick;
+		}
+	}
+
+
 	private enum State { NEW, STARTED, EXPIRED }
 
 }
@@ -0,0 +1,242 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.util.pattern;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.PathContainer.Element;
+import org.springframework.http.server.PathContainer.PathSegment;
+import org.springframework.http.server.PathContainer.Separator;
+import org.springframework.lang.Nullable;
+
+/**
+ * A set of {@link PathPattern PathPatterns} compiled into a single matcher that
+ * checks all of them in one pass over a path.
+ *
+ * <p>The leading separator and literal elements of all patterns are merged into
+ * a shared-prefix tree. A path is walked down that tree once, and only patterns
+ * found along the way are considered: patterns made of separators and literals
+ * only are matched entirely by the tree without creating a matching context,
+ * while for all other patterns matching resumes with the first element that is
+ * not a literal, at the position in the path reached in the tree.
+ *
+ * <p>Instances are immutable and safe for concurrent use. They are created via
+ * {@link PathPatternParser#compile(Collection)}.
+ *
+ * @since 5.2
+ * @see PathPatternParser#compile(Collection)
+ */
+public final class CompiledPathPatterns {
+
+	private final List<PathPattern> patterns;
+
+	private final boolean caseSensitive;
+
+	private final Node root = new Node();
+
+
+	CompiledPathPatterns(Collection<PathPattern> patterns, boolean caseSensitive) {
+		this.patterns = Collections.unmodifiableList(new ArrayList<>(patterns));
+		this.caseSensitive = caseSensitive;
+		int order = 0;
+		for (PathPattern pattern : this.patterns) {
+			addPattern(pattern, order++);
+		}
+	}
+
+
+	/**
+	 * Return the patterns compiled into this matcher, in their original order.
+	 */
+	public List<PathPattern> getPatterns() {
+		return this.patterns;
+	}
+
+	/**
+	 * Whether any of the compiled patterns matches the given path.
+	 * @param pathContainer the candidate path to attempt to match against
+	 * @return {@code true} if at least one pattern matches the path
+	 */
+	public boolean matches(PathContainer pathContainer) {
+		return !findMatches(pathContainer, true).isEmpty();
+	}
+
+	/**
+	 * Return all compiled patterns that match the given path.
+	 * @param pathContainer the candidate path to attempt to match against
+	 * @return the matching patterns in their original order, or an empty list
+	 */
+	public List<PathPattern> getMatchingPatterns(PathContainer pathContainer) {
+		List<Entry> entries = findMatches(pathContainer, false);
+		if (entries.isEmpty()) {
+			return Collections.emptyList();
+		}
+		entries.sort(null);
+		List<PathPattern> result = new ArrayList<>(entries.size());
+		for (Entry entry : entries) {
+			result.add(entry.pattern);
+		}
+		return result;
+	}
+
+	private List<Entry> findMatches(PathContainer pathContainer, boolean stopAtFirstMatch) {
+		List<Element> elements = pathContainer.elements();
+		int pathLength = elements.size();
+		List<Entry> matches = new ArrayList<>();
+		Node node = this.root;
+		int pathIndex = 0;
+		while (node != null) {
+			node.addMatches(pathContainer, pathIndex, matches);
+			if (pathIndex == pathLength || (stopAtFirstMatch && !matches.isEmpty())) {
+				break;
+			}
+			Element element = elements.get(pathIndex);
+			node = (element instanceof Separator ? node.separatorChild :
+					node.literalChildren.get(getLiteralKey((PathSegment) element)));
+			pathIndex++;
+		}
+		return matches;
+	}
+
+	private String getLiteralKey(PathSegment segment) {
+		if (this.caseSensitive) {
+			return segment.valueToMatch();
+		}
+		char[] chars = segment.valueToMatchAsChars();
+		char[] lowerCaseChars = new char[chars.length];
+		for (int i = 0; i < chars.length; i++) {
+			// Char by char, consistent with LiteralPathElement
+			lowerCaseChars[i] = Character.toLowerCase(chars[i]);
+		}
+		return new String(lowerCaseChars);
+	}
+
+	private void addPattern(PathPattern pattern, int order) {
+		PathElement elem = pattern.getHeadSection();
+		if (elem == null || elem instanceof CaptureTheRestPathElement || elem instanceof WildcardTheRestPathElement ||
+				pattern.isCaseSensitive() != this.caseSensitive) {
+			// Special rules for empty paths, or literals not comparable by key:
+			// always match through the pattern itself
+			this.root.partialEntries.add(new Entry(pattern, null, order));
+			return;
+		}
+		Node node = this.root;
+		while (elem instanceof SeparatorPathElement || elem instanceof LiteralPathElement) {
+			if (elem instanceof SeparatorPathElement) {
+				if (node.separatorChild == null) {
+					node.separatorChild = new Node();
+				}
+				node = node.separatorChild;
+			}
+			else {
+				String key = String.valueOf(elem.getChars());
+				node = node.literalChildren.computeIfAbsent(key, k -> new Node());
+			}
+			if (elem.next == null) {
+				boolean trailingSeparator = (elem instanceof LiteralPathElement &&
+						pattern.isMatchOptionalTrailingSeparator());
+				node.literalEntries.add(new Entry(pattern, trailingSeparator, order));
+				return;
+			}
+			elem = elem.next;
+		}
+		node.partialEntries.add(new Entry(pattern, elem, order));
+	}
+
+
+	/**
+	 * A node in the shared-prefix tree, reached after matching the separator and
+	 * literal elements leading to it.
+	 */
+	private static class Node {
+
+		@Nullable
+		private Node separatorChild;
+
+		private final Map<String, Node> literalChildren = new HashMap<>(4);
+
+		/** Patterns fully matched by the elements leading to this node. */
+		private final List<Entry> literalEntries = new ArrayList<>(1);
+
+		/** Patterns that continue with a non-literal element after this node. */
+		private final List<Entry> partialEntries = new ArrayList<>(1);
+
+		public void addMatches(PathContainer pathContainer, int pathIndex, List<Entry> matches) {
+			if (!this.literalEntries.isEmpty()) {
+				List<Element> elements = pathContainer.elements();
+				boolean exactMatch = (pathIndex == elements.size());
+				boolean trailingSeparatorMatch = (pathIndex + 1 == elements.size() &&
+						elements.get(pathIndex) instanceof Separator);
+				for (Entry entry : this.literalEntries) {
+					if (exactMatch || (trailingSeparatorMatch && entry.matchOptionalTrailingSeparator)) {
+						matches.add(entry);
+					}
+				}
+			}
+			for (Entry entry : this.partialEntries) {
+				if (entry.remainingElement != null ?
+						entry.pattern.matchesRemainder(pathContainer, entry.remainingElement, pathIndex) :
+						entry.pattern.matches(pathContainer)) {
+					matches.add(entry);
+				}
+			}
+		}
+	}
+
+
+	/**
+	 * A pattern registered at a node, along with the pattern element to resume
+	 * matching from, if any, and the original position for ordering results.
+	 */
+	private static class Entry implements Comparable<Entry> {
+
+		private final PathPattern pattern;
+
+		@Nullable
+		private final PathElement remainingElement;
+
+		private final boolean matchOptionalTrailingSeparator;
+
+		private final int order;
+
+		public Entry(PathPattern pattern, @Nullable PathElement remainingElement, int order) {
+			this.pattern = pattern;
+			this.remainingElement = remainingElement;
+			this.matchOptionalTrailingSeparator = false;
+			this.order = order;
+		}
+
+		public Entry(PathPattern pattern, boolean matchOptionalTrailingSeparator, int order) {
+			this.pattern = pattern;
+			this.remainingElement = null;
+			this.matchOptionalTrailingSeparator = matchOptionalTrailingSeparator;
+			this.order = order;
+		}
+
+		@Override
+		public int compareTo(Entry other) {
+			return Integer.compare(this.order, other.order);
+		}
+	}
+
+}
@@ -197,6 +197,21 @@ public class PathPattern implements Comparable<PathPattern> {
 		return this.head.matches(0, matchingContext);
 	}
 
+	/**
+	 * Whether the remainder of the given path, starting at the given path index,
+	 * matches the given element of this pattern and all elements following it.
+	 * Used when all preceding pattern elements are known to match the path up
+	 * to that index.
+	 * @param pathContainer the candidate path to attempt to match against
+	 * @param element the pattern element to resume matching with
+	 * @param pathIndex the index of the path element to resume matching at
+	 * @since 5.2
+	 */
+	boolean matchesRemainder(PathContainer pathContainer, PathElement element, int pathIndex) {
+		MatchingContext matchingContext = new MatchingContext(pathContainer, false);
+		return element.matches(pathIndex, matchingContext);
+	}
+
 	/**
 	 * Match this pattern to the given URI path and return extracted URI template
 	 * variables as well as path parameters (matrix variables).
@@ -449,6 +464,14 @@ public class PathPattern implements Comparable<PathPattern> {
 		return this.separator;
 	}
 
+	boolean isCaseSensitive() {
+		return this.caseSensitive;
+	}
+
+	boolean isMatchOptionalTrailingSeparator() {
+		return this.matchOptionalTrailingSeparator;
+	}
+
 	int getCapturedVariableCount() {
 		return this.capturedVariableCount;
 	}
@@ -16,6 +16,8 @@
 
 package org.springframework.web.util.pattern;
 
+import java.util.Collection;
+
 /**
  * Parser for URI path patterns producing {@link PathPattern} instances that can
  * then be matched to requests.
@@ -100,4 +102,19 @@ public class PathPatternParser {
 		return new InternalPathPatternParser(this).parse(pathPattern);
 	}
 
+	/**
+	 * Compile the given patterns into a single matcher that checks all of them
+	 * in one pass over a path, sharing the work of matching common literal
+	 * prefixes such as {@code /api/orders} in {@code /api/orders/{id}} and
+	 * {@code /api/orders/{id}/items}.
+	 * <p>Patterns created by a parser with a different case sensitivity setting
+	 * are supported but do not benefit from prefix sharing.
+	 * @param pathPatterns the patterns to compile
+	 * @return the compiled patterns
+	 * @since 5.2
+	 */
+	public CompiledPathPatterns compile(Collection<PathPattern> pathPatterns) {
+		return new CompiledPathPatterns(pathPatterns, this.caseSensitive);
+	}
+
 }
@@ -18,16 +18,20 @@ package org.springframework.web.server.session;
 import java.time.Clock;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.stream.IntStream;
 
 import org.junit.Test;
+import reactor.core.scheduler.Schedulers;
 
 import org.springframework.beans.DirectFieldAccessor;
 import org.springframework.web.server.WebSession;
 
 import static junit.framework.TestCase.assertSame;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
@@ -158,6 +162,78 @@ public class InMemoryWebSessionStoreTests {
 		}
 	}
 
+	@Test
+	public void expirationCheckReschedulesAccessedSession() {
+		DirectFieldAccessor accessor = new DirectFieldAccessor(this.store);
+		Map<?,?> sessions = (Map<?, ?>) accessor.getPropertyValue("sessions");
+		Clock clock = this.store.getClock();
+
+		WebSession session = insertSession();
+		insertSession();
+
+		// Access the first session 20 minutes later
+		accessor.setPropertyValue("clock", Clock.offset(clock, Duration.ofMinutes(20)));
+		assertSame(session, this.store.retrieveSession(session.getId()).block());
+
+		// Only the second session expired 31 minutes later
+		accessor.setPropertyValue("clock", Clock.offset(clock, Duration.ofMinutes(31)));
+		insertSession();
+		assertEquals(2, sessions.size());
+		assertTrue(sessions.containsKey(session.getId()));
+
+		// The first session expired 51 minutes later
+		accessor.setPropertyValue("clock", Clock.offset(clock, Duration.ofMinutes(51)));
+		insertSession();
+		assertFalse(sessions.containsKey(session.getId()));
+		assertTrue(session.isExpired());
+	}
+
+	@Test
+	public void expirationCheckOnScheduler() {
+		List<Runnable> tasks = new ArrayList<>();
+		this.store.setExpirationScheduler(Schedulers.fromExecutor(tasks::add));
+
+		DirectFieldAccessor accessor = new DirectFieldAccessor(this.store);
+		Map<?,?> sessions = (Map<?, ?>) accessor.getPropertyValue("sessions");
+
+		IntStream.range(0, 100).forEach(i -> insertSession());
+		accessor.setPropertyValue("clock", Clock.offset(this.store.getClock(), Duration.ofMinutes(31)));
+		insertSession();
+		insertSession();
+		assertEquals(102, sessions.size());
+		assertEquals(1, tasks.size());
+
+		tasks.get(0).run();
+		assertEquals(2, sessions.size());
+	}
+
+	@Test
+	public void maxSessionsWithEviction() {
+		this.store.setMaxSessions(3);
+		this.store.setEvictOnMaxSessions(true);
+		DirectFieldAccessor accessor = new DirectFieldAccessor(this.store);
+		Map<?,?> sessions = (Map<?, ?>) accessor.getPropertyValue("sessions");
+		Clock clock = this.store.getClock();
+
+		WebSession session1 = insertSession();
+		accessor.setPropertyValue("clock", Clock.offset(clock, Duration.ofSeconds(5)));
+		WebSession session2 = insertSession();
+		accessor.setPropertyValue("clock", Clock.offset(clock, Duration.ofSeconds(10)));
+		WebSession session3 = insertSession();
+
+		// Access the first session, leaving the second one as least recently used
+		accessor.setPropertyValue("clock", Clock.offset(clock, Duration.ofSeconds(15)));
+		assertSame(session1, this.store.retrieveSession(session1.getId()).block());
+		WebSession session4 = insertSession();
+
+		assertEquals(3, sessions.size());
+		assertTrue(sessions.containsKey(session1.getId()));
+		assertFalse(sessions.containsKey(session2.getId()));
+		assertTrue(sessions.containsKey(session3.getId()));
+		assertTrue(sessions.containsKey(session4.getId()));
+		assertTrue(session2.isExpired());
+	}
+
 	private WebSession insertSession() {
 		WebSession session = this.store.createWebSession().block();
 		assertNotNull(session);
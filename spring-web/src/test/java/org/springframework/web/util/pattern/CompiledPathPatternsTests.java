@@ -0,0 +1,103 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.util.pattern;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import org.springframework.http.server.PathContainer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link CompiledPathPatterns}.
+ */
+public class CompiledPathPatternsTests {
+
+	private static final String[] PATTERNS = {"", "/", "/orders", "/orders/", "/orders/{id}",
+			"/orders/{id}/items", "/Orders/search/*", "/orders/**", "/{*rest}", "/orders/{*rest}",
+			"/orders/a*c", "/orders/x/y", "/api/orders/{id}.json", "orders", "/a//b", "/orders/{id:\\d+}"};
+
+	private static final String[] PATHS = {"", "/", "//", "/orders", "/orders/", "/ORDERS", "/orders/1",
+			"/orders/1/", "/orders/1/items", "/orders/1/items/", "/orders/search/x", "/ORDERS/SEARCH/x",
+			"/orders/abc", "/orders/x/y", "/orders/x/y/", "/api/orders/5.json", "orders", "/a//b", "/a/b",
+			"/orders;a=b/1", "/orders//1", "/foo/bar"};
+
+
+	@Test
+	public void matchesSameAsIndividualPatterns() {
+		for (boolean caseSensitive : new boolean[] {true, false}) {
+			for (boolean trailingSeparator : new boolean[] {true, false}) {
+				PathPatternParser parser = new PathPatternParser();
+				parser.setCaseSensitive(caseSensitive);
+				parser.setMatchOptionalTrailingSeparator(trailingSeparator);
+				List<PathPattern> patterns = new ArrayList<>();
+				for (String pattern : PATTERNS) {
+					patterns.add(parser.parse(pattern));
+				}
+				CompiledPathPatterns compiledPatterns = parser.compile(patterns);
+
+				for (String path : PATHS) {
+					PathContainer pathContainer = PathContainer.parsePath(path);
+					List<PathPattern> expected = new ArrayList<>();
+					for (PathPattern pattern : patterns) {
+						if (pattern.matches(pathContainer)) {
+							expected.add(pattern);
+						}
+					}
+					String message = "'" + path + "' [caseSensitive=" + caseSensitive +
+							", trailingSeparator=" + trailingSeparator + "]";
+					assertEquals(message, expected, compiledPatterns.getMatchingPatterns(pathContainer));
+					assertEquals(message, !expected.isEmpty(), compiledPatterns.matches(pathContainer));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void matchingPatternsInOriginalOrder() {
+		PathPatternParser parser = new PathPatternParser();
+		PathPattern pattern1 = parser.parse("/orders/**");
+		PathPattern pattern2 = parser.parse("/orders/{id}");
+		PathPattern pattern3 = parser.parse("/orders/42");
+		CompiledPathPatterns compiledPatterns = parser.compile(Arrays.asList(pattern1, pattern2, pattern3));
+
+		assertEquals(Arrays.asList(pattern1, pattern2, pattern3), compiledPatterns.getPatterns());
+		assertEquals(Arrays.asList(pattern1, pattern2, pattern3),
+				compiledPatterns.getMatchingPatterns(PathContainer.parsePath("/orders/42")));
+		assertEquals(Arrays.asList(pattern1, pattern2),
+				compiledPatterns.getMatchingPatterns(PathContainer.parsePath("/orders/43")));
+	}
+
+	@Test
+	public void patternsWithDifferentCaseSensitivity() {
+		PathPatternParser parser = new PathPatternParser();
+		PathPatternParser caseInsensitiveParser = new PathPatternParser();
+		caseInsensitiveParser.setCaseSensitive(false);
+		PathPattern pattern = caseInsensitiveParser.parse("/Orders/{id}");
+		CompiledPathPatterns compiledPatterns = parser.compile(Arrays.asList(parser.parse("/orders"), pattern));
+
+		assertTrue(compiledPatterns.matches(PathContainer.parsePath("/ORDERS/1")));
+		assertFalse(compiledPatterns.matches(PathContainer.parsePath("/ORDERS")));
+	}
+
+}
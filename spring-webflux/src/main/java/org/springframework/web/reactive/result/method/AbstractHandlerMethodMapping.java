@@ -19,16 +19,21 @@ package org.springframework.web.reactive.result.method;
 import org.springframework.aop.support.AopUtils;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.core.MethodIntrospector;
+import org.springframework.http.server.PathContainer;
 import org.springframework.http.server.RequestPath;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.reactive.CorsUtils;
 import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.reactive.HandlerMapping;
 import org.springframework.web.reactive.handler.AbstractHandlerMapping;
 import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.CompiledPathPatterns;
+import org.springframework.web.util.pattern.PathPattern;
 import reactor.core.publisher.Mono;
 
 import java.lang.reflect.Method;
@@ -85,8 +90,33 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
      */
 	private final MappingRegistry mappingRegistry = new MappingRegistry();
 
+	private boolean useCompiledPathPatterns = false;
+
 	// TODO: handlerMethodMappingNamingStrategy
 
+	/**
+	 * Whether to compile the path patterns of all mappings into a single matcher
+	 * in order to find the mappings to check for a request.
+	 * <p>By default this is set to "false", in which case all registered mappings
+	 * are checked for every request. When switched on, the patterns returned from
+	 * {@link #getMappingPathPatterns} are compiled via
+	 * {@link org.springframework.web.util.pattern.PathPatternParser#compile} and
+	 * matched against the lookup path in a single pass, and only the mappings
+	 * with a matching pattern, along with mappings without patterns, are checked.
+	 * @since 5.2
+	 */
+	public void setUseCompiledPathPatterns(boolean useCompiledPathPatterns) {
+		this.useCompiledPathPatterns = useCompiledPathPatterns;
+	}
+
+	/**
+	 * Whether compiled path patterns are used to look up mappings.
+	 * @since 5.2
+	 */
+	public boolean isUseCompiledPathPatterns() {
+		return this.useCompiledPathPatterns;
+	}
+
 	/**
 	 * Return a (read-only) map with all mappings and HandlerMethod's.
 	 */
@@ -316,7 +346,13 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 	protected HandlerMethod lookupHandlerMethod(ServerWebExchange exchange) throws Exception {
 	    // 将当前请求和注册表中的 Mapping 进行匹配。若匹配成功，则生成 Mapping 记录，添加到 matches 中
 		List<Match> matches = new ArrayList<>();
-		addMatchingMappings(this.mappingRegistry.getMappings().keySet(), matches, exchange);
+		if (this.useCompiledPathPatterns) {
+			PathContainer lookupPath = exchange.getRequest().getPath().pathWithinApplication();
+			addMatchingMappings(this.mappingRegistry.getMappingsByPath(lookupPath), matches, exchange);
+		}
+		else {
+			addMatchingMappings(this.mappingRegistry.getMappings().keySet(), matches, exchange);
+		}
 
 		// 如果匹配到，则获取最佳匹配的 Match 对象的 handlerMethod 属性
 		if (!matches.isEmpty()) {
@@ -441,6 +477,18 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 	 */
 	protected abstract Comparator<T> getMappingComparator(ServerWebExchange exchange);
 
+	/**
+	 * Extract and return the path patterns contained in a mapping, for use with
+	 * {@link #setUseCompiledPathPatterns compiled path patterns}. A mapping
+	 * without patterns is checked for every request.
+	 * <p>The default implementation returns an empty set.
+	 * @param mapping the mapping to get the patterns for
+	 * @since 5.2
+	 */
+	protected Set<PathPattern> getMappingPathPatterns(T mapping) {
+		return Collections.emptySet();
+	}
+
 	/**
 	 * A registry that maintains all mappings to handler methods, exposing methods
 	 * to perform lookups and providing concurrent access.
@@ -468,6 +516,13 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
          */
 		private final Map<HandlerMethod, CorsConfiguration> corsLookup = new ConcurrentHashMap<>();
 
+		private final MultiValueMap<PathPattern, T> patternLookup = new LinkedMultiValueMap<>();
+
+		private final Set<T> mappingsWithoutPatterns = new LinkedHashSet<>();
+
+		@Nullable
+		private volatile CompiledPathPatterns compiledPatterns;
+
         /**
          * 读写锁
          */
@@ -481,6 +536,25 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 			return this.mappingLookup;
 		}
 
+		/**
+		 * Return the mappings with a path pattern matching the given lookup path,
+		 * along with mappings without path patterns. Not thread-safe.
+		 * @see #acquireReadLock()
+		 */
+		public Collection<T> getMappingsByPath(PathContainer lookupPath) {
+			CompiledPathPatterns compiledPatterns = this.compiledPatterns;
+			if (compiledPatterns == null) {
+				// Compiled lazily, with registrations excluded through the read lock
+				compiledPatterns = getPathPatternParser().compile(this.patternLookup.keySet());
+				this.compiledPatterns = compiledPatterns;
+			}
+			Set<T> result = new LinkedHashSet<>(this.mappingsWithoutPatterns);
+			for (PathPattern pattern : compiledPatterns.getMatchingPatterns(lookupPath)) {
+				result.addAll(this.patternLookup.get(pattern));
+			}
+			return result;
+		}
+
 		/**
          * TODO 1012 cors
          *
@@ -520,6 +594,15 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 				// 添加 mapping + HandlerMethod 到 mappingLookup 中
 				this.mappingLookup.put(mapping, handlerMethod);
 
+				Set<PathPattern> patterns = getMappingPathPatterns(mapping);
+				if (patterns.isEmpty()) {
+					this.mappingsWithoutPatterns.add(mapping);
+				}
+				for (PathPattern pattern : patterns) {
+					this.patternLookup.add(pattern, mapping);
+				}
+				this.compiledPatterns = null;
+
 				// TODO 1012 cors
 				CorsConfiguration corsConfig = initCorsConfiguration(handler, method, mapping);
 				if (corsConfig != null) {
@@ -555,6 +638,19 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 				}
 				// 从 mappingLookup 中移除
 				this.mappingLookup.remove(definition.getMapping());
+
+				this.mappingsWithoutPatterns.remove(definition.getMapping());
+				for (PathPattern pattern : getMappingPathPatterns(definition.getMapping())) {
+					List<T> mappings = this.patternLookup.get(pattern);
+					if (mappings != null) {
+						mappings.remove(definition.getMapping());
+						if (mappings.isEmpty()) {
+							this.patternLookup.remove(pattern);
+						}
+					}
+				}
+				this.compiledPatterns = null;
+
 				// 从 corsLookup 中移除
 				this.corsLookup.remove(definition.getHandlerMethod());
 			} finally {
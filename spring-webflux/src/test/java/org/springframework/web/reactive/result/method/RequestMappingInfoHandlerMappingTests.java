@@ -134,6 +134,34 @@ public class RequestMappingInfoHandlerMappingTests {
 				ex -> assertEquals(EnumSet.of(HttpMethod.GET, HttpMethod.HEAD), ex.getSupportedMethods()));
 	}
 
+	@Test
+	public void getHandlerWithCompiledPathPatterns() {
+		TestRequestMappingInfoHandlerMapping compiledMapping = new TestRequestMappingInfoHandlerMapping();
+		compiledMapping.setUseCompiledPathPatterns(true);
+		compiledMapping.registerHandler(new TestController());
+		compiledMapping.registerHandler(new HotelController());
+		this.handlerMapping.registerHandler(new HotelController());
+
+		for (String path : Arrays.asList("", "/", "/foo", "/bar", "/baz", "/hotels/new", "/hotels/42", "/hotels/42/",
+				"/hotels/42/bookings/7", "/hotels/42/rooms", "/hotels/42/reviews/good", "/files/a/b.txt", "/none")) {
+
+			ServerWebExchange expectedExchange = MockServerWebExchange.from(get(path));
+			HandlerMethod expected = (HandlerMethod) this.handlerMapping.getHandler(expectedExchange).block();
+			ServerWebExchange exchange = MockServerWebExchange.from(get(path));
+			HandlerMethod actual = (HandlerMethod) compiledMapping.getHandler(exchange).block();
+
+			if (expected == null) {
+				assertNull(path, actual);
+				continue;
+			}
+			assertNotNull(path, actual);
+			assertEquals(path, expected.getMethod(), actual.getMethod());
+			assertEquals(path, getUriTemplateVariables(expectedExchange), getUriTemplateVariables(exchange));
+			assertEquals(path, expectedExchange.<Object>getAttribute(BEST_MATCHING_PATTERN_ATTRIBUTE),
+					exchange.getAttribute(BEST_MATCHING_PATTERN_ATTRIBUTE));
+		}
+	}
+
 	@Test  // SPR-9603
 	public void getHandlerRequestMethodMatchFalsePositive() {
 		ServerWebExchange exchange = MockServerWebExchange.from(get("/users").accept(MediaType.APPLICATION_XML));
@@ -435,6 +463,36 @@ public class RequestMappingInfoHandlerMappingTests {
 	}
 
 
+	@SuppressWarnings("unused")
+	@Controller
+	private static class HotelController {
+
+		@GetMapping("/hotels/new")
+		public void newHotel() {
+		}
+
+		@GetMapping("/hotels/{hotel}")
+		public void hotel() {
+		}
+
+		@GetMapping("/hotels/{hotel}/bookings/{booking}")
+		public void booking() {
+		}
+
+		@GetMapping("/hotels/{hotel}/**")
+		public void hotelResources() {
+		}
+
+		@GetMapping("/ho*/{hotel}/rooms")
+		public void rooms() {
+		}
+
+		@GetMapping("/files/{*path}")
+		public void file() {
+		}
+	}
+
+
 	@SuppressWarnings("unused")
 	@Controller
 	private static class UserController {
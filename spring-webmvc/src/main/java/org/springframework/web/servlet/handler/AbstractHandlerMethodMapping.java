@@ -25,6 +25,7 @@ import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
+import org.springframework.util.StringUtils;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsUtils;
 import org.springframework.web.method.HandlerMethod;
@@ -88,6 +89,8 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 	@Nullable
 	private HandlerMethodMappingNamingStrategy<T> namingStrategy;
 
+	private boolean usePathPrefixIndex = false;
+
     /**
      * Mapping 注册表
      */
@@ -125,6 +128,33 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 		return this.namingStrategy;
 	}
 
+	/**
+	 * Whether to narrow down the mappings to check for a lookup path through an
+	 * index of the leading literal segments of their path patterns.
+	 * <p>By default this is set to "false", in which case all registered mappings
+	 * are checked when there is no direct URL match for the lookup path. When
+	 * switched on, only mappings with patterns whose leading literal segments are
+	 * also leading segments of the lookup path are checked, e.g. a mapping for
+	 * "/orders/{id}/items" is only considered for lookup paths starting with
+	 * "/orders/", which keeps the lookup cost independent of the total number
+	 * of mappings.
+	 * <p>The index assumes case-sensitive matching of "/"-separated path patterns
+	 * as performed by the default {@link org.springframework.util.AntPathMatcher},
+	 * and that {@link #getMappingPathPatterns} returns all patterns of a mapping.
+	 * @since 5.2
+	 */
+	public void setUsePathPrefixIndex(boolean usePathPrefixIndex) {
+		this.usePathPrefixIndex = usePathPrefixIndex;
+	}
+
+	/**
+	 * Whether the path prefix index is used to look up pattern mappings.
+	 * @since 5.2
+	 */
+	public boolean isUsePathPrefixIndex() {
+		return this.usePathPrefixIndex;
+	}
+
 	/**
 	 * Return a (read-only) map with all mappings and HandlerMethod's.
 	 */
@@ -385,8 +415,13 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 		}
 		// 其次，扫描注册表的 Mapping 们，进行匹配
 		if (matches.isEmpty()) {
-			// No choice but to go through all mappings...
-			addMatchingMappings(this.mappingRegistry.getMappings().keySet(), matches, request);
+			if (this.usePathPrefixIndex) {
+				addMatchingMappings(this.mappingRegistry.getMappingsByPathPrefix(lookupPath), matches, request);
+			}
+			else {
+				// No choice but to go through all mappings...
+				addMatchingMappings(this.mappingRegistry.getMappings().keySet(), matches, request);
+			}
 		}
 
 		// 如果匹配到，则获取最佳匹配的 Match 对象的 handlerMethod 属性
@@ -553,6 +588,8 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
          */
 		private final MultiValueMap<String, T> urlLookup = new LinkedMultiValueMap<>();
 
+		private final PathPrefixIndex<T> pathPrefixIndex = new PathPrefixIndex<>();
+
         /**
          * Mapping 的名字与 HandlerMethod 的映射
          *
@@ -588,6 +625,15 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 			return this.urlLookup.get(urlPath);
 		}
 
+		/**
+		 * Return the mappings whose path patterns may match the given URL path,
+		 * based on the leading literal segments of their patterns. Not thread-safe.
+		 * @see #acquireReadLock()
+		 */
+		public Collection<T> getMappingsByPathPrefix(String urlPath) {
+			return this.pathPrefixIndex.getCandidates(urlPath);
+		}
+
 		/**
 		 * Return handler methods by mapping name. Thread-safe for concurrent use.
 		 */
@@ -634,6 +680,7 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 				for (String url : directUrls) {
 					this.urlLookup.add(url, mapping);
 				}
+				this.pathPrefixIndex.add(mapping, getMappingPathPatterns(mapping));
 
 				// 初始化 nameLookup
 				String name = null;
@@ -724,6 +771,7 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 						}
 					}
 				}
+				this.pathPrefixIndex.remove(definition.getMapping(), getMappingPathPatterns(definition.getMapping()));
 
 				// 从 nameLookup 移除
 				removeMappingName(definition);
@@ -818,6 +866,97 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 	}
 
 
+	/**
+	 * A trie over the leading literal segments of mapping path patterns, used to
+	 * narrow down the mappings to check for a lookup path. A mapping is indexed
+	 * under the literal segments each of its patterns starts with, excluding the
+	 * last segment which may be matched through suffix pattern or trailing slash
+	 * matching. Mappings without patterns or with a leading wildcard are kept at
+	 * the root and therefore checked for every lookup path.
+	 */
+	private static class PathPrefixIndex<T> {
+
+		private final Node<T> root = new Node<>();
+
+		public void add(T mapping, Set<String> patterns) {
+			if (patterns.isEmpty()) {
+				this.root.addMapping(mapping);
+				return;
+			}
+			for (String pattern : patterns) {
+				Node<T> node = this.root;
+				for (String segment : getLiteralPrefix(pattern)) {
+					node = node.children.computeIfAbsent(segment, key -> new Node<>());
+				}
+				node.addMapping(mapping);
+			}
+		}
+
+		public void remove(T mapping, Set<String> patterns) {
+			if (patterns.isEmpty()) {
+				this.root.mappings.remove(mapping);
+				return;
+			}
+			for (String pattern : patterns) {
+				removeMapping(this.root, getLiteralPrefix(pattern), 0, mapping);
+			}
+		}
+
+		private boolean removeMapping(Node<T> node, List<String> prefix, int index, T mapping) {
+			if (index == prefix.size()) {
+				node.mappings.remove(mapping);
+			}
+			else {
+				Node<T> child = node.children.get(prefix.get(index));
+				if (child != null && removeMapping(child, prefix, index + 1, mapping)) {
+					node.children.remove(prefix.get(index));
+				}
+			}
+			return (node.mappings.isEmpty() && node.children.isEmpty());
+		}
+
+		public Collection<T> getCandidates(String lookupPath) {
+			Set<T> candidates = new LinkedHashSet<>(this.root.mappings);
+			Node<T> node = this.root;
+			for (String segment : StringUtils.tokenizeToStringArray(lookupPath, "/", false, true)) {
+				node = node.children.get(segment);
+				if (node == null) {
+					break;
+				}
+				candidates.addAll(node.mappings);
+			}
+			return candidates;
+		}
+
+		private static List<String> getLiteralPrefix(String pattern) {
+			String[] segments = StringUtils.tokenizeToStringArray(pattern, "/", false, true);
+			List<String> prefix = new ArrayList<>(segments.length);
+			for (int i = 0; i < segments.length - 1 && isLiteral(segments[i]); i++) {
+				prefix.add(segments[i]);
+			}
+			return prefix;
+		}
+
+		private static boolean isLiteral(String segment) {
+			return (segment.indexOf('*') == -1 && segment.indexOf('?') == -1 && segment.indexOf('{') == -1);
+		}
+
+
+		private static class Node<T> {
+
+			private final Map<String, Node<T>> children = new HashMap<>();
+
+			private final List<T> mappings = new ArrayList<>(1);
+
+			public void addMapping(T mapping) {
+				if (!this.mappings.contains(mapping)) {
+					this.mappings.add(mapping);
+				}
+			}
+		}
+	}
+
+
 	/**
 	 * A thin wrapper around a matched HandlerMethod and its mapping, for the purpose of
 	 * comparing the best match with a comparator in the context of the current request.
@@ -229,6 +229,35 @@ public class RequestMappingInfoHandlerMappingTests {
 		assertNull("Negated expression shouldn't be listed as producible type", request.getAttribute(name));
 	}
 
+	@Test
+	public void getHandlerWithPathPrefixIndex() throws Exception {
+		this.handlerMapping.setUsePathPrefixIndex(true);
+		this.handlerMapping.registerHandler(new OrderController());
+
+		HandlerMethod handlerMethod = getHandler(new MockHttpServletRequest("GET", "/orders/42"));
+		assertEquals("order", handlerMethod.getMethod().getName());
+
+		handlerMethod = getHandler(new MockHttpServletRequest("GET", "/orders/42/items/7"));
+		assertEquals("orderItem", handlerMethod.getMethod().getName());
+
+		handlerMethod = getHandler(new MockHttpServletRequest("GET", "/orders/42/items/7.json"));
+		assertEquals("orderItem", handlerMethod.getMethod().getName());
+
+		handlerMethod = getHandler(new MockHttpServletRequest("GET", "/orders/search/recent/"));
+		assertEquals("searchOrders", handlerMethod.getMethod().getName());
+
+		handlerMethod = getHandler(new MockHttpServletRequest("GET", "/bar"));
+		assertEquals(this.barMethod.getMethod(), handlerMethod.getMethod());
+
+		assertNull(this.handlerMapping.getHandler(new MockHttpServletRequest("GET", "/invoices/42")));
+
+		RequestMappingInfo orderMapping = this.handlerMapping.getHandlerMethods().entrySet().stream()
+				.filter(entry -> entry.getValue().getMethod().getName().equals("order"))
+				.findFirst().get().getKey();
+		this.handlerMapping.unregisterMapping(orderMapping);
+		assertNull(this.handlerMapping.getHandler(new MockHttpServletRequest("GET", "/orders/42")));
+	}
+
 	@Test
 	public void getHandlerMappedInterceptors() throws Exception {
 		String path = "/foo";
@@ -521,6 +550,24 @@ public class RequestMappingInfoHandlerMappingTests {
 	}
 
 
+	@SuppressWarnings("unused")
+	@Controller
+	private static class OrderController {
+
+		@RequestMapping(value = "/orders/{id}", method = RequestMethod.GET)
+		public void order() {
+		}
+
+		@RequestMapping(value = "/orders/{id}/items/{itemId}", method = RequestMethod.GET)
+		public void orderItem() {
+		}
+
+		@RequestMapping(value = "/orders/search/*", method = RequestMethod.GET)
+		public void searchOrders() {
+		}
+	}
+
+
 	private static class TestRequestMappingInfoHandlerMapping extends RequestMappingInfoHandlerMapping {
 
 		public void registerHandler(Object handler) {